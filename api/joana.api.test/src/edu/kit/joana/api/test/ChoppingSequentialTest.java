@@ -7,11 +7,14 @@
  */
 package edu.kit.joana.api.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.Test;
@@ -20,10 +23,14 @@ import com.ibm.wala.ipa.cha.ClassHierarchyException;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
 
+import edu.kit.joana.api.lattice.BuiltinLattices;
 import edu.kit.joana.api.sdg.SDGConfig;
 import edu.kit.joana.api.sdg.SDGProgram;
 import edu.kit.joana.api.test.util.ApiTestException;
 import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.core.ChoppingBasedIFC;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
@@ -41,6 +48,7 @@ import edu.kit.joana.wala.core.SDGBuilder.PointsToPrecision;
 public class ChoppingSequentialTest {
 	private static final int srceSize = 3;
 	private static final int sinkSize = 3;
+	private static final int annotatedSize = 20;
 	
 	private static final boolean chopsEqualFor(SDG sdg) {
 		final RepsRosayChopper    reps = new RepsRosayChopper(sdg);
@@ -51,6 +59,37 @@ public class ChoppingSequentialTest {
 		
 		return reps.chop(sources, sinks).equals(nslv.chop(sources, sinks));
 	}
+	/*
+	 * the parallel, prefiltered check must report the same violations in the same order as the sequential check
+	 * of all pairs, also when the same object checks twice
+	 */
+	private static final void testParallelIFCEqualFor(SDG sdg) {
+		final Random r = new Random(42);
+		for (SDGNode n : sdg.getNRandomNodes(annotatedSize, r)) {
+			((SecurityNode) n).setProvided(BuiltinLattices.STD_SECLEVEL_HIGH);
+		}
+		for (SDGNode n : sdg.getNRandomNodes(annotatedSize, r)) {
+			final SecurityNode sn = (SecurityNode) n;
+			if (!sn.isInformationSource()) {
+				sn.setRequired(BuiltinLattices.STD_SECLEVEL_LOW);
+			}
+		}
+
+		final List<ClassifiedViolation> sequential = new ArrayList<ClassifiedViolation>(
+				new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(), new RepsRosayChopper(sdg)).checkIFlow());
+		try (final ChoppingBasedIFC prefiltered = new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(),
+				RepsRosayChopper::new, 1)) {
+			assertEquals(sequential, new ArrayList<ClassifiedViolation>(prefiltered.checkIFlow()));
+		}
+		try (final ChoppingBasedIFC parallel = new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(),
+				RepsRosayChopper::new, 4)) {
+			assertEquals(sequential, new ArrayList<ClassifiedViolation>(parallel.checkIFlow()));
+			assertEquals(sequential, new ArrayList<ClassifiedViolation>(parallel.checkIFlow()));
+			parallel.setPrefiltered(false);
+			assertEquals(sequential, new ArrayList<ClassifiedViolation>(parallel.checkIFlow()));
+		}
+	}
+
 	public static SDG build(final String className) throws ApiTestException {
 		return build(className, PointsToPrecision.INSTANCE_BASED, ExceptionAnalysis.INTRAPROC);
 	}
@@ -88,6 +127,7 @@ public class ChoppingSequentialTest {
 		try {
 			final SDG sdg = build(className, pts, exc);
 			assertTrue(chopsEqualFor(sdg));
+			testParallelIFCEqualFor(sdg);
 		} catch (ApiTestException e) {
 			e.printStackTrace();
 			fail(e.getMessage());
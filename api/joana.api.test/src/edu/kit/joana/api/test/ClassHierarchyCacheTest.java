@@ -0,0 +1,149 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.wala.classLoader.IClass;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.callgraph.IAnalysisCacheView;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ssa.IR;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.types.TypeReference;
+
+import edu.kit.joana.api.sdg.ClassHierarchyCache;
+import edu.kit.joana.api.sdg.SDGBuildPreparation;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.util.SharedIRCache;
+
+/**
+ * Checks that the {@link ClassHierarchyCache} returns the cached class hierarchy as long as the class files on its
+ * class path do not change, and that a view of its {@link SharedIRCache} keeps the IRs it has handed out even if the
+ * shared cache evicts them.
+ */
+public class ClassHierarchyCacheTest {
+
+	private static final String PACKAGE = "joana/api/testdata/demo";
+
+	@Rule
+	public final TemporaryFolder classPath = new TemporaryFolder();
+
+	private SDGBuildPreparation.Config config;
+
+	/* a class path directory of its own, so the test can modify its class files */
+	@Before
+	public void copyClassFiles() throws IOException {
+		final File target = classPath.newFolder(PACKAGE.split("/"));
+		for (File f : new File(JoanaPath.JOANA_API_TEST_DATA_CLASSPATH, PACKAGE).listFiles()) {
+			if (f.getName().endsWith(".class")) {
+				Files.copy(f.toPath(), new File(target, f.getName()).toPath());
+			}
+		}
+		config = SDGProgram.makeBuildPreparationConfig(new SDGConfig(classPath.getRoot().getAbsolutePath(),
+				JavaMethodSignature.mainMethodOfClass(joana.api.testdata.demo.SequentialLeaks.class.getName())
+						.toBCString(), Stubs.JRE_15));
+	}
+
+	private static PrintStream log() {
+		return new PrintStream(new ByteArrayOutputStream());
+	}
+
+	private static List<IMethod> methods(ClassHierarchyCache.Entry entry) {
+		final IClass cls = entry.getClassHierarchy().lookupClass(TypeReference.findOrCreate(
+				ClassLoaderReference.Application, "L" + PACKAGE + "/SequentialLeaks"));
+		assertNotNull(cls);
+		final List<IMethod> methods = new ArrayList<IMethod>();
+		for (IMethod m : cls.getDeclaredMethods()) {
+			if (!m.isAbstract() && !m.isNative()) {
+				methods.add(m);
+			}
+		}
+		assertTrue(methods.size() >= 2);
+		return methods;
+	}
+
+	@Test
+	public void testHit() throws IOException, ClassHierarchyException {
+		final ClassHierarchyCache cache = new ClassHierarchyCache(2, SharedIRCache.DEFAULT_MAX_ENTRIES);
+		final ClassHierarchyCache.Entry entry = cache.get(log(), config);
+		assertSame(entry, cache.get(log(), config));
+		assertEquals(1, cache.size());
+
+		final IMethod method = methods(entry).get(0);
+		final SharedIRCache irs = entry.getIRCache();
+		final IR ir = irs.newView().getIR(method);
+		assertSame(ir, irs.newView().getIR(method));
+		assertEquals(1, irs.getMisses());
+		assertEquals(1, irs.getHits());
+	}
+
+	@Test
+	public void testInvalidation() throws IOException, ClassHierarchyException {
+		final ClassHierarchyCache cache = new ClassHierarchyCache(2, SharedIRCache.DEFAULT_MAX_ENTRIES);
+		final ClassHierarchyCache.Entry entry = cache.get(log(), config);
+
+		final File classFile = new File(classPath.getRoot(), PACKAGE + "/SequentialLeaks.class");
+		long newest = 0;
+		for (File f : classFile.getParentFile().listFiles()) {
+			newest = Math.max(newest, f.lastModified());
+		}
+		assertTrue(classFile.setLastModified(newest + 10000));
+
+		final ClassHierarchyCache.Entry changed = cache.get(log(), config);
+		assertNotSame(entry, changed);
+		assertSame(changed, cache.get(log(), config));
+	}
+
+	@Test
+	public void testPinning() throws IOException, ClassHierarchyException {
+		// the shared cache keeps a single ir
+		final ClassHierarchyCache cache = new ClassHierarchyCache(1, 1);
+		final ClassHierarchyCache.Entry entry = cache.get(log(), config);
+		final List<IMethod> methods = methods(entry);
+		final IMethod first = methods.get(0);
+		final IMethod second = methods.get(1);
+		final IAnalysisCacheView view = entry.getIRCache().newView();
+		final IAnalysisCacheView other = entry.getIRCache().newView();
+
+		final IR ir = view.getIR(first);
+		// evicts the ir of the first method from the shared cache
+		other.getIR(second);
+		final IR rebuilt = other.getIR(first);
+		assertNotSame(ir, rebuilt);
+
+		// the first view still uses the ir it has handed out, with its own def-use information
+		assertSame(ir, view.getIR(first));
+		assertSame(view.getDefUse(ir), view.getDefUse(ir));
+
+		// until it is cleared
+		view.clear();
+		assertSame(rebuilt, view.getIR(first));
+	}
+}
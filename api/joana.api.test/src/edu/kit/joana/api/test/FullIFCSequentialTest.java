@@ -23,6 +23,7 @@ import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
 
 import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.IFCType;
 import edu.kit.joana.api.lattice.BuiltinLattices;
 import edu.kit.joana.api.sdg.SDGConfig;
 import edu.kit.joana.api.sdg.SDGProgram;
@@ -31,6 +32,7 @@ import edu.kit.joana.api.test.util.ApiTestException;
 import edu.kit.joana.api.test.util.JoanaPath;
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.ViolationCollector;
 import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
 import edu.kit.joana.util.Stubs;
 import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
@@ -93,12 +95,39 @@ public class FullIFCSequentialTest {
 		Collection<? extends IViolation<SecurityNode>> illegal = ana.doIFC();
 		assertFalse(illegal.isEmpty());
 		assertEquals(leaks, illegal.size());
+		testSinks(ana, leaks);
 	}
 
 	private static void testPrecision(IFCAnalysis ana) {
 		Collection<? extends IViolation<SecurityNode>> illegal = ana.doIFC();
 		assertTrue(illegal.isEmpty());
 		assertEquals(0, illegal.size());
+		testSinks(ana, 0);
+	}
+
+	/*
+	 * a sink without limit receives all violations, a sink with a limit stops the check as soon as it is reached
+	 */
+	private static void testSinks(IFCAnalysis ana, int leaks) {
+		assertEquals(leaks == 0, ana.isSecure(IFCType.CLASSICAL_NI));
+
+		ViolationCollector<SecurityNode> all = new ViolationCollector<SecurityNode>();
+		assertTrue(ana.doIFC(IFCType.CLASSICAL_NI, all));
+		assertEquals(leaks, all.getViolations().size());
+		assertFalse(all.isLimitReached());
+
+		for (int limit = 1; limit <= leaks; limit++) {
+			ViolationCollector<SecurityNode> some = new ViolationCollector<SecurityNode>(limit);
+			// the sink stops the check also if the last violation reaches the limit
+			assertFalse(ana.doIFC(IFCType.CLASSICAL_NI, some));
+			assertEquals(limit, some.getViolations().size());
+			assertTrue(some.isLimitReached());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testViolationCollectorWithoutLimit() {
+		new ViolationCollector<SecurityNode>(0);
 	}
 
 	@Test
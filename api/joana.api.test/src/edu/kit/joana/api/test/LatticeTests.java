@@ -8,6 +8,8 @@
 package edu.kit.joana.api.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -17,6 +19,7 @@ import org.junit.Test;
 
 import edu.kit.joana.ifc.sdg.lattice.IEditableLattice;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.LatticeUtil;
 import edu.kit.joana.ifc.sdg.lattice.WrongLatticeDefinitionException;
 
@@ -180,6 +183,51 @@ public class LatticeTests {
 		test(latticeE, latticeB, tests);
 	}
 
+	/*
+	 * the int representation must agree with the lattice it has been converted from on all pairs of elements
+	 */
+	private void testIntLattice(String lattice) throws WrongLatticeDefinitionException {
+		IStaticLattice<String> latticeB = LatticeUtil.compileBitsetLattice(LatticeUtil.loadLattice(lattice));
+		IntLattice latticeI = IntLattice.of(latticeB);
+		assertSame(latticeI, IntLattice.of(latticeI));
+		assertEquals(latticeB.getElements().size(), latticeI.size());
+		assertEquals(latticeB.getTop(), latticeI.getTop());
+		assertEquals(latticeB.getBottom(), latticeI.getBottom());
+		assertEquals(latticeI.getTopId(), latticeI.getId(latticeB.getTop()));
+		assertEquals(latticeI.getBottomId(), latticeI.getId(latticeB.getBottom()));
+		assertEquals(IntLattice.UNDEFINED, latticeI.getId(null));
+		assertNull(latticeI.getLevel(IntLattice.UNDEFINED));
+
+		for (String e1 : latticeB.getElements()) {
+			int id1 = latticeI.getId(e1);
+			assertEquals(e1, latticeI.getLevel(id1));
+			for (String e2 : latticeB.getElements()) {
+				int id2 = latticeI.getId(e2);
+				String glb = latticeB.greatestLowerBound(e1, e2);
+				String lub = latticeB.leastUpperBound(e1, e2);
+				assertEquals(glb, latticeI.greatestLowerBound(e1, e2));
+				assertEquals(lub, latticeI.leastUpperBound(e1, e2));
+				assertEquals(glb, latticeI.getLevel(latticeI.greatestLowerBound(id1, id2)));
+				assertEquals(lub, latticeI.getLevel(latticeI.leastUpperBound(id1, id2)));
+				assertEquals(latticeB.isLeq(e1, e2), latticeI.isLeq(e1, e2));
+				assertEquals(latticeB.isLeq(e1, e2), latticeI.isLeq(id1, id2));
+			}
+		}
+	}
+
+	@Test
+	public void testIntLattices() throws WrongLatticeDefinitionException {
+		testIntLattice("LH");
+		testIntLattice("L <= A\nL <= B\nA <= C\nB <= C\nC <= H\n");
+		testIntLattice("L <= A\nA <= B\nA <= C\nB <= H\nC <= H\n");
+		testIntLattice(linearLattice(2));
+		testIntLattice(linearLattice(70));
+		testIntLattice(chainsLattice(4, 3));
+		testIntLattice(powerSetLattice(4));
+		testIntLattice(chainsLattice(10, 10));
+		testIntLattice(powerSetLattice(6));
+	}
+
 	@Test
 	public void testSingleElementLattice() throws WrongLatticeDefinitionException {
 		IEditableLattice<String> latticeE = LatticeUtil.loadLattice(
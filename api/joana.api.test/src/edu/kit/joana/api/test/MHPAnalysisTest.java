@@ -145,7 +145,7 @@ public class MHPAnalysisTest {
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
 		SDGNode p1 = getStringPrintInMethod(ana, "DataConflictRWBenign$Thread1.run()V");
 		SDGNode p2 = getStringPrintInMethod(ana, "DataConflictRWBenign$Thread2.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkSoundness(mhp, p1, p2);
 		}
 	}
@@ -156,7 +156,7 @@ public class MHPAnalysisTest {
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
 		SDGNode n = getAssignmentInMethod(ana, "DataConflictRW$Thread1.run()V", "DataConflictRW.x");
 		SDGNode p = getIntPrintInMethod(ana, "DataConflictRW$Thread2.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, n, p);
 		}
 	}
@@ -168,7 +168,7 @@ public class MHPAnalysisTest {
 		SDGNode n = getAssignmentInMethod(ana, "DataConflictRWNoMHP.main([Ljava/lang/String;)V",
 											"DataConflictRWNoMHP.x");
 		SDGNode p = getIntPrintInMethod(ana, "DataConflictRWNoMHP$Thread2.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, n, p);
 		}
 	}
@@ -180,7 +180,7 @@ public class MHPAnalysisTest {
 		SDGNode p = getIntPrintInMethod(ana, "NoDataConflictRWNoMHP$Thread2.run()V");
 		SDGNode n = getAssignmentInMethod(ana, "NoDataConflictRWNoMHP.main([Ljava/lang/String;)V",
 											"NoDataConflictRWNoMHP.x");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, n, p);
 		}
 	}
@@ -195,7 +195,7 @@ public class MHPAnalysisTest {
 		SDGNode p2 = getStringPrintInMethod(ana, "SequentialSpawn$Thread2.run()V");
 		SDGNode my = getAssignmentInMethod(ana, "SequentialSpawn.main([Ljava/lang/String;)V",
 												"SequentialSpawn.y");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, mx, p1);
 			checkPrecision(mhp, mx, p2);
 			checkPrecision(mhp, mx, my);
@@ -213,7 +213,7 @@ public class MHPAnalysisTest {
 		SDGNode p2 = getStringPrintInMethod(ana, "BranchedSpawn$Thread2.run()V");
 		SDGNode p3 = getStringPrintInMethod(ana, "BranchedSpawn$Thread3.run()V");
 		SDGNode p4 = getStringPrintInMethod(ana, "BranchedSpawn$Thread4.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkSoundness(mhp, p1, p2);
 			checkPrecision(mhp, p1, p3);
 			checkSoundness(mhp, p1, p4);
@@ -229,7 +229,7 @@ public class MHPAnalysisTest {
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
 		SDGNode p2 = getStringPrintInMethod(ana, "BranchedSpawnTwoThreads$Thread2.run()V");
 		SDGNode p3 = getStringPrintInMethod(ana, "BranchedSpawnTwoThreads$Thread3.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, p2, p3);
 		}
 	}
@@ -244,7 +244,7 @@ public class MHPAnalysisTest {
 		SDGNode p3 = getStringPrintInMethod(ana, "BothBranchesSpawn$Thread3.run()V");
 		SDGNode p4 = getStringPrintInMethod(ana, "BothBranchesSpawn$Thread4.run()V");
 		SDGNode pi = getIntPrintInMethod(ana, "BothBranchesSpawn.main([Ljava/lang/String;)V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkPrecision(mhp, p1, p1);
 			checkSoundness(mhp, p1, p2);
 			checkSoundness(mhp, p1, ps);
@@ -277,7 +277,7 @@ public class MHPAnalysisTest {
 		SDGNode p2 = getStringPrintInMethod(ana, "DynamicSpawn$Thread2.run()V");
 		SDGNode p3 = getStringPrintInMethod(ana, "DynamicSpawn$Thread3.run()V");
 		SDGNode p4 = getStringPrintInMethod(ana, "DynamicSpawn$Thread4.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkSoundness(mhp, p1, p1);
 			checkSoundness(mhp, p1, p2);
 			checkSoundness(mhp, p1, p3);
@@ -324,7 +324,7 @@ public class MHPAnalysisTest {
 		SDGNode p3 = pair3.getFirst();
 		SDGNode p3a = pair3.getSecond();
 		SDGNode p4 = getStringPrintInMethod(ana, "MoreRecursiveSpawn$Thread4.run()V");
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			checkSoundness(mhp, p1, p1);
 			checkSoundness(mhp, p1, p2);
 			checkSoundness(mhp, p1, p2a);
@@ -389,7 +389,7 @@ public class MHPAnalysisTest {
 	public void testMutualRecursiveSpawn() {
 		SDG sdg = buildOrLoad("mutual-recursive-spawn");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 		
 			Pair<SDGNode,SDGNode> pair1 = getPrintsInRecursiveMethod(sdg, ana, "MutualRecursiveSpawn$Thread1a.run()V");
 			SDGNode p1 = pair1.getFirst();
@@ -441,7 +441,7 @@ public class MHPAnalysisTest {
 	public void testInterprocJoin() {
 		SDG sdg = buildOrLoad("interproc-join");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 
 			//subtest 1
 			SDGNode p1 = getStringPrintInMethod(ana, "InterprocJoin$Thread1.run()V");
@@ -464,7 +464,7 @@ public class MHPAnalysisTest {
 	public void testInterthreadJoin() {
 		SDG sdg = buildOrLoad("interthread-join");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 
 			SDGNode p1a = getStringPrintInMethod(ana, "InterthreadJoin$Thread1a.run()V");
 			SDGNode p1b = getStringPrintInMethod(ana, "InterthreadJoin$Thread1b.run()V");
@@ -483,7 +483,7 @@ public class MHPAnalysisTest {
 	public void testForkJoin() {
 		SDG sdg = buildOrLoad("fork-join");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p1 = getStringPrintInMethod(ana, "ForkJoin$Thread1.run()V");
 			SDGNode p2 = getStringPrintInMethod(ana, "ForkJoin$Thread2.run()V");
 			SDGNode ps = getStringPrintInMethod(ana, "ForkJoin.main([Ljava/lang/String;)V");
@@ -500,7 +500,7 @@ public class MHPAnalysisTest {
 	public void testForkJoinChain() {
 		SDG sdg = buildOrLoad("fork-join-chain");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p1 = getStringPrintInMethod(ana, "ForkJoinChain$Thread1.run()V");
 			SDGNode p2 = getStringPrintInMethod(ana, "ForkJoinChain$Thread2.run()V");
 			SDGNode p3 = getStringPrintInMethod(ana, "ForkJoinChain$Thread3.run()V");
@@ -521,7 +521,7 @@ public class MHPAnalysisTest {
 	public void testIndirectSpawnJoin() {
 		SDG sdg = buildOrLoad("indirect-spawn-join");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p2 = getStringPrintInMethod(ana, "IndirectSpawnJoin$Thread2.run()V");
 			SDGNode p4 = getStringPrintInMethod(ana, "IndirectSpawnJoin$Thread4.run()V");
 			SDGNode p6 = getStringPrintInMethod(ana, "IndirectSpawnJoin$Thread4.run()V");
@@ -537,7 +537,7 @@ public class MHPAnalysisTest {
 	public void testOtherThreadJoins() {
 		SDG sdg = buildOrLoad("other-thread-joins");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p1 = getStringPrintInMethod(ana, "OtherThreadJoins$Thread1.run()V");
 			SDGNode p2 = getStringPrintInMethod(ana, "OtherThreadJoins$Thread2.run()V");
 			SDGNode p3 = getStringPrintInMethod(ana, "OtherThreadJoins$Thread3.run()V");
@@ -555,7 +555,7 @@ public class MHPAnalysisTest {
 	public void testOtherThreadJoinsIndirect() {
 		SDG sdg = buildOrLoad("other-thread-joins-indirect");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p1 = getStringPrintInMethod(ana, "OtherThreadJoinsIndirect$Thread1.run()V");
 			SDGNode p3 = getStringPrintInMethod(ana, "OtherThreadJoinsIndirect$Thread3.run()V");
 
@@ -567,7 +567,7 @@ public class MHPAnalysisTest {
 	public void testAliasedJoin() {
 		SDG sdg = buildOrLoad("aliased-join");
 		SDGAnalyzer ana = new SDGAnalyzer(sdg);
-		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg) }) {
+		for (MHPAnalysis mhp : new MHPAnalysis[] { PreciseMHPAnalysis.analyze(sdg), PreciseMHPAnalysis.analyzeUNSAFE(sdg), PreciseMHPAnalysis.analyzeParallel(sdg) }) {
 			SDGNode p1 = getStringPrintInMethod(ana, "AliasedJoin$Thread1.run()V");
 			SDGNode p2 = getStringPrintInMethod(ana, "AliasedJoin$Thread2.run()V");
 			SDGNode ps = getStringPrintInMethod(ana, "AliasedJoin.main([Ljava/lang/String;)V");
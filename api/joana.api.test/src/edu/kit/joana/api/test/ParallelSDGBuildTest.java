@@ -0,0 +1,101 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.core.SDGBuilder.ExceptionAnalysis;
+
+/**
+ * Builds the same program sequentially and in parallel and checks that both sdgs are identical: the same nodes
+ * with the same ids and attributes, and the same edges.
+ */
+public class ParallelSDGBuildTest {
+
+	private static SDG build(Class<?> clazz, ExceptionAnalysis exc, boolean parallel) throws ClassHierarchyException,
+			IOException, UnsoundGraphException, CancelException {
+		final String classPath = JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator
+				+ JoanaPath.ANNOTATIONS_PASSON_CLASSPATH;
+		final SDGConfig config = new SDGConfig(classPath,
+				JavaMethodSignature.mainMethodOfClass(clazz.getName()).toBCString(), Stubs.JRE_15);
+		config.setExceptionAnalysis(exc);
+		config.setParallel(parallel);
+		return SDGProgram.createSDGProgram(config).getSDG();
+	}
+
+	private static void assertIdentical(SDG sequential, SDG parallel) {
+		assertEquals(sequential.vertexSet().size(), parallel.vertexSet().size());
+		assertEquals(sequential.edgeSet().size(), parallel.edgeSet().size());
+
+		for (SDGNode n1 : sequential.vertexSet()) {
+			final String msg = "node " + n1.getId();
+			final SDGNode n2 = parallel.getNode(n1.getId());
+			assertNotNull(msg, n2);
+			assertEquals(msg, n1.getKind(), n2.getKind());
+			assertEquals(msg, n1.getOperation(), n2.getOperation());
+			assertEquals(msg, n1.getLabel(), n2.getLabel());
+			assertEquals(msg, n1.getType(), n2.getType());
+			assertEquals(msg, n1.getProc(), n2.getProc());
+			assertEquals(msg, n1.getBytecodeName(), n2.getBytecodeName());
+			assertEquals(msg, n1.getBytecodeIndex(), n2.getBytecodeIndex());
+			assertEquals(msg, n1.getSourceLocation(), n2.getSourceLocation());
+			assertArrayEquals(msg, n1.getThreadNumbers(), n2.getThreadNumbers());
+
+			assertEquals(msg, sequential.outDegreeOf(n1), parallel.outDegreeOf(n2));
+			for (SDGEdge e : sequential.outgoingEdgesOf(n1)) {
+				assertTrue(msg + ": " + e.getKind() + " edge to " + e.getTarget().getId(), parallel.containsEdge(e));
+			}
+		}
+	}
+
+	private static void testIdentical(Class<?> clazz, ExceptionAnalysis exc) throws ClassHierarchyException,
+			IOException, UnsoundGraphException, CancelException {
+		assertIdentical(build(clazz, exc, false), build(clazz, exc, true));
+	}
+
+	@Test
+	public void testIntraproc() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		testIdentical(de.uni.trier.infsec.core.Setup.class, ExceptionAnalysis.INTRAPROC);
+	}
+
+	@Test
+	public void testInterproc() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		testIdentical(de.uni.trier.infsec.core.Setup.class, ExceptionAnalysis.INTERPROC);
+	}
+
+	@Test
+	public void testAllNoAnalysis() throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		testIdentical(joana.api.testdata.demo.SequentialLeaks.class, ExceptionAnalysis.ALL_NO_ANALYSIS);
+	}
+
+	@Test
+	public void testIgnoreAll() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		testIdentical(joana.api.testdata.demo.SequentialLeaks.class, ExceptionAnalysis.IGNORE_ALL);
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ibm.wala.ipa.callgraph.UninitializedFieldHelperOptions;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.IFCAnalysis;
+import edu.kit.joana.api.sdg.SDGCache;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.api.test.util.JoanaPath;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+
+/**
+ * Builds the same configuration twice with an sdg cache: the first build misses the cache and stores the sdg, the
+ * second one hits it. Both programs must have the same program parts and annotations, and the same violations.
+ */
+public class SDGCacheTest {
+
+	private static final String HIT = "using cached SDG";
+
+	@Rule
+	public final TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+	private SDGConfig newConfig(Class<?> clazz) {
+		final String classPath = JoanaPath.JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator
+				+ JoanaPath.ANNOTATIONS_PASSON_CLASSPATH;
+		final SDGConfig config = new SDGConfig(classPath,
+				JavaMethodSignature.mainMethodOfClass(clazz.getName()).toBCString(), Stubs.JRE_15);
+		config.setParallel(false);
+		config.setCacheDirectory(cacheDirectory.getRoot().getAbsolutePath());
+		return config;
+	}
+
+	private static SDGProgram build(SDGConfig config, ByteArrayOutputStream log) throws ClassHierarchyException,
+			IOException, UnsoundGraphException, CancelException {
+		return SDGProgram.createSDGProgram(config, new PrintStream(log, true), NullProgressMonitor.INSTANCE);
+	}
+
+	private static Set<String> toStrings(Collection<?> objects) {
+		final Set<String> strings = new TreeSet<String>();
+		for (Object o : objects) {
+			strings.add(o.toString());
+		}
+		return strings;
+	}
+
+	private void testMissThenHit(Class<?> clazz) throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		final ByteArrayOutputStream missLog = new ByteArrayOutputStream();
+		final SDGProgram miss = build(newConfig(clazz), missLog);
+		assertFalse(missLog.toString().contains(HIT));
+
+		final ByteArrayOutputStream hitLog = new ByteArrayOutputStream();
+		final SDGProgram hit = build(newConfig(clazz), hitLog);
+		assertTrue(hitLog.toString().contains(HIT));
+
+		assertNotNull(hit.getClassHierarchy());
+		assertEquals(miss.getSDG().vertexSet().size(), hit.getSDG().vertexSet().size());
+		assertEquals(miss.getSDG().edgeSet().size(), hit.getSDG().edgeSet().size());
+		assertEquals(toStrings(miss.getAllProgramParts()), toStrings(hit.getAllProgramParts()));
+		assertEquals(toStrings(miss.getJavaSourceAnnotations().keySet()),
+				toStrings(hit.getJavaSourceAnnotations().keySet()));
+
+		final IFCAnalysis missAna = new IFCAnalysis(miss);
+		missAna.addAllJavaSourceAnnotations();
+		final IFCAnalysis hitAna = new IFCAnalysis(hit);
+		hitAna.addAllJavaSourceAnnotations();
+		assertFalse(missAna.getAnnotations().isEmpty());
+		assertEquals(toStrings(missAna.getAnnotations()), toStrings(hitAna.getAnnotations()));
+		assertEquals(toStrings(missAna.doIFC()), toStrings(hitAna.doIFC()));
+	}
+
+	@Test
+	public void testSetup() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		testMissThenHit(de.uni.trier.infsec.core.Setup.class);
+	}
+
+	@Test
+	public void testSequentialLeaks() throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		testMissThenHit(joana.api.testdata.demo.SequentialLeaks.class);
+	}
+
+	@Test
+	public void testSkipSDGProgramPart() throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		final Class<?> clazz = de.uni.trier.infsec.core.Setup.class;
+		final SDGProgram miss = build(newConfig(clazz), new ByteArrayOutputStream());
+
+		final SDGConfig skip = newConfig(clazz);
+		skip.setSkipSDGProgramPart(true);
+		final ByteArrayOutputStream hitLog = new ByteArrayOutputStream();
+		final SDGProgram hit = build(skip, hitLog);
+		assertTrue(hitLog.toString().contains(HIT));
+		assertNotNull(hit.getClassHierarchy());
+		assertTrue(hit.getJavaSourceAnnotations().isEmpty());
+		assertEquals(miss.getSDG().vertexSet().size(), hit.getSDG().vertexSet().size());
+	}
+
+	private static void assertCompact(SDG sdg) {
+		for (SDGNode n : sdg.vertexSet()) {
+			assertTrue(n.isCompact());
+		}
+	}
+
+	@Test
+	public void testCompactNodes() throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		final Class<?> clazz = joana.api.testdata.demo.SequentialLeaks.class;
+		final SDGConfig missConfig = newConfig(clazz);
+		missConfig.setCompactNodes(true);
+		final SDGProgram miss = build(missConfig, new ByteArrayOutputStream());
+		assertCompact(miss.getSDG());
+
+		final SDGConfig hitConfig = newConfig(clazz);
+		hitConfig.setCompactNodes(true);
+		final ByteArrayOutputStream hitLog = new ByteArrayOutputStream();
+		final SDGProgram hit = build(hitConfig, hitLog);
+		assertTrue(hitLog.toString().contains(HIT));
+		assertCompact(hit.getSDG());
+
+		assertEquals(toStrings(miss.getAllProgramParts()), toStrings(hit.getAllProgramParts()));
+		final IFCAnalysis missAna = new IFCAnalysis(miss);
+		missAna.addAllJavaSourceAnnotations();
+		final IFCAnalysis hitAna = new IFCAnalysis(hit);
+		hitAna.addAllJavaSourceAnnotations();
+		assertEquals(toStrings(missAna.doIFC()), toStrings(hitAna.doIFC()));
+	}
+
+	@Test
+	public void testUnwritableCache() throws ClassHierarchyException, IOException, UnsoundGraphException,
+			CancelException {
+		final Class<?> clazz = joana.api.testdata.demo.SequentialLeaks.class;
+		// a regular file where the cache directory should be
+		final SDGConfig config = newConfig(clazz);
+		config.setCacheDirectory(cacheDirectory.newFile().getAbsolutePath());
+		final ByteArrayOutputStream log = new ByteArrayOutputStream();
+		final SDGProgram program = build(config, log);
+		assertTrue(log.toString().contains("could not store SDG"));
+		assertFalse(program.getSDG().vertexSet().isEmpty());
+	}
+
+	@Test
+	public void testDefaultFieldHelperOptions() {
+		final SDGConfig config = newConfig(joana.api.testdata.demo.SequentialLeaks.class);
+		config.setFieldHelperOptions(SDGConfig.DEFAULT_FIELD_HELPER_OPTIONS);
+		assertTrue(SDGCache.isCacheable(config));
+		config.setFieldHelperOptions(new UninitializedFieldHelperOptions(typeReference -> true));
+		assertFalse(SDGCache.isCacheable(config));
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGNodeAttributeTable;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Checks that the getters of the nodes of a graph return the same values before and after
+ * {@link SDG#compactNodes()}, and after the attribute table has been unloaded to a file and loaded again.
+ */
+public class SDGNodeAttributeTableTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/* node ids with a gap and a negative id */
+	private static final int[] IDS = { -2, 1, 2, 3, 7, 8 };
+
+	private static SDG newGraph() {
+		final SDG g = new SDG("attributes");
+		for (int id : IDS) {
+			final SDGNode n;
+			if (id == 8) {
+				// a synthetic node with default attributes
+				n = new SDGNode(SDGNode.Kind.NORMAL, id, 0, null);
+			} else {
+				final SourceLocation loc = (id % 2 == 0 ? SourceLocation.UNKNOWN
+						: SourceLocation.getLocation("A" + id + ".java", id, 1, id + 1, 2));
+				n = new SDGNode(id, SDGNode.Operation.ASSIGN, "v" + id + " = p" + id, id / 3, "I", loc,
+						"A.m()V", 10 * id, (id > 0 ? new String[] { "v" + id } : null),
+						(id == 3 ? new String[] { "p" + id, null } : null), (id == 7 ? "B.run()V" : null),
+						(id == 2 ? new int[] { 1, 3 } : null), (id == 1 ? "Application" : null));
+			}
+			if (id == 3) {
+				n.addAliasDataSource(1);
+				n.addAliasDataSource(2);
+			}
+			g.addVertex(n);
+		}
+		return g;
+	}
+
+	/* the values of all getters that the table affects */
+	private static List<Object> attributesOf(SDGNode n) {
+		return Arrays.<Object>asList(n.getId(), n.getKind(), n.getOperation(), n.getProc(), n.getLabel(), n.getType(),
+				n.getSourceLocation(), n.getSource(), n.getSr(), n.getSc(), n.getEr(), n.getEc(),
+				n.getBytecodeName(), n.getBytecodeIndex(), toList(n.getLocalDefNames()),
+				toList(n.getLocalUseNames()), n.getUnresolvedCallTarget(), n.getClassLoader(),
+				(n.getAllocationSites() == null ? null : Arrays.toString(n.getAllocationSites())),
+				n.getAliasDataSources());
+	}
+
+	private static List<String> toList(String[] names) {
+		return (names == null ? null : Arrays.asList(names));
+	}
+
+	private static Map<Integer, List<Object>> attributesOf(SDG g) {
+		final Map<Integer, List<Object>> attributes = new HashMap<Integer, List<Object>>();
+		for (SDGNode n : g.vertexSet()) {
+			attributes.put(n.getId(), attributesOf(n));
+		}
+		return attributes;
+	}
+
+	@Test
+	public void testCompact() {
+		final SDG g = newGraph();
+		final Map<Integer, List<Object>> expected = attributesOf(g);
+
+		final SDGNodeAttributeTable table = g.compactNodes();
+		assertNotNull(table);
+		for (SDGNode n : g.vertexSet()) {
+			assertTrue(n.isCompact());
+			assertTrue(table.covers(n.getId()));
+		}
+		assertFalse(table.covers(-3));
+		assertFalse(table.covers(9));
+		assertEquals(expected, attributesOf(g));
+
+		// compacting again keeps the table of the nodes
+		g.compactNodes();
+		assertEquals(expected, attributesOf(g));
+	}
+
+	@Test
+	public void testUnloadAndLoad() throws IOException {
+		final SDG g = newGraph();
+		final Map<Integer, List<Object>> expected = attributesOf(g);
+		final SDGNodeAttributeTable table = g.compactNodes();
+
+		final File file = folder.newFile("attributes");
+		table.unload(file);
+		assertTrue(table.isUnloaded());
+		assertTrue(file.length() > 0);
+
+		// allocation sites and alias data sources stay in memory
+		assertEquals("[1, 3]", Arrays.toString(g.getNode(2).getAllocationSites()));
+		assertEquals(2, g.getNode(3).getAliasDataSources().size());
+		assertTrue(table.isUnloaded());
+
+		assertEquals(expected.get(1), attributesOf(g.getNode(1)));
+		assertFalse(table.isUnloaded());
+		assertEquals(expected, attributesOf(g));
+
+		// a second round trip
+		table.unload(file);
+		assertTrue(table.isUnloaded());
+		assertEquals(expected, attributesOf(g));
+	}
+
+	@Test
+	public void testModifyAndCloneCompactNodes() {
+		final SDG g = newGraph();
+		g.compactNodes();
+
+		final SDGNode n = g.getNode(1);
+		assertNull(n.getAliasDataSources());
+		n.addAliasDataSource(7);
+		assertEquals(new TIntHashSet(new int[] { 7 }), n.getAliasDataSources());
+		n.setAliasDataSources(null);
+		assertNull(n.getAliasDataSources());
+
+		for (SDGNode m : new ArrayList<SDGNode>(g.vertexSet())) {
+			if (m.getOperation() == SDGNode.Operation.EMPTY) {
+				// clones take their kind from the operation
+				continue;
+			}
+			final SDGNode clone = m.clone();
+			assertFalse(clone.isCompact());
+			// clones do not copy the alias data sources
+			final List<Object> expected = attributesOf(m);
+			assertEquals(expected.subList(0, expected.size() - 1), attributesOf(clone).subList(0, expected.size() - 1));
+		}
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		assertNull(new SDG().compactNodes());
+	}
+}
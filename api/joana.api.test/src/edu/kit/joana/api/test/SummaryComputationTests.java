@@ -11,7 +11,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -29,8 +35,15 @@ import edu.kit.joana.api.test.util.JoanaPath;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
 import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.summary.SummaryComputation2;
 import edu.kit.joana.wala.summary.SummaryComputationType;
+import edu.kit.joana.wala.summary.WorkPackage;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 
 /**
  * @author Martin Hecker <martin.hecker@kit.edu>
@@ -157,6 +170,84 @@ public class SummaryComputationTests {
 		}
 	}
 
+	private static final int[] POOL_SIZES = { 1, 2, 4 };
+
+	/**
+	 * Recomputes the summary edges of the sdg of the given class with {@link SummaryComputation2} on fork/join pools
+	 * of different sizes, and checks that they are the summary edges of the sequential computation.
+	 */
+	private static void testPoolsSame(Class<?> clazz) throws ClassHierarchyException, ApiTestException, IOException,
+			UnsoundGraphException, CancelException {
+		final SDG sdg = buildAnnotateDump(clazz, simonScc).getProgram().getSDG();
+		final Set<SDGEdge> expected = summaryEdges(sdg);
+		for (int threads : POOL_SIZES) {
+			final SDG copy = copyWithoutSummaryEdges(sdg);
+			final ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				SummaryComputation2.compute(createWorkPackage(copy), pool, NullProgressMonitor.INSTANCE);
+			} finally {
+				pool.shutdown();
+			}
+			assertEquals("summary edges computed by " + threads + " workers", expected, summaryEdges(copy));
+		}
+	}
+
+	private static Set<SDGEdge> summaryEdges(SDG sdg) {
+		final Set<SDGEdge> summary = new HashSet<SDGEdge>();
+		for (SDGEdge e : sdg.edgeSet()) {
+			if (e.getKind() == SDGEdge.Kind.SUMMARY) {
+				summary.add(e);
+			}
+		}
+		return summary;
+	}
+
+	private static SDG copyWithoutSummaryEdges(SDG sdg) throws IOException {
+		final SDG copy = SDG.readFrom(new StringReader(SDGSerializer.toPDGFormat(sdg)));
+		final List<SDGEdge> toRemove = new LinkedList<SDGEdge>(summaryEdges(copy));
+		copy.removeAllEdges(toRemove);
+		return copy;
+	}
+
+	private static WorkPackage<SDG> createWorkPackage(SDG sdg) {
+		final SDGNode root = sdg.getRoot();
+		final TIntSet formalIns = new TIntHashSet();
+		for (SDGNode fIn : sdg.getFormalInsOfProcedure(root)) {
+			formalIns.add(fIn.getId());
+		}
+		final TIntSet formalOuts = new TIntHashSet();
+		for (SDGNode fOut : sdg.getFormalOutsOfProcedure(root)) {
+			formalOuts.add(fOut.getId());
+		}
+		final Set<EntryPoint> entries = new TreeSet<EntryPoint>();
+		entries.add(new EntryPoint(root.getId(), formalIns, formalOuts));
+		return WorkPackage.create(sdg, entries, sdg.getName());
+	}
+
+	@Test
+	public void testPoolsMyList() throws ClassHierarchyException, ApiTestException, IOException, UnsoundGraphException,
+			CancelException {
+		testPoolsSame(joana.api.testdata.toy.rec.MyList.class);
+	}
+
+	@Test
+	public void testPoolsPasswordFile() throws ClassHierarchyException, ApiTestException, IOException,
+			UnsoundGraphException, CancelException {
+		testPoolsSame(joana.api.testdata.toy.pw.PasswordFile.class);
+	}
+
+	@Test
+	public void testPoolsSetup() throws ClassHierarchyException, ApiTestException, IOException,
+			UnsoundGraphException, CancelException {
+		testPoolsSame(de.uni.trier.infsec.core.Setup.class);
+	}
+
+	@Test
+	public void testPoolsJLex() throws ClassHierarchyException, ApiTestException, IOException,
+			UnsoundGraphException, CancelException {
+		testPoolsSame(JLex.Main.class);
+	}
+
 	@Test
 	public void testFlowSens() throws ClassHierarchyException, ApiTestException, IOException, UnsoundGraphException,
 			CancelException {
@@ -276,6 +276,43 @@ public class IFCAnalysis {
 		return vios;
 	}
 
+	/**
+	 * Do IFC analysis of the specified type and report every violation to the given sink as soon as it is found,
+	 * instead of returning all violations at the end. The analysis stops as soon as the sink returns {@code false},
+	 * e.g. a {@link ViolationCollector} with a limit.
+	 * @param ifcType type of IFC analysis to perform
+	 * @param sink receives the violations
+	 * @return {@code true} if all violations were reported, {@code false} if the sink stopped the analysis
+	 */
+	public boolean doIFC(IFCType ifcType, IViolationSink<SecurityNode> sink) {
+		assert ifc != null && ifc.getSDG() != null && ifc.getLattice() != null;
+		annManager.applyAllAnnotations();
+		setIFCType(ifcType);
+		try {
+			long time = System.currentTimeMillis();
+			final boolean completed = ifc.checkIFlow(sink);
+			time = System.currentTimeMillis() - time;
+			debug.outln(String.format("IFC Analysis took %d ms.", time));
+			return completed;
+		} finally {
+			annManager.unapplyAllAnnotations();
+		}
+	}
+
+	/**
+	 * Checks whether the IFC analysis of the specified type finds no violation at all. The analysis stops once the
+	 * first violation has been reported: {@link IFCType#CLASSICAL_NI} after the slice of the first end point that
+	 * leaks (after its batch of end points in batched mode), {@link IFCType#LSOD} after the first conflict or flow.
+	 * {@link IFCType#RLSOD} computes all conflicts before it reports the first one, and checks the flows like
+	 * {@link IFCType#CLASSICAL_NI} only if there is no conflict. The other types compute all violations before the
+	 * first one is reported, so they take as long as {@link #doIFC(IFCType)}.
+	 * @param ifcType type of IFC analysis to perform
+	 * @return {@code true} if there is no violation
+	 */
+	public boolean isSecure(IFCType ifcType) {
+		return doIFC(ifcType, new ViolationCollector<SecurityNode>(1));
+	}
+
 	public TObjectIntMap<? extends IViolation<SDGProgramPart>> doIFCAndGroupByPPPart(IFCType ifcType) {
 		return groupByPPPart(doIFC(ifcType));
 	}
@@ -0,0 +1,258 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.sdg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
+import com.ibm.wala.ipa.cha.ClassHierarchy;
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.ipa.cha.ClassHierarchyFactory;
+
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.wala.util.SharedIRCache;
+
+/**
+ * Analysis scopes and class hierarchies, together with the {@link SharedIRCache IRs} of their methods, keyed by the
+ * settings of a {@link SDGBuildPreparation.Config} they depend on: class path, third party library path, stubs
+ * and exclusions. Several sdg builds for the same program - possibly running concurrently - thereby parse
+ * the bytecode and build the IR of each method only once.
+ * <p>
+ * The cache keeps at most a fixed number of class hierarchies and evicts the least recently used first. The
+ * class hierarchies are only softly reachable from the cache, so the garbage collector may evict them earlier
+ * if memory runs low. An entry is also dropped if one of the jar files on its class path has changed, or a class
+ * file in one of the directories on its class path.
+ * <p>
+ * Thread-safe. If several threads ask for the same class hierarchy at once, only one of them creates it.
+ */
+public final class ClassHierarchyCache {
+
+	public static final int DEFAULT_MAX_CLASS_HIERARCHIES = 4;
+
+	private static final ClassHierarchyCache DEFAULT = new ClassHierarchyCache(DEFAULT_MAX_CLASS_HIERARCHIES,
+			SharedIRCache.DEFAULT_MAX_ENTRIES);
+
+	/**
+	 * @return the cache used by {@link SDGBuildPreparation} if {@link SDGBuildPreparation.Config#shareClassHierarchy}
+	 * is set
+	 */
+	public static ClassHierarchyCache getDefault() {
+		return DEFAULT;
+	}
+
+	public static final class Entry {
+		private final AnalysisScope scope;
+		private final ClassHierarchy cha;
+		private final SharedIRCache irCache;
+
+		private Entry(AnalysisScope scope, ClassHierarchy cha, SharedIRCache irCache) {
+			this.scope = scope;
+			this.cha = cha;
+			this.irCache = irCache;
+		}
+
+		public AnalysisScope getScope() {
+			return scope;
+		}
+
+		public ClassHierarchy getClassHierarchy() {
+			return cha;
+		}
+
+		public SharedIRCache getIRCache() {
+			return irCache;
+		}
+	}
+
+	private static final class Key {
+		private final String classpath;
+		private final boolean classpathAddEntriesFromMANIFEST;
+		private final String thirdPartyLibPath;
+		private final String exclusions;
+		private final Stubs stubs;
+
+		private Key(SDGBuildPreparation.Config cfg) {
+			this.classpath = cfg.classpath;
+			this.classpathAddEntriesFromMANIFEST = cfg.classpathAddEntriesFromMANIFEST;
+			this.thirdPartyLibPath = cfg.thirdPartyLibPath;
+			this.exclusions = cfg.exclusions;
+			this.stubs = cfg.stubs;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(new Object[] { classpath, classpathAddEntriesFromMANIFEST, thirdPartyLibPath,
+					exclusions, stubs });
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return classpathAddEntriesFromMANIFEST == other.classpathAddEntriesFromMANIFEST
+					&& equal(classpath, other.classpath) && equal(thirdPartyLibPath, other.thirdPartyLibPath)
+					&& equal(exclusions, other.exclusions) && stubs == other.stubs;
+		}
+
+		private static boolean equal(Object a, Object b) {
+			return a == null ? b == null : a.equals(b);
+		}
+
+		/* changes if a jar file on one of the paths is replaced or modified, or a class file in one of its directories */
+		private long stamp() {
+			long stamp = 17;
+			for (final String path : new String[] { classpath, thirdPartyLibPath }) {
+				if (path == null) {
+					continue;
+				}
+				for (final String element : path.split(File.pathSeparator + "|;")) {
+					final File f = new File(element);
+					if (f.isFile()) {
+						stamp = 31 * stamp + f.lastModified();
+						stamp = 31 * stamp + f.length();
+					} else if (f.isDirectory()) {
+						stamp = 31 * stamp + newestClassFile(f);
+					}
+				}
+			}
+			return stamp;
+		}
+
+		/* the time of the last modification of a class file in the directory or its subdirectories, 0 if none */
+		private static long newestClassFile(File dir) {
+			long newest = 0;
+			final File[] files = dir.listFiles();
+			if (files == null) {
+				return newest;
+			}
+			for (final File f : files) {
+				if (f.isDirectory()) {
+					newest = Math.max(newest, newestClassFile(f));
+				} else if (f.getName().endsWith(".class")) {
+					newest = Math.max(newest, f.lastModified());
+				}
+			}
+			return newest;
+		}
+	}
+
+	private static final class Slot {
+		private final long stamp;
+		private final SoftReference<FutureTask<Entry>> task;
+
+		private Slot(long stamp, FutureTask<Entry> task) {
+			this.stamp = stamp;
+			this.task = new SoftReference<FutureTask<Entry>>(task);
+		}
+	}
+
+	private final int maxIRs;
+	private final LinkedHashMap<Key, Slot> slots;
+
+	/**
+	 * @param maxClassHierarchies the maximal number of class hierarchies kept
+	 * @param maxIRs the maximal number of IRs kept for each class hierarchy
+	 */
+	public ClassHierarchyCache(final int maxClassHierarchies, int maxIRs) {
+		if (maxClassHierarchies < 1) {
+			throw new IllegalArgumentException("maxClassHierarchies has to be positive: " + maxClassHierarchies);
+		}
+		this.maxIRs = maxIRs;
+		this.slots = new LinkedHashMap<Key, Slot>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Slot> eldest) {
+				return size() > maxClassHierarchies;
+			}
+		};
+	}
+
+	/**
+	 * Returns the scope and class hierarchy for the class path, third party library path, stubs and exclusions
+	 * of the given configuration, and creates them if they are not cached yet.
+	 */
+	public Entry get(final PrintStream out, final SDGBuildPreparation.Config cfg)
+			throws IOException, ClassHierarchyException {
+		final Key key = new Key(cfg);
+		final long stamp = key.stamp();
+		FutureTask<Entry> task;
+		boolean create = false;
+		synchronized (this) {
+			final Slot slot = slots.get(key);
+			task = (slot == null || slot.stamp != stamp ? null : slot.task.get());
+			if (task == null) {
+				task = new FutureTask<Entry>(() -> {
+					final AnalysisScope scope = SDGBuildPreparation.setUpAnalysisScope(out, cfg);
+					return new Entry(scope, ClassHierarchyFactory.make(scope), new SharedIRCache(maxIRs));
+				});
+				slots.put(key, new Slot(stamp, task));
+				create = true;
+			}
+		}
+
+		if (create) {
+			task.run();
+		} else {
+			// the scope of a cached entry has been set up already, but the native spec is a global setting
+			com.ibm.wala.ipa.callgraph.impl.Util.setNativeSpec(cfg.stubs.getNativeSpecFile());
+		}
+
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			remove(key, task);
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof ClassHierarchyException) {
+				throw (ClassHierarchyException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while waiting for the class hierarchy of " + cfg.classpath, e);
+		}
+	}
+
+	/* a failed creation is not cached, the next request tries again */
+	private synchronized void remove(Key key, FutureTask<Entry> task) {
+		final Slot slot = slots.get(key);
+		if (slot != null && slot.task.get() == task) {
+			slots.remove(key);
+		}
+	}
+
+	/**
+	 * Forgets all class hierarchies.
+	 */
+	public synchronized void clear() {
+		slots.clear();
+	}
+
+	public synchronized int size() {
+		return slots.size();
+	}
+}
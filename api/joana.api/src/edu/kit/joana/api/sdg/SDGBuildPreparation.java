@@ -97,16 +97,11 @@ public final class SDGBuildPreparation {
 		return result;
 	}
 
-	private static Pair<String, ClassHierarchy> lastChaAndClassPath = Pair.make("", null);
-
 	private static ClassHierarchy getCachedClassHierarchy(String classPath, PrintStream out)
 			throws IOException, ClassHierarchyException {
-		if (!lastChaAndClassPath.fst.equals(classPath) || lastChaAndClassPath.snd == null){
-			Config cfg = new Config("Search program parts <unused>", "<unused>",
-					classPath, true, FieldPropagation.FLAT);
-			lastChaAndClassPath = Pair.make(classPath, computeClassHierarchy(out, cfg));
-		}
-		return lastChaAndClassPath.snd;
+		Config cfg = new Config("Search program parts <unused>", "<unused>",
+				classPath, true, FieldPropagation.FLAT);
+		return ClassHierarchyCache.getDefault().get(out, cfg).getClassHierarchy();
 	}
 
 	/**
@@ -276,6 +271,21 @@ public final class SDGBuildPreparation {
 		return compute(out, cfg, NullProgressMonitor.INSTANCE);
 	}
 
+	/**
+	 * @return the class hierarchy an sdg build for the given configuration works on, without building the sdg: the
+	 * shared class hierarchy of the configuration if there is one, else the cached or a new one, like in
+	 * {@link #prepareBuild(PrintStream, Config, IProgressMonitor)}
+	 */
+	public static IClassHierarchy getClassHierarchy(PrintStream out, Config cfg) throws IOException, ClassHierarchyException {
+		if (cfg.scope != null && cfg.cha != null) {
+			return cfg.cha;
+		} else if (cfg.shareClassHierarchy) {
+			return ClassHierarchyCache.getDefault().get(out, cfg).getClassHierarchy();
+		} else {
+			return ClassHierarchyFactory.make(setUpAnalysisScope(out, cfg));
+		}
+	}
+
 	public static Pair<Long, SDGBuilder.SDGBuilderConfig> prepareBuild(PrintStream out, Config cfg, IProgressMonitor progress) throws IOException, ClassHierarchyException {
 		if (!checkOrCreateOutputDir(cfg.outputDir)) {
 			out.println("Could not access/create diretory '" + cfg.outputDir +"'");
@@ -283,19 +293,37 @@ public final class SDGBuildPreparation {
 		}
 		final long startTime = System.currentTimeMillis();
 
-		out.print("Setting up analysis scope... ");
+		final AnalysisScope scope;
+		final IClassHierarchy cha;
+		final IAnalysisCacheView cache;
+		if (cfg.scope != null && cfg.cha != null) {
+			scope = cfg.scope;
+			cha = cfg.cha;
+			cache = (cfg.cache != null ? cfg.cache : new AnalysisCacheImpl());
+			out.println("Using shared class hierarchy (" + cha.getNumberOfClasses() + " classes).");
+		} else if (cfg.shareClassHierarchy) {
+			final ClassHierarchyCache.Entry shared = ClassHierarchyCache.getDefault().get(out, cfg);
+			scope = shared.getScope();
+			cha = shared.getClassHierarchy();
+			cache = shared.getIRCache().newView();
+			out.println("Using cached class hierarchy (" + cha.getNumberOfClasses() + " classes, "
+					+ shared.getIRCache().size() + " irs).");
+		} else {
+			out.print("Setting up analysis scope... ");
 
-		AnalysisScope scope = setUpAnalysisScope(out, cfg);
+			scope = setUpAnalysisScope(out, cfg);
 
-	    out.println("done.");
+		    out.println("done.");
 
-	    out.print("Creating class hierarchy... ");
+		    out.print("Creating class hierarchy... ");
 
-	    // Klassenhierarchie berechnen
-		ClassHierarchy cha = ClassHierarchyFactory.make(scope);
+		    // Klassenhierarchie berechnen
+			cha = ClassHierarchyFactory.make(scope);
+			cache = new AnalysisCacheImpl();
 
 
-	    out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+		    out.println("(" + cha.getNumberOfClasses() + " classes) done.");
+		}
 
 	    if (cfg.extern != null) {
 	    	cfg.extern.setClassHierarchy(cha);
@@ -314,8 +342,6 @@ public final class SDGBuildPreparation {
 
 		out.println("done.");
 
-		AnalysisCache cache = new AnalysisCacheImpl();
-
 		ExternalCallCheck chk;
 		if (cfg.extern == null) {
 			final boolean reflectionPossible =
@@ -489,6 +515,16 @@ public final class SDGBuildPreparation {
 		public boolean isParallel = true;
 		public ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 		public UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+		// if both are set, the build uses them instead of setting up its own scope and class hierarchy. They have
+		// to match classpath, stubs and exclusions. Builds running concurrently may share them.
+		public transient AnalysisScope scope = null;
+		public transient IClassHierarchy cha = null;
+		// used together with scope and cha instead of a new AnalysisCache, e.g. a view of a SharedIRCache shared by
+		// the builds. Has to belong to cha.
+		public transient IAnalysisCacheView cache = null;
+		// if set and no scope and cha are given, they are taken from ClassHierarchyCache.getDefault(), together
+		// with the IRs of the methods. Later builds with the same classpath, stubs and exclusions reuse them.
+		public boolean shareClassHierarchy = false;
 
 		public Config(String name) {
 			this(name, "<no entry defined>", FieldPropagation.OBJ_GRAPH);
@@ -0,0 +1,336 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.api.sdg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGBinaryParser;
+import edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.AtomicFiles;
+
+/**
+ * Content addressed store for the sdgs built by {@link SDGProgram#createSDGProgram(SDGConfig)}. The key of an sdg is
+ * a hash over the contents of the class path, the third party libraries and the stubs, and over every option of the
+ * {@link SDGConfig} that influences the sdg. So a changed class file or option never hits an outdated sdg.
+ * <p>
+ * Sdgs are stored in the binary format, after interference pruning and the optional removal of control
+ * dependencies, i.e. exactly as {@link SDGProgram#createSDGProgram(SDGConfig)} hands them out. The result of the mhp
+ * analysis is stored next to the sdg, see {@link edu.kit.joana.ifc.sdg.mhpoptimization.MHPType#store}.
+ * <p>
+ * Some options are objects with behavior ({@link SDGConfig#getMethodFilter()}, {@link SDGConfig#getCGConsumer()},
+ * {@link SDGConfig#getContextSelector()}, ...) that cannot be hashed. Configurations that set one of these are not
+ * {@link #isCacheable(SDGConfig) cacheable} and are always built from scratch.
+ */
+public final class SDGCache {
+
+	/**
+	 * Part of every key. Increment whenever the sdg construction changes in a way that makes stored sdgs invalid.
+	 */
+	private static final int VERSION = 1;
+
+	private static final String SUFFIX = ".sdg";
+
+	private static final String CLASSES_SUFFIX = ".classes";
+
+	private static final Logger debug = Log.getLogger(Log.L_API_DEBUG);
+
+	private final Path directory;
+
+	public SDGCache(final String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @return whether all options of the given configuration that influence the sdg can be hashed
+	 */
+	public static boolean isCacheable(final SDGConfig config) {
+		return config.getMethodFilter() == null
+			&& config.getCGConsumer() == null
+			&& config.getContextSelector() == null
+			&& config.getSideEffectDetectorConfig() == null
+			&& config.getDefaultExceptionMethodState() == null
+			&& !config.hasCustomFieldHelperOptions();
+	}
+
+	/**
+	 * Computes the key of the sdg that would be built for the given configuration.
+	 * @throws IllegalArgumentException if the configuration is not {@link #isCacheable(SDGConfig) cacheable}
+	 * @throws IOException if an entry of the class path or the stubs cannot be read
+	 */
+	public static String computeKey(final SDGConfig config) throws IOException {
+		if (!isCacheable(config)) {
+			throw new IllegalArgumentException("configuration contains options that cannot be hashed: " + config);
+		}
+
+		final MessageDigest digest = newDigest();
+		update(digest, "version", Integer.toString(VERSION));
+		update(digest, "entry", config.getEntryMethod());
+		update(digest, "exclusions", config.getExclusions());
+		update(digest, "exceptions", config.getExceptionAnalysis());
+		update(digest, "ignoreIndirectFlows", config.getIgnoreIndirectFlows());
+		update(digest, "fieldPropagation", config.getFieldPropagation());
+		update(digest, "pointsTo", config.getPointsToPrecision());
+		update(digest, "accessPaths", config.computeAccessPaths());
+		update(digest, "localKillingDefs", config.localKillingDefs());
+		update(digest, "interferences", config.computeInterferences());
+		update(digest, "mhp", config.getMhpType());
+		update(digest, "allocationSites", config.computeAllocationSites());
+		update(digest, "dynamicDispatch", config.getDynamicDispatchHandling());
+		update(digest, "summaryEdges", config.isComputeSummaryEdges());
+		update(digest, "summaryComputation", config.getSummaryComputationType());
+		update(digest, "controlDependence", config.getControlDependenceVariant());
+		update(digest, "pruningPolicy", config.getPruningPolicy() == null ? null : config.getPruningPolicy().getClass().getName());
+		update(digest, "manifestEntries", config.getClasspathAddEntriesFromMANIFEST());
+
+		final Set<Path> visited = new HashSet<Path>();
+		update(digest, "classPath", config.getClassPath());
+		updateWithClassPath(digest, config.getClassPath(), config.getClasspathAddEntriesFromMANIFEST(), visited);
+		update(digest, "thirdPartyLibs", config.getThirdPartyLibsPath());
+		updateWithClassPath(digest, config.getThirdPartyLibsPath(), config.getClasspathAddEntriesFromMANIFEST(), visited);
+		updateWithStubs(digest, config.getStubs());
+
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return the file of the sdg stored under the given key. Results derived from the sdg, e.g. of the mhp analysis,
+	 * may be stored next to it.
+	 */
+	public String getFile(final String key) {
+		return directory.resolve(key + SUFFIX).toString();
+	}
+
+	/**
+	 * @return the sdg stored under the given key, or {@code null} if there is none or it cannot be read
+	 */
+	public SDG load(final String key) {
+		final Path file = directory.resolve(key + SUFFIX);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		try {
+			final String fileName = file.toString();
+			if (!SDGBinaryParser.isBinaryFormat(fileName)) {
+				return null;
+			}
+			return SDG.readFromBinary(fileName, new SecurityNode.SecurityNodeFactory());
+		} catch (IOException | RuntimeException e) {
+			// a truncated or otherwise broken entry is treated like a missing one and overwritten on the next store
+			debug.outln("could not read cached sdg " + file + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given sdg under the given key. The sdg is written with {@link AtomicFiles#write}, so concurrent
+	 * readers never see a partially written entry.
+	 */
+	public void store(final String key, final SDG sdg) throws IOException {
+		Files.createDirectories(directory);
+		AtomicFiles.write(directory.resolve(key + SUFFIX), out -> SDGBinarySerializer.toBinaryFormat(sdg, out));
+	}
+
+	/**
+	 * @return the names of the classes stored under the given key by {@link #storeClasses(String, Collection)},
+	 * or {@code null} if there are none or they cannot be read
+	 */
+	public List<String> loadClasses(final String key) {
+		final Path file = directory.resolve(key + CLASSES_SUFFIX);
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+
+		try {
+			return Files.readAllLines(file, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			debug.outln("could not read cached classes " + file + ": " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the names of the classes whose annotations apply to the sdg stored under the same key, see
+	 * {@link SDGProgram#findClassesRelevantForAnnotation}. Like the sdg, the names are moved into place at once.
+	 */
+	public void storeClasses(final String key, final Collection<String> classNames) throws IOException {
+		Files.createDirectories(directory);
+		AtomicFiles.write(directory.resolve(key + CLASSES_SUFFIX), out -> {
+			for (String name : classNames) {
+				out.write((name + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+			}
+		});
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void update(final MessageDigest digest, final String name, final Object value) {
+		final String str = name + "=" + (value == null ? "<null>" : value.toString()) + "\n";
+		digest.update(str.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void updateWithClassPath(final MessageDigest digest, final String classPath,
+			final boolean followManifest, final Set<Path> visited) throws IOException {
+		if (classPath == null) {
+			return;
+		}
+		for (final String entry : classPath.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				updateWithEntry(digest, Paths.get(entry), followManifest, visited);
+			}
+		}
+	}
+
+	private static void updateWithEntry(final MessageDigest digest, final Path entry, final boolean followManifest,
+			final Set<Path> visited) throws IOException {
+		final Path path = entry.toAbsolutePath().normalize();
+		if (!visited.add(path)) {
+			return;
+		}
+
+		if (Files.isDirectory(path)) {
+			for (final Path file : listRecursively(path)) {
+				update(digest, "file", path.relativize(file).toString().replace(File.separatorChar, '/'));
+				updateWithContents(digest, file);
+			}
+		} else if (Files.isRegularFile(path)) {
+			update(digest, "jar", path.getFileName());
+			updateWithContents(digest, path);
+			if (followManifest) {
+				for (final Path referenced : manifestClassPath(path)) {
+					updateWithEntry(digest, referenced, followManifest, visited);
+				}
+			}
+		} else {
+			// missing entries are ignored by the analysis scope as well, but they may appear later on
+			update(digest, "missing", path);
+		}
+	}
+
+	private static List<Path> listRecursively(final Path dir) throws IOException {
+		final List<Path> files = new ArrayList<Path>();
+		final List<Path> todo = new ArrayList<Path>();
+		todo.add(dir);
+		while (!todo.isEmpty()) {
+			final Path current = todo.remove(todo.size() - 1);
+			try (final DirectoryStream<Path> children = Files.newDirectoryStream(current)) {
+				for (final Path child : children) {
+					if (Files.isDirectory(child)) {
+						todo.add(child);
+					} else if (Files.isRegularFile(child)) {
+						files.add(child);
+					}
+				}
+			}
+		}
+		// the order of a directory listing is not specified
+		Collections.sort(files);
+		return files;
+	}
+
+	private static List<Path> manifestClassPath(final Path jar) throws IOException {
+		final List<Path> referenced = new ArrayList<Path>();
+		try (final JarFile jarFile = new JarFile(jar.toFile())) {
+			final Manifest manifest = jarFile.getManifest();
+			if (manifest == null) {
+				return referenced;
+			}
+			final String classPath = manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+			if (classPath == null) {
+				return referenced;
+			}
+			for (final String entry : classPath.trim().split("\\s+")) {
+				if (!entry.isEmpty()) {
+					referenced.add(jar.resolveSibling(entry));
+				}
+			}
+		} catch (IOException e) {
+			// not a jar file, so there is no manifest to follow
+		}
+		return referenced;
+	}
+
+	private static void updateWithStubs(final MessageDigest digest, final Stubs stubs) throws IOException {
+		update(digest, "stubs", stubs);
+		if (stubs == null) {
+			return;
+		}
+		for (final String path : stubs.getPaths()) {
+			update(digest, "stub", path);
+			final InputStream resource = stubs.getNativeSpecClassLoader().getResourceAsStream(path);
+			if (resource != null) {
+				try (final InputStream in = resource) {
+					updateWithContents(digest, in);
+				}
+			} else {
+				updateWithContents(digest, Paths.get(path));
+			}
+		}
+	}
+
+	private static void updateWithContents(final MessageDigest digest, final Path file) throws IOException {
+		try (final InputStream in = Files.newInputStream(file)) {
+			updateWithContents(digest, in);
+		}
+	}
+
+	private static void updateWithContents(final MessageDigest digest, final InputStream in) throws IOException {
+		final byte[] buf = new byte[1 << 16];
+		int read;
+		long length = 0;
+		while ((read = in.read(buf)) > 0) {
+			digest.update(buf, 0, read);
+			length += read;
+		}
+		// separates the contents of consecutive files
+		update(digest, "length", length);
+	}
+
+	private static String toHex(final byte[] bytes) {
+		final StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+}
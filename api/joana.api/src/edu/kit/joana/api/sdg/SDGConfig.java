@@ -8,11 +8,14 @@
 package edu.kit.joana.api.sdg;
 
 import com.ibm.wala.cfg.exc.intra.MethodState;
+import com.ibm.wala.ipa.callgraph.AnalysisScope;
 import com.ibm.wala.ipa.callgraph.ContextSelector;
+import com.ibm.wala.ipa.callgraph.IAnalysisCacheView;
 import com.ibm.wala.ipa.callgraph.UninitializedFieldHelperOptions;
 import com.ibm.wala.ipa.callgraph.pruned.ApplicationLoaderPolicy;
 import com.ibm.wala.ipa.callgraph.pruned.DoNotPrune;
 import com.ibm.wala.ipa.callgraph.pruned.PruningPolicy;
+import com.ibm.wala.ipa.cha.IClassHierarchy;
 
 import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
 import edu.kit.joana.util.LogUtil;
@@ -30,6 +33,10 @@ import edu.kit.joana.wala.summary.SummaryComputationType;
 import edu.kit.joana.wala.util.pointsto.ObjSensZeroXCFABuilder;
 
 public class SDGConfig {
+
+	/** options of the helper for uninitialized fields that do not treat any field as uninitialized */
+	public static final UninitializedFieldHelperOptions DEFAULT_FIELD_HELPER_OPTIONS = UninitializedFieldHelperOptions.createEmpty();
+
   private PruningPolicy pruningPolicy = ApplicationLoaderPolicy.INSTANCE;
 	private String classPath;
 	private boolean classpathAddEntriesFromMANIFEST;
@@ -56,9 +63,16 @@ public class SDGConfig {
 	private boolean computeSummaryEdges = true;
 	private SummaryComputationType summaryComputationType = SummaryComputationType.DEFAULT;
 	private boolean skipSDGProgramPart = false;
+	private boolean compactNodes = false;
 	private ControlDependenceVariant controlDependenceVariant = SDGBuilder.defaultControlDependenceVariant;
 	private boolean isParallel = true;
-	private UninitializedFieldHelperOptions fieldHelperOptions = UninitializedFieldHelperOptions.createEmpty();
+	private UninitializedFieldHelperOptions fieldHelperOptions = DEFAULT_FIELD_HELPER_OPTIONS;
+	private boolean customFieldHelperOptions = false;
+	private String cacheDirectory = null;
+	private AnalysisScope scope = null;
+	private IClassHierarchy cha = null;
+	private IAnalysisCacheView cache = null;
+	private boolean shareClassHierarchy = false;
 
 	public SDGConfig(String classPath, String entryMethod, Stubs stubsPath) {
 		this(classPath, true, entryMethod, stubsPath, ExceptionAnalysis.INTERPROC, FieldPropagation.OBJ_GRAPH, PointsToPrecision.INSTANCE_BASED, false, false, MHPType.NONE);
@@ -102,6 +116,18 @@ public class SDGConfig {
 		return this.skipSDGProgramPart;
 	}
 
+	/**
+	 * Lets {@link SDGProgram#createSDGProgram(SDGConfig)} move the rarely used attributes of the nodes of the
+	 * finished sdg into one table, see {@link edu.kit.joana.ifc.sdg.graph.SDG#compactNodes()}.
+	 */
+	public void setCompactNodes(final boolean value) {
+		this.compactNodes = value;
+	}
+
+	public boolean isCompactNodes() {
+		return this.compactNodes;
+	}
+
 	/**
 	 * @return the classPath
 	 */
@@ -420,7 +446,83 @@ public class SDGConfig {
 		return fieldHelperOptions;
 	}
 
+	/**
+	 * Sets the options of the helper for uninitialized fields. Options other than
+	 * {@link #DEFAULT_FIELD_HELPER_OPTIONS} make the configuration uncacheable (see {@link SDGCache#isCacheable(SDGConfig)}).
+	 */
 	public void setFieldHelperOptions(UninitializedFieldHelperOptions fieldHelperOptions) {
 		this.fieldHelperOptions = fieldHelperOptions;
+		this.customFieldHelperOptions = fieldHelperOptions != DEFAULT_FIELD_HELPER_OPTIONS
+				&& !DEFAULT_FIELD_HELPER_OPTIONS.equals(fieldHelperOptions);
+	}
+
+	boolean hasCustomFieldHelperOptions() {
+		return customFieldHelperOptions;
+	}
+
+	/**
+	 * @return the directory of the {@link SDGCache} used by {@link SDGProgram#createSDGProgram(SDGConfig)}, or
+	 * {@code null} if sdgs are always built from scratch
+	 */
+	public String getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Lets {@link SDGProgram#createSDGProgram(SDGConfig)} look up the sdg in an {@link SDGCache} in the given
+	 * directory before building it, and store newly built sdgs there. Programs restored from the cache carry no
+	 * class hierarchy and no annotations from the bytecode, just like the ones of {@link SDGProgram#loadSDG(String, MHPType)}.
+	 * @param cacheDirectory the cache directory, or {@code null} to disable the cache
+	 */
+	public void setCacheDirectory(String cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	public AnalysisScope getAnalysisScope() {
+		return scope;
+	}
+
+	public IClassHierarchy getClassHierarchy() {
+		return cha;
+	}
+
+	/**
+	 * Lets the sdg build use the given scope and class hierarchy instead of creating its own, so that several
+	 * builds for the same class path - possibly running concurrently - parse the bytecode only once. Scope and
+	 * class hierarchy have to match the class path, stubs and exclusions of this configuration.
+	 * @param scope the analysis scope, or {@code null} to let the build create one
+	 * @param cha the class hierarchy created from {@code scope}, or {@code null} to let the build create one
+	 */
+	public void setClassHierarchy(AnalysisScope scope, IClassHierarchy cha) {
+		setClassHierarchy(scope, cha, null);
+	}
+
+	/**
+	 * Like {@link #setClassHierarchy(AnalysisScope, IClassHierarchy)}, but the build also takes the IRs of the
+	 * methods from the given cache, e.g. a {@link edu.kit.joana.wala.util.SharedIRCache#newView() view} of an IR cache
+	 * shared by the builds.
+	 * @param cache the cache for the IRs of methods in {@code cha}, or {@code null} to let the build create one
+	 */
+	public void setClassHierarchy(AnalysisScope scope, IClassHierarchy cha, IAnalysisCacheView cache) {
+		this.scope = scope;
+		this.cha = cha;
+		this.cache = cache;
+	}
+
+	public IAnalysisCacheView getAnalysisCache() {
+		return cache;
+	}
+
+	public boolean isShareClassHierarchy() {
+		return shareClassHierarchy;
+	}
+
+	/**
+	 * If set, and no class hierarchy is given by {@link #setClassHierarchy(AnalysisScope, IClassHierarchy)}, the
+	 * sdg build takes scope, class hierarchy and the IRs of the methods from {@link ClassHierarchyCache#getDefault()}.
+	 * Later builds with the same class path, stubs and exclusions reuse them.
+	 */
+	public void setShareClassHierarchy(boolean shareClassHierarchy) {
+		this.shareClassHierarchy = shareClassHierarchy;
 	}
 }
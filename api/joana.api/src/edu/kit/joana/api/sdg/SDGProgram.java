@@ -22,17 +22,21 @@ import com.ibm.wala.ssa.IR;
 import com.ibm.wala.ssa.SSAGetInstruction;
 import com.ibm.wala.ssa.SSAInstruction;
 import com.ibm.wala.ssa.SSAPutInstruction;
+import com.ibm.wala.types.ClassLoaderReference;
+import com.ibm.wala.types.TypeReference;
 import com.ibm.wala.types.annotations.Annotation;
 import com.ibm.wala.types.annotations.TypeAnnotation;
 import com.ibm.wala.types.annotations.TypeAnnotation.LocalVarTarget;
 import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.strings.Atom;
 import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
 import edu.kit.joana.api.annotations.AnnotationType;
 import edu.kit.joana.api.annotations.AnnotationTypeBasedNodeCollector;
 import edu.kit.joana.api.annotations.IdManager;
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGBinaryParser;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
@@ -66,6 +70,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -196,8 +201,18 @@ public class SDGProgram {
 	}
 
 	public static SDGProgram loadSDG(String path, MHPType mhpType) throws IOException {
-		final SDG sdg = SDG.readFromAndUseLessHeap(path, new SecurityNode.SecurityNodeFactory());
-		final MHPAnalysis mhpAnalysis = mhpType.getMhpAnalysisConstructor().apply(sdg);
+		return loadSDG(path, mhpType, false);
+	}
+
+	/**
+	 * @param storeMHP whether a computed mhp result is stored next to the sdg file for subsequent loads, see
+	 * {@link MHPType#analyzeStored(SDG, String, boolean)}. A stored result is used either way.
+	 */
+	public static SDGProgram loadSDG(String path, MHPType mhpType, boolean storeMHP) throws IOException {
+		final SDG sdg = SDGBinaryParser.isBinaryFormat(path)
+				? SDG.readFromBinary(path, new SecurityNode.SecurityNodeFactory())
+				: SDG.readFromAndUseLessHeap(path, new SecurityNode.SecurityNodeFactory());
+		final MHPAnalysis mhpAnalysis = mhpType.analyzeStored(sdg, path, storeMHP);
 		PruneInterferences.pruneInterferences(sdg, mhpAnalysis);
 		return new SDGProgram(sdg, mhpAnalysis);
 	}
@@ -254,6 +269,22 @@ public class SDGProgram {
 		if (notifier != null) {
 			notifier.sdgStarted();
 		}
+		final SDGCache cache = config.getCacheDirectory() != null && SDGCache.isCacheable(config)
+				? new SDGCache(config.getCacheDirectory()) : null;
+		final String cacheKey = cache != null ? SDGCache.computeKey(config) : null;
+		if (cache != null) {
+			final SDGProgram cached = loadCached(config, cache, cacheKey, out);
+			if (cached != null) {
+				if (notifier != null) {
+					notifier.sdgFinished();
+				}
+				if (sdgFileOut != null) {
+					SDGSerializer.toPDGFormat(cached.getSDG(), sdgFileOut);
+					sdgFileOut.flush();
+				}
+				return cached;
+			}
+		}
 		final com.ibm.wala.util.collections.Pair<SDG, SDGBuildArtifacts> p =
 				SDGBuildPreparation.computeAndKeepBuildArtifacts(out, makeBuildPreparationConfig(config), monitor);
 		final SDG sdg = p.fst;
@@ -288,18 +319,107 @@ public class SDGProgram {
 			SDGSerializer.toPDGFormat(sdg, sdgFileOut);
 			sdgFileOut.flush();
 		}
+		final IClassHierarchy ch  = buildArtifacts.getClassHierarchy();
+		final CallGraph callGraph = buildArtifacts.getWalaCallGraph(); 
+		final Set<IClass> classes = (cache != null || !config.isSkipSDGProgramPart()
+				? findClassesRelevantForAnnotation(ch, callGraph) : null);
+		if (cache != null) {
+			storeCached(config, cache, cacheKey, sdg, mhpAnalysis, classes, out);
+		}
+		if (config.isCompactNodes()) {
+			sdg.compactNodes();
+		}
 		final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
-		ret.setClassHierarchy(buildArtifacts.getClassHierarchy());
+		ret.setClassHierarchy(ch);
 		if (config.isSkipSDGProgramPart()) {
 			return ret;
 		}
 		
-		
-		final IClassHierarchy ch  = buildArtifacts.getClassHierarchy();
-		final CallGraph callGraph = buildArtifacts.getWalaCallGraph(); 
-		ret.fillWithAnnotations(ch, findClassesRelevantForAnnotation(ch, callGraph));
+		ret.fillWithAnnotations(ch, classes);
 		return ret;
 	}
+
+	/**
+	 * Recreates the program of a cached sdg like {@link #createSDGProgram(SDGConfig, PrintStream, IProgressMonitor, OutputStream)}
+	 * creates it from a new sdg: the class hierarchy is looked up for the configuration, and the annotations are
+	 * read from the classes that have been stored with the sdg.
+	 * @return the program, or {@code null} if the cache has no complete entry for the key
+	 */
+	private static SDGProgram loadCached(SDGConfig config, SDGCache cache, String cacheKey, PrintStream out)
+			throws ClassHierarchyException, IOException {
+		final List<String> classNames = cache.loadClasses(cacheKey);
+		if (classNames == null) {
+			return null;
+		}
+		final SDG sdg = cache.load(cacheKey);
+		if (sdg == null) {
+			return null;
+		}
+		final IClassHierarchy ch = SDGBuildPreparation.getClassHierarchy(out, makeBuildPreparationConfig(config));
+		final Set<IClass> classes = fromClassNames(ch, classNames);
+		if (classes == null) {
+			return null;
+		}
+
+		out.println("using cached SDG " + cacheKey + " from " + cache.getDirectory());
+		// interferences have already been pruned and control dependencies removed before the sdg was stored
+		final MHPAnalysis mhpAnalysis = config.getMhpType().analyzeStored(sdg, cache.getFile(cacheKey), true);
+		if (config.isCompactNodes()) {
+			sdg.compactNodes();
+		}
+		final SDGProgram ret = new SDGProgram(sdg, mhpAnalysis, config.getEntryMethod());
+		ret.setClassHierarchy(ch);
+		if (!config.isSkipSDGProgramPart()) {
+			ret.fillWithAnnotations(ch, classes);
+		}
+		return ret;
+	}
+
+	/**
+	 * Stores a new sdg in the cache, where {@link #loadCached(SDGConfig, SDGCache, String, PrintStream)} finds it.
+	 * Storing is best-effort: if the cache cannot be written, the sdg is still used and built again next time.
+	 */
+	private static void storeCached(SDGConfig config, SDGCache cache, String cacheKey, SDG sdg, MHPAnalysis mhpAnalysis,
+			Set<IClass> classes, PrintStream out) {
+		try {
+			cache.store(cacheKey, sdg);
+			config.getMhpType().store(mhpAnalysis, sdg, cache.getFile(cacheKey));
+			// stored last, since only entries with classes are loaded
+			cache.storeClasses(cacheKey, toClassNames(classes));
+		} catch (IOException | UncheckedIOException e) {
+			out.println("could not store SDG " + cacheKey + " in " + cache.getDirectory() + ": " + e);
+		}
+	}
+
+	/* one class per line: name of the class loader, a blank and the name of the class */
+	private static List<String> toClassNames(Set<IClass> classes) {
+		final List<String> names = new ArrayList<String>(classes.size());
+		for (IClass c : classes) {
+			names.add(c.getClassLoader().getReference().getName() + " " + c.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * @return the classes of the given names, or {@code null} if one of them is not part of the class hierarchy
+	 */
+	private static Set<IClass> fromClassNames(IClassHierarchy ch, List<String> names) {
+		final Set<IClass> classes = new HashSet<>();
+		for (String name : names) {
+			final int blank = name.indexOf(' ');
+			if (blank < 0) {
+				return null;
+			}
+			final ClassLoaderReference loader = ch.getScope().getLoader(Atom.findOrCreateUnicodeAtom(name.substring(0, blank)));
+			final IClass cl = (loader == null ? null : ch.lookupClass(TypeReference.findOrCreate(loader, name.substring(blank + 1))));
+			if (cl == null) {
+				return null;
+			}
+			classes.add(cl);
+		}
+		return classes;
+	}
 	
 	private void setClassHierarchy(IClassHierarchy ch) {
 		this.ch = ch;
@@ -503,6 +623,10 @@ public class SDGProgram {
 		cfg.isParallel = config.isParallel();
 		cfg.controlDependenceVariant = config.getControlDependenceVariant();
 		cfg.fieldHelperOptions = config.getFieldHelperOptions();
+		cfg.scope = config.getAnalysisScope();
+		cfg.cha = config.getClassHierarchy();
+		cfg.cache = config.getAnalysisCache();
+		cfg.shareClassHierarchy = config.isShareClassHierarchy();
 		debug.outln(cfg.stubs);
 		return cfg;
 	}
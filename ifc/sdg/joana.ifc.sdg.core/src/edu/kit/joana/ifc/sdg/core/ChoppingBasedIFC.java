@@ -7,16 +7,29 @@
  */
 package edu.kit.joana.ifc.sdg.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import edu.kit.joana.ifc.sdg.core.conc.ProbabilisticNIChecker;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.graph.BitVector;
 import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
+import gnu.trove.list.array.TIntArrayList;
 
 /**
  * This class provides an IFC algorithm based on a given chopping algorithm, which is interchangeable. The algorithms proceeds as follows: <p>
@@ -27,12 +40,20 @@ import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
  * </ol>
  * If these two conditions are satisfied, a violation for (s,t) is reported.<p>
  * Note, that this class can only be used to check for possibilistic leaks. To check also for probabilistic leaks, use {@link ProbabilisticNIChecker}.<p>
- * Also, there is no support for declassification, unless the provided chopper is configured appropriately.
+ * Also, there is no support for declassification, unless the provided chopper is configured appropriately.<p>
+ * Optionally, pairs whose sink is not even context-insensitively reachable from the source are discarded before
+ * chopping (see {@link #setPrefiltered(boolean)}), and the remaining pairs are chopped on several threads. The worker
+ * threads are released by {@link #close()}.
  * @author Martin Mohr
  */
-public class ChoppingBasedIFC extends IFC<String> {
+public class ChoppingBasedIFC extends IFC<String> implements AutoCloseable {
 	
 	private final Chopper chopper;
+	private final Function<SDG, ? extends Chopper> chopperFactory;
+	private final int threads;
+	/** the workers of parallel checks, created by the first one and reused by all further checks until {@link #close()} */
+	private ForkJoinPool pool;
+	private boolean prefiltered;
 	
 	/**
 	 * Instantiates a new ChoppingBasedIFC object.
@@ -43,6 +64,51 @@ public class ChoppingBasedIFC extends IFC<String> {
 	public ChoppingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Chopper chopper) {
 		super(sdg, lattice);
 		this.chopper = chopper;
+		this.chopperFactory = null;
+		this.threads = 1;
+		this.prefiltered = false;
+	}
+
+	/**
+	 * Instantiates a new ChoppingBasedIFC object which chops the source/sink pairs in parallel. Choppers are not
+	 * thread-safe, so every worker thread creates its own chopper with the given factory. Pairs are
+	 * {@link #setPrefiltered(boolean) prefiltered} by default. All checks of this object share one pool of worker
+	 * threads, which is shut down by {@link #close()}.
+	 * @param sdg SDG to perform IFC algorithm on
+	 * @param lattice security lattice to use for IFC algorithm
+	 * @param chopperFactory creates a chopper for the given sdg, e.g. {@code RepsRosayChopper::new}
+	 * @param threads number of worker threads, a value &lt;= 0 means one thread per available processor
+	 */
+	public ChoppingBasedIFC(SDG sdg, IStaticLattice<String> lattice, Function<SDG, ? extends Chopper> chopperFactory,
+			int threads) {
+		super(sdg, lattice);
+		this.chopper = null;
+		this.chopperFactory = chopperFactory;
+		this.threads = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+		this.prefiltered = true;
+	}
+
+	/**
+	 * Enables or disables the reachability prefilter. If enabled, a pair of source and sink is only chopped if the
+	 * sink is reachable from the source via program dependences ({@link SDGEdge.Kind#isSDGEdge()}), ignoring calling
+	 * contexts: the sink has to be in the forward slice of the source, and the source in the backward slice of the
+	 * sink. The chop of any other pair is empty, so both modes report the same violations, as long as the chopper
+	 * only traverses program dependences. Choppers that traverse control flow edges must not be prefiltered.
+	 * @param prefiltered whether unconnected pairs of sources and sinks shall be discarded before chopping
+	 */
+	public void setPrefiltered(boolean prefiltered) {
+		this.prefiltered = prefiltered;
+	}
+
+	/**
+	 * Shuts down the worker threads of parallel checks. A further check starts new ones.
+	 */
+	@Override
+	public void close() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
 	}
 
 	/* (non-Javadoc)
@@ -50,25 +116,190 @@ public class ChoppingBasedIFC extends IFC<String> {
 	 */
 	@Override
 	public Collection<ClassifiedViolation> checkIFlow() throws NotInLatticeException {
-		Collection<SecurityNode> srcs = collectSources();
-		Collection<SecurityNode> snks = collectSinks();
+		List<SecurityNode> srcs = new ArrayList<SecurityNode>(collectSources());
+		List<SecurityNode> snks = new ArrayList<SecurityNode>(collectSinks());
+		final IntLattice intLattice = getIntLattice();
+
+		// pairs[i] contains the sinks that are not allowed to depend on source i
+		final BitSet[] pairs = new BitSet[srcs.size()];
+		for (int i = 0; i < srcs.size(); i++) {
+			pairs[i] = new BitSet(snks.size());
+			for (int j = 0; j < snks.size(); j++) {
+				if (!isAllowed(srcs.get(i), snks.get(j), intLattice)) {
+					pairs[i].set(j);
+				}
+			}
+		}
+		if (prefiltered) {
+			removeUnconnectedPairs(srcs, snks, pairs);
+		}
+
+		final BitSet[] leaks = (threads > 1 ? chopInParallel(srcs, snks, pairs) : chop(srcs, snks, pairs));
+
+		// report the violations in the same order as the sequential check of all pairs
 		Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
-		for (SecurityNode src : srcs) {
-			for (SecurityNode snk : snks) {
-				addPossibleViolation(vios, src, snk);
+		for (int i = 0; i < srcs.size(); i++) {
+			for (int j = leaks[i].nextSetBit(0); j >= 0; j = leaks[i].nextSetBit(j + 1)) {
+				final SecurityNode snk = snks.get(j);
+				vios.add(ClassifiedViolation.createViolation(snk, srcs.get(i), snk.getRequired()));
 			}
 		}
 
 		return vios;
 	}
 	
-	private void addPossibleViolation(Collection<ClassifiedViolation> vios, SecurityNode src, SecurityNode snk) {
-		String srcLevel = src.getProvided();
+	private boolean isAllowed(SecurityNode src, SecurityNode snk, IntLattice intLattice) {
+		if (intLattice != null) {
+			return intLattice.isLeq(src.getProvidedId(intLattice), snk.getRequiredId(intLattice));
+		}
 		String snkLevel = snk.getRequired();
-		if (!l.leastUpperBound(srcLevel, snkLevel).equals(snkLevel)) {
-			Collection<SDGNode> chop = chopper.chop(src, snk);
-			if (!chop.isEmpty()) {
-				vios.add(ClassifiedViolation.createViolation(snk, src, snkLevel));
+		return l.leastUpperBound(src.getProvided(), snkLevel).equals(snkLevel);
+	}
+
+	private BitSet[] chop(List<SecurityNode> srcs, List<SecurityNode> snks, BitSet[] pairs) {
+		final Chopper c = (chopper != null ? chopper : chopperFactory.apply(g));
+		final BitSet[] leaks = new BitSet[srcs.size()];
+		for (int i = 0; i < srcs.size(); i++) {
+			leaks[i] = new BitSet(snks.size());
+			for (int j = pairs[i].nextSetBit(0); j >= 0; j = pairs[i].nextSetBit(j + 1)) {
+				if (!c.chop(srcs.get(i), snks.get(j)).isEmpty()) {
+					leaks[i].set(j);
+				}
+			}
+		}
+		return leaks;
+	}
+
+	private BitSet[] chopInParallel(final List<SecurityNode> srcs, final List<SecurityNode> snks, final BitSet[] pairs) {
+		final TIntArrayList pairSrcs = new TIntArrayList();
+		final TIntArrayList pairSnks = new TIntArrayList();
+		for (int i = 0; i < srcs.size(); i++) {
+			for (int j = pairs[i].nextSetBit(0); j >= 0; j = pairs[i].nextSetBit(j + 1)) {
+				pairSrcs.add(i);
+				pairSnks.add(j);
+			}
+		}
+
+		final AtomicIntegerArray leaking = new AtomicIntegerArray(pairSrcs.size());
+		final ThreadLocal<Chopper> choppers = ThreadLocal.withInitial(() -> chopperFactory.apply(g));
+		if (pool == null) {
+			pool = new ForkJoinPool(threads);
+		}
+		try {
+			pool.submit(() -> IntStream.range(0, pairSrcs.size()).parallel().forEach(k -> {
+				final Collection<SDGNode> chop = choppers.get().chop(srcs.get(pairSrcs.get(k)), snks.get(pairSnks.get(k)));
+				if (!chop.isEmpty()) {
+					leaking.set(k, 1);
+				}
+			})).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while chopping", e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+
+		final BitSet[] leaks = new BitSet[srcs.size()];
+		for (int i = 0; i < srcs.size(); i++) {
+			leaks[i] = new BitSet(snks.size());
+		}
+		for (int k = 0; k < pairSrcs.size(); k++) {
+			if (leaking.get(k) != 0) {
+				leaks[pairSrcs.get(k)].set(pairSnks.get(k));
+			}
+		}
+		return leaks;
+	}
+
+	/**
+	 * Removes all pairs whose sink is not reachable from the source in the sdg. First, the backward slice of all sinks
+	 * that take part in some pair is computed, which contains every node on a path from a source to one of them.
+	 * Then the reachability of 64 sources is propagated at once within that slice, as one bit per source in a long
+	 * per node. A pair remains if its sink is in the forward slice of its source restricted to the backward slice.
+	 */
+	private void removeUnconnectedPairs(List<SecurityNode> srcs, List<SecurityNode> snks, BitSet[] pairs) {
+		int maxId = 0;
+		for (SDGNode n : g.vertexSet()) {
+			maxId = Math.max(maxId, n.getId());
+		}
+		final BitVector queued = new BitVector(maxId + 1);
+		final TIntArrayList worklist = new TIntArrayList();
+
+		// backward half: the nodes that reach a sink of some pair
+		final BitSet relevantSnks = new BitSet(snks.size());
+		for (BitSet snksOfSrc : pairs) {
+			relevantSnks.or(snksOfSrc);
+		}
+		final BitVector reachesSink = new BitVector(maxId + 1);
+		for (int j = relevantSnks.nextSetBit(0); j >= 0; j = relevantSnks.nextSetBit(j + 1)) {
+			final int id = snks.get(j).getId();
+			if (reachesSink.setWithResult(id)) {
+				worklist.add(id);
+			}
+		}
+		for (int head = 0; head < worklist.size(); head++) {
+			for (SDGEdge e : g.incomingEdgesOf(g.getNode(worklist.getQuick(head)))) {
+				if (e.getKind().isSDGEdge() && reachesSink.setWithResult(e.getSource().getId())) {
+					worklist.add(e.getSource().getId());
+				}
+			}
+		}
+
+		// only sources that take part in some pair and reach one of its sinks need to be propagated
+		final TIntArrayList relevant = new TIntArrayList();
+		for (int i = 0; i < srcs.size(); i++) {
+			if (!reachesSink.get(srcs.get(i).getId())) {
+				pairs[i].clear();
+			} else if (!pairs[i].isEmpty()) {
+				relevant.add(i);
+			}
+		}
+
+		// forward half, restricted to the backward half
+		final long[] reach = new long[maxId + 1];
+		for (int chunk = 0; chunk < relevant.size(); chunk += 64) {
+			final int chunkSize = Math.min(64, relevant.size() - chunk);
+			Arrays.fill(reach, 0L);
+			worklist.resetQuick();
+			for (int b = 0; b < chunkSize; b++) {
+				final int id = srcs.get(relevant.get(chunk + b)).getId();
+				reach[id] |= 1L << b;
+				if (queued.setWithResult(id)) {
+					worklist.add(id);
+				}
+			}
+
+			for (int head = 0; head < worklist.size(); head++) {
+				final int id = worklist.getQuick(head);
+				queued.clear(id);
+				final long mask = reach[id];
+				for (SDGEdge e : g.outgoingEdgesOf(g.getNode(id))) {
+					if (!e.getKind().isSDGEdge()) {
+						continue;
+					}
+					final int target = e.getTarget().getId();
+					if (reachesSink.get(target) && (reach[target] | mask) != reach[target]) {
+						reach[target] |= mask;
+						if (queued.setWithResult(target)) {
+							worklist.add(target);
+						}
+					}
+				}
+			}
+
+			for (int b = 0; b < chunkSize; b++) {
+				final BitSet snksOfSrc = pairs[relevant.get(chunk + b)];
+				for (int j = snksOfSrc.nextSetBit(0); j >= 0; j = snksOfSrc.nextSetBit(j + 1)) {
+					if ((reach[snks.get(j).getId()] & (1L << b)) == 0) {
+						snksOfSrc.clear(j);
+					}
+				}
 			}
 		}
 	}
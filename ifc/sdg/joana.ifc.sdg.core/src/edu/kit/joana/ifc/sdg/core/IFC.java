@@ -21,8 +21,10 @@ import java.util.Collection;
 import edu.kit.joana.ifc.sdg.core.interfaces.ProgressAnnouncer;
 import edu.kit.joana.ifc.sdg.core.interfaces.ProgressListener;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.IViolationSink;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 
 
@@ -45,6 +47,9 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
 	protected SDG g;
     // der lattice
 	protected IStaticLattice<L> l;
+	/** the lattice {@link #intLattice} has been converted from */
+	private IStaticLattice<L> intLatticeOf;
+	private IntLattice intLattice;
 
 
     /** Berechnet, ob der SDG noninterferent ist und aktualisiert die Progressbar.
@@ -55,6 +60,24 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
      */
 	public abstract Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException;
 
+    /** Reports the violations to the given sink as soon as they are found, instead of returning them at the end.
+     * The check stops as soon as the sink returns {@code false}.
+     * This implementation reports the result of {@link #checkIFlow()}, checkers which find their violations one
+     * after another override it.
+     *
+     * @return {@code true} if all violations were reported, {@code false} if the sink stopped the check
+     *
+     * @throws NotInLatticeException
+     */
+	public boolean checkIFlow(IViolationSink<SecurityNode> sink) throws NotInLatticeException {
+		for (IViolation<SecurityNode> vio : checkIFlow()) {
+			if (!sink.report(vio)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 
     /** Erzeugt eine neue Instanz.
      *
@@ -74,6 +97,21 @@ public abstract class IFC<L> implements ProgressListener, ProgressAnnouncer {
 		return l;
 	}
 
+    /** Converts the lattice of string levels once, not for every check: the conversion is repeated only if the
+     * lattice has been replaced since, see {@link IntLattice#of(IStaticLattice)}.
+     *
+     * @return the int representation of the lattice, or {@code null} if the lattice is too large
+     */
+	@SuppressWarnings("unchecked")
+	protected IntLattice getIntLattice() {
+		if (intLatticeOf != l) {
+			// only called by checkers of lattices of strings
+			intLattice = IntLattice.of((IStaticLattice<String>) l);
+			intLatticeOf = l;
+		}
+		return intLattice;
+	}
+
     /** Zur Wiederverwendung mit neuem Verband.
      *
      * @param lattice   Ein Verband.
@@ -27,6 +27,7 @@ import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
@@ -90,7 +91,9 @@ public class JoanaIFCSlicer implements ProgressAnnouncer {
 	private HashSet<SecurityNode> sliceNodes = new HashSet<SecurityNode>();
 
 	public JoanaIFCSlicer(SDG g, IStaticLattice<String> l) {
-		this.l = l;
+		// joins and meets are computed for every path edge, so they are looked up in tables where possible
+		final IntLattice intLattice = IntLattice.of(l);
+		this.l = (intLattice != null ? intLattice : l);
 		this.g = g;
 	}
 
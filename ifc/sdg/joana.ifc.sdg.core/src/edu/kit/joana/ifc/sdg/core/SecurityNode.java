@@ -8,6 +8,7 @@
 package edu.kit.joana.ifc.sdg.core;
 
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.util.SourceLocation;
 
 
@@ -30,6 +31,11 @@ public class SecurityNode extends SDGNode {
     private String required = SecurityNode.UNDEFINED;
     private String provided = SecurityNode.UNDEFINED;
 
+    /** lattice the cached level ids refer to, written after the ids */
+    private volatile IntLattice levelIdLattice = null;
+    private int requiredId;
+    private int providedId;
+
     public SecurityNode(int id, Operation op, String value, int proc,
             String type, SourceLocation sourceLocation, String bcName, int bcIndex,
             String[] localDefNames, String[] localUseNames,
@@ -76,6 +82,7 @@ public class SecurityNode extends SDGNode {
     public void setRequired(String iflow) {
       if (iflow == null) this.required = SecurityNode.UNDEFINED;
       else this.required = iflow.intern();
+      this.levelIdLattice = null;
     }
 
     /**
@@ -114,6 +121,35 @@ public class SecurityNode extends SDGNode {
     public void setProvided(String iflow) {
       if (iflow == null) this.provided = SecurityNode.UNDEFINED;
       else this.provided = iflow.intern();
+      this.levelIdLattice = null;
+    }
+
+    /**
+     * Returns the id of the {@link #getRequired() required level} of this node in the given lattice. The id is
+     * cached until the levels of this node change or ids of another lattice are requested.
+     * @param lattice lattice the required level is an element of
+     * @return the id of the required level, {@link IntLattice#UNDEFINED} if it is {@link #UNDEFINED}
+     */
+    public int getRequiredId(IntLattice lattice) {
+      if (levelIdLattice != lattice) internLevels(lattice);
+      return requiredId;
+    }
+
+    /**
+     * Returns the id of the {@link #getProvided() provided level} of this node in the given lattice. The id is
+     * cached until the levels of this node change or ids of another lattice are requested.
+     * @param lattice lattice the provided level is an element of
+     * @return the id of the provided level, {@link IntLattice#UNDEFINED} if it is {@link #UNDEFINED}
+     */
+    public int getProvidedId(IntLattice lattice) {
+      if (levelIdLattice != lattice) internLevels(lattice);
+      return providedId;
+    }
+
+    private void internLevels(IntLattice lattice) {
+      this.requiredId = lattice.getId(required);
+      this.providedId = lattice.getId(provided);
+      this.levelIdLattice = lattice;
     }
 
     /**
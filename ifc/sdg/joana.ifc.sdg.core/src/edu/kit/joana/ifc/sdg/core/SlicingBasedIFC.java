@@ -7,19 +7,30 @@
  */
 package edu.kit.joana.ifc.sdg.core;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import edu.kit.joana.ifc.sdg.core.DirectedSlicer.Direction;
 import edu.kit.joana.ifc.sdg.core.conc.BarrierIFCSlicer;
 import edu.kit.joana.ifc.sdg.core.conc.ProbabilisticNIChecker;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.IViolationSink;
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer;
 import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.IntLattice;
 import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
@@ -35,6 +46,9 @@ import edu.kit.joana.util.Logger;
  * If yes, report a violation for (s,t).</li>
  * </ol>
  * For the forward variant, the forward slice of each source is computed and a malicious sink is searched for.<p>
+ * If the given slicer is a {@link MultiCriteriaSlicer} and batching is enabled (see {@link #setBatched(boolean)}), the
+ * slices of 64 sinks (resp. sources) at a time are computed together in a single traversal of the sdg, instead of one
+ * slice per sink (resp. source).<p>
  * Note, that this class can only be used to check for possibilistic leaks. To check also for probabilistic leaks, use {@link ProbabilisticNIChecker}.<br>
  * Also, there is no support for declassification, unless the provided chopper is configured appropriately.
  * @author Martin Mohr
@@ -45,7 +59,13 @@ public class SlicingBasedIFC extends IFC<String> {
 
 	private final DirectedSlicer slicerForw;
 	private final DirectedSlicer slicerBackw;
+	private final Slicer rawSlicerForw;
+	private final Slicer rawSlicerBackw;
 	private DirectedSlicer slicer;
+	private boolean batched = false;
+	private boolean sliceOnSnapshot = false;
+	/** number of end points sliced together in batched mode, one bit of a long mark per end point */
+	private static final int BATCH_SIZE = 64;
 	
 	/**
 	 * Instantiates a new SlicingBasedIFC algorithm. 
@@ -61,6 +81,29 @@ public class SlicingBasedIFC extends IFC<String> {
 		super(sdg, lattice);
 		this.slicerForw = DirectedSlicer.decorateWithDirection(slicerForw, Direction.FORWARD);
 		this.slicerBackw = DirectedSlicer.decorateWithDirection(slicerBackw, Direction.BACKWARD);
+		this.rawSlicerForw = slicerForw;
+		this.rawSlicerBackw = slicerBackw;
+	}
+
+	/**
+	 * Enables or disables the computation of the slices of {@value #BATCH_SIZE} end points in a single traversal.
+	 * This only has an effect if the used slicer is a {@link MultiCriteriaSlicer}. Both modes report the same
+	 * violations in the same order: per end point, in the order of the end points, and for each end point ordered
+	 * by the id of the other end of the violation. Batching is disabled by default.
+	 * @param batched whether the slices of several sinks (resp. sources) shall be computed together
+	 */
+	public void setBatched(boolean batched) {
+		this.batched = batched;
+	}
+
+	/**
+	 * Enables or disables slicing on a snapshot of the sdg (see {@link SDG#freeze()}), which is taken once per check.
+	 * This only has an effect if the used slicer is a {@link SummarySlicer} working on the checked sdg. Batched
+	 * checks always slice on a snapshot. Slicing on a snapshot is disabled by default.
+	 * @param sliceOnSnapshot whether the slices shall be computed on a snapshot of the sdg
+	 */
+	public void setSliceOnSnapshot(boolean sliceOnSnapshot) {
+		this.sliceOnSnapshot = sliceOnSnapshot;
 	}
 
 	/* (non-Javadoc)
@@ -68,6 +111,26 @@ public class SlicingBasedIFC extends IFC<String> {
 	 */
 	@Override
 	public Collection<ClassifiedViolation> checkIFlow() throws NotInLatticeException {
+		final Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
+		checkIFlow(new IViolationSink<SecurityNode>() {
+			@Override
+			public boolean report(IViolation<SecurityNode> violation) {
+				// this checker only finds classified violations
+				vios.add((ClassifiedViolation) violation);
+				return true;
+			}
+		});
+		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
+		return vios;
+	}
+
+	/**
+	 * Reports the violations of each sink (resp. source) right after its slice has been computed. In batched
+	 * mode, the violations of a batch are reported right after the slices of the batch have been computed.
+	 * @see edu.kit.joana.ifc.sdg.core.IFC#checkIFlow(IViolationSink)
+	 */
+	@Override
+	public boolean checkIFlow(IViolationSink<SecurityNode> sink) throws NotInLatticeException {
 		this.slicer = slicerBackw;
 		Collection<SecurityNode> sources = collectStartpoints();
 		DEBUG.outln(String.format("[%s] Executing slicing-based IFC on a graph with %d nodes and %d edges.", Calendar.getInstance().getTime(), this.g.vertexSet().size(), this.g.edgeSet().size()));
@@ -89,7 +152,33 @@ public class SlicingBasedIFC extends IFC<String> {
 			endpointsStr = "sinks";
 			DEBUG.outln(String.format("[%s] Using backward slicing.", Calendar.getInstance().getTime()));
 		}
-		Collection<ClassifiedViolation> vios = new LinkedList<ClassifiedViolation>();
+		final Slicer rawSlicer = (slicer == slicerForw ? rawSlicerForw : rawSlicerBackw);
+		final boolean useBatches = batched && rawSlicer instanceof MultiCriteriaSlicer;
+		// a summary slicer slices on a snapshot of the sdg, which is taken once for all end points
+		final SummarySlicer frozenSlicer = ((useBatches || sliceOnSnapshot) && rawSlicer instanceof SummarySlicer
+				&& ((SummarySlicer) rawSlicer).getGraph() == g ? (SummarySlicer) rawSlicer : null);
+		final FrozenSDG previousSnapshot = (frozenSlicer != null ? frozenSlicer.getFrozenGraph() : null);
+		if (frozenSlicer != null) {
+			frozenSlicer.setFrozenGraph(g.freeze());
+		}
+		try {
+			if (useBatches) {
+				return checkIFlowBatched((MultiCriteriaSlicer) rawSlicer, endPoints, endpointsStr, sink);
+			}
+			return checkIFlowEach(endPoints, endpointsStr, sink);
+		} finally {
+			if (frozenSlicer != null) {
+				// release our snapshot and let the slicer work on what it worked on before
+				if (previousSnapshot != null) {
+					frozenSlicer.setFrozenGraph(previousSnapshot);
+				} else {
+					frozenSlicer.setGraph(g);
+				}
+			}
+		}
+	}
+
+	private boolean checkIFlowEach(Collection<SecurityNode> endPoints, String endpointsStr, IViolationSink<SecurityNode> sink) {
 		DEBUG.outln(String.format("[%s] slicing each of the %d %s...", Calendar.getInstance().getTime(), endPoints.size(), endpointsStr));
 		int count = 0;
 		for (SecurityNode endPoint : endPoints) {
@@ -98,11 +187,59 @@ public class SlicingBasedIFC extends IFC<String> {
 			Collection<SDGNode> slice = slicer.slice(endPoint);
 			DEBUG.outln(String.format("[%s] done. Slice contains %d items", Calendar.getInstance().getTime(), slice.size()));
 			DEBUG.outln(String.format("[%s] scanning for sources...", Calendar.getInstance().getTime()));
-			addPossibleViolations(endPoint, slice, vios);
+			if (!addPossibleViolations(endPoint, slice, sink)) {
+				DEBUG.outln(String.format("[%s] stopped.", Calendar.getInstance().getTime()));
+				return false;
+			}
 			DEBUG.outln(String.format("[%s] done.", Calendar.getInstance().getTime()));
 		}
-		DEBUG.outln(String.format("[%s] done. Found %d violation(s).", Calendar.getInstance().getTime(), vios.size()));
-		return vios;
+		return true;
+	}
+
+	private boolean checkIFlowBatched(MultiCriteriaSlicer multiSlicer, Collection<SecurityNode> endPoints,
+			String endpointsStr, IViolationSink<SecurityNode> sink) {
+		final List<SDGNode> criteria = new ArrayList<SDGNode>(endPoints);
+		DEBUG.outln(String.format("[%s] slicing the %d %s in batches of %d...", Calendar.getInstance().getTime(), criteria.size(), endpointsStr, BATCH_SIZE));
+		for (int offset = 0; offset < criteria.size(); offset += BATCH_SIZE) {
+			final List<SDGNode> batch = criteria.subList(offset, Math.min(offset + BATCH_SIZE, criteria.size()));
+			DEBUG.outln(String.format("[%s] %d to %d of %d...", Calendar.getInstance().getTime(), offset + 1, offset + batch.size(), criteria.size()));
+			final Map<SDGNode, BitSet> slices = multiSlicer.sliceEach(batch);
+			DEBUG.outln(String.format("[%s] done. Slices contain %d items", Calendar.getInstance().getTime(), slices.size()));
+			DEBUG.outln(String.format("[%s] scanning for sources...", Calendar.getInstance().getTime()));
+			if (!reportViolations(batch, slices, sink)) {
+				DEBUG.outln(String.format("[%s] stopped.", Calendar.getInstance().getTime()));
+				return false;
+			}
+			DEBUG.outln(String.format("[%s] done.", Calendar.getInstance().getTime()));
+		}
+		return true;
+	}
+
+	/**
+	 * @return {@code false} if the sink stopped the check
+	 */
+	private boolean reportViolations(List<SDGNode> batch, Map<SDGNode, BitSet> slices, IViolationSink<SecurityNode> sink) {
+		// collect the start points per end point, so they are reported in the same order as with one slice per end point
+		final List<List<SecurityNode>> startPointsOfEndPoint = new ArrayList<List<SecurityNode>>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			startPointsOfEndPoint.add(new ArrayList<SecurityNode>());
+		}
+		for (Map.Entry<SDGNode, BitSet> entry : slices.entrySet()) {
+			final SecurityNode sNode = (SecurityNode) entry.getKey();
+			if (!isStartpoint(sNode)) {
+				continue;
+			}
+			final BitSet endPointsReached = entry.getValue();
+			for (int i = endPointsReached.nextSetBit(0); i >= 0; i = endPointsReached.nextSetBit(i + 1)) {
+				startPointsOfEndPoint.get(i).add(sNode);
+			}
+		}
+		for (int i = 0; i < batch.size(); i++) {
+			if (!reportViolations((SecurityNode) batch.get(i), startPointsOfEndPoint.get(i), sink)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	private Collection<SecurityNode> collectStartpoints() {
@@ -149,19 +286,49 @@ public class SlicingBasedIFC extends IFC<String> {
 		}
 	}
 
-	private void addPossibleViolations(SecurityNode endPoint, Collection<SDGNode> slice, Collection<ClassifiedViolation> vios) {
+	/**
+	 * @return {@code false} if the sink stopped the check
+	 */
+	private boolean addPossibleViolations(SecurityNode endPoint, Collection<SDGNode> slice, IViolationSink<SecurityNode> sink) {
+		final List<SecurityNode> startPoints = new ArrayList<SecurityNode>();
 		for (SDGNode n : slice) {
-			SecurityNode sNode = (SecurityNode) n;
-			String secLevelOfOtherEndpoint = getLevel(sNode);
-			String secLevelOfEndpoint = getLevel(endPoint);
-			if (isStartpoint(sNode) && secLevelOfOtherEndpoint != null && isLeakage(endPoint, sNode)) {
-				if (endPoint.isInformationSource() && sNode.isInformationSink()) {
-					vios.add(ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint));
-				} else if (endPoint.isInformationSink() && sNode.isInformationSource()) {
-					vios.add(ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint));
-				}
+			if (isStartpoint((SecurityNode) n)) {
+				startPoints.add((SecurityNode) n);
+			}
+		}
+		return reportViolations(endPoint, startPoints, sink);
+	}
+
+	/**
+	 * Reports the violations between the given end point and the given start points of its slice in the order of
+	 * the ids of the start points, which does not depend on how the slice was computed.
+	 * @return {@code false} if the sink stopped the check
+	 */
+	private boolean reportViolations(SecurityNode endPoint, List<SecurityNode> startPoints, IViolationSink<SecurityNode> sink) {
+		Collections.sort(startPoints, SDGNode.getIDComparator());
+		for (SecurityNode sNode : startPoints) {
+			final ClassifiedViolation vio = createPossibleViolation(endPoint, sNode);
+			if (vio != null && !sink.report(vio)) {
+				return false;
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * @return the violation between the given nodes, or {@code null} if there is none
+	 */
+	private ClassifiedViolation createPossibleViolation(SecurityNode endPoint, SecurityNode sNode) {
+		String secLevelOfOtherEndpoint = getLevel(sNode);
+		String secLevelOfEndpoint = getLevel(endPoint);
+		if (isStartpoint(sNode) && secLevelOfOtherEndpoint != null && isLeakage(endPoint, sNode)) {
+			if (endPoint.isInformationSource() && sNode.isInformationSink()) {
+				return ClassifiedViolation.createViolation(sNode, endPoint, secLevelOfOtherEndpoint);
+			} else if (endPoint.isInformationSink() && sNode.isInformationSource()) {
+				return ClassifiedViolation.createViolation(endPoint, sNode, secLevelOfEndpoint);
+			}
+		}
+		return null;
 	}
 
 	private boolean isLeakage(SecurityNode n1, SecurityNode n2) {
@@ -177,6 +344,10 @@ public class SlicingBasedIFC extends IFC<String> {
 			snk = n1;
 		}
 		
+		final IntLattice intLattice = getIntLattice();
+		if (intLattice != null) {
+			return !intLattice.isLeq(src.getProvidedId(intLattice), snk.getRequiredId(intLattice));
+		}
 		return !l.leastUpperBound(src.getProvided(), snk.getRequired()).equals(snk.getRequired());
 	}
 	
@@ -11,6 +11,7 @@ import java.util.Collection;
 
 import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.violations.IConflictLeak;
+import edu.kit.joana.ifc.sdg.core.violations.IViolationSink;
 
 /**
  * Common interface for all algorithms scanning for conflicts leading to 
@@ -22,6 +23,21 @@ import edu.kit.joana.ifc.sdg.core.violations.IConflictLeak;
  */
 public interface ConflictScanner {
 	Collection<? extends IConflictLeak<SecurityNode>> check();
+
+	/**
+	 * Like {@link #check()}, but reports the conflicts to the given sink and stops as soon as the sink returns
+	 * {@code false}. This implementation reports the result of {@link #check()}.
+	 * @return {@code true} if all conflicts were reported, {@code false} if the sink stopped the check
+	 */
+	default boolean check(IViolationSink<SecurityNode> sink) {
+		for (IConflictLeak<SecurityNode> leak : check()) {
+			if (!sink.report(leak)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	Collection<? extends IConflictLeak<SecurityNode>> getAllConflicts();
 	Collection<DataConflict<SecurityNode>> getDataConflicts();
 	Collection<OrderConflict<SecurityNode>> getOrderConflicts();
@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.ifc.sdg.core.conc;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -18,6 +19,8 @@ import edu.kit.joana.ifc.sdg.core.sdgtools.SDGTools;
 import edu.kit.joana.ifc.sdg.core.violations.AbstractConflictLeak;
 import edu.kit.joana.ifc.sdg.core.violations.ConflictEdge;
 import edu.kit.joana.ifc.sdg.core.violations.IConflictLeak;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.IViolationSink;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
@@ -116,22 +119,47 @@ public class LSODNISlicer implements ConflictScanner {
 	 * @return Die Menge der gefundenen Sicherheitsverletzungen.
 	 */
 	public Set<IConflictLeak<SecurityNode>> check() {
+		check(new IViolationSink<SecurityNode>() {
+			@Override
+			public boolean report(IViolation<SecurityNode> violation) {
+				return true;
+			}
+		});
+		return new HashSet<IConflictLeak<SecurityNode>>(conf.getConflicts());
+	}
+
+	/**
+	 * Reports the conflicts found for each annotated node right after its slice has been scanned. Conflicts
+	 * which are found again for another node are reported only once.
+	 * @see ConflictScanner#check(IViolationSink)
+	 */
+	@Override
+	public boolean check(IViolationSink<SecurityNode> sink) {
 		LinkedList<Element> criteria = collectCriteria();
 		this.sources.clear();
 		this.sinks.clear();
 		this.sources.addAll(SDGTools.getInformationSources(g));
 		this.sinks.addAll(SDGTools.getInformationSinks(g));
-		Set<IConflictLeak<SecurityNode>> set = new HashSet<IConflictLeak<SecurityNode>>();
+		Set<IConflictLeak<SecurityNode>> reported = new HashSet<IConflictLeak<SecurityNode>>();
 		confEdgeMan.computeConflictEdges();
 		confEdgeMan.addConflictEdges();
 		conf.init();
-		for (Element e : criteria) {
-			scanForConflicts(e);
+		try {
+			for (Element e : criteria) {
+				final int known = conf.getNumberOfConflicts();
+				scanForConflicts(e);
+				for (AbstractConflictLeak<SecurityNode> leak : conf.getConflictsSince(known)) {
+					if (reported.add(leak) && !sink.report(leak)) {
+						return false;
+					}
+				}
+			}
+		} finally {
+			// the sdg must not keep the conflict edges, also if the sink stopped the check
+			confEdgeMan.removeConflictEdges();
 		}
-		confEdgeMan.removeConflictEdges();
-		set.addAll(conf.getConflicts());
 
-		return set;
+		return true;
 	}
 
 	/**
@@ -407,6 +435,17 @@ public class LSODNISlicer implements ConflictScanner {
 		 * @return Alle bisher gefundenen Konflikte.
 		 */
 		Collection<AbstractConflictLeak<SecurityNode>> getConflicts();
+
+		/**
+		 * @return the number of conflicts found so far
+		 */
+		int getNumberOfConflicts();
+
+		/**
+		 * @return the conflicts found after the first <code>count</code> ones, in the order they were found
+		 */
+		List<AbstractConflictLeak<SecurityNode>> getConflictsSince(int count);
+
 		Collection<DataConflict<SecurityNode>> getDataConflicts();
 		Collection<OrderConflict<SecurityNode>> getOrderConflicts();
 		
@@ -426,7 +465,7 @@ public class LSODNISlicer implements ConflictScanner {
 
 	private static class SimpleConflicts implements ConflictManager {
 		// menge der bisherigen konflikte
-		private final LinkedList<AbstractConflictLeak<SecurityNode>> conflicts;
+		private final ArrayList<AbstractConflictLeak<SecurityNode>> conflicts;
 		private final LinkedList<DataConflict<SecurityNode>> dataConflicts;
 		private final LinkedList<OrderConflict<SecurityNode>> orderConflicts;
 		private final Set<Pair<SecurityNode, SecurityNode>> ocEdges = new HashSet<Pair<SecurityNode, SecurityNode>>();
@@ -435,7 +474,7 @@ public class LSODNISlicer implements ConflictScanner {
 		 * Initialisierung.
 		 */
 		public SimpleConflicts() {
-			conflicts = new LinkedList<AbstractConflictLeak<SecurityNode>>();
+			conflicts = new ArrayList<AbstractConflictLeak<SecurityNode>>();
 			dataConflicts = new LinkedList<DataConflict<SecurityNode>>();
 			orderConflicts = new LinkedList<OrderConflict<SecurityNode>>();
 		}
@@ -460,6 +499,16 @@ public class LSODNISlicer implements ConflictScanner {
 			return new LinkedList<AbstractConflictLeak<SecurityNode>>(conflicts);
 		}
 
+		@Override
+		public int getNumberOfConflicts() {
+			return conflicts.size();
+		}
+
+		@Override
+		public List<AbstractConflictLeak<SecurityNode>> getConflictsSince(int count) {
+			return conflicts.subList(count, conflicts.size());
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
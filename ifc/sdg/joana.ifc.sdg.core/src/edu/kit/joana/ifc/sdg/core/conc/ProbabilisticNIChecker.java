@@ -15,6 +15,7 @@ import edu.kit.joana.ifc.sdg.core.SecurityNode;
 import edu.kit.joana.ifc.sdg.core.SlicingBasedIFC;
 import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
 import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.core.violations.IViolationSink;
 import edu.kit.joana.ifc.sdg.core.violations.ViolationTranslator;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
@@ -79,25 +80,46 @@ public class ProbabilisticNIChecker extends IFC<String> {
 	 * @throws NotInLatticeException
 	 */
 	public Collection<? extends IViolation<SecurityNode>> checkIFlow() throws NotInLatticeException {
-		Collection<IViolation<SecurityNode>> ret = new LinkedList<IViolation<SecurityNode>>(); // list to be returned
+		final Collection<IViolation<SecurityNode>> ret = new LinkedList<IViolation<SecurityNode>>(); // list to be returned
+		checkIFlow(new IViolationSink<SecurityNode>() {
+			@Override
+			public boolean report(IViolation<SecurityNode> violation) {
+				ret.add(violation);
+				return true;
+			}
+		});
+
+		//dataChannels = prob.dataChannels;
+		//orderChannels = prob.orderChannels;
+
+		return ret;
+	}
+
+	/**
+	 * Reports the conflicts first and then the explicit and implicit flows, each as soon as they are found.
+	 * If the sink stops the check during the conflict scan, the flows are not checked at all.
+	 * @see IFC#checkIFlow(IViolationSink)
+	 */
+	@Override
+	public boolean checkIFlow(IViolationSink<SecurityNode> sink) throws NotInLatticeException {
 		IFC<String> is = new SlicingBasedIFC(g, l, new I2PForward(g), new I2PBackward(g));
-		
+
 		if (timeSens) {
 			is = new TimeSensitiveIFCDecorator(is);
 		}
 
 		probCheck = System.currentTimeMillis();
-		ret.addAll(prob.check());
+		final boolean completed = prob.check(sink);
 		probCheck = System.currentTimeMillis() - probCheck;
+		if (!completed) {
+			return false;
+		}
 
 		flowCheck = System.currentTimeMillis();
-		ret.addAll(is.checkIFlow());
+		final boolean flowsCompleted = is.checkIFlow(sink);
 		flowCheck = System.currentTimeMillis() - flowCheck;
 
-		//dataChannels = prob.dataChannels;
-		//orderChannels = prob.orderChannels;
-
-		return ret;
+		return flowsCompleted;
 	}
 	
 	public Collection<ClassifiedViolation> translate(Collection<? extends IViolation<SecurityNode>> vios) {
@@ -0,0 +1,23 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core.violations;
+
+/**
+ * Receives the violations of an ifc check as soon as the checker finds them, see
+ * {@link edu.kit.joana.ifc.sdg.core.IFC#checkIFlow(IViolationSink)}. The sink decides whether the checker
+ * shall go on, so clients which only need to know whether there is any violation can stop the check early.
+ */
+public interface IViolationSink<T> {
+
+	/**
+	 * Called for every violation found.
+	 * @param violation the violation
+	 * @return {@code true} if the checker shall continue, {@code false} if it shall stop
+	 */
+	public boolean report(IViolation<T> violation);
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core.violations;
+
+import java.util.Collection;
+import java.util.LinkedList;
+
+/**
+ * Collects the reported violations, and stops the check after a given number of them.
+ */
+public class ViolationCollector<T> implements IViolationSink<T> {
+
+	private final Collection<IViolation<T>> violations = new LinkedList<IViolation<T>>();
+	private final int limit;
+
+	/**
+	 * Collects all violations.
+	 */
+	public ViolationCollector() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param limit number of violations after which the check is stopped, {@code 1} answers just whether
+	 * there is any violation
+	 */
+	public ViolationCollector(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive: " + limit);
+		}
+		this.limit = limit;
+	}
+
+	@Override
+	public boolean report(IViolation<T> violation) {
+		violations.add(violation);
+		return violations.size() < limit;
+	}
+
+	/**
+	 * @return the collected violations, in the order in which they were reported
+	 */
+	public Collection<IViolation<T>> getViolations() {
+		return violations;
+	}
+
+	/**
+	 * @return whether the check was stopped because the limit was reached
+	 */
+	public boolean isLimitReached() {
+		return violations.size() >= limit;
+	}
+}
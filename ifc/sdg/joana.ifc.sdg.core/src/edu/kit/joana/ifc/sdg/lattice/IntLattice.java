@@ -0,0 +1,185 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.lattice;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A lattice of strings whose elements are numbered from 0 to {@link #size()}-1. Joins and meets of element ids are
+ * looked up in precomputed tables, and the order is stored as a bit matrix, so none of the lattice operations
+ * compares strings or computes element codes.
+ * <p>
+ * The lattice also implements the usual {@link IStaticLattice} interface of strings, so it can be passed to all
+ * checkers in place of the lattice it was created from. The ids of the levels of a node are cached by
+ * {@link edu.kit.joana.ifc.sdg.core.SecurityNode#getProvidedId(IntLattice)} and
+ * {@link edu.kit.joana.ifc.sdg.core.SecurityNode#getRequiredId(IntLattice)}.
+ * <p>
+ * The tables need quadratic space in the number of elements, so lattices with more than {@link #MAX_ELEMENTS}
+ * elements are not converted, see {@link #of(IStaticLattice)}.
+ */
+public final class IntLattice implements IStaticLattice<String> {
+
+	/**
+	 * Id of an undefined level, i.e. of {@link edu.kit.joana.ifc.sdg.core.SecurityNode#UNDEFINED}.
+	 */
+	public static final int UNDEFINED = -1;
+
+	/**
+	 * Lattices with more elements are not converted, their tables would use more than 32 MB.
+	 */
+	public static final int MAX_ELEMENTS = 2048;
+
+	private final String[] levels;
+	private final Map<String, Integer> ids;
+	private final int size;
+	private final int[] lub;
+	private final int[] glb;
+	private final long[] leq;
+	private final int leqRowLength;
+	private final int top;
+	private final int bottom;
+
+	private IntLattice(IStaticLattice<String> lattice) {
+		final Collection<String> elements = lattice.getElements();
+		this.size = elements.size();
+		this.levels = elements.toArray(new String[size]);
+		// a fixed numbering, the iteration order of the elements is not necessarily deterministic
+		Arrays.sort(levels);
+		this.ids = new HashMap<String, Integer>(2 * size);
+		for (int i = 0; i < size; i++) {
+			ids.put(levels[i], i);
+		}
+
+		this.lub = new int[size * size];
+		this.glb = new int[size * size];
+		this.leqRowLength = (size + 63) >>> 6;
+		this.leq = new long[size * leqRowLength];
+		for (int a = 0; a < size; a++) {
+			for (int b = 0; b < size; b++) {
+				final int join = getId(lattice.leastUpperBound(levels[a], levels[b]));
+				lub[a * size + b] = join;
+				glb[a * size + b] = getId(lattice.greatestLowerBound(levels[a], levels[b]));
+				if (join == b) {
+					leq[a * leqRowLength + (b >>> 6)] |= 1L << b;
+				}
+			}
+		}
+		this.top = getId(lattice.getTop());
+		this.bottom = getId(lattice.getBottom());
+	}
+
+	/**
+	 * Converts the given lattice.
+	 * @return the given lattice if it already is an {@code IntLattice}, {@code null} if it has more than
+	 * {@link #MAX_ELEMENTS} elements, and the converted lattice otherwise
+	 */
+	public static IntLattice of(IStaticLattice<String> lattice) {
+		if (lattice instanceof IntLattice) {
+			return (IntLattice) lattice;
+		}
+		if (lattice.getElements().size() > MAX_ELEMENTS) {
+			return null;
+		}
+		return new IntLattice(lattice);
+	}
+
+	/**
+	 * @return the number of elements of this lattice
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the id of the given level, or {@link #UNDEFINED} if the level is {@code null}
+	 * @throws NotInLatticeException if the level is not an element of this lattice
+	 */
+	public int getId(String level) throws NotInLatticeException {
+		if (level == null) {
+			return UNDEFINED;
+		}
+		final Integer id = ids.get(level);
+		if (id == null) {
+			throw new NotInLatticeException("Element " + level + " is not in the lattice");
+		}
+		return id;
+	}
+
+	/**
+	 * @return the level of the given id, or {@code null} for {@link #UNDEFINED}
+	 */
+	public String getLevel(int id) {
+		return id == UNDEFINED ? null : levels[id];
+	}
+
+	public int getTopId() {
+		return top;
+	}
+
+	public int getBottomId() {
+		return bottom;
+	}
+
+	public int leastUpperBound(int a, int b) {
+		return lub[a * size + b];
+	}
+
+	public int greatestLowerBound(int a, int b) {
+		return glb[a * size + b];
+	}
+
+	/**
+	 * @return whether the element with id <code>a</code> is lower than or equal to the element with id
+	 * <code>b</code>
+	 */
+	public boolean isLeq(int a, int b) {
+		return (leq[a * leqRowLength + (b >>> 6)] & (1L << b)) != 0;
+	}
+
+	@Override
+	public String greatestLowerBound(String s, String t) throws NotInLatticeException {
+		return levels[greatestLowerBound(getDefinedId(s), getDefinedId(t))];
+	}
+
+	@Override
+	public String leastUpperBound(String s, String t) throws NotInLatticeException {
+		return levels[leastUpperBound(getDefinedId(s), getDefinedId(t))];
+	}
+
+	@Override
+	public boolean isLeq(String l1, String l2) {
+		return isLeq(getDefinedId(l1), getDefinedId(l2));
+	}
+
+	@Override
+	public String getTop() throws InvalidLatticeException {
+		return levels[top];
+	}
+
+	@Override
+	public String getBottom() throws InvalidLatticeException {
+		return levels[bottom];
+	}
+
+	@Override
+	public Collection<String> getElements() {
+		return Collections.unmodifiableList(Arrays.asList(levels));
+	}
+
+	private int getDefinedId(String level) throws NotInLatticeException {
+		final int id = getId(level);
+		if (id == UNDEFINED) {
+			throw new NotInLatticeException("Element null is not in the lattice");
+		}
+		return id;
+	}
+}
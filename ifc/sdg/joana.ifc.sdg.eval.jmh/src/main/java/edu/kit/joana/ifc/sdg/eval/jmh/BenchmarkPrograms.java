@@ -0,0 +1,101 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.eval.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+
+/**
+ * The programs the benchmarks run on, and the selection of slicing criteria in their sdgs.
+ * <p>
+ * All paths are relative to the directory of this project, which is where the benchmarks are expected to be started.
+ */
+public final class BenchmarkPrograms {
+
+	public static final String JOANA_API_TEST_DATA_CLASSPATH = "../../../api/joana.api.testdata/bin";
+	public static final String JAVAGRANDE = "../../../example/joana.example.jars/javagrande/benchmarks.jar";
+
+	public static final String CLASSPATH = JOANA_API_TEST_DATA_CLASSPATH + File.pathSeparator + JAVAGRANDE;
+
+	private static final Stubs STUBS = Stubs.JRE_15;
+
+	/**
+	 * Seed of the random selection of criteria, so all benchmarks of a program use the same criteria.
+	 */
+	public static final long SEED = 42;
+
+	private BenchmarkPrograms() {}
+
+	/**
+	 * Builds the sdg of the program whose main method is declared in the given class. Interference edges and
+	 * thread information are always computed, so the concurrent slicers and checkers can run on every program.
+	 */
+	public static SDGProgram build(String className)
+			throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+		final SDGConfig config = new SDGConfig(CLASSPATH, JavaMethodSignature.mainMethodOfClass(className).toBCString(), STUBS);
+		config.setComputeInterferences(true);
+		config.setMhpType(MHPType.PRECISE);
+		config.setParallel(false);
+
+		return SDGProgram.createSDGProgram(config, IOFactory.createUTF8PrintStream(new ByteArrayOutputStream()),
+				NullProgressMonitor.INSTANCE);
+	}
+
+	/**
+	 * Selects <code>count</code> distinct nodes of the given sdg that satisfy the given predicate. The selection
+	 * only depends on the sdg and the seed, not on the iteration order of the vertex set.
+	 */
+	public static List<SDGNode> select(SDG sdg, int count, long seed, Predicate<SDGNode> candidate) {
+		final List<SDGNode> candidates = new ArrayList<SDGNode>();
+		for (final SDGNode n : sdg.vertexSet()) {
+			if (candidate.test(n)) {
+				candidates.add(n);
+			}
+		}
+		Collections.sort(candidates, SDGNode.getIDComparator());
+		Collections.shuffle(candidates, new Random(seed));
+
+		return new ArrayList<SDGNode>(candidates.subList(0, Math.min(count, candidates.size())));
+	}
+
+	/**
+	 * @return whether the given node is a statement of the program, i.e. a sensible slicing criterion
+	 */
+	public static boolean isStatement(SDGNode n) {
+		switch (n.getKind()) {
+		case EXPRESSION:
+		case PREDICATE:
+		case CALL:
+		case ACTUAL_IN:
+		case ACTUAL_OUT:
+			return true;
+		default:
+			return false;
+		}
+	}
+}
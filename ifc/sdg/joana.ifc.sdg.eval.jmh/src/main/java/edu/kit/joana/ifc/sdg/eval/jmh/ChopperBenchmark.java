@@ -0,0 +1,108 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.eval.jmh;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.FixedPointChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.IntersectionChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.NonSameLevelChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.Opt1Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.SummaryMergedChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.conc.ContextSensitiveThreadChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.conc.SimpleThreadChopper;
+
+/**
+ * Chops between a set of sources and a set of sinks. Sources and sinks are drawn independently, so most of the
+ * criteria are not connected, just like the source/sink pairs of an ifc check.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class ChopperBenchmark {
+
+	public enum ChopperType {
+		REPS_ROSAY           { Chopper create(SDG sdg) { return new RepsRosayChopper(sdg); } },
+		OPT1                 { Chopper create(SDG sdg) { return new Opt1Chopper(sdg); } },
+		INTERSECTION         { Chopper create(SDG sdg) { return new IntersectionChopper(sdg); } },
+		NON_SAME_LEVEL       { Chopper create(SDG sdg) { return new NonSameLevelChopper(sdg); } },
+		SUMMARY_MERGED       { Chopper create(SDG sdg) { return new SummaryMergedChopper(sdg); } },
+		FIXED_POINT          { Chopper create(SDG sdg) { return new FixedPointChopper(sdg); } },
+		SIMPLE_THREAD        { Chopper create(SDG sdg) { return new SimpleThreadChopper(sdg); } },
+		CONTEXT_SENSITIVE_THREAD { Chopper create(SDG sdg) { return new ContextSensitiveThreadChopper(sdg); } };
+
+		abstract Chopper create(SDG sdg);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Input {
+		@Param({"joana.api.testdata.conc.Mantel00Page10", "de.uni.trier.infsec.core.Setup", "JLex.Main", "def.JGFBarrierBench"})
+		String className;
+
+		@Param({"1", "16", "256"})
+		int criteria;
+
+		@Param({"REPS_ROSAY", "OPT1", "INTERSECTION", "NON_SAME_LEVEL", "SUMMARY_MERGED", "FIXED_POINT",
+			"SIMPLE_THREAD", "CONTEXT_SENSITIVE_THREAD"})
+		ChopperType chopperType;
+
+		Chopper chopper;
+		List<SDGNode> sources;
+		List<SDGNode> sinks;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+			final SDG sdg = BenchmarkPrograms.build(className).getSDG();
+			this.chopper = chopperType.create(sdg);
+			this.sources = BenchmarkPrograms.select(sdg, criteria, BenchmarkPrograms.SEED, BenchmarkPrograms::isStatement);
+			this.sinks = BenchmarkPrograms.select(sdg, criteria, BenchmarkPrograms.SEED + 1, BenchmarkPrograms::isStatement);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 5, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	public Collection<SDGNode> testChopAll(Input input) {
+		return input.chopper.chop(input.sources, input.sinks);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(ChopperBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
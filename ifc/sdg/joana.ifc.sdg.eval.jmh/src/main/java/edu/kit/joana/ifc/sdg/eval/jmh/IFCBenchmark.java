@@ -0,0 +1,140 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.eval.jmh;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.lattice.BuiltinLattices;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.core.IFC;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.SlicingBasedIFC;
+import edu.kit.joana.ifc.sdg.core.conc.LSODNISlicer;
+import edu.kit.joana.ifc.sdg.core.conc.ProbabilisticNIChecker;
+import edu.kit.joana.ifc.sdg.core.violations.IViolation;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.lattice.IStaticLattice;
+import edu.kit.joana.ifc.sdg.lattice.NotInLatticeException;
+
+/**
+ * Complete ifc checks of a program with a number of high sources and low sinks, set up the same way
+ * {@link edu.kit.joana.api.IFCAnalysis} sets them up. The construction of a checker is part of the measurement,
+ * since some checkers compute their conflicts on construction.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class IFCBenchmark {
+
+	private static final IStaticLattice<String> LATTICE = BuiltinLattices.getBinaryLattice();
+
+	public enum IFCType {
+		CLASSICAL_NI {
+			IFC<String> create(SDG sdg, MHPAnalysis mhp) {
+				return new SlicingBasedIFC(sdg, LATTICE, new I2PForward(sdg), new I2PBackward(sdg));
+			}
+		},
+		CLASSICAL_NI_UNBATCHED {
+			IFC<String> create(SDG sdg, MHPAnalysis mhp) {
+				final SlicingBasedIFC ifc = new SlicingBasedIFC(sdg, LATTICE, new I2PForward(sdg), new I2PBackward(sdg));
+				ifc.setBatched(false);
+				return ifc;
+			}
+		},
+		LSOD {
+			IFC<String> create(SDG sdg, MHPAnalysis mhp) {
+				return new ProbabilisticNIChecker(sdg, LATTICE, LSODNISlicer.simpleCheck(sdg, LATTICE, mhp, false), mhp, false);
+			}
+		},
+		RLSOD {
+			IFC<String> create(SDG sdg, MHPAnalysis mhp) {
+				return new ProbabilisticNIChecker(sdg, LATTICE, mhp, false);
+			}
+		};
+
+		abstract IFC<String> create(SDG sdg, MHPAnalysis mhp);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Input {
+		@Param({"joana.api.testdata.conc.Mantel00Page10", "de.uni.trier.infsec.core.Setup", "JLex.Main", "def.JGFBarrierBench"})
+		String className;
+
+		@Param({"1", "16", "256"})
+		int annotations;
+
+		@Param({"CLASSICAL_NI", "CLASSICAL_NI_UNBATCHED", "LSOD", "RLSOD"})
+		IFCType ifcType;
+
+		SDG sdg;
+		MHPAnalysis mhp;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+			final SDGProgram program = BenchmarkPrograms.build(className);
+			this.sdg = program.getSDG();
+			this.mhp = program.getMhpAnalysis();
+
+			final List<SDGNode> sources = BenchmarkPrograms.select(sdg, annotations, BenchmarkPrograms.SEED,
+					BenchmarkPrograms::isStatement);
+			final Set<SDGNode> isSource = new HashSet<SDGNode>(sources);
+			final List<SDGNode> sinks = BenchmarkPrograms.select(sdg, annotations, BenchmarkPrograms.SEED + 1,
+					n -> BenchmarkPrograms.isStatement(n) && !isSource.contains(n));
+			for (SDGNode n : sources) {
+				((SecurityNode) n).setProvided(BuiltinLattices.STD_SECLEVEL_HIGH);
+			}
+			for (SDGNode n : sinks) {
+				((SecurityNode) n).setRequired(BuiltinLattices.STD_SECLEVEL_LOW);
+			}
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 5, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	public Collection<? extends IViolation<SecurityNode>> testCheckIFlow(Input input) throws NotInLatticeException {
+		return input.ifcType.create(input.sdg, input.mhp).checkIFlow();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(IFCBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
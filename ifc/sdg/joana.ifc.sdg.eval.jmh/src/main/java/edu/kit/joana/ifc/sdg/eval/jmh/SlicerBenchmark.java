@@ -0,0 +1,112 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.eval.jmh;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.krinke.Krinke;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.krinke.OptimizedKrinke;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda.NandaFactory;
+
+/**
+ * Backward slices of a set of criteria, for the sequential and the concurrent slicers.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class SlicerBenchmark {
+
+	public enum SlicerType {
+		SUMMARY            { Slicer create(SDG sdg) { return new SummarySlicerBackward(sdg); } },
+		CONTEXT            { Slicer create(SDG sdg) { return ContextSlicerBackward.newStaticContextSlicerBackward(sdg); } },
+		ITERATIVE_2_PHASE  { Slicer create(SDG sdg) { return new I2PBackward(sdg); } },
+		NANDA              { Slicer create(SDG sdg) { return NandaFactory.createNandaBackward(sdg); } },
+		KRINKE             { Slicer create(SDG sdg) { return new Krinke(sdg); } },
+		OPTIMIZED_KRINKE   { Slicer create(SDG sdg) { return new OptimizedKrinke(sdg); } };
+
+		abstract Slicer create(SDG sdg);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Input {
+		@Param({"joana.api.testdata.conc.Mantel00Page10", "de.uni.trier.infsec.core.Setup", "JLex.Main", "def.JGFBarrierBench"})
+		String className;
+
+		@Param({"1", "16", "256"})
+		int criteria;
+
+		@Param({"SUMMARY", "CONTEXT", "ITERATIVE_2_PHASE", "NANDA", "KRINKE", "OPTIMIZED_KRINKE"})
+		SlicerType slicerType;
+
+		Slicer slicer;
+		List<SDGNode> criteriaNodes;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, IOException, UnsoundGraphException, CancelException {
+			final SDG sdg = BenchmarkPrograms.build(className).getSDG();
+			this.slicer = slicerType.create(sdg);
+			this.criteriaNodes = BenchmarkPrograms.select(sdg, criteria, BenchmarkPrograms.SEED, BenchmarkPrograms::isStatement);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 5, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	public Collection<SDGNode> testSliceAll(Input input) {
+		return input.slicer.slice(input.criteriaNodes);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, time = 5)
+	@Measurement(iterations = 5, time = 5)
+	@BenchmarkMode(Mode.AverageTime)
+	public int testSliceEach(Input input) {
+		int size = 0;
+		for (SDGNode criterion : input.criteriaNodes) {
+			size += input.slicer.slice(criterion).size();
+		}
+		return size;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(SlicerBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
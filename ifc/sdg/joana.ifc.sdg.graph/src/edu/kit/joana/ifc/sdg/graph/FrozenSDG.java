@@ -0,0 +1,168 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the adjacency structure of an {@link SDG}, see {@link SDG#freeze()}.
+ * <p>
+ * Nodes are numbered densely from 0 to {@link #size()}-1 in the order of their ids. The edges are stored in
+ * compressed sparse row layout: for each direction there is one int array with the index of the adjacent node
+ * and one byte array with the ordinal of the edge kind, and the edges of node <code>i</code> are found in the
+ * range <code>[begin(i), end(i))</code>. Within this range the edges keep the order of the sets returned by
+ * {@link SDG#incomingEdgesOf(Object)} resp. {@link SDG#outgoingEdgesOf(Object)}, which are ordered by the
+ * priority of their kind.
+ * <p>
+ * Changes to the sdg after the snapshot has been taken are not reflected by the snapshot.
+ */
+public final class FrozenSDG {
+
+	private static final SDGEdge.Kind[] KINDS = SDGEdge.Kind.values();
+
+	/**
+	 * The edges of all nodes in one direction.
+	 */
+	public static final class Adjacency {
+
+		private final int[] start;
+		private final int[] adjacent;
+		private final byte[] kind;
+
+		private Adjacency(final int[] start, final int[] adjacent, final byte[] kind) {
+			this.start = start;
+			this.adjacent = adjacent;
+			this.kind = kind;
+		}
+
+		/**
+		 * @return index of the first edge of the given node
+		 */
+		public int begin(final int node) {
+			return start[node];
+		}
+
+		/**
+		 * @return index after the last edge of the given node
+		 */
+		public int end(final int node) {
+			return start[node + 1];
+		}
+
+		/**
+		 * @return index of the node at the other end of the given edge
+		 */
+		public int adjacent(final int edge) {
+			return adjacent[edge];
+		}
+
+		/**
+		 * @return ordinal of the kind of the given edge
+		 */
+		public int kindOrdinal(final int edge) {
+			return kind[edge] & 0xff;
+		}
+
+		public SDGEdge.Kind kind(final int edge) {
+			return KINDS[kind[edge] & 0xff];
+		}
+
+		/**
+		 * @return number of edges
+		 */
+		public int size() {
+			return adjacent.length;
+		}
+	}
+
+	private final SDG sdg;
+	private final SDGNode[] nodes;
+	private final int[] id2index;
+	private final Adjacency incoming;
+	private final Adjacency outgoing;
+
+	FrozenSDG(final SDG sdg) {
+		assert KINDS.length <= 256;
+		this.sdg = sdg;
+		final Set<SDGNode> vertices = sdg.vertexSet();
+		this.nodes = vertices.toArray(new SDGNode[vertices.size()]);
+		Arrays.sort(nodes, SDGNode.getIDComparator());
+
+		final int maxId = (nodes.length > 0 ? nodes[nodes.length - 1].getId() : 0);
+		this.id2index = new int[maxId + 1];
+		Arrays.fill(id2index, -1);
+		for (int i = 0; i < nodes.length; i++) {
+			id2index[nodes[i].getId()] = i;
+		}
+
+		this.incoming = buildAdjacency(true);
+		this.outgoing = buildAdjacency(false);
+	}
+
+	private Adjacency buildAdjacency(final boolean in) {
+		final int[] start = new int[nodes.length + 1];
+		for (int i = 0; i < nodes.length; i++) {
+			final int degree = (in ? sdg.inDegreeOf(nodes[i]) : sdg.outDegreeOf(nodes[i]));
+			start[i + 1] = start[i] + degree;
+		}
+
+		final int[] adjacent = new int[start[nodes.length]];
+		final byte[] kind = new byte[start[nodes.length]];
+		int pos = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			for (final SDGEdge e : (in ? sdg.incomingEdgesOf(nodes[i]) : sdg.outgoingEdgesOf(nodes[i]))) {
+				adjacent[pos] = id2index[(in ? e.getSource() : e.getTarget()).getId()];
+				kind[pos] = (byte) e.getKind().ordinal();
+				pos++;
+			}
+		}
+
+		return new Adjacency(start, adjacent, kind);
+	}
+
+	/**
+	 * @return the sdg this snapshot has been taken from
+	 */
+	public SDG getSDG() {
+		return sdg;
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	public SDGNode getNode(final int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * @return the index of the given node, or -1 if the node is not part of this snapshot
+	 */
+	public int indexOf(final SDGNode node) {
+		final int id = node.getId();
+		return (id >= 0 && id < id2index.length ? id2index[id] : -1);
+	}
+
+	/**
+	 * @return the incoming edges of all nodes, the adjacent node of an edge is its source
+	 */
+	public Adjacency incoming() {
+		return incoming;
+	}
+
+	/**
+	 * @return the outgoing edges of all nodes, the adjacent node of an edge is its target
+	 */
+	public Adjacency outgoing() {
+		return outgoing;
+	}
+}
@@ -278,6 +278,46 @@ public class SDG extends JoanaGraph implements Cloneable {
     	return result;
     }
 
+    /**
+     * Takes an immutable snapshot of the nodes and edges of this graph, which stores the adjacency of the
+     * nodes in int arrays. Read-only analyses like slicing run faster and with less memory on the snapshot.
+     * Later modifications of this graph are not visible in the snapshot.
+     */
+    public FrozenSDG freeze() {
+    	return new FrozenSDG(this);
+    }
+
+    /**
+     * Moves the rarely used attributes of all nodes of this graph - labels, types, source locations, bytecode
+     * names, names of local variables and the like - into one table indexed by node id and clears the
+     * corresponding fields of the nodes. The getters of the nodes return the same values as before. Nodes
+     * added to the graph later keep their attributes themselves.
+     * <p>
+     * The attributes that are only needed for debugging and reporting can additionally be written to disk
+     * with {@link SDGNodeAttributeTable#unload(File)}, they are loaded again on demand.
+     *
+     * @return the table with the attributes, or null if the graph has no nodes
+     */
+    public SDGNodeAttributeTable compactNodes() {
+    	if (vertexSet().isEmpty()) {
+    		return null;
+    	}
+
+    	int minId = Integer.MAX_VALUE;
+    	int maxId = Integer.MIN_VALUE;
+    	for (SDGNode n : vertexSet()) {
+    		minId = Math.min(minId, n.getId());
+    		maxId = Math.max(maxId, n.getId());
+    	}
+
+    	final SDGNodeAttributeTable table = new SDGNodeAttributeTable(minId, maxId);
+    	for (SDGNode n : vertexSet()) {
+    		n.compact(table);
+    	}
+
+    	return table;
+    }
+
     /**
      * Returns the subgraph confined by the given nodes.
      * The subgraph contains only the nodes in the collection and all edges between them.
@@ -913,6 +953,35 @@ public class SDG extends JoanaGraph implements Cloneable {
     	return sdg;
     }
 
+    /**
+     * Read in a graph from a file written by {@link SDGBinarySerializer}. The file is memory mapped and no parser
+     * is involved, so this is considerably faster and needs less heap than reading the textual format.
+     * @param sdgFile file which is read
+     * @throws IOException if file does not exist or is not a binary SDG
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile) throws IOException {
+    	return readFromBinary(sdgFile, null);
+    }
+
+    /**
+     * Read in a graph from a file written by {@link SDGBinarySerializer}. The file is memory mapped and no parser
+     * is involved, so this is considerably faster and needs less heap than reading the textual format.
+     * @param sdgFile file which is read
+     * @param nodeFactory factory that is used to create SDGNodes
+     * @throws IOException if file does not exist or is not a binary SDG
+     * @return a SDG representation of the file
+     */
+    public static SDG readFromBinary(final String sdgFile, final SDGNode.NodeFactory nodeFactory)
+    		throws IOException {
+    	final SDG sdg = SDGBinaryParser.parse(sdgFile, nodeFactory);
+    	final int sepIndex = sdgFile.lastIndexOf(File.separator);
+    	final String fileName = (sepIndex > 0 ? sdgFile.substring(sepIndex) : sdgFile);
+    	sdg.setFileName(fileName);
+
+    	return sdg;
+    }
+
 	/**
 	 * Parses a graph, using the ANTLR grammar <code>SDG_.g</code>
 	 *
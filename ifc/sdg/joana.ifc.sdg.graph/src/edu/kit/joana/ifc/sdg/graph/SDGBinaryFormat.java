@@ -0,0 +1,88 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+/**
+ * Constants of the binary SDG format written by {@link SDGBinarySerializer} and read by {@link SDGBinaryParser}.
+ * <p>
+ * The file is organized in columns ("sections"), such that the reader can memory map each of them on its own:
+ * <pre>
+ *   header   : magic "JSDG" | int version
+ *   sections : raw int/byte arrays, one after another
+ *   toc      : int #sections | #sections * (int tag, long offset, long length)
+ *   trailer  : long offset of toc | magic "JSDG"
+ * </pre>
+ * All numbers are stored big endian. Strings (labels, types, source files, ...) are interned in a single
+ * string table and referenced by their index, {@link #NULL_REF} denotes a <code>null</code> string.
+ * Enum constants are not stored by ordinal but through a per-file dictionary of their names, so the format
+ * does not break when new node or edge kinds are added.
+ * <p>
+ * Node attributes of variable length (thread numbers, allocation sites, ...) are stored as a length column
+ * with one entry per node ({@link #NULL_REF} for <code>null</code>) and a data column with the concatenated
+ * values.
+ */
+final class SDGBinaryFormat {
+
+	private SDGBinaryFormat() {}
+
+	static final int MAGIC = 0x4a534447; // "JSDG"
+	static final int VERSION = 1;
+
+	static final int NULL_REF = -1;
+
+	static final int HEADER_SIZE = 8;
+	static final int TRAILER_SIZE = 12;
+	static final int TOC_ENTRY_SIZE = 20;
+
+	/* graph wide information: name, root, joanaCompiler flag, #nodes, #edges */
+	static final int GRAPH = 1;
+
+	/* string table */
+	static final int STRING_OFFSETS = 10;
+	static final int STRING_DATA = 11;
+
+	/* enum dictionaries: for each enum constant the string index of its name */
+	static final int DICT_NODE_KIND = 20;
+	static final int DICT_OPERATION = 21;
+	static final int DICT_EDGE_KIND = 22;
+
+	/* node columns - one entry per node, nodes are sorted by id */
+	static final int NODE_ID = 30;
+	static final int NODE_KIND = 31;
+	static final int NODE_OPERATION = 32;
+	static final int NODE_PROC = 33;
+	static final int NODE_LABEL = 34;
+	static final int NODE_TYPE = 35;
+	static final int NODE_SOURCE = 36;
+	static final int NODE_SOURCE_POS = 37;
+	static final int NODE_BC_NAME = 38;
+	static final int NODE_BC_INDEX = 39;
+	static final int NODE_CLASS_LOADER = 40;
+	static final int NODE_UNRESOLVED_CALL = 41;
+
+	/* variable length node attributes */
+	static final int NODE_THREADS_LEN = 50;
+	static final int NODE_THREADS = 51;
+	static final int NODE_ALLOC_SITES_LEN = 52;
+	static final int NODE_ALLOC_SITES = 53;
+	static final int NODE_ALIAS_SOURCES_LEN = 54;
+	static final int NODE_ALIAS_SOURCES = 55;
+	static final int NODE_LOCAL_DEFS_LEN = 56;
+	static final int NODE_LOCAL_DEFS = 57;
+	static final int NODE_LOCAL_USES_LEN = 58;
+	static final int NODE_LOCAL_USES = 59;
+
+	/* edge columns - one entry per edge, sorted by source id, kind and target id */
+	static final int EDGE_SOURCE = 70;
+	static final int EDGE_TARGET = 71;
+	static final int EDGE_KIND = 72;
+	static final int EDGE_LABEL = 73;
+
+	/* thread instances: per thread id, entry, exit, fork, dynamic, #joins, joins, #context, context */
+	static final int THREADS = 80;
+}
@@ -0,0 +1,423 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import static edu.kit.joana.ifc.sdg.graph.SDGBinaryFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode.NodeFactory;
+import edu.kit.joana.ifc.sdg.graph.SDGThreadInstance_Parser.ThreadInstanceStub;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Reads SDGs written by {@link SDGBinarySerializer}. In contrast to {@link SDGManualParser} no lexer or parser is
+ * involved: every section of the file is memory mapped and the nodes and edges are created directly from the
+ * mapped columns. Apart from the resulting SDG, only the string table is held in memory.
+ *
+ * @see SDGBinaryFormat
+ */
+public final class SDGBinaryParser {
+
+	private NodeFactory nodeFact = new SDGNode.SDGNodeFactory();
+
+	private SDGBinaryParser() {}
+
+	public void setNodeFactory(final NodeFactory nodeFact) {
+		this.nodeFact = nodeFact;
+	}
+
+	/**
+	 * Checks if the given file starts with the magic number of the binary SDG format.
+	 */
+	public static boolean isBinaryFormat(final String sdgFile) throws IOException {
+		try (final FileChannel ch = FileChannel.open(Paths.get(sdgFile), StandardOpenOption.READ)) {
+			if (ch.size() < HEADER_SIZE + TRAILER_SIZE) {
+				return false;
+			}
+			final ByteBuffer buf = ByteBuffer.allocate(4);
+			readFully(ch, buf, 0);
+			return buf.getInt(0) == MAGIC;
+		}
+	}
+
+	public static SDG parse(final String sdgFile) throws IOException {
+		return parse(sdgFile, null);
+	}
+
+	public static SDG parse(final String sdgFile, final NodeFactory nodeFact) throws IOException {
+		final SDGBinaryParser parser = new SDGBinaryParser();
+		if (nodeFact != null) {
+			parser.setNodeFactory(nodeFact);
+		}
+
+		SDG result;
+		try {
+			result = parser.run(Paths.get(sdgFile));
+		} finally {
+			SourceLocation.clearSourceLocationPool();
+		}
+
+		result.trimToSize();
+
+		return result;
+	}
+
+	public SDG run(final Path sdgFile) throws IOException {
+		final Logger log = Log.getLogger(Log.L_SDG_GRAPH_PARSE_INFO);
+		final long startTime = System.currentTimeMillis();
+
+		try (final FileChannel ch = FileChannel.open(sdgFile, StandardOpenOption.READ)) {
+			log.out("reading binary sdg ");
+			final Sections sections = readSections(ch);
+			final String[] strings = readStrings(sections);
+			final SDGNode.Kind[] nodeKinds = readDictionary(sections, DICT_NODE_KIND, strings, SDGNode.Kind.class);
+			final SDGNode.Operation[] operations =
+					readDictionary(sections, DICT_OPERATION, strings, SDGNode.Operation.class);
+			final SDGEdge.Kind[] edgeKinds = readDictionary(sections, DICT_EDGE_KIND, strings, SDGEdge.Kind.class);
+
+			final ByteBuffer graph = sections.get(GRAPH);
+			final String name = str(strings, graph.getInt());
+			final boolean hasRoot = graph.get() != 0;
+			final int rootId = graph.getInt();
+			final boolean joanaCompiler = graph.get() != 0;
+			final int numNodes = graph.getInt();
+			final int numEdges = graph.getInt();
+
+			final SDG sdg = (name == null ? new SDG() : new SDG(name));
+			sdg.setJoanaCompiler(joanaCompiler);
+
+			log.out("(nodes...");
+			createNodes(sdg, sections, strings, nodeKinds, operations, numNodes);
+			log.out("ok)");
+			log.out("(edges...");
+			createEdges(sdg, sections, strings, edgeKinds, numEdges);
+			log.out("ok)");
+			createThreadsInformation(sdg, sections);
+
+			if (hasRoot) {
+				sdg.setRoot(sdg.getNode(rootId));
+			}
+
+			log.outln(" done.");
+
+			if (log.isEnabled()) {
+				final long time = System.currentTimeMillis() - startTime;
+				log.outln("read binary sdg " + name + " with " + sdg.vertexSet().size() + " nodes and "
+						+ sdg.edgeSet().size() + " edges in " + time + "ms.");
+			}
+
+			return sdg;
+		}
+	}
+
+	/**
+	 * The memory mapped sections of a file, indexed by their tag.
+	 */
+	private static final class Sections {
+
+		private final TIntObjectHashMap<ByteBuffer> tag2section = new TIntObjectHashMap<ByteBuffer>();
+
+		private ByteBuffer get(final int tag) throws IOException {
+			final ByteBuffer buf = find(tag);
+			if (buf == null) {
+				throw new IOException("binary sdg is missing section " + tag);
+			}
+
+			return buf;
+		}
+
+		private ByteBuffer find(final int tag) {
+			final ByteBuffer buf = tag2section.get(tag);
+			// hand out independent positions, so sections may be read more than once
+			return (buf == null ? null : buf.duplicate());
+		}
+	}
+
+	private static Sections readSections(final FileChannel ch) throws IOException {
+		final long size = ch.size();
+		if (size < HEADER_SIZE + TRAILER_SIZE) {
+			throw new IOException("not a binary sdg: file too small.");
+		}
+
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		readFully(ch, header, 0);
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException("not a binary sdg: wrong magic number.");
+		}
+		final int version = header.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("unsupported binary sdg version " + version + " - expected " + VERSION);
+		}
+
+		final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+		readFully(ch, trailer, size - TRAILER_SIZE);
+		final long tocOffset = trailer.getLong(0);
+		if (trailer.getInt(8) != MAGIC || tocOffset < HEADER_SIZE || tocOffset > size - TRAILER_SIZE) {
+			throw new IOException("binary sdg is truncated or corrupt.");
+		}
+
+		final ByteBuffer toc = ch.map(MapMode.READ_ONLY, tocOffset, size - TRAILER_SIZE - tocOffset);
+		final int numSections = toc.getInt();
+		if (toc.remaining() != numSections * TOC_ENTRY_SIZE) {
+			throw new IOException("binary sdg has a corrupt table of contents.");
+		}
+
+		final Sections sections = new Sections();
+		for (int i = 0; i < numSections; i++) {
+			final int tag = toc.getInt();
+			final long offset = toc.getLong();
+			final long length = toc.getLong();
+			if (offset < HEADER_SIZE || length < 0 || offset + length > tocOffset) {
+				throw new IOException("binary sdg section " + tag + " is out of bounds.");
+			}
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("binary sdg section " + tag + " exceeds the maximal mappable size.");
+			}
+			sections.tag2section.put(tag, ch.map(MapMode.READ_ONLY, offset, length));
+		}
+
+		return sections;
+	}
+
+	private static void readFully(final FileChannel ch, final ByteBuffer buf, final long position) throws IOException {
+		long pos = position;
+		while (buf.hasRemaining()) {
+			final int read = ch.read(buf, pos);
+			if (read < 0) {
+				throw new IOException("unexpected end of file.");
+			}
+			pos += read;
+		}
+	}
+
+	private static String[] readStrings(final Sections sections) throws IOException {
+		final LongBuffer offsets = sections.get(STRING_OFFSETS).asLongBuffer();
+		final ByteBuffer data = sections.get(STRING_DATA);
+		final String[] strings = new String[offsets.remaining() - 1];
+		byte[] tmp = new byte[256];
+		long start = offsets.get();
+		for (int i = 0; i < strings.length; i++) {
+			final long end = offsets.get();
+			final int len = (int) (end - start);
+			if (tmp.length < len) {
+				tmp = new byte[len];
+			}
+			data.position((int) start);
+			data.get(tmp, 0, len);
+			strings[i] = new String(tmp, 0, len, StandardCharsets.UTF_8);
+			start = end;
+		}
+
+		return strings;
+	}
+
+	private static <T extends Enum<T>> T[] readDictionary(final Sections sections, final int tag,
+			final String[] strings, final Class<T> enumType) throws IOException {
+		final IntBuffer dict = sections.get(tag).asIntBuffer();
+		final T[] values = Arrays.copyOf(enumType.getEnumConstants(), dict.remaining());
+		for (int i = 0; i < values.length; i++) {
+			final String name = str(strings, dict.get());
+			try {
+				values[i] = Enum.valueOf(enumType, name);
+			} catch (IllegalArgumentException exc) {
+				throw new IOException("unknown " + enumType.getSimpleName() + " in binary sdg: " + name);
+			}
+		}
+
+		return values;
+	}
+
+	private static String str(final String[] strings, final int index) {
+		return (index == NULL_REF ? null : strings[index]);
+	}
+
+	private static int findKindId(final SDGNode.Operation op, final SDGNode.Kind kind) {
+		final SDGNode.Kind[] kinds = op.getCorrespondingKind();
+		for (int id = 0; id < kinds.length; id++) {
+			if (kind == kinds[id]) {
+				return id;
+			}
+		}
+
+		// shoud not happen - default to first kind
+		return 0;
+	}
+
+	private void createNodes(final SDG sdg, final Sections sections, final String[] strings,
+			final SDGNode.Kind[] nodeKinds, final SDGNode.Operation[] operations, final int numNodes)
+			throws IOException {
+		final IntBuffer ids = sections.get(NODE_ID).asIntBuffer();
+		final ByteBuffer kinds = sections.get(NODE_KIND);
+		final ByteBuffer ops = sections.get(NODE_OPERATION);
+		final IntBuffer procs = sections.get(NODE_PROC).asIntBuffer();
+		final IntBuffer labels = sections.get(NODE_LABEL).asIntBuffer();
+		final IntBuffer types = sections.get(NODE_TYPE).asIntBuffer();
+		final IntBuffer sources = sections.get(NODE_SOURCE).asIntBuffer();
+		final IntBuffer sourcePos = sections.get(NODE_SOURCE_POS).asIntBuffer();
+		final IntBuffer bcNames = sections.get(NODE_BC_NAME).asIntBuffer();
+		final IntBuffer bcIndices = sections.get(NODE_BC_INDEX).asIntBuffer();
+		final IntBuffer clsLoaders = sections.get(NODE_CLASS_LOADER).asIntBuffer();
+		final IntBuffer unresolved = sections.get(NODE_UNRESOLVED_CALL).asIntBuffer();
+		final IntBuffer threadsLen = sections.get(NODE_THREADS_LEN).asIntBuffer();
+		final IntBuffer threads = sections.get(NODE_THREADS).asIntBuffer();
+		final IntBuffer allocLen = sections.get(NODE_ALLOC_SITES_LEN).asIntBuffer();
+		final IntBuffer alloc = sections.get(NODE_ALLOC_SITES).asIntBuffer();
+		final IntBuffer aliasLen = sections.get(NODE_ALIAS_SOURCES_LEN).asIntBuffer();
+		final IntBuffer alias = sections.get(NODE_ALIAS_SOURCES).asIntBuffer();
+		final IntBuffer defsLen = sections.get(NODE_LOCAL_DEFS_LEN).asIntBuffer();
+		final IntBuffer defs = sections.get(NODE_LOCAL_DEFS).asIntBuffer();
+		final IntBuffer usesLen = sections.get(NODE_LOCAL_USES_LEN).asIntBuffer();
+		final IntBuffer uses = sections.get(NODE_LOCAL_USES).asIntBuffer();
+
+		if (ids.remaining() != numNodes) {
+			throw new IOException("binary sdg node count mismatch: " + ids.remaining() + " != " + numNodes);
+		}
+
+		for (int i = 0; i < numNodes; i++) {
+			final int id = ids.get();
+			final SDGNode.Kind kind = nodeKinds[kinds.get() & 0xff];
+			final SDGNode.Operation op = operations[ops.get() & 0xff];
+			final int proc = procs.get();
+			final String label = str(strings, labels.get());
+			final String type = str(strings, types.get());
+			final String source = str(strings, sources.get());
+			final int sr = sourcePos.get(), sc = sourcePos.get(), er = sourcePos.get(), ec = sourcePos.get();
+			final SourceLocation spos =
+					(source == null ? SourceLocation.UNKNOWN : SourceLocation.getLocation(source, sr, sc, er, ec));
+			final String bcName = str(strings, bcNames.get());
+			final int bcIndex = bcIndices.get();
+			final String clsLoader = str(strings, clsLoaders.get());
+			final String unresolvedCallTarget = str(strings, unresolved.get());
+			final int[] threadNums = readInts(threadsLen, threads);
+			final int[] allocSites = readInts(allocLen, alloc);
+			final int[] aliasSrc = readInts(aliasLen, alias);
+			final String[] localDefNames = readStrings(defsLen, defs, strings);
+			final String[] localUseNames = readStrings(usesLen, uses, strings);
+
+			final SDGNode n = nodeFact.createNode(op, findKindId(op, kind), id, label, proc, type, spos, bcName,
+					bcIndex, localDefNames, localUseNames, unresolvedCallTarget, allocSites, clsLoader);
+
+			if (aliasSrc != null) {
+				n.setAliasDataSources(new TIntHashSet(aliasSrc));
+			}
+
+			if (threadNums != null && threadNums.length > 0) {
+				Arrays.sort(threadNums);
+				n.setThreadNumbers(threadNums);
+			}
+
+			sdg.addVertex(n);
+		}
+	}
+
+	private static int[] readInts(final IntBuffer len, final IntBuffer data) {
+		final int size = len.get();
+		if (size == NULL_REF) {
+			return null;
+		}
+
+		final int[] values = new int[size];
+		data.get(values);
+
+		return values;
+	}
+
+	private static String[] readStrings(final IntBuffer len, final IntBuffer data, final String[] strings) {
+		final int size = len.get();
+		if (size == NULL_REF) {
+			return null;
+		}
+
+		final String[] values = new String[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = str(strings, data.get());
+		}
+
+		return values;
+	}
+
+	private static void createEdges(final SDG sdg, final Sections sections, final String[] strings,
+			final SDGEdge.Kind[] edgeKinds, final int numEdges) throws IOException {
+		final IntBuffer sources = sections.get(EDGE_SOURCE).asIntBuffer();
+		final IntBuffer targets = sections.get(EDGE_TARGET).asIntBuffer();
+		final ByteBuffer kinds = sections.get(EDGE_KIND);
+		final IntBuffer labels = sections.get(EDGE_LABEL).asIntBuffer();
+
+		if (sources.remaining() != numEdges) {
+			throw new IOException("binary sdg edge count mismatch: " + sources.remaining() + " != " + numEdges);
+		}
+
+		SDGNode from = null;
+		for (int i = 0; i < numEdges; i++) {
+			final int fromId = sources.get();
+			// edges are sorted by their source node
+			if (from == null || from.getId() != fromId) {
+				from = sdg.getNode(fromId);
+			}
+			final SDGNode to = sdg.getNode(targets.get());
+			final SDGEdge.Kind kind = edgeKinds[kinds.get() & 0xff];
+			final String label = str(strings, labels.get());
+			final SDGEdge edge = (label != null
+					? new LabeledSDGEdge(from, to, kind, label)
+					: kind.newEdge(from, to));
+
+			sdg.addEdge(edge);
+		}
+	}
+
+	private static void createThreadsInformation(final SDG sdg, final Sections sections) {
+		final ByteBuffer buf = sections.find(THREADS);
+		if (buf == null) {
+			return;
+		}
+
+		final LinkedList<ThreadInstance> threads = new LinkedList<>();
+		while (buf.hasRemaining()) {
+			final int id = buf.getInt();
+			final int entry = buf.getInt();
+			final int exit = buf.getInt();
+			final int fork = buf.getInt();
+			final boolean dynamic = buf.get() != 0;
+			final TIntList joins = new TIntArrayList();
+			for (int numJoins = buf.getInt(); numJoins > 0; numJoins--) {
+				joins.add(buf.getInt());
+			}
+			final TIntList context = new TIntArrayList();
+			for (int numContext = buf.getInt(); numContext > 0; numContext--) {
+				context.add(buf.getInt());
+			}
+			// NULL_REF coincides with ThreadInstanceStub.UNDEF_NODE, fold nodes are recreated as by the parser
+			final ThreadInstanceStub stub = new ThreadInstanceStub(id, entry, exit, fork, joins, context, dynamic);
+			threads.add(stub.create(sdg));
+		}
+
+		if (!threads.isEmpty()) {
+			sdg.setThreadsInfo(new ThreadsInformation(threads));
+		}
+	}
+}
@@ -0,0 +1,429 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import static edu.kit.joana.ifc.sdg.graph.SDGBinaryFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.set.TIntSet;
+
+/**
+ * Writes SDGs in the binary format described in {@link SDGBinaryFormat}. The written file contains exactly the
+ * information of the textual format produced by {@link SDGSerializer#toPDGFormat(JoanaGraph, OutputStream)} and
+ * can be read with {@link SDGBinaryParser} resp. {@link SDG#readFromBinary(String)}.
+ */
+public final class SDGBinarySerializer {
+
+	private SDGBinarySerializer() {}
+
+	public static void toBinaryFormat(final JoanaGraph g, final String fileName) throws IOException {
+		try (final OutputStream out = new FileOutputStream(fileName)) {
+			toBinaryFormat(g, out);
+		}
+	}
+
+	/**
+	 * Writes the graph to the given stream. The stream is flushed but not closed.
+	 */
+	public static void toBinaryFormat(final JoanaGraph g, final OutputStream out) throws IOException {
+		final Writer w = new Writer(g, out);
+		w.write();
+	}
+
+	/**
+	 * Counts the bytes written so far. DataOutputStream.size() overflows for files larger than 2GB.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count = 0;
+
+		private CountingOutputStream(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
+	private static final class Writer {
+
+		private final JoanaGraph g;
+		private final CountingOutputStream cout;
+		private final DataOutputStream out;
+
+		private final SDGNode[] nodes;
+		private final SDGEdge[] edges;
+
+		private final Map<String, Integer> string2index = new HashMap<String, Integer>();
+		private final List<String> strings = new ArrayList<String>();
+
+		private final List<long[]> toc = new ArrayList<long[]>();
+		private int currentTag;
+		private long currentStart;
+
+		private Writer(final JoanaGraph g, final OutputStream out) {
+			this.g = g;
+			this.cout = new CountingOutputStream(new BufferedOutputStream(out, 1 << 16));
+			this.out = new DataOutputStream(cout);
+
+			this.nodes = new SDGNode[g.vertexSet().size()];
+			int i = 0;
+			for (final Iterator<SDGNode> it = SDGSerializer.orderedNodes(g); it.hasNext();) {
+				nodes[i++] = it.next();
+			}
+
+			this.edges = new SDGEdge[g.edgeSet().size()];
+			int j = 0;
+			for (final SDGNode n : nodes) {
+				final Set<SDGEdge> outgoing = g.outgoingEdgesOf(n);
+				final SDGEdge[] sorted = outgoing.toArray(new SDGEdge[outgoing.size()]);
+				// same order as in the textual format
+				Arrays.sort(sorted, (e1, e2) -> {
+					final int byKind = e1.getKind().compareTo(e2.getKind());
+					if (byKind != 0) return byKind;
+					return Integer.compare(e1.getTarget().getId(), e2.getTarget().getId());
+				});
+				System.arraycopy(sorted, 0, edges, j, sorted.length);
+				j += sorted.length;
+			}
+			assert i == nodes.length && j == edges.length;
+		}
+
+		private int str(final String s) {
+			if (s == null) {
+				return NULL_REF;
+			}
+
+			Integer idx = string2index.get(s);
+			if (idx == null) {
+				idx = strings.size();
+				strings.add(s);
+				string2index.put(s, idx);
+			}
+
+			return idx;
+		}
+
+		private void begin(final int tag) {
+			currentTag = tag;
+			currentStart = cout.count;
+		}
+
+		private void end() throws IOException {
+			out.flush();
+			toc.add(new long[] { currentTag, currentStart, cout.count - currentStart });
+		}
+
+		private void write() throws IOException {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			writeDictionaries();
+			writeGraph();
+			writeNodes();
+			writeEdges();
+			writeThreads();
+			// the string table has to be written last, all other sections add strings to it
+			writeStrings();
+
+			out.flush();
+			final long tocOffset = cout.count;
+			out.writeInt(toc.size());
+			for (final long[] entry : toc) {
+				out.writeInt((int) entry[0]);
+				out.writeLong(entry[1]);
+				out.writeLong(entry[2]);
+			}
+			out.writeLong(tocOffset);
+			out.writeInt(MAGIC);
+			out.flush();
+		}
+
+		private void writeDictionaries() throws IOException {
+			begin(DICT_NODE_KIND);
+			for (final SDGNode.Kind k : SDGNode.Kind.values()) {
+				out.writeInt(str(k.name()));
+			}
+			end();
+
+			begin(DICT_OPERATION);
+			for (final SDGNode.Operation op : SDGNode.Operation.values()) {
+				out.writeInt(str(op.name()));
+			}
+			end();
+
+			begin(DICT_EDGE_KIND);
+			for (final SDGEdge.Kind k : SDGEdge.Kind.values()) {
+				out.writeInt(str(k.name()));
+			}
+			end();
+		}
+
+		private void writeGraph() throws IOException {
+			begin(GRAPH);
+			out.writeInt(str(g.getName()));
+			out.writeBoolean(g.getRoot() != null);
+			out.writeInt(g.getRoot() != null ? g.getRoot().getId() : 0);
+			out.writeBoolean(g instanceof SDG && ((SDG) g).getJoanaCompiler());
+			out.writeInt(nodes.length);
+			out.writeInt(edges.length);
+			end();
+		}
+
+		private void writeNodes() throws IOException {
+			begin(NODE_ID);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getId());
+			}
+			end();
+
+			begin(NODE_KIND);
+			for (final SDGNode n : nodes) {
+				out.writeByte(n.getKind().ordinal());
+			}
+			end();
+
+			begin(NODE_OPERATION);
+			for (final SDGNode n : nodes) {
+				out.writeByte(n.getOperation().ordinal());
+			}
+			end();
+
+			begin(NODE_PROC);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getProc());
+			}
+			end();
+
+			begin(NODE_LABEL);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getLabel()));
+			}
+			end();
+
+			begin(NODE_TYPE);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getType()));
+			}
+			end();
+
+			begin(NODE_SOURCE);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getSource()));
+			}
+			end();
+
+			begin(NODE_SOURCE_POS);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getSr());
+				out.writeInt(n.getSc());
+				out.writeInt(n.getEr());
+				out.writeInt(n.getEc());
+			}
+			end();
+
+			begin(NODE_BC_NAME);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getBytecodeName()));
+			}
+			end();
+
+			begin(NODE_BC_INDEX);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getBytecodeIndex());
+			}
+			end();
+
+			begin(NODE_CLASS_LOADER);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getClassLoader()));
+			}
+			end();
+
+			begin(NODE_UNRESOLVED_CALL);
+			for (final SDGNode n : nodes) {
+				out.writeInt(str(n.getUnresolvedCallTarget()));
+			}
+			end();
+
+			begin(NODE_THREADS_LEN);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getThreadNumbers() == null ? NULL_REF : n.getThreadNumbers().length);
+			}
+			end();
+			begin(NODE_THREADS);
+			for (final SDGNode n : nodes) {
+				writeInts(n.getThreadNumbers());
+			}
+			end();
+
+			begin(NODE_ALLOC_SITES_LEN);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getAllocationSites() == null ? NULL_REF : n.getAllocationSites().length);
+			}
+			end();
+			begin(NODE_ALLOC_SITES);
+			for (final SDGNode n : nodes) {
+				writeInts(n.getAllocationSites());
+			}
+			end();
+
+			begin(NODE_ALIAS_SOURCES_LEN);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getAliasDataSources() == null ? NULL_REF : n.getAliasDataSources().size());
+			}
+			end();
+			begin(NODE_ALIAS_SOURCES);
+			for (final SDGNode n : nodes) {
+				final TIntSet alias = n.getAliasDataSources();
+				if (alias != null) {
+					for (final TIntIterator it = alias.iterator(); it.hasNext();) {
+						out.writeInt(it.next());
+					}
+				}
+			}
+			end();
+
+			begin(NODE_LOCAL_DEFS_LEN);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getLocalDefNames() == null ? NULL_REF : n.getLocalDefNames().length);
+			}
+			end();
+			begin(NODE_LOCAL_DEFS);
+			for (final SDGNode n : nodes) {
+				writeStrings(n.getLocalDefNames());
+			}
+			end();
+
+			begin(NODE_LOCAL_USES_LEN);
+			for (final SDGNode n : nodes) {
+				out.writeInt(n.getLocalUseNames() == null ? NULL_REF : n.getLocalUseNames().length);
+			}
+			end();
+			begin(NODE_LOCAL_USES);
+			for (final SDGNode n : nodes) {
+				writeStrings(n.getLocalUseNames());
+			}
+			end();
+		}
+
+		private void writeInts(final int[] values) throws IOException {
+			if (values != null) {
+				for (final int v : values) {
+					out.writeInt(v);
+				}
+			}
+		}
+
+		private void writeStrings(final String[] values) throws IOException {
+			if (values != null) {
+				for (final String v : values) {
+					out.writeInt(str(v));
+				}
+			}
+		}
+
+		private void writeEdges() throws IOException {
+			begin(EDGE_SOURCE);
+			for (final SDGEdge e : edges) {
+				out.writeInt(e.getSource().getId());
+			}
+			end();
+
+			begin(EDGE_TARGET);
+			for (final SDGEdge e : edges) {
+				out.writeInt(e.getTarget().getId());
+			}
+			end();
+
+			begin(EDGE_KIND);
+			for (final SDGEdge e : edges) {
+				out.writeByte(e.getKind().ordinal());
+			}
+			end();
+
+			begin(EDGE_LABEL);
+			for (final SDGEdge e : edges) {
+				out.writeInt(str(e.getLabel()));
+			}
+			end();
+		}
+
+		private void writeThreads() throws IOException {
+			if (g.getThreadsInfo() == null) {
+				return;
+			}
+
+			begin(THREADS);
+			for (final ThreadInstance ti : g.getThreadsInfo()) {
+				out.writeInt(ti.getId());
+				out.writeInt(ti.getEntry().getId());
+				out.writeInt(ti.getExit().getId());
+				out.writeInt(ti.getFork() == null ? NULL_REF : ti.getFork().getId());
+				out.writeBoolean(ti.isDynamic());
+				out.writeInt(ti.getJoins().size());
+				for (final SDGNode join : ti.getJoins()) {
+					out.writeInt(join.getId());
+				}
+				out.writeInt(ti.getThreadContext().size());
+				for (final SDGNode call : ti.getThreadContext()) {
+					out.writeInt(call.getId());
+				}
+			}
+			end();
+		}
+
+		private void writeStrings() throws IOException {
+			final byte[][] encoded = new byte[strings.size()][];
+			for (int i = 0; i < encoded.length; i++) {
+				encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+			}
+
+			begin(STRING_OFFSETS);
+			long offset = 0;
+			out.writeLong(offset);
+			for (final byte[] str : encoded) {
+				offset += str.length;
+				out.writeLong(offset);
+			}
+			end();
+
+			begin(STRING_DATA);
+			for (final byte[] str : encoded) {
+				out.write(str);
+			}
+			end();
+		}
+	}
+
+}
@@ -268,26 +268,12 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
     /* The ID of the node. Should be unique in the graph. Negative IDs are permitted.*/
     private final int id;
 
-    /* The source file of the source code represented by this node.*/
-    private final SourceLocation sourceLocation;
-
     /* The ID of the procedure to which the node belongs.*/
     private final int proc;
 
     /* Classifies nodes by means of their bytecode operation. */
     public final Operation operation;
 
-    /* The bytecode of this node.*/
-    private final String label;
-
-    /* The type of this node.*/
-    private final String type;
-
-    /* Name of the bytecode method or parameter this node belongs to */
-    private final String bcName;
-    /* index of the bytecode instruction or one of the special ids < 0 (BytecodeLoaction.*) this node belongs to */
-    private final int bcIndex;
-
     /* The kind of this node.*/
     public final Kind kind;
 
@@ -297,25 +283,96 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
     private static final int[] EMPTY = new int[0];
     private int[] threadNumbers = EMPTY;
 
-    /* Used when interference computation is toggled. For nodes that call Thread.start we store
-       the nodes that are potential allocation sites (declaration nodes) upon which start() is
-       called. So we can compute which run() method is called. */
-    private final int[] allocationSites;
+    /* The rarely used attributes of this node: its own Attributes, or the table of the graph after the node
+       has been compacted (see SDG#compactNodes()). */
+    private Attributes attributes;
 
-    private final String clsLoader;
+    /* index of the bytecode instruction or one of the special ids < 0 (BytecodeLoaction.*) this node belongs to */
+    private final int bcIndex;
 
-    /* used for call nodes where there is no pdg for the call target */
-    private final String unresolvedCallTarget;
-    
-    /* for nodes defining a value that correspond to a definition of local variables, the names of the corresponding
-     * local variables; 
+    /**
+     * The rarely used attributes of nodes, looked up by node id: the label, type, bytecode name, source location,
+     * allocation sites, class loader, unresolved call target, names of local variables and alias data sources.
      */
-    private final String[] localDefNames;
+    static abstract class Attributes {
+        abstract String label(int id);
+        abstract String type(int id);
+        abstract String bcName(int id);
+        abstract SourceLocation sourceLocation(int id);
+        abstract int[] allocationSites(int id);
+        abstract String clsLoader(int id);
+        abstract String unresolvedCallTarget(int id);
+        abstract String[] localDefNames(int id);
+        abstract String[] localUseNames(int id);
+        abstract TIntSet aliasDataSources(int id);
+        abstract void setAliasDataSources(int id, TIntSet aliasDataSource);
+    }
 
-    /* for nodes using a value that correspond to a definition of local variables, the names of the corresponding
-     * local variables; 
+    /**
+     * The attributes of a single node that has not been compacted. The node ids are ignored.
      */
-    private final String[] localUseNames;
+    private static final class NodeAttributes extends Attributes {
+        /* The source file of the source code represented by this node.*/
+        private final SourceLocation sourceLocation;
+
+        /* The bytecode of this node.*/
+        private final String label;
+
+        /* The type of this node.*/
+        private final String type;
+
+        /* Name of the bytecode method or parameter this node belongs to */
+        private final String bcName;
+
+        /* Used when interference computation is toggled. For nodes that call Thread.start we store
+           the nodes that are potential allocation sites (declaration nodes) upon which start() is
+           called. So we can compute which run() method is called. */
+        private final int[] allocationSites;
+
+        private final String clsLoader;
+
+        /* used for call nodes where there is no pdg for the call target */
+        private final String unresolvedCallTarget;
+
+        /* for nodes defining a value that correspond to a definition of local variables, the names of the corresponding
+         * local variables;
+         */
+        private final String[] localDefNames;
+
+        /* for nodes using a value that correspond to a definition of local variables, the names of the corresponding
+         * local variables;
+         */
+        private final String[] localUseNames;
+
+        /* see SDGNode#getAliasDataSources() */
+        private TIntSet aliasDataSource;
+
+        private NodeAttributes(String label, String type, SourceLocation sourceLocation, String bcName,
+                String[] localDefNames, String[] localUseNames, String unresolvedCallTarget,
+                int[] allocationSites, String clsLoader) {
+            this.label = label == null ? null : label.intern();
+            this.sourceLocation = sourceLocation;
+            this.type = type == null ? null : type.intern();
+            this.bcName = bcName == null ? null : bcName.intern();
+            this.localDefNames = localDefNames;
+            this.localUseNames = localUseNames;
+            this.unresolvedCallTarget = unresolvedCallTarget == null ? null : unresolvedCallTarget.intern();
+            this.allocationSites = allocationSites;
+            this.clsLoader = clsLoader == null ? null : clsLoader.intern();
+        }
+
+        String label(int id) { return label; }
+        String type(int id) { return type; }
+        String bcName(int id) { return bcName; }
+        SourceLocation sourceLocation(int id) { return sourceLocation; }
+        int[] allocationSites(int id) { return allocationSites; }
+        String clsLoader(int id) { return clsLoader; }
+        String unresolvedCallTarget(int id) { return unresolvedCallTarget; }
+        String[] localDefNames(int id) { return localDefNames; }
+        String[] localUseNames(int id) { return localUseNames; }
+        TIntSet aliasDataSources(int id) { return aliasDataSource; }
+        void setAliasDataSources(int id, TIntSet aliasDataSource) { this.aliasDataSource = aliasDataSource; }
+    }
 
     public SDGNode(int id, Operation op, String label, int proc,
             String type, SourceLocation sourceLocation, String bcName, int bcIndex,
@@ -329,17 +386,10 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
         this.kind = op.kind[0];
         this.id = id;
         this.operation = op;
-        this.label = label == null ? null : label.intern();
-        this.sourceLocation = sourceLocation;
         this.proc = proc;
-        this.type = type == null ? null : type.intern();
-        this.bcName = bcName == null ? null : bcName.intern();
         this.bcIndex = bcIndex;
-        this.localDefNames = localDefNames;
-        this.localUseNames = localUseNames;
-        this.unresolvedCallTarget = unresolvedCallTarget == null ? null : unresolvedCallTarget.intern();
-        this.allocationSites = allocationSites;
-        this.clsLoader = clsLoader == null ? null : clsLoader.intern();
+        this.attributes = new NodeAttributes(label, type, sourceLocation, bcName, localDefNames, localUseNames,
+                unresolvedCallTarget, allocationSites, clsLoader);
     }
 
     protected SDGNode(Kind kind, int id, Operation op, String label, int proc,
@@ -365,17 +415,8 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
         this.operation = Operation.EMPTY;
         this.id = id;
         this.proc = proc;
-        this.label = label == null ? null : label.intern();
-        
-        this.sourceLocation = SourceLocation.UNKNOWN;
-        this.type = null;
-        this.bcName = null;
         this.bcIndex = -1;
-        this.localDefNames = null;
-        this.localUseNames = null;
-        this.unresolvedCallTarget = null;
-        this.allocationSites = null;
-        this.clsLoader = null;
+        this.attributes = new NodeAttributes(label, null, SourceLocation.UNKNOWN, null, null, null, null, null, null);
     }
 
 
@@ -395,27 +436,27 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      */
     public SDGNode clone(int newId, int newProc, Kind newKind, Operation newOp) {
     	final int[] allocationSites;
-    	if (this.allocationSites != null) {
-    		allocationSites = this.allocationSites.clone();
+    	if (getAllocationSites() != null) {
+    		allocationSites = getAllocationSites().clone();
     	} else {
     		allocationSites = null;
     	}
 
     	final String[] localDefNames;
-    	if (this.localDefNames != null) {
-    		localDefNames  = this.localDefNames.clone();
+    	if (getLocalDefNames() != null) {
+    		localDefNames  = getLocalDefNames().clone();
     	} else {
     		localDefNames = null;
     	}
 
     	final String[] localUseNames;
-    	if (this.localUseNames != null) {
-    		localUseNames  = this.localUseNames.clone();
+    	if (getLocalUseNames() != null) {
+    		localUseNames  = getLocalUseNames().clone();
     	} else {
     		localUseNames = null;
     	}
     	
-    	SDGNode ret = new SDGNode(newKind, id, newOp, label, proc, type, sourceLocation, bcName, bcIndex, localDefNames, localUseNames, unresolvedCallTarget, allocationSites, clsLoader);
+    	SDGNode ret = new SDGNode(newKind, id, newOp, getLabel(), proc, getType(), getSourceLocation(), getBytecodeName(), getBytecodeIndex(), localDefNames, localUseNames, getUnresolvedCallTarget(), allocationSites, getClassLoader());
 
     	return ret;
     }
@@ -425,7 +466,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return The names of local variables defined at this nodes.
      */
     public String[] getLocalDefNames() {
-       return this.localDefNames;
+       return attributes.localDefNames(id);
     }
     
     
@@ -433,7 +474,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return The names of local variables used at this nodes.
      */
     public String[] getLocalUseNames() {
-       return this.localUseNames;
+       return attributes.localUseNames(id);
     }
     
 
@@ -451,7 +492,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * or {@code null} otherwise
      */
     public int[] getAllocationSites() {
-        return this.allocationSites;
+        return attributes.allocationSites(id);
     }
 
     /**
@@ -488,22 +529,23 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * the current actual-in node. This is used to compute the aliasing of the actual-ins when the
      * aliasing of the formal-ins is known. */
     // They are stored as node attribute 'D' in the sdg file. E.g. "D 34, 564, 476, 1;"
-    private TIntSet aliasDataSource;
 
     public final TIntSet getAliasDataSources() {
-    	return aliasDataSource;
+    	return attributes.aliasDataSources(id);
     }
 
     public final void setAliasDataSources(final TIntSet aliasDataSource) {
-    	this.aliasDataSource = aliasDataSource;
+    	attributes.setAliasDataSources(id, aliasDataSource);
     }
 
     public final void addAliasDataSource(final int sourceId) {
-    	if (this.aliasDataSource == null) {
-    		this.aliasDataSource = new TIntHashSet();
+    	TIntSet aliasDataSource = getAliasDataSources();
+    	if (aliasDataSource == null) {
+    		aliasDataSource = new TIntHashSet();
+    		setAliasDataSources(aliasDataSource);
     	}
 
-    	this.aliasDataSource.add(sourceId);
+    	aliasDataSource.add(sourceId);
     }
 
 /*
@@ -511,14 +553,14 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
  */
 
     public String getClassLoader() {
-    	return this.clsLoader;
+    	return attributes.clsLoader(id);
     }
 
     /**
      * Returns the label.
      */
     public String getLabel() {
-        return label;
+        return attributes.label(id);
     }
 
     /**
@@ -526,7 +568,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return  The index or -1, if this is a synthetic node.
      */
     public int getEr() {
-        return sourceLocation.getEndRow();
+        return getSourceLocation().getEndRow();
     }
 
     /**
@@ -534,7 +576,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return  The index or -1, if this is a synthetic node.
      */
     public int getEc() {
-        return sourceLocation.getEndColumn();
+        return getSourceLocation().getEndColumn();
     }
 
     /**
@@ -542,7 +584,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return  The index or -1, if this is a synthetic node.
      */
     public int getSc() {
-        return sourceLocation.getStartColumn();
+        return getSourceLocation().getStartColumn();
     }
 
     /**
@@ -550,7 +592,7 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return  The index or -1, if this is a synthetic node.
      */
     public int getSr() {
-        return sourceLocation.getStartRow();
+        return getSourceLocation().getStartRow();
     }
 
     public final int getBytecodeIndex() {
@@ -558,11 +600,11 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
     }
 
     public final String getBytecodeName() {
-    	return bcName;
+    	return attributes.bcName(id);
     }
 
     public final String getBytecodeMethod() {
-    	return bcName;
+    	return attributes.bcName(id);
     }
 
     /**
@@ -597,25 +639,25 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
      * @return The source file of this node.
      */
     public String getSource() {
-        return sourceLocation.getSourceFile();
+        return getSourceLocation().getSourceFile();
     }
     
     /**
 	 * @return the sourceLocation
 	 */
 	public SourceLocation getSourceLocation() {
-		return sourceLocation;
+		return attributes.sourceLocation(id);
 	}
 
     /**
      * @return The type of this node.
      */
     public String getType() {
-        return type;
+        return attributes.type(id);
     }
 
     public String getUnresolvedCallTarget() {
-        return unresolvedCallTarget;
+        return attributes.unresolvedCallTarget(id);
     }
 
     /**
@@ -640,13 +682,16 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
 
             if (this.id != node.getId()) return false;
             if (!this.operation.equals(node.getOperation())) return false;
-            if (this.label != null && !this.label.equals(node.getLabel())) return false;
-            if (this.label == null && node.getLabel() != null) return false;
             if (this.proc != node.getProc()) return false;
-            if (this.type != null && !this.type.equals(node.getType())) return false;
-            if (this.type == null && node.getType() != null) return false;
-            if (this.sourceLocation != null && !this.sourceLocation.equals(node.getSourceLocation())) return false;
-            if (this.sourceLocation == null && node.getSourceLocation() != null) return false;
+            final String label = getLabel();
+            if (label != null && !label.equals(node.getLabel())) return false;
+            if (label == null && node.getLabel() != null) return false;
+            final String type = getType();
+            if (type != null && !type.equals(node.getType())) return false;
+            if (type == null && node.getType() != null) return false;
+            final SourceLocation sourceLocation = getSourceLocation();
+            if (sourceLocation != null && !sourceLocation.equals(node.getSourceLocation())) return false;
+            if (sourceLocation == null && node.getSourceLocation() != null) return false;
 
             return true;
         }
@@ -661,6 +706,25 @@ public class SDGNode implements Cloneable, IntegerIdentifiable {
         return id;
     }
 
+    /**
+     * Moves the rarely used attributes of this node into the given table, which is shared with the other
+     * nodes of the graph, and drops the attributes object of the node. The getters of the node return the
+     * same values as before.
+     */
+    void compact(SDGNodeAttributeTable table) {
+        if (attributes != table) {
+            table.put(this);
+            attributes = table;
+        }
+    }
+
+    /**
+     * @return true if the rarely used attributes of this node are stored in a shared table.
+     */
+    public boolean isCompact() {
+        return attributes instanceof SDGNodeAttributeTable;
+    }
+
     /**
      * Returns true if the node is in the given thread.
      * @param t  The ID of the desired thread.
@@ -0,0 +1,410 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.joana.util.SourceLocation;
+import gnu.trove.iterator.TIntObjectIterator;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+
+/**
+ * Stores the rarely used attributes of the nodes of a graph in columns indexed by node id, see
+ * {@link SDG#compactNodes()}. The nodes drop their own objects for these attributes and look them up here,
+ * so the source locations and the arrays of names are only referenced by the table.
+ * <p>
+ * The attributes that are only needed for debugging and reporting - labels, types, bytecode names,
+ * source locations and names of local variables - can be written to a file with {@link #unload(File)}.
+ * They are loaded again as soon as one of them is requested. Allocation sites and alias data sources are
+ * used by analyses and always stay in memory.
+ * <p>
+ * Reading attributes is thread-safe, but {@link #unload(File)} must not run concurrently with readers.
+ */
+public final class SDGNodeAttributeTable extends SDGNode.Attributes {
+
+	private static final byte NO_LOCATION = 0;
+	private static final byte UNKNOWN_LOCATION = 1;
+	private static final byte LOCATION = 2;
+
+	/* Ids of the nodes in this table are in [base, base + size). */
+	private final int base;
+	private final int size;
+
+	/* The file the debug attributes were unloaded to, or null if they are in memory. */
+	private volatile File unloadedTo = null;
+
+	private String[] labels;
+	private String[] types;
+	private String[] bcNames;
+	private SourceLocation[] locations;
+	private TIntObjectHashMap<String[]> localDefNames;
+	private TIntObjectHashMap<String[]> localUseNames;
+	private TIntObjectHashMap<String> unresolvedCallTargets;
+	private TIntObjectHashMap<String> clsLoaders;
+
+	private final TIntObjectHashMap<int[]> allocationSites = new TIntObjectHashMap<int[]>();
+	private final TIntObjectHashMap<TIntSet> aliasDataSources = new TIntObjectHashMap<TIntSet>();
+
+	/**
+	 * Creates an empty table for nodes whose ids are in [minId, maxId].
+	 */
+	SDGNodeAttributeTable(final int minId, final int maxId) {
+		if (maxId < minId) {
+			throw new IllegalArgumentException("empty id range [" + minId + ", " + maxId + "]");
+		}
+		this.base = minId;
+		this.size = maxId - minId + 1;
+		this.labels = new String[size];
+		this.types = new String[size];
+		this.bcNames = new String[size];
+		this.locations = new SourceLocation[size];
+		this.localDefNames = new TIntObjectHashMap<String[]>();
+		this.localUseNames = new TIntObjectHashMap<String[]>();
+		this.unresolvedCallTargets = new TIntObjectHashMap<String>();
+		this.clsLoaders = new TIntObjectHashMap<String>();
+	}
+
+	/**
+	 * Copies the attributes of the given node into this table.
+	 */
+	void put(final SDGNode node) {
+		final int id = node.getId();
+		final int row = row(id);
+		ensureLoaded();
+		labels[row] = node.getLabel();
+		types[row] = node.getType();
+		bcNames[row] = node.getBytecodeName();
+		locations[row] = node.getSourceLocation();
+		putIfNotNull(localDefNames, id, node.getLocalDefNames());
+		putIfNotNull(localUseNames, id, node.getLocalUseNames());
+		putIfNotNull(unresolvedCallTargets, id, node.getUnresolvedCallTarget());
+		putIfNotNull(clsLoaders, id, node.getClassLoader());
+		putIfNotNull(allocationSites, id, node.getAllocationSites());
+		putIfNotNull(aliasDataSources, id, node.getAliasDataSources());
+	}
+
+	private static <V> void putIfNotNull(final TIntObjectHashMap<V> map, final int id, final V value) {
+		if (value == null) {
+			map.remove(id);
+		} else {
+			map.put(id, value);
+		}
+	}
+
+	/**
+	 * @return true if the given id is in the range of this table.
+	 */
+	public boolean covers(final int id) {
+		return id >= base && id - base < size;
+	}
+
+	private int row(final int id) {
+		if (!covers(id)) {
+			throw new IllegalArgumentException("node " + id + " is not part of this table");
+		}
+
+		return id - base;
+	}
+
+	@Override
+	String label(final int id) {
+		ensureLoaded();
+		return labels[row(id)];
+	}
+
+	@Override
+	String type(final int id) {
+		ensureLoaded();
+		return types[row(id)];
+	}
+
+	@Override
+	String bcName(final int id) {
+		ensureLoaded();
+		return bcNames[row(id)];
+	}
+
+	@Override
+	SourceLocation sourceLocation(final int id) {
+		ensureLoaded();
+		return locations[row(id)];
+	}
+
+	@Override
+	String[] localDefNames(final int id) {
+		ensureLoaded();
+		return localDefNames.get(id);
+	}
+
+	@Override
+	String[] localUseNames(final int id) {
+		ensureLoaded();
+		return localUseNames.get(id);
+	}
+
+	@Override
+	String unresolvedCallTarget(final int id) {
+		ensureLoaded();
+		return unresolvedCallTargets.get(id);
+	}
+
+	@Override
+	String clsLoader(final int id) {
+		ensureLoaded();
+		return clsLoaders.get(id);
+	}
+
+	@Override
+	int[] allocationSites(final int id) {
+		return allocationSites.get(id);
+	}
+
+	@Override
+	TIntSet aliasDataSources(final int id) {
+		synchronized (aliasDataSources) {
+			return aliasDataSources.get(id);
+		}
+	}
+
+	@Override
+	void setAliasDataSources(final int id, final TIntSet aliasDataSource) {
+		synchronized (aliasDataSources) {
+			putIfNotNull(aliasDataSources, id, aliasDataSource);
+		}
+	}
+
+	/**
+	 * @return true if the debug attributes are currently written out to a file.
+	 */
+	public boolean isUnloaded() {
+		return unloadedTo != null;
+	}
+
+	/**
+	 * Writes the labels, types, bytecode names, source locations, names of local variables, unresolved
+	 * call targets and class loaders to the given file and drops them from memory. The next request of one
+	 * of these attributes loads them again. The file is not deleted afterwards and must not be modified
+	 * as long as the attributes are unloaded.
+	 */
+	public synchronized void unload(final File file) throws IOException {
+		if (unloadedTo != null) {
+			return;
+		}
+
+		try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			final Map<String, Integer> dict = new HashMap<String, Integer>();
+			out.writeInt(size);
+			for (int row = 0; row < size; row++) {
+				writeString(out, dict, labels[row]);
+				writeString(out, dict, types[row]);
+				writeString(out, dict, bcNames[row]);
+				writeLocation(out, dict, locations[row]);
+			}
+			writeNames(out, dict, localDefNames);
+			writeNames(out, dict, localUseNames);
+			writeStrings(out, dict, unresolvedCallTargets);
+			writeStrings(out, dict, clsLoaders);
+		}
+
+		unloadedTo = file;
+		labels = null;
+		types = null;
+		bcNames = null;
+		locations = null;
+		localDefNames = null;
+		localUseNames = null;
+		unresolvedCallTargets = null;
+		clsLoaders = null;
+	}
+
+	private void ensureLoaded() {
+		if (unloadedTo != null) {
+			load();
+		}
+	}
+
+	private synchronized void load() {
+		final File file = unloadedTo;
+		if (file == null) {
+			// loaded by another thread in the meantime
+			return;
+		}
+
+		try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			final List<String> dict = new ArrayList<String>();
+			if (in.readInt() != size) {
+				throw new IOException("file does not match the table");
+			}
+			final String[] labels = new String[size];
+			final String[] types = new String[size];
+			final String[] bcNames = new String[size];
+			final SourceLocation[] locations = new SourceLocation[size];
+			for (int row = 0; row < size; row++) {
+				labels[row] = readString(in, dict);
+				types[row] = readString(in, dict);
+				bcNames[row] = readString(in, dict);
+				locations[row] = readLocation(in, dict);
+			}
+			this.labels = labels;
+			this.types = types;
+			this.bcNames = bcNames;
+			this.locations = locations;
+			this.localDefNames = readNames(in, dict);
+			this.localUseNames = readNames(in, dict);
+			this.unresolvedCallTargets = readStrings(in, dict);
+			this.clsLoaders = readStrings(in, dict);
+		} catch (IOException e) {
+			throw new IllegalStateException("could not load node attributes from " + file, e);
+		}
+
+		// publishes the columns to readers that check unloadedTo without holding the lock
+		unloadedTo = null;
+	}
+
+	/*
+	 * Strings are written as an index into the strings written so far, followed by the string itself
+	 * if it is new. The index -1 stands for null.
+	 */
+	private static void writeString(final DataOutputStream out, final Map<String, Integer> dict, final String str)
+			throws IOException {
+		if (str == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		final Integer index = dict.get(str);
+		if (index != null) {
+			out.writeInt(index);
+		} else {
+			final int newIndex = dict.size();
+			dict.put(str, newIndex);
+			out.writeInt(newIndex);
+			final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(final DataInputStream in, final List<String> dict) throws IOException {
+		final int index = in.readInt();
+		if (index < 0) {
+			return null;
+		} else if (index < dict.size()) {
+			return dict.get(index);
+		} else if (index == dict.size()) {
+			final byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			final String str = new String(bytes, StandardCharsets.UTF_8).intern();
+			dict.add(str);
+			return str;
+		} else {
+			throw new IOException("invalid string index " + index);
+		}
+	}
+
+	private static void writeLocation(final DataOutputStream out, final Map<String, Integer> dict,
+			final SourceLocation loc) throws IOException {
+		if (loc == null) {
+			// a gap in the ids of the nodes
+			out.writeByte(NO_LOCATION);
+		} else if (loc == SourceLocation.UNKNOWN) {
+			out.writeByte(UNKNOWN_LOCATION);
+		} else {
+			out.writeByte(LOCATION);
+			writeString(out, dict, loc.getSourceFile());
+			out.writeInt(loc.getStartRow());
+			out.writeInt(loc.getStartColumn());
+			out.writeInt(loc.getEndRow());
+			out.writeInt(loc.getEndColumn());
+		}
+	}
+
+	private static SourceLocation readLocation(final DataInputStream in, final List<String> dict) throws IOException {
+		switch (in.readByte()) {
+		case NO_LOCATION:
+			return null;
+		case UNKNOWN_LOCATION:
+			return SourceLocation.UNKNOWN;
+		case LOCATION:
+			break;
+		default:
+			throw new IOException("invalid source location");
+		}
+
+		final String file = readString(in, dict);
+		final int startRow = in.readInt();
+		final int startColumn = in.readInt();
+		final int endRow = in.readInt();
+		final int endColumn = in.readInt();
+		return SourceLocation.getLocation(file, startRow, startColumn, endRow, endColumn);
+	}
+
+	private static void writeNames(final DataOutputStream out, final Map<String, Integer> dict,
+			final TIntObjectHashMap<String[]> names) throws IOException {
+		out.writeInt(names.size());
+		for (final TIntObjectIterator<String[]> it = names.iterator(); it.hasNext();) {
+			it.advance();
+			out.writeInt(it.key());
+			out.writeInt(it.value().length);
+			for (final String name : it.value()) {
+				writeString(out, dict, name);
+			}
+		}
+	}
+
+	private static TIntObjectHashMap<String[]> readNames(final DataInputStream in, final List<String> dict)
+			throws IOException {
+		final int count = in.readInt();
+		final TIntObjectHashMap<String[]> names = new TIntObjectHashMap<String[]>(Math.max(count, 10));
+		for (int i = 0; i < count; i++) {
+			final int id = in.readInt();
+			final String[] value = new String[in.readInt()];
+			for (int j = 0; j < value.length; j++) {
+				value[j] = readString(in, dict);
+			}
+			names.put(id, value);
+		}
+
+		return names;
+	}
+
+	private static void writeStrings(final DataOutputStream out, final Map<String, Integer> dict,
+			final TIntObjectHashMap<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (final TIntObjectIterator<String> it = strings.iterator(); it.hasNext();) {
+			it.advance();
+			out.writeInt(it.key());
+			writeString(out, dict, it.value());
+		}
+	}
+
+	private static TIntObjectHashMap<String> readStrings(final DataInputStream in, final List<String> dict)
+			throws IOException {
+		final int count = in.readInt();
+		final TIntObjectHashMap<String> strings = new TIntObjectHashMap<String>(Math.max(count, 10));
+		for (int i = 0; i < count; i++) {
+			final int id = in.readInt();
+			strings.put(id, readString(in, dict));
+		}
+
+		return strings;
+	}
+}
@@ -0,0 +1,398 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.chopper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.kit.joana.ifc.sdg.graph.BitVector;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGNodeTuple;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+
+
+/**
+ * FusedRepsRosayChopper computes the same chops as {@link RepsRosayChopper}, but is built for large
+ * source and sink sets.
+ *
+ * All slices are kept as bit vectors over node ids: the truncated chop intersects and unites the slices
+ * of {@link SummarySlicer#sliceBits(Collection, BitVector)} word by word, and the intra-procedural slices of
+ * the same-level chops are bit vectors that only span the ids of the nodes they contain.
+ *
+ * The same-level chops are computed in rounds. In each round, the pending summary edges are grouped by
+ * the procedure they summarize and the groups are chopped in parallel. The chops of different procedures
+ * share no state, and the nodes a summary edge adds to the chop do not depend on the order in which the
+ * summary edges are processed, so the result is the same as the one of the sequential algorithm.
+ *
+ * Not thread-safe. The rounds run on a fork/join pool, by default the common pool. A chop that is itself
+ * computed by a fork/join task runs its rounds sequentially, so it never waits for the pool it occupies.
+ */
+public class FusedRepsRosayChopper extends Chopper {
+    /** Omitted by slicers that must not descend into called procedures */
+    private static final Set<SDGEdge.Kind> OMIT_DESCEND = EnumSet.of(
+            SDGEdge.Kind.INTERFERENCE,
+            SDGEdge.Kind.INTERFERENCE_WRITE,
+            SDGEdge.Kind.FORK,
+            SDGEdge.Kind.FORK_IN,
+            SDGEdge.Kind.PARAMETER_IN,
+            SDGEdge.Kind.CALL);
+
+    /** Omitted by slicers that must not ascend to calling procedures */
+    private static final Set<SDGEdge.Kind> OMIT_ASCEND = EnumSet.of(
+            SDGEdge.Kind.INTERFERENCE,
+            SDGEdge.Kind.INTERFERENCE_WRITE,
+            SDGEdge.Kind.FORK,
+            SDGEdge.Kind.FORK_IN,
+            SDGEdge.Kind.PARAMETER_OUT);
+
+    /** A two-phase forward slicer */
+    private SummarySlicer forward;
+    /** A two-phase backward slicer */
+    private SummarySlicer backward;
+
+    /** The pool of the same-level chops, null if they are computed sequentially */
+    private final ForkJoinPool pool;
+
+    /**
+     * Instantiates a FusedRepsRosayChopper with a SDG that computes the same-level chops in the common pool.
+     *
+     * @param g   A SDG. Can be null. Must not be a cSDG.
+     */
+    public FusedRepsRosayChopper(SDG g) {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a FusedRepsRosayChopper with a SDG.
+     *
+     * @param g      A SDG. Can be null. Must not be a cSDG.
+     * @param pool   The pool of the same-level chops, null to compute them sequentially.
+     *               The chopper does not shut it down.
+     */
+    public FusedRepsRosayChopper(SDG g, ForkJoinPool pool) {
+        super(g);
+        this.pool = pool;
+    }
+
+    /**
+     * Re-initializes the two slicers.
+     * Triggered by {@link Chopper#setGraph(SDG)}.
+     */
+    protected void onSetGraph() {
+        if (forward == null) {
+            forward = new SummarySlicerForward(sdg);
+
+        } else {
+            forward.setGraph(sdg);
+        }
+
+        if (backward == null) {
+            backward = new SummarySlicerBackward(sdg);
+
+        } else {
+            backward.setGraph(sdg);
+        }
+    }
+
+    /**
+     * Computes a context-sensitive unbound chop from <code>sourceSet</code> to <code>sinkSet</code>.
+     *
+     * @param sourceSet  The source criterion set. Should not contain null, should not be empty.
+     * @param sinkSet    The target criterion set. Should not contain null, should not be empty.
+     * @return           The chop (a HashSet).
+     */
+    public Collection<SDGNode> chop(Collection<SDGNode> sourceSet, Collection<SDGNode> sinkSet) {
+        HashSet<SDGNode> chop = toNodes(truncatedChop(sourceSet, sinkSet));
+        sameLevelChops(chop);
+        return chop;
+    }
+
+    /**
+     * Computes the truncated unbound chop like {@link TruncatedNonSameLevelChopper}, but on bit vectors.
+     * The forward slice of the sources that does not descend into called procedures is needed twice and
+     * computed only once.
+     */
+    private BitVector truncatedChop(Collection<SDGNode> sourceSet, Collection<SDGNode> sinkSet) {
+        // the angular point of the chop
+        forward.setOmittedEdges(OMIT_DESCEND);
+        BitVector fromSources = forward.sliceBits(sourceSet, null);
+
+        backward.setOmittedEdges(OMIT_ASCEND);
+        BitVector w = backward.sliceBits(sinkSet, null);
+        w.and(fromSources);
+        Collection<SDGNode> angularPoint = toNodes(w);
+
+        // the left-side truncated chop
+        backward.setOmittedEdges(OMIT_DESCEND);
+        BitVector chop = backward.sliceBits(angularPoint, fromSources);
+
+        // the right-side truncated chop
+        forward.setOmittedEdges(OMIT_ASCEND);
+        BitVector fromW = forward.sliceBits(angularPoint, null);
+        backward.setOmittedEdges(OMIT_ASCEND);
+        chop.or(backward.sliceBits(sinkSet, fromW));
+
+        return chop;
+    }
+
+    /**
+     * Adds the nodes lying on non-truncated paths to the chop, see {@link RepsRosayChopper}.
+     *
+     * @param chop  The truncated unbound chop.
+     */
+    private void sameLevelChops(Collection<SDGNode> chop) {
+        final SameLevel state = new SameLevel();
+        final Set<SDGNodeTuple> visitedTuples = new HashSet<SDGNodeTuple>();
+        List<SDGNodeTuple> worklist = new ArrayList<SDGNodeTuple>();
+        for (SDGNodeTuple pair : getSummaryEdgePairs(chop)) {
+            if (visitedTuples.add(pair)) {
+                worklist.add(pair);
+            }
+        }
+
+        // a task of a pool must not wait for other tasks of the pool
+        final boolean parallel = pool != null && pool.getParallelism() > 1 && !ForkJoinTask.inForkJoinPool();
+        while (!worklist.isEmpty()) {
+            // the pairs of one procedure share their candidates, so they are processed by the same task
+            Map<Integer, List<SDGNodeTuple>> byProc = new LinkedHashMap<Integer, List<SDGNodeTuple>>();
+            for (SDGNodeTuple pair : worklist) {
+                byProc.computeIfAbsent(pair.getSecondNode().getProc(), p -> new ArrayList<SDGNodeTuple>()).add(pair);
+            }
+            List<List<SDGNodeTuple>> tasks = new ArrayList<List<SDGNodeTuple>>(byProc.values());
+
+            List<Refinement> results;
+            if (parallel && tasks.size() > 1) {
+                results = refineInParallel(pool, state, tasks);
+
+            } else {
+                results = new ArrayList<Refinement>(tasks.size());
+                for (List<SDGNodeTuple> task : tasks) {
+                    results.add(state.refine(task));
+                }
+            }
+
+            worklist = new ArrayList<SDGNodeTuple>();
+            for (Refinement r : results) {
+                for (int i = 0; i < r.added.size(); i++) {
+                    chop.add(sdg.getNode(r.added.getQuick(i)));
+                }
+
+                for (SDGNodeTuple pair : r.pairs) {
+                    if (visitedTuples.add(pair)) {
+                        worklist.add(pair);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<Refinement> refineInParallel(final ForkJoinPool pool, final SameLevel state,
+            final List<List<SDGNodeTuple>> tasks) {
+        try {
+            return pool.submit(() -> IntStream.range(0, tasks.size()).parallel()
+                    .mapToObj(i -> state.refine(tasks.get(i)))
+                    .collect(Collectors.toList())).get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while chopping", e);
+
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /** The nodes and the summary edges found by one task of a round. */
+    private static final class Refinement {
+        final TIntArrayList added = new TIntArrayList();
+        final List<SDGNodeTuple> pairs = new LinkedList<SDGNodeTuple>();
+    }
+
+    /**
+     * The candidates of the same-level chops of one chop. Formal-in and formal-out nodes of different
+     * procedures are processed by different tasks, so the maps are only accessed concurrently for
+     * different keys.
+     */
+    private final class SameLevel {
+        /** formal-out node -> its intra-procedural backward slice */
+        final Map<SDGNode, Window> bSlices = new ConcurrentHashMap<SDGNode, Window>();
+        /** formal-out node -> the nodes of its backward slice that are not in the chop yet */
+        final Map<SDGNode, Window> bCandidates = new ConcurrentHashMap<SDGNode, Window>();
+        /** formal-in node -> its intra-procedural forward slice */
+        final Map<SDGNode, Window> fCandidates = new ConcurrentHashMap<SDGNode, Window>();
+
+        Refinement refine(List<SDGNodeTuple> pairs) {
+            Refinement result = new Refinement();
+
+            for (SDGNodeTuple pair : pairs) {
+                SDGNode fi = pair.getFirstNode();
+                SDGNode fo = pair.getSecondNode();
+
+                Window bSlice = bSlices.get(fo);
+                if (bSlice == null) {
+                    bSlice = intraproceduralSlice(fo, false);
+                    bSlices.put(fo, bSlice);
+                    bCandidates.put(fo, new Window(bSlice));
+                }
+                Window b = bCandidates.get(fo);
+
+                Window f = fCandidates.get(fi);
+                if (f == null) {
+                    f = intraproceduralSlice(fi, true);
+                    fCandidates.put(fi, f);
+                }
+
+                // intersect the overlapping words
+                int from = Math.max(b.base, f.base);
+                int to = Math.min(b.base + b.words.length, f.base + f.words.length);
+                for (int word = from; word < to; word++) {
+                    int hit = b.words[word - b.base] & f.words[word - f.base];
+                    if (hit == 0) continue;
+
+                    b.words[word - b.base] &= ~hit;
+
+                    while (hit != 0) {
+                        int id = (word << 5) + Integer.numberOfTrailingZeros(hit);
+                        hit &= hit - 1;
+                        result.added.add(id);
+                        addPairs(sdg.getNode(id), bSlice, result.pairs);
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Collects the summary edges of a node that was added to the chop of the formal-out node with the
+         * given backward slice, see {@link RepsRosayChopper}.
+         */
+        private void addPairs(SDGNode x, Window bSlice, List<SDGNodeTuple> pairs) {
+            if (x.getKind() == SDGNode.Kind.ACTUAL_IN) {
+                for (SDGEdge e : sdg.getOutgoingEdgesOfKindUnsafe(x, SDGEdge.Kind.SUMMARY)) {
+                    SDGNode actOut = e.getTarget();
+                    if (actOut.getKind() == SDGNode.Kind.ACTUAL_OUT && bSlice.get(actOut.getId())) {
+                        for (SDGNodeTuple fifo : sdg.getAllFormalPairs(x, actOut)) {
+                            if (fifo != null) {
+                                pairs.add(fifo);
+                            }
+                        }
+                    }
+                }
+
+            } else if (x.getKind() == SDGNode.Kind.CALL) {
+                // treat auxiliary summary edges between call and actual-out nodes
+                for (SDGNode actOut : sdg.getParametersFor(x)) {
+                    if (actOut.getKind() == SDGNode.Kind.ACTUAL_OUT && bSlice.get(actOut.getId())) {
+                        for (SDGNodeTuple fifo : sdg.getAllFormalPairs(x, actOut)) {
+                            if (fifo != null) {
+                                pairs.add(fifo);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the same slice as {@link edu.kit.joana.ifc.sdg.graph.slicer.IntraproceduralSlicer}.
+     */
+    private Window intraproceduralSlice(SDGNode criterion, boolean forwards) {
+        TIntHashSet visited = new TIntHashSet();
+        TIntArrayList worklist = new TIntArrayList();
+        visited.add(criterion.getId());
+        worklist.add(criterion.getId());
+
+        for (int head = 0; head < worklist.size(); head++) {
+            SDGNode next = sdg.getNode(worklist.getQuick(head));
+
+            for (SDGEdge e : (forwards ? sdg.outgoingEdgesOf(next) : sdg.incomingEdgesOf(next))) {
+                if (!e.getKind().isIntraSDGEdge()) continue;
+
+                int id = (forwards ? e.getTarget() : e.getSource()).getId();
+                if (visited.add(id)) {
+                    worklist.add(id);
+                }
+            }
+        }
+
+        return new Window(worklist);
+    }
+
+    private HashSet<SDGNode> toNodes(BitVector bits) {
+        HashSet<SDGNode> nodes = new HashSet<SDGNode>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            nodes.add(sdg.getNode(id));
+        }
+
+        return nodes;
+    }
+
+    /**
+     * A bit vector over node ids that only spans the words between the smallest and the largest id it
+     * contains. The nodes of a procedure mostly have consecutive ids, so an intra-procedural slice needs
+     * little more space than the procedure.
+     */
+    private static final class Window {
+        /** Index of the first word */
+        final int base;
+        final int[] words;
+
+        Window(TIntArrayList ids) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ids.size(); i++) {
+                min = Math.min(min, ids.getQuick(i));
+                max = Math.max(max, ids.getQuick(i));
+            }
+
+            base = min >>> 5;
+            words = new int[(max >>> 5) - base + 1];
+            for (int i = 0; i < ids.size(); i++) {
+                int id = ids.getQuick(i);
+                words[(id >>> 5) - base] |= 1 << id;
+            }
+        }
+
+        Window(Window w) {
+            base = w.base;
+            words = w.words.clone();
+        }
+
+        boolean get(int id) {
+            int word = (id >>> 5) - base;
+            return word >= 0 && word < words.length && (words[word] & (1 << id)) != 0;
+        }
+    }
+}
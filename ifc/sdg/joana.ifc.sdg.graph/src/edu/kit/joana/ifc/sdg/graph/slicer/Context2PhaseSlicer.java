@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.ifc.sdg.graph.slicer;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -36,6 +37,8 @@ public abstract class Context2PhaseSlicer {
     private Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
     private ContextManager<StaticContext> man;
     protected SDG sdg;
+    /** the state of {@link #contextSlice(Collection)}, kept for the next slice of the same graph */
+    private Session session;
 
     /**
      * Creates a new instance of Context2PhaseSlicer
@@ -49,6 +52,7 @@ public abstract class Context2PhaseSlicer {
     public Context2PhaseSlicer(SDG g, ContextManager<StaticContext> m) {
         sdg = g;
         man = m;
+        session = null;
     }
 
     /**
@@ -59,6 +63,7 @@ public abstract class Context2PhaseSlicer {
     public void setGraph(SDG graph) {
         sdg = graph;
         man = StaticContextManager.create(graph);
+        session = null;
     }
 
     public void setOmittedEdges(Set<SDGEdge.Kind> omit){
@@ -68,105 +73,149 @@ public abstract class Context2PhaseSlicer {
     /** Computes the precise slice for the given context.
      * It works by using call strings in the first phase to ascend to
      * calling methods context-sensitively.
+     * The worklists and marks are kept for the next slice of the same graph, see {@link Session}, so the slicer
+     * must not be used by several threads at once.
      *
      * @param criteria A set of contexts to slice.
      * @return The slice as a sorted set of nodes.
      */
     public Collection<SDGNode> contextSlice(Collection<StaticContext> criteria) {
-        // the sorted set for the result
-        HashSet<SDGNode> slice = new HashSet<SDGNode>();
+        if (session == null) {
+            session = new Session();
+        }
+        return session.contextSlice(criteria);
+    }
 
-        // sets for marking visited nodes and contexts
-        HashSet<SDGNode> markedNodes = new HashSet<SDGNode>();
-        HashSet<StaticContext> markedContexts = new HashSet<>();
+    /** Creates a new session for repeated context slices of the current graph, e.g. one per thread that slices it.
+     *
+     * @return A session that computes the same slices as {@link #contextSlice(Collection)}.
+     */
+    public Session newSession() {
+        return new Session();
+    }
 
-        // two worklists
-        LinkedList<StaticContext> worklist1 = new LinkedList<>();
-        LinkedList<SDGNode> worklist2 = new LinkedList<SDGNode>();
+    /** Computes the slices of {@link Context2PhaseSlicer#contextSlice(Collection)}, keeping its worklists and
+     * marks across calls. The marks are stamped with the number of the current slice, so starting a new slice
+     * does not clear or allocate anything proportional to the size of the graph.
+     * <p>
+     * The contexts marked at a node are kept in a set per node. The sets are emptied at the end of each slice,
+     * so a session does not keep the contexts of earlier slices alive, and are reused by the next slice that
+     * reaches the node in the first phase. A session thus holds one empty set per such node, each with the
+     * capacity of the most contexts marked at that node.
+     * <p>
+     * A session is not thread-safe, concurrent slices of the same graph need a session each.
+     */
+    public final class Session {
+        private final EpochNodeMap<Void> markedNodes;
+        private final EpochNodeMap<Set<StaticContext>> markedContexts;
+        private final ArrayDeque<StaticContext> worklist1 = new ArrayDeque<>();
+        private final ArrayDeque<SDGNode> worklist2 = new ArrayDeque<>();
+
+        private Session() {
+            final int maxId = sdg.lastId();
+            markedNodes = new EpochNodeMap<>(maxId);
+            markedContexts = new EpochNodeMap<>(maxId);
+        }
 
-        // initialize the first worklist
-        worklist1.addAll(criteria);
-        markedContexts.addAll(criteria);
+        public Collection<SDGNode> contextSlice(Collection<StaticContext> criteria) {
+            markedNodes.nextEpoch();
+            markedContexts.nextEpoch();
+            worklist1.clear();
+            worklist2.clear();
+            HashSet<SDGNode> slice = new HashSet<SDGNode>();
 
-        // phase 1
-        while (!worklist1.isEmpty()) {
-            // retrieve the next node and add it to the slice
-        	StaticContext next = worklist1.poll();
-            slice.add(next.getNode());
+            for (StaticContext c : criteria) {
+                if (mark(c)) {
+                    worklist1.add(c);
+                }
+            }
 
-            // now check all incoming edges
-            for (SDGEdge e : edgesToTraverse(next.getNode())) {
-                if (omittedEdges.contains(e.getKind()) || !e.getKind().isSDGEdge()) continue;
+            // phase 1
+            while (!worklist1.isEmpty()) {
+                StaticContext next = worklist1.poll();
+                slice.add(next.getNode());
 
-                SDGNode reached = reachedNode(e);
+                for (SDGEdge e : edgesToTraverse(next.getNode())) {
+                    if (omittedEdges.contains(e.getKind()) || !e.getKind().isSDGEdge()) continue;
 
-                if (e.getKind() == SDGEdge.Kind.PARAMETER_IN && e.getSource().getKind() == SDGNode.Kind.FORMAL_OUT) {
-                	// class initializer; demands special treatment
-                    // retrieve the contexts of the class initializer
-                    Collection<? extends StaticContext> newContexts = man.getAllContextsOf(reached);
+                    SDGNode reached = reachedNode(e);
 
-                    // add the contexts
-                    for (StaticContext newContext : newContexts) {
-                        if (!markedContexts.contains(newContext)) {
-                            worklist1.add(newContext);
-                            markedContexts.add(newContext);
+                    if (e.getKind() == SDGEdge.Kind.PARAMETER_IN && e.getSource().getKind() == SDGNode.Kind.FORMAL_OUT) {
+                        // class initializer
+                        for (StaticContext newContext : man.getAllContextsOf(reached)) {
+                            if (mark(newContext)) {
+                                worklist1.add(newContext);
+                            }
                         }
-                    }
 
-                } else if (ascend(e)) {
-                    // ascend to the calling method
-                	SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                	StaticContext[] cons = man.ascend(reached, callSite ,next);
+                    } else if (ascend(e)) {
+                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
 
-                    // add the contexts to the worklist
-                    for (StaticContext c : cons) {
-                        if (c != null && !markedContexts.contains(c)) {
-                            worklist1.add(c);
-                            markedContexts.add(c);
+                        for (StaticContext c : man.ascend(reached, callSite, next)) {
+                            if (c != null && mark(c)) {
+                                worklist1.add(c);
+                            }
                         }
-                    }
 
-                } else if (descend(e)) {
-                    // add the node to the second worklist
-                    worklist2.add(reached);
-                    markedNodes.add(reached);
+                    } else if (descend(e)) {
+                        if (markedNodes.mark(reached)) {
+                            worklist2.add(reached);
+                        }
 
-                } else {
-                    // intra-procedural edges
-                	StaticContext newContext = man.level(reached, next);
+                    } else {
+                        StaticContext newContext = man.level(reached, next);
 
-                    // add the found context
-                    if (!markedContexts.contains(newContext)) {
-                        worklist1.add(newContext);
-                        markedContexts.add(newContext);
+                        if (mark(newContext)) {
+                            worklist1.add(newContext);
+                        }
                     }
                 }
             }
-        }
 
-        // phase 2
-        while (!worklist2.isEmpty()) {
-            // retrieve the next node and add it to the slice
-            SDGNode next = worklist2.poll();
-            slice.add(next);
+            // phase 2
+            while (!worklist2.isEmpty()) {
+                SDGNode next = worklist2.poll();
+                slice.add(next);
 
-            // traverse all intra-procedural edges or
-            // descend into called procedures
-            for (SDGEdge e : edgesToTraverse(next)) {
-                if (omittedEdges.contains(e.getKind()) || !e.getKind().isSDGEdge()) continue;
+                for (SDGEdge e : edgesToTraverse(next)) {
+                    if (omittedEdges.contains(e.getKind()) || !e.getKind().isSDGEdge()) continue;
 
-                SDGNode reached = reachedNode(e);
+                    SDGNode reached = reachedNode(e);
 
-                if (!ascend(e)) {
-                    // traverse only intra-procedural or descending edges
-                    if (markedNodes.add(reached)) {
+                    if (!ascend(e) && markedNodes.mark(reached)) {
                         worklist2.add(reached);
                     }
                 }
             }
+
+            // the nodes of all marked contexts are in the slice, nodes reached only in phase 2 have no set
+            for (SDGNode n : slice) {
+                final Set<StaticContext> cons = markedContexts.get(n);
+                if (cons != null) {
+                    cons.clear();
+                }
+            }
+
+            return slice;
         }
 
-        return slice;
+        private boolean mark(StaticContext con) {
+            SDGNode n = con.getNode();
+            Set<StaticContext> cons = markedContexts.get(n);
+
+            if (cons == null) {
+                cons = markedContexts.getStale(n);
+
+                if (cons == null) {
+                    cons = new HashSet<>();
+                } else {
+                    cons.clear();
+                }
+                markedContexts.put(n, cons);
+            }
+
+            return cons.add(con);
+        }
     }
 
     protected abstract Collection<SDGEdge> edgesToTraverse(SDGNode node);
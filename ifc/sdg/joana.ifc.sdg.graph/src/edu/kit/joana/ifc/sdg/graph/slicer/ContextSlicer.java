@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.ifc.sdg.graph.slicer;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -37,6 +38,8 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
     protected SDG sdg;
     protected ContextManager<C> conMan;
     protected final Function<SDG, ContextManager<C>> newManager;
+    /** the state of {@link #slice(Collection)}, kept for the next slice of the same graph */
+    private Session session;
     
     protected static final Function<SDG, ContextManager<DynamicContext>> newDynamicManager = (sdg -> new DynamicContextManager(sdg));
     protected static final Function<SDG, ContextManager<StaticContext>>  newStaticManager  = (sdg -> StaticContextManager.create(sdg));
@@ -72,6 +75,7 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
         sdg = graph;
 
         conMan = newManager.apply(sdg);
+        session = null;
     }
 
     public Collection<SDGNode> slice(SDGNode criterion) {
@@ -80,124 +84,185 @@ public abstract class ContextSlicer<C extends Context<C>> implements Slicer {
 
     /** Slices an IPDG context-sensitively by using call string information.
      * Thread edges and summary edges are not traversed.
+     * The worklists and marks are kept for the next slice of the same graph, see {@link Session}, so the slicer
+     * must not be used by several threads at once.
      *
      * @param criterion  The slicing criterion
      * @return The slice, as a collection of SDGNodes.
      */
     public Collection<SDGNode> slice(Collection<SDGNode> criterion){
-    	HashSet<SDGNode> slice = new HashSet<SDGNode>();
-    	HashSet<C> visited = new HashSet<>();
-        LinkedList<C> worklist_1 = new LinkedList<>();
-        LinkedList<C> worklist_2 = new LinkedList<>();
+        if (session == null) {
+            session = new Session();
+        }
+        return session.slice(criterion);
+    }
 
-        // init worklist
-        for (SDGNode c : criterion) {
-        	worklist_1.addAll(conMan.getAllContextsOf(c));
+    /** Creates a new session for repeated slices of the current graph, e.g. one per thread that slices it.
+     *
+     * @return A session that computes the same slices as {@link #slice(Collection)}.
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /** Computes the slices of {@link ContextSlicer#slice(Collection)}, keeping its worklists and visited marks
+     * across calls. The marks are stamped with the number of the current slice, so starting a new slice does
+     * not clear or allocate anything proportional to the size of the graph.
+     * <p>
+     * The contexts visited at a node are kept in a set per node. The sets are emptied at the end of each slice,
+     * so a session does not keep the contexts of earlier slices alive, and are reused by the next slice that
+     * reaches the node. A session thus holds one empty set per node reached by any of its slices, each with the
+     * capacity of the most contexts visited at that node; {@link #setGraph(SDG)} releases them.
+     * <p>
+     * A session is not thread-safe, concurrent slices of the same graph need a session each.
+     */
+    public final class Session implements Slicer {
+        private EpochNodeMap<Set<C>> visited;
+        private final ArrayDeque<C> worklist_1 = new ArrayDeque<>();
+        private final ArrayDeque<C> worklist_2 = new ArrayDeque<>();
+
+        private Session() {
+            visited = new EpochNodeMap<>(sdg.lastId());
         }
 
-        // slice
-        while(!worklist_1.isEmpty()) {
-            // next element, put it in the slice
-            C next = worklist_1.poll();
-            slice.add(next.getNode());
+        /** Sets the graph of the slicer this session belongs to.
+         */
+        public void setGraph(SDG graph) {
+            ContextSlicer.this.setGraph(graph);
+            visited = new EpochNodeMap<>(sdg.lastId());
+        }
 
-            // handle all incoming edges of 'next'
-            for(SDGEdge e : getEdges(next.getNode())) {
-            	if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
-                    continue;
+        public Collection<SDGNode> slice(SDGNode criterion) {
+            return slice(Collections.singleton(criterion));
+        }
+
+        public Collection<SDGNode> slice(Collection<SDGNode> criterion) {
+            visited.nextEpoch();
+            worklist_1.clear();
+            worklist_2.clear();
+            HashSet<SDGNode> slice = new HashSet<SDGNode>();
+
+            // init worklist
+            for (SDGNode c : criterion) {
+                for (C con : conMan.getAllContextsOf(c)) {
+                    if (visit(con)) {
+                        worklist_1.add(con);
+                    }
                 }
+            }
 
-                SDGNode n = getAdjacentNode(e);
+            // phase 1
+            while (!worklist_1.isEmpty()) {
+                C next = worklist_1.poll();
+                slice.add(next.getNode());
 
-                // distinguish between different kinds of edges
-                if ((e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN)
-                		&& n.getKind() == SDGNode.Kind.FORMAL_OUT) {
+                for (SDGEdge e : getEdges(next.getNode())) {
+                    if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
+                        continue;
+                    }
 
-                    // The class initialiser method is a special case due to the structure of the given SDG graphs.
-                    // It can be recognised by having the only formal-out vertex with an outgoing param-in edge
-                    // which is also the only 'entry point' during an intrathreadural backward slice.
-                    Collection<C> newContexts = conMan.getContextsOf(n, 0);
+                    SDGNode n = getAdjacentNode(e);
 
-                    // update the worklist
-                    for (C con : newContexts) {
-                    	if (visited.add(con)) {
-                    		worklist_1.add(con);
-                       	}
-                    }
+                    if ((e.getKind() == SDGEdge.Kind.CALL || e.getKind() == SDGEdge.Kind.PARAMETER_IN)
+                            && n.getKind() == SDGNode.Kind.FORMAL_OUT) {
+                        // class initializer, see ContextSlicer#slice
+                        for (C con : conMan.getContextsOf(n, 0)) {
+                            if (visit(con)) {
+                                worklist_1.add(con);
+                            }
+                        }
 
-                } else if (isAscendingEdge(e.getKind())) {
-                    // go to the calling procedure
-                	if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
-                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                        C[] newContexts = conMan.ascend(n, callSite, next);
+                    } else if (isAscendingEdge(e.getKind())) {
+                        if (n.isInThread(next.getThread()) && next.isInCallingProcedure(n)) {
+                            SDGNodeTuple callSite = sdg.getCallEntryFor(e);
 
-                        for (C con : newContexts) {
-                        	if (con != null && visited.add(con)) {
-                        		worklist_1.add(con);
-                        	}
+                            for (C con : conMan.ascend(n, callSite, next)) {
+                                if (con != null && visit(con)) {
+                                    worklist_1.add(con);
+                                }
+                            }
                         }
-                    }
 
-                } else if (isDescendingEdge(e.getKind())) {
-                    // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    } else if (isDescendingEdge(e.getKind())) {
+                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
+                        C con = conMan.descend(n, callSite, next);
 
-                    if (visited.add(con)) {
-                		worklist_2.add(con);
-                	}
+                        if (visit(con)) {
+                            worklist_2.add(con);
+                        }
 
-                } else {
-                    // intra-procedural traversal
-                    C con = conMan.level(n, next);
+                    } else {
+                        C con = conMan.level(n, next);
 
-                    if (visited.add(con)) {
-                		worklist_1.add(con);
-                	}
+                        if (visit(con)) {
+                            worklist_1.add(con);
+                        }
+                    }
                 }
             }
-        }
 
-        // slice
-        while(!worklist_2.isEmpty()) {
-            // next element, put it in the slice
-            C next = worklist_2.poll();
-            slice.add(next.getNode());
+            // phase 2
+            while (!worklist_2.isEmpty()) {
+                C next = worklist_2.poll();
+                slice.add(next.getNode());
 
-            // handle all incoming edges of 'next'
-            for(SDGEdge e : getEdges(next.getNode())){
-            	if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
-                    continue;
-                }
+                for (SDGEdge e : getEdges(next.getNode())) {
+                    if (!e.getKind().isSDGEdge() || omittedEdges.contains(e.getKind())) {
+                        continue;
+                    }
 
-                SDGNode n = getAdjacentNode(e);
+                    SDGNode n = getAdjacentNode(e);
 
-                // distinguish between different kinds of edges
-                if (isAscendingEdge(e.getKind())) {
-                    // skip
+                    if (isAscendingEdge(e.getKind())) {
+                        // skip
 
-                } else if (isDescendingEdge(e.getKind())) {
-                    // go to the called procedure
-                    SDGNodeTuple callSite = sdg.getCallEntryFor(e);
-                    C con = conMan.descend(n, callSite, next);
+                    } else if (isDescendingEdge(e.getKind())) {
+                        SDGNodeTuple callSite = sdg.getCallEntryFor(e);
+                        C con = conMan.descend(n, callSite, next);
 
-                    if (visited.add(con)) {
-                		worklist_2.add(con);
-                	}
+                        if (visit(con)) {
+                            worklist_2.add(con);
+                        }
 
-                } else {
-                    // intra-procedural traversal
-                    C con = conMan.level(n, next);
+                    } else {
+                        C con = conMan.level(n, next);
 
-                    if (visited.add(con)) {
-                		worklist_2.add(con);
-                	}
+                        if (visit(con)) {
+                            worklist_2.add(con);
+                        }
+                    }
                 }
             }
+
+            // every visited context has been put into a worklist, so its node is in the slice
+            for (SDGNode n : slice) {
+                visited.get(n).clear();
+            }
+
+            return slice;
         }
 
-        // return the slice
-        return slice;
+        /** Marks the given context as visited.
+         *
+         * @return true if it was not visited by the current slice yet.
+         */
+        private boolean visit(C con) {
+            SDGNode n = con.getNode();
+            Set<C> cons = visited.get(n);
+
+            if (cons == null) {
+                cons = visited.getStale(n);
+
+                if (cons == null) {
+                    cons = new HashSet<>();
+                } else {
+                    cons.clear();
+                }
+                visited.put(n, cons);
+            }
+
+            return cons.add(con);
+        }
     }
 
 
@@ -0,0 +1,109 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.Arrays;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * Marks and values of nodes, stored in arrays indexed by node id and stamped with an epoch.
+ * {@link #nextEpoch()} forgets all marks and values in constant time, so a slicer can reuse one instance
+ * for many slices without clearing anything proportional to the size of the graph.
+ * <p>
+ * The values of earlier epochs are still available via {@link #getStale(SDGNode)}, so that e.g. a set of
+ * visited contexts of a node can be cleared and reused instead of allocated again.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <V> The type of the values.
+ */
+public final class EpochNodeMap<V> {
+
+    private int epoch = 1;
+    private int[] stamps;
+    private Object[] values;
+
+    /**
+     * @param maxId  The highest node id that is expected, the arrays grow if a node has a higher id.
+     */
+    public EpochNodeMap(int maxId) {
+        final int size = Math.max(maxId + 1, 16);
+        this.stamps = new int[size];
+        this.values = new Object[size];
+    }
+
+    /**
+     * Forgets all marks and values.
+     */
+    public void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            // happens after two billion slices, only then the stamps have to be reset
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Marks the given node.
+     * @return true if the node was not marked yet in the current epoch.
+     */
+    public boolean mark(SDGNode n) {
+        final int id = n.getId();
+        ensureCapacity(id);
+        if (stamps[id] == epoch) {
+            return false;
+        }
+        stamps[id] = epoch;
+        values[id] = null;
+        return true;
+    }
+
+    public boolean isMarked(SDGNode n) {
+        final int id = n.getId();
+        return id < stamps.length && stamps[id] == epoch;
+    }
+
+    /**
+     * @return The value of the given node in the current epoch, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(SDGNode n) {
+        final int id = n.getId();
+        return id < stamps.length && stamps[id] == epoch ? (V) values[id] : null;
+    }
+
+    /**
+     * @return The value the given node had in an earlier epoch, or null if there is none or the node
+     *         already has a value in the current epoch.
+     */
+    @SuppressWarnings("unchecked")
+    public V getStale(SDGNode n) {
+        final int id = n.getId();
+        return id < stamps.length && stamps[id] != epoch ? (V) values[id] : null;
+    }
+
+    /**
+     * Sets the value of the given node and marks it.
+     */
+    public void put(SDGNode n, V value) {
+        final int id = n.getId();
+        ensureCapacity(id);
+        stamps[id] = epoch;
+        values[id] = value;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= stamps.length) {
+            final int size = Math.max(id + 1, 2 * stamps.length);
+            stamps = Arrays.copyOf(stamps, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+
+/**
+ * A slicer that is able to compute the slices of many criteria at once.
+ */
+public interface MultiCriteriaSlicer extends Slicer {
+
+    /**
+     * Computes the slices of each of the given criteria in a single traversal of the graph.
+     * The result is the same as calling {@link #slice(SDGNode)} for every criterion on its own.
+     *
+     * @param criteria  The slicing criteria.
+     * @return          Maps each node that is part of at least one slice to the indices (in <code>criteria</code>)
+     *                  of the criteria whose slice contains the node.
+     */
+    public Map<SDGNode, BitSet> sliceEach(List<SDGNode> criteria);
+}
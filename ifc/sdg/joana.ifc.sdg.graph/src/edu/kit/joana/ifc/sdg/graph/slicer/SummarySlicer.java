@@ -8,20 +8,25 @@
 package edu.kit.joana.ifc.sdg.graph.slicer;
 
 import java.math.BigInteger;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import edu.kit.joana.ifc.sdg.graph.BitVector;
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.util.Log;
 import edu.kit.joana.util.Logger;
+import gnu.trove.list.array.TIntArrayList;
 
 
 /**
@@ -31,11 +36,12 @@ import edu.kit.joana.util.Logger;
  *
  * @author  Christian Hammer, Dennis Giffhorn
  */
-public abstract class SummarySlicer implements Slicer {
+public abstract class SummarySlicer implements MultiCriteriaSlicer {
 
 	private final Logger debug = Log.getLogger(Log.L_SDG_GRAPH_DEBUG);
     protected Set<SDGEdge.Kind> omittedEdges = SDGEdge.Kind.threadEdges();
     protected SDG g;
+    protected FrozenSDG frozen;
 
     public interface EdgePredicate {
         public boolean phase1();
@@ -61,6 +67,35 @@ public abstract class SummarySlicer implements Slicer {
 
     public void setGraph(SDG graph) {
         g = graph;
+        frozen = null;
+    }
+
+    /**
+     * Lets the slicer work on the given snapshot of an sdg (see {@link SDG#freeze()}) instead of the sdg itself,
+     * until {@link #setGraph(SDG)} is called. Only slicers that provide {@link #edgeKindMasks()} and
+     * {@link #frozenEdgesToTraverse(FrozenSDG)} make use of the snapshot.
+     */
+    public void setFrozenGraph(FrozenSDG graph) {
+        g = graph.getSDG();
+        frozen = graph;
+    }
+
+    /**
+     * @return the snapshot this slicer works on, or {@code null} if it works on the sdg itself
+     */
+    public FrozenSDG getFrozenGraph() {
+        return frozen;
+    }
+
+    /**
+     * @return the sdg this slicer works on
+     */
+    public SDG getGraph() {
+        return g;
+    }
+
+    private FrozenSDG.Adjacency frozenEdges() {
+        return (frozen != null && edgeKindMasks() != null ? frozenEdgesToTraverse(frozen) : null);
     }
 
     public Collection<SDGNode> slice(SDGNode criterion) {
@@ -68,48 +103,138 @@ public abstract class SummarySlicer implements Slicer {
     }
 
     public Collection<SDGNode> slice(Collection<SDGNode> criteria) {
-        Map<SDGNode, SDGNode> slice = new HashMap<SDGNode, SDGNode>();
-        LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
-        LinkedList<SDGNode> nextWorklist = new LinkedList<SDGNode>();
-        EdgePredicate p = phase1Predicate();
+        return slice(criteria, null);
+    }
+
+    public Collection<SDGNode> subgraphSlice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+        return slice(criteria, sub);
+    }
 
-        worklist.addAll(criteria);
+    private Collection<SDGNode> slice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
+        final FrozenSDG.Adjacency edges = frozenEdges();
+        if (edges != null) {
+            final BitVector inSlice = sliceFrozen(edges, criteria, sub, null);
+
+            final Set<SDGNode> slice = new HashSet<SDGNode>();
+            for (int index = inSlice.nextSetBit(0); index >= 0; index = inSlice.nextSetBit(index + 1)) {
+                slice.add(frozen.getNode(index));
+            }
+
+            return slice;
+        }
+
+        final BitVector inSlice = slice(criteria, sub, null);
+
+        final Set<SDGNode> slice = new HashSet<SDGNode>();
+        for (int id = inSlice.nextSetBit(0); id >= 0; id = inSlice.nextSetBit(id + 1)) {
+            slice.add(g.getNode(id));
+        }
+
+        return slice;
+    }
+
+    /**
+     * Computes the same slice as {@link #slice(Collection)}, but returns it as a bit vector over the ids
+     * of the nodes. Clients that combine several slices, like choppers, can then intersect and unite them
+     * word by word instead of node by node.
+     *
+     * @param criteria  The slicing criteria.
+     * @param sub       If not null, the slice is restricted to the nodes whose id is set, like in
+     *                  {@link #subgraphSlice(Collection, Collection)}.
+     * @return          The ids of the nodes in the slice.
+     */
+    public BitVector sliceBits(Collection<SDGNode> criteria, BitVector sub) {
+        final FrozenSDG.Adjacency edges = frozenEdges();
+        if (edges != null) {
+            final BitVector inSlice = sliceFrozen(edges, criteria, null, sub);
+
+            final BitVector ids = new BitVector(g.lastId() + 1);
+            for (int index = inSlice.nextSetBit(0); index >= 0; index = inSlice.nextSetBit(index + 1)) {
+                ids.set(frozen.getNode(index).getId());
+            }
+
+            return ids;
+        }
+
+        return slice(criteria, null, sub);
+    }
+
+    /**
+     * The slicing engine: nodes are identified by their id, the slice is kept in a bit vector and the
+     * worklists are int queues. Whether an edge is traversed is decided by bitmasks over the edge kinds,
+     * if the slicer provides {@link #edgeKindMasks()}.
+     * A node that phase 1 saves for phase 2 is traversed in phase 1 as well, if phase 1 reaches it along
+     * another edge later on. So the slice does not depend on the order in which the edges are traversed,
+     * which is what allows {@link #sliceEach(List)} to compute the slices of many criteria at once.
+     *
+     * @param criteria  The slicing criteria.
+     * @param sub       If not null, the slice is restricted to these nodes.
+     * @param subBits   If not null, the slice is restricted to the nodes whose id is set.
+     * @return          The ids of the nodes in the slice.
+     */
+    private BitVector slice(Collection<SDGNode> criteria, Collection<SDGNode> sub, BitVector subBits) {
+        final BitVector inSlice = new BitVector(g.vertexSet().size() + 1);
+        final BitVector saved = new BitVector(g.vertexSet().size() + 1);
+        TIntArrayList worklist = new TIntArrayList();
+        int head = 0;
+        final TIntArrayList nextWorklist = new TIntArrayList();
+
+        final long traversed = traversedKinds();
+        final EdgeKindMasks masks = edgeKindMasks();
+        EdgePredicate p = phase1Predicate();
+        boolean phase1 = true;
 
         for (SDGNode v : criteria) {
-            slice.put(v, phase1Predicate().phase1() ? v : null);
+            if ((sub == null || sub.contains(v)) && (subBits == null || subBits.get(v.getId()))) {
+                worklist.add(v.getId());
+                inSlice.set(v.getId());
+            }
         }
 
-        while (!worklist.isEmpty()) {
+        while (head < worklist.size()) {
 
-            while (!worklist.isEmpty()) {
-                SDGNode w = worklist.poll();
+            while (head < worklist.size()) {
+                SDGNode w = g.getNode(worklist.getQuick(head++));
 
                 for (SDGEdge e : edgesToTraverse(w)) {
+                    final long kind = 1L << e.getKind().ordinal();
 
-                    if (!e.getKind().isSDGEdge() ||
-                            omittedEdges.contains(e.getKind())) {
-
+                    if ((traversed & kind) == 0) {
                         continue;
                     }
 
                     SDGNode v = reachedNode(e);
+                    final int id = v.getId();
 
-                    if (!slice.containsKey(v) ||
-                            (p.phase1() &&
-                            slice.get(v) == null)) {
-
-                        // if node was not yet added or node was added in phase2
-                        if (p.saveInOtherWorklist(e)) {
-
-                            debug.outln("OTHER\t" + e);
-                            nextWorklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
-
-                        } else if (p.follow(e)) {
+                    if ((sub != null && !sub.contains(v)) || (subBits != null && !subBits.get(id))) {
+                        continue;
+                    }
 
-                        	debug.outln("FOLLOW\t" + e);
-                            worklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
+                    if (phase1 && (masks != null ? (masks.phase1Save & kind) != 0 : p.saveInOtherWorklist(e))) {
+                        if (!inSlice.get(id)) {
+                            if (debug.isEnabled()) debug.outln("OTHER\t" + e);
+                            inSlice.set(id);
+                            saved.set(id);
+                            nextWorklist.add(id);
+                        }
+                    } else if (!phase1 && (masks != null ? (masks.phase2Follow & kind) != 0
+                            : (p.saveInOtherWorklist(e) || p.follow(e)))) {
+                        // both worklists are the same in phase 2
+                        if (!inSlice.get(id)) {
+                            if (debug.isEnabled()) debug.outln("FOLLOW\t" + e);
+                            inSlice.set(id);
+                            worklist.add(id);
+                        }
+                    } else if (phase1 && (masks != null ? (masks.phase1Follow & kind) != 0 : p.follow(e))) {
+                        if (!inSlice.get(id)) {
+                            if (debug.isEnabled()) debug.outln("FOLLOW\t" + e);
+                            inSlice.set(id);
+                            worklist.add(id);
+                        } else if (saved.get(id)) {
+                            // saved for phase 2 first, but phase 1 reaches it as well
+                            if (debug.isEnabled()) debug.outln("FOLLOW\t" + e);
+                            saved.clear(id);
+                            worklist.add(id);
                         }
                     }
                 }
@@ -118,68 +243,351 @@ public abstract class SummarySlicer implements Slicer {
             // swap worklists and predicates
             debug.outln("swap");
 
-            worklist = nextWorklist;
-            p =  phase2Predicate();
+            if (phase1) {
+                worklist = nextWorklist;
+                head = 0;
+                p = phase2Predicate();
+                phase1 = false;
+            }
         }
 
-        return slice.keySet();
+        return inSlice;
     }
 
-    public Collection<SDGNode> subgraphSlice(Collection<SDGNode> criteria, Collection<SDGNode> sub) {
-        Map<SDGNode, SDGNode> slice = new HashMap<SDGNode, SDGNode>();
-        LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
-        LinkedList<SDGNode> nextWorklist = new LinkedList<SDGNode>();
-        EdgePredicate p = phase1Predicate();
+    /**
+     * The slicing engine working on the snapshot of the sdg, see {@link #slice(Collection, Collection, BitVector)}.
+     * It identifies nodes by their index in the snapshot and decides solely by {@link #edgeKindMasks()}
+     * which edges are traversed.
+     *
+     * @return          The indices of the nodes in the slice.
+     */
+    private BitVector sliceFrozen(FrozenSDG.Adjacency edges, Collection<SDGNode> criteria, Collection<SDGNode> sub,
+            BitVector subBits) {
+        final BitVector inSlice = new BitVector(frozen.size());
+        final BitVector saved = new BitVector(frozen.size());
+        TIntArrayList worklist = new TIntArrayList();
+        int head = 0;
+        final TIntArrayList nextWorklist = new TIntArrayList();
+
+        final long traversed = traversedKinds();
+        final EdgeKindMasks masks = edgeKindMasks();
+        final long phase1Save = masks.phase1Save & traversed;
+        final long phase1Follow = masks.phase1Follow & traversed;
+        final long phase2Follow = masks.phase2Follow & traversed;
+        boolean phase1 = true;
 
         for (SDGNode v : criteria) {
-            if (sub.contains(v)) {
-                worklist.add(v);
-                slice.put(v, phase1Predicate().phase1() ? v : null);
+            final int index = frozenIndex(v);
+
+            if ((sub == null || sub.contains(v)) && (subBits == null || subBits.get(v.getId()))) {
+                worklist.add(index);
+                inSlice.set(index);
             }
         }
 
-        while (!worklist.isEmpty()) {
-            while (!worklist.isEmpty()) {
-                SDGNode w = worklist.poll();
+        while (head < worklist.size()) {
 
-                for (SDGEdge e : edgesToTraverse(w)) {
+            while (head < worklist.size()) {
+                final int w = worklist.getQuick(head++);
 
-                    if (!e.getKind().isSDGEdge() ||
-                            omittedEdges.contains(e.getKind())) {
+                for (int e = edges.begin(w), end = edges.end(w); e < end; e++) {
+                    final int v = edges.adjacent(e);
+                    final long kind = 1L << edges.kindOrdinal(e);
+                    final boolean save = phase1 && (phase1Save & kind) != 0;
+                    final boolean follow = !save && ((phase1 ? phase1Follow : phase2Follow) & kind) != 0;
 
+                    if ((!save && !follow) || (sub != null && !sub.contains(frozen.getNode(v)))
+                            || (subBits != null && !subBits.get(frozen.getNode(v).getId()))) {
                         continue;
                     }
 
-                    SDGNode v = reachedNode(e);
+                    if (!inSlice.get(v)) {
+                        inSlice.set(v);
+                        if (save) {
+                            saved.set(v);
+                            nextWorklist.add(v);
+                        } else {
+                            worklist.add(v);
+                        }
+                    } else if (phase1 && follow && saved.get(v)) {
+                        // saved for phase 2 first, but phase 1 reaches it as well
+                        saved.clear(v);
+                        worklist.add(v);
+                    }
+                }
+            }
 
-                    if (sub.contains(v) &&
-                            (!slice.containsKey(v) || (p.phase1() && slice.get(v) == null))) {
+            if (phase1) {
+                worklist = nextWorklist;
+                head = 0;
+                phase1 = false;
+            }
+        }
 
-                        // if node was not yet added or node was added in phase2
-                        if (p.saveInOtherWorklist(e)) {
+        return inSlice;
+    }
 
-                        	debug.outln("OTHER\t" + e);
-                            nextWorklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
+    /**
+     * Computes the slices of many criteria at once, see {@link MultiCriteriaSlicer}. The criteria are processed
+     * in blocks of 64: every node carries a <code>long</code> per phase whose bits record for which criteria
+     * of the block the node has been reached, and a single worklist propagation computes the slices of the
+     * whole block. The marks only grow (unvisited, phase 2, phase 1), so a node that phase 1 saves for phase 2
+     * is traversed in phase 1 as well if phase 1 reaches it along another edge, and every bit ends up with the
+     * slice of its criterion independently of the order of traversal. The marks are allocated once and only
+     * the entries a block has reached are cleared for the next one.
+     * <p>
+     * Slicers that do not provide {@link #edgeKindMasks()} compute one slice per criterion instead. If a snapshot
+     * has been set with {@link #setFrozenGraph(FrozenSDG)}, the nodes are identified by their index in the snapshot
+     * and the edges are read from it.
+     */
+    public Map<SDGNode, BitSet> sliceEach(List<SDGNode> criteria) {
+        final Map<SDGNode, BitSet> result = new HashMap<SDGNode, BitSet>();
+        final EdgeKindMasks masks = edgeKindMasks();
+
+        // phase 2 starts only at nodes saved in phase 1, so a node reached in phase 1 must not have edges
+        // that phase 2 follows but phase 1 neither follows nor saves
+        if (masks == null || (masks.phase2Follow & ~(masks.phase1Follow | masks.phase1Save)) != 0) {
+            for (int i = 0; i < criteria.size(); i++) {
+                for (SDGNode n : slice(criteria.get(i))) {
+                    addCriterion(result, n, i);
+                }
+            }
 
-                        } else if (p.follow(e)) {
+            return result;
+        }
 
-                        	debug.outln("FOLLOW\t" + e);
-                            worklist.add(v);
-                            slice.put(v, p.phase1() ? v : null);
-                        }
+        final FrozenSDG.Adjacency edges = frozenEdges();
+        final int size = (edges != null ? frozen.size() : g.lastId() + 1);
+        final long traversed = traversedKinds();
+        final BlockMarks m = new BlockMarks(size, masks.phase1Save & traversed, masks.phase1Follow & traversed,
+                masks.phase2Follow & traversed);
+        for (int offset = 0; offset < criteria.size(); offset += 64) {
+            sliceBlock(criteria.subList(offset, Math.min(offset + 64, criteria.size())), offset, m, traversed, edges,
+                    result);
+            m.clear();
+        }
+
+        return result;
+    }
+
+    /**
+     * Slices at most 64 criteria at once and adds the criteria whose slice contains a node, shifted by
+     * <code>offset</code>, to the result. Nodes are identified by their index in <code>edges</code> if
+     * it is not null, else by their id.
+     */
+    private void sliceBlock(List<SDGNode> criteria, int offset, BlockMarks m, long traversed,
+            FrozenSDG.Adjacency edges, Map<SDGNode, BitSet> result) {
+        for (int i = 0; i < criteria.size(); i++) {
+            final int id = (edges != null ? frozenIndex(criteria.get(i)) : criteria.get(i).getId());
+            if (m.reached[id] == 0) {
+                m.touched.add(id);
+            }
+            m.phase1[id] |= 1L << i;
+            m.reached[id] |= 1L << i;
+            if (m.inWorklist.setWithResult(id)) {
+                m.worklist.add(id);
+            }
+        }
+
+        int head = 0;
+        while (head < m.worklist.size()) {
+            final int w = m.worklist.getQuick(head++);
+            m.inWorklist.clear(w);
+
+            if (head == m.worklist.size()) {
+                m.worklist.resetQuick();
+                head = 0;
+            }
+
+            // marks that have not been propagated yet
+            final long new1 = m.phase1[w] & ~m.done1[w];
+            final long new2 = m.reached[w] & ~m.phase1[w] & ~m.done2[w];
+            m.done1[w] |= new1;
+            m.done2[w] |= new2;
+
+            if (edges != null) {
+                for (int e = edges.begin(w), end = edges.end(w); e < end; e++) {
+                    m.propagate(1L << edges.kindOrdinal(e), edges.adjacent(e), new1, new2);
+                }
+            } else {
+                for (SDGEdge e : edgesToTraverse(g.getNode(w))) {
+                    final long kind = 1L << e.getKind().ordinal();
+
+                    if ((traversed & kind) != 0) {
+                        m.propagate(kind, reachedNode(e).getId(), new1, new2);
                     }
                 }
             }
+        }
 
-            // swap worklists and predicates
-            debug.outln("swap");
+        for (int i = 0; i < m.touched.size(); i++) {
+            final int id = m.touched.getQuick(i);
+            final SDGNode n = (edges != null ? frozen.getNode(id) : g.getNode(id));
+            for (long bits = m.reached[id]; bits != 0; bits &= bits - 1) {
+                addCriterion(result, n, offset + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
 
-            worklist = nextWorklist;
-            p =  phase2Predicate();
+    /**
+     * The marks of a pass of {@link SummarySlicer#sliceBlock}: for each node and criterion of the block, whether
+     * the node has been reached in phase 1, reached in any phase, and whether these marks have been propagated.
+     * The marks are reused by all blocks of a call of {@link SummarySlicer#sliceEach}.
+     */
+    private static final class BlockMarks {
+        private final long phase1Save;
+        private final long phase1Follow;
+        private final long phase2Follow;
+        private final long[] phase1;
+        private final long[] reached;
+        private final long[] done1;
+        private final long[] done2;
+        private final BitVector inWorklist;
+        private final TIntArrayList worklist = new TIntArrayList();
+        /** the nodes reached by the current block, i.e. the only ones with marks */
+        private final TIntArrayList touched = new TIntArrayList();
+
+        private BlockMarks(int size, long phase1Save, long phase1Follow, long phase2Follow) {
+            this.phase1Save = phase1Save;
+            this.phase1Follow = phase1Follow;
+            this.phase2Follow = phase2Follow;
+            this.phase1 = new long[size];
+            this.reached = new long[size];
+            this.done1 = new long[size];
+            this.done2 = new long[size];
+            this.inWorklist = new BitVector(size);
         }
 
-        return slice.keySet();
+        /**
+         * Propagates the new marks of a node along an edge of the given kind to the node <code>v</code>.
+         */
+        private void propagate(long kind, int v, long new1, long new2) {
+            long add = 0;
+            final boolean untouched = (reached[v] == 0);
+
+            if (new1 != 0) {
+                if ((phase1Save & kind) != 0) {
+                    add |= new1 & ~reached[v];
+                    reached[v] |= new1;
+                } else if ((phase1Follow & kind) != 0) {
+                    add |= new1 & ~phase1[v];
+                    phase1[v] |= new1;
+                    reached[v] |= new1;
+                }
+            }
+
+            if (new2 != 0 && (phase2Follow & kind) != 0) {
+                add |= new2 & ~reached[v];
+                reached[v] |= new2;
+            }
+
+            if (add != 0 && inWorklist.setWithResult(v)) {
+                worklist.add(v);
+            }
+
+            if (untouched && reached[v] != 0) {
+                touched.add(v);
+            }
+        }
+
+        /**
+         * Resets the marks of the nodes reached by the last block. The worklist is empty after a block.
+         */
+        private void clear() {
+            for (int i = 0; i < touched.size(); i++) {
+                final int v = touched.getQuick(i);
+                phase1[v] = 0;
+                reached[v] = 0;
+                done1[v] = 0;
+                done2[v] = 0;
+            }
+            touched.resetQuick();
+        }
+    }
+
+    private int frozenIndex(SDGNode v) {
+        final int index = frozen.indexOf(v);
+        if (index < 0) {
+            throw new IllegalArgumentException("node " + v + " is not part of the frozen sdg");
+        }
+
+        return index;
+    }
+
+    private static void addCriterion(Map<SDGNode, BitSet> result, SDGNode node, int criterion) {
+        BitSet criteria = result.get(node);
+        if (criteria == null) {
+            criteria = new BitSet();
+            result.put(node, criteria);
+        }
+
+        criteria.set(criterion);
+    }
+
+    /**
+     * Subclasses that provide {@link #edgeKindMasks()} may return here the edges of the snapshot that
+     * correspond to {@link #edgesToTraverse(SDGNode)} - the incoming edges for a backward slicer and the
+     * outgoing edges for a forward slicer - so they can slice on a {@link FrozenSDG}.
+     *
+     * @return the edges to traverse in the given snapshot, or null
+     */
+    protected FrozenSDG.Adjacency frozenEdgesToTraverse(FrozenSDG graph) {
+        return null;
+    }
+
+    /**
+     * @return bitmask over {@link SDGEdge.Kind#ordinal()} of the sdg edges that are not omitted
+     */
+    private long traversedKinds() {
+        long mask = 0;
+        for (SDGEdge.Kind k : SDGEdge.Kind.values()) {
+            if (k.isSDGEdge() && !omittedEdges.contains(k)) {
+                mask |= 1L << k.ordinal();
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Precomputed kinds of edges to follow, as an alternative to evaluating the {@link EdgePredicate}s for
+     * every traversed edge. Omitted edges are filtered out separately.
+     */
+    protected static final class EdgeKindMasks {
+        private final long phase1Follow;
+        private final long phase1Save;
+        private final long phase2Follow;
+
+        /**
+         * @param phase1Follow  kinds of edges followed in phase 1
+         * @param phase1Save    kinds of edges whose reached nodes are saved for phase 2
+         * @param phase2Follow  kinds of edges followed in phase 2
+         */
+        public EdgeKindMasks(Set<SDGEdge.Kind> phase1Follow, Set<SDGEdge.Kind> phase1Save, Set<SDGEdge.Kind> phase2Follow) {
+            this.phase1Follow = toMask(phase1Follow);
+            this.phase1Save = toMask(phase1Save);
+            this.phase2Follow = toMask(phase2Follow);
+        }
+
+        private static long toMask(Set<SDGEdge.Kind> kinds) {
+            long mask = 0;
+            for (SDGEdge.Kind k : kinds) {
+                mask |= 1L << k.ordinal();
+            }
+
+            return mask;
+        }
+    }
+
+    /**
+     * Subclasses whose predicates only depend on the kind of an edge may return the corresponding
+     * kinds here, so the slicer does not need to evaluate the predicates for each edge. Subclasses that
+     * override the predicates of such a slicer have to override this method as well.
+     *
+     * @return the edge kinds corresponding to the predicates of this slicer, or null
+     */
+    protected EdgeKindMasks edgeKindMasks() {
+        return null;
     }
 
     public void setOmittedEdges(Set<SDGEdge.Kind> omit){
@@ -8,8 +8,10 @@
 package edu.kit.joana.ifc.sdg.graph.slicer;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Set;
 
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
@@ -78,4 +80,17 @@ public class SummarySlicerForward extends SummarySlicer {
             }
         };
     }
+
+    private static final EdgeKindMasks MASKS = new EdgeKindMasks(
+            EnumSet.allOf(SDGEdge.Kind.class),
+            EnumSet.of(SDGEdge.Kind.PARAMETER_IN, SDGEdge.Kind.CALL),
+            EnumSet.complementOf(EnumSet.of(SDGEdge.Kind.PARAMETER_OUT)));
+
+    protected EdgeKindMasks edgeKindMasks() {
+        return MASKS;
+    }
+
+    protected FrozenSDG.Adjacency frozenEdgesToTraverse(FrozenSDG graph) {
+        return graph.outgoing();
+    }
 }
@@ -7,6 +7,7 @@
  */
 package edu.kit.joana.ifc.sdg.graph.slicer.conc;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -68,12 +69,31 @@ public abstract class CFGSlicer {
     	return slice(Collections.singleton(c));
     }
 
-    private static void slice_put(SDGNode n, Phase phase) {
-    	n.customData = phase;
+    /* the marks of the current slice, indexed by node id. Kept per slicer instead of in SDGNode.customData,
+     * so that different slicers of the same graph can slice concurrently. */
+    private Phase[] marks = new Phase[0];
+
+    private void slice_put(SDGNode n, Phase phase) {
+    	marks[n.getId()] = phase;
     }
     
-    private static Phase slice_get(SDGNode n) {
-    	return (Phase) n.customData;
+    private Phase slice_get(SDGNode n) {
+    	return marks[n.getId()];
+    }
+
+    private void resetMarks(Collection<SDGNode> c) {
+    	int maxId = -1;
+    	for (SDGNode n : g.vertexSet()) {
+    		maxId = Math.max(maxId, n.getId());
+    	}
+    	for (SDGNode n : c) {
+    		maxId = Math.max(maxId, n.getId());
+    	}
+    	if (marks.length <= maxId) {
+    		marks = new Phase[maxId + 1];
+    	} else {
+    		Arrays.fill(marks, null);
+    	}
     }
     
     public Collection<SDGNode> slice(Collection<SDGNode> c) {
@@ -85,9 +105,7 @@ public abstract class CFGSlicer {
         boolean assertionEnabled = false;
         assert (assertionEnabled = true);
 
-        for (SDGNode n : g.vertexSet()) {
-        	slice_put(n, null);
-        }
+        resetMarks(c);
         
         worklist.addAll(c);
 
@@ -155,7 +173,7 @@ public abstract class CFGSlicer {
 		final Set<SDGNode> result =
 				g.vertexSet()
 				 .stream()
-				 .filter(n -> n.customData != null)
+				 .filter(n -> marks[n.getId()] != null)
 				 .collect(Collectors.toSet());
 		
 		assert slice.keySet().equals(result);
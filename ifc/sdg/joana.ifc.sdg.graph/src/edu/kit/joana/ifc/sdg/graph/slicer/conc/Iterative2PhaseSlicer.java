@@ -15,11 +15,14 @@
 package edu.kit.joana.ifc.sdg.graph.slicer.conc;
 
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
@@ -27,8 +30,8 @@ import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.ContextInsensitiveSlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
 import edu.kit.joana.ifc.sdg.graph.slicer.SDGSlicer;
-import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
 
 
 /**
@@ -41,7 +44,7 @@ import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
  *
  * @author hammer, giffhorn
  */
-public abstract class Iterative2PhaseSlicer implements Slicer {
+public abstract class Iterative2PhaseSlicer implements MultiCriteriaSlicer {
     interface Phase {
         public boolean follow(SDGEdge e);
         public boolean saveInOtherWorklist(SDGEdge e);
@@ -128,6 +131,135 @@ public abstract class Iterative2PhaseSlicer implements Slicer {
         return slice.keySet();
     }
 
+    /**
+     * Marks of a node during a pass of {@link #sliceEach(List)}: for each of the (at most 64) criteria of
+     * the pass whether the node is reached in phase 1, in any phase, and which of these marks have already
+     * been propagated.
+     */
+    private static final class Marks {
+        private long phase1 = 0L;
+        private long reached = 0L;
+        private long doneInPhase1 = 0L;
+        private long doneInPhase2 = 0L;
+        private boolean inWorklist = false;
+    }
+
+    /**
+     * Computes the slices of all criteria, 64 criteria per traversal. Instead of the phase of a node, the
+     * marks of a node record for which criteria the node has been reached in phase 1 or phase 2. As marks
+     * only grow (unvisited, phase 2, phase 1), propagating the marks of several criteria together yields the
+     * same slices as {@link #slice(Collection)} for each criterion on its own.
+     * <p>
+     * A traversal needs a constant number of words per visited node. The result however needs one bit per
+     * node and criterion, so callers with many criteria should pass them in blocks of 64.
+     */
+    public Map<SDGNode, BitSet> sliceEach(List<SDGNode> criteria) {
+        HashMap<SDGNode, BitSet> result = new HashMap<SDGNode, BitSet>();
+        HashMap<SDGNode, Marks> marks = new HashMap<SDGNode, Marks>();
+
+        for (int offset = 0; offset < criteria.size(); offset += 64) {
+            List<SDGNode> block = criteria.subList(offset, Math.min(offset + 64, criteria.size()));
+            marks.clear();
+            slicePass(block, marks);
+
+            for (Map.Entry<SDGNode, Marks> e : marks.entrySet()) {
+                long reached = e.getValue().reached;
+                BitSet bits = result.get(e.getKey());
+                if (bits == null) {
+                    bits = new BitSet();
+                    result.put(e.getKey(), bits);
+                }
+                for (; reached != 0L; reached &= reached - 1) {
+                    bits.set(offset + Long.numberOfTrailingZeros(reached));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void slicePass(List<SDGNode> criteria, Map<SDGNode, Marks> marks) {
+        LinkedList<SDGNode> worklist = new LinkedList<SDGNode>();
+        Phase phase1 = phase1();
+        Phase phase2 = phase2();
+
+        int i = 0;
+        for (SDGNode v : criteria) {
+            markPhase1(v, 1L << i++, marks, worklist);
+        }
+
+        while (!worklist.isEmpty()) {
+            SDGNode next = worklist.poll();
+            Marks m = marks.get(next);
+            m.inWorklist = false;
+
+            // marks that have not been propagated yet
+            final long new1 = m.phase1 & ~m.doneInPhase1;
+            m.doneInPhase1 |= new1;
+
+            final long new2 = m.reached & ~m.phase1 & ~m.doneInPhase2;
+            m.doneInPhase2 |= new2;
+
+            for (SDGEdge e : edgesToTraverse(next)) {
+                if (!e.getKind().isSDGEdge()) continue;
+
+                SDGNode adjacent = reachedNode(e);
+
+                if (new1 != 0L && phase1.follow(e)) {
+                    if (phase1.saveInOtherWorklist(e)) {
+                        // standard two-phase slicing: mark adjacent with phase 2
+                        markPhase2(adjacent, new1, marks, worklist);
+                    } else {
+                        markPhase1(adjacent, new1, marks, worklist);
+                    }
+                }
+
+                if (new2 != 0L && phase2.follow(e)) {
+                    if (e.getKind().isThreadEdge()) {
+                        // we are in phase 2 and about to traverse an interference edge: mark adjacent with phase 1
+                        markPhase1(adjacent, new2, marks, worklist);
+                    } else {
+                        markPhase2(adjacent, new2, marks, worklist);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void markPhase1(SDGNode node, long criteria, Map<SDGNode, Marks> marks, LinkedList<SDGNode> worklist) {
+        Marks m = getMarks(node, marks);
+        if ((criteria & ~m.phase1) != 0L) {
+            m.phase1 |= criteria;
+            m.reached |= criteria;
+            addToWorklist(node, m, worklist);
+        }
+    }
+
+    private static void markPhase2(SDGNode node, long criteria, Map<SDGNode, Marks> marks, LinkedList<SDGNode> worklist) {
+        Marks m = getMarks(node, marks);
+        if ((criteria & ~m.reached) != 0L) {
+            m.reached |= criteria;
+            addToWorklist(node, m, worklist);
+        }
+    }
+
+    private static Marks getMarks(SDGNode node, Map<SDGNode, Marks> marks) {
+        Marks m = marks.get(node);
+        if (m == null) {
+            m = new Marks();
+            marks.put(node, m);
+        }
+
+        return m;
+    }
+
+    private static void addToWorklist(SDGNode node, Marks m, LinkedList<SDGNode> worklist) {
+        if (!m.inWorklist) {
+            m.inWorklist = true;
+            worklist.add(node);
+        }
+    }
+
     /**
      * Computes a forward slice restricted to a given set of nodes.
      *
@@ -153,6 +153,10 @@ public class Nanda implements Slicer {
         summarySlicer = mode.initSummarySlicer(graph);
 
         mayExist = MayExistAnalysis.create(contextGraphs);
+
+        // the state tuples of the old graph are of no use anymore
+        restrictive_1 = null;
+        restrictive_2 = null;
     }
 
     public Collection<SDGNode> slice(SDGNode criterion) {
@@ -188,8 +192,7 @@ public class Nanda implements Slicer {
      */
     protected Collection<SDGNode> nandaSlice(Collection<SDGNode> crit) {
     	HashSet<SDGNode> slice = new HashSet<SDGNode>();
-        restrictive_1 = new VisitedMap();
-        restrictive_2 = new VisitedMap();
+        resetRestrictive();
 
         // init the 3 worklists for this algorithm
         LinkedList<WorklistElement> worklist_1 = new LinkedList<WorklistElement>();
@@ -441,6 +444,21 @@ public class Nanda implements Slicer {
         }
     }
 
+    /** Forgets the state tuples of the previous slice.
+     * The maps are created by the first slice and reused by all later ones, so repeated slices
+     * do not build them from scratch.
+     */
+    protected final void resetRestrictive() {
+        if (restrictive_1 == null) {
+            restrictive_1 = new VisitedMap();
+            restrictive_2 = new VisitedMap();
+
+        } else {
+            restrictive_1.nextEpoch();
+            restrictive_2.nextEpoch();
+        }
+    }
+
     /** Implements Nanda's restrictive state tuple optimization.
      * @param source  The reached node.
      * @param thread  The current thread.
@@ -7,8 +7,8 @@
  */
 package edu.kit.joana.ifc.sdg.graph.slicer.conc.nanda;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -56,13 +56,25 @@ public class VisitedMap {
     }
 
 
-    Map<Key, List<States>> map;
+    /** The state tuples of a key, stamped with the epoch they belong to. */
+    static class Marks {
+        int epoch;
+        final List<States> states = new ArrayList<States>(2);
+    }
+
+    Map<Key, Marks> map;
+
+    /** Entries of other epochs count as empty. */
+    private int epoch;
+
+    /** Reused for lookups, so that only new entries allocate a key. */
+    private final Key probe = new Key(null, 0, 0);
 
     /**
      * Creates a new instance of VisitedStatesMap
      */
     public VisitedMap() {
-        this.map = new HashMap<Key, List<States>>();
+        this.map = new HashMap<Key, Marks>();
     }
 
     /**
@@ -74,16 +86,21 @@ public class VisitedMap {
      * @param statesToMark  The state tuple to insert.
      */
     public void put(SDGNode v, int thread, int tnr, States statesToMark) {
-        // make a new Key
-        List<States> marks = map.get(new Key(v, thread, tnr));
+        Marks marks = map.get(probe(v, thread, tnr));
 
         if (marks == null) {
-        	marks = new LinkedList<States>();
+            marks = new Marks();
+            marks.epoch = epoch;
             map.put(new Key(v, thread, tnr), marks);
+
+        } else if (marks.epoch != epoch) {
+            // left over from a previous slice
+            marks.states.clear();
+            marks.epoch = epoch;
         }
 
-        // update the list and then the map
-        marks.add(statesToMark);
+        // update the list
+        marks.states.add(statesToMark);
     }
 
     /**
@@ -95,7 +112,21 @@ public class VisitedMap {
      * @return              The saved state tuples as a List of States.
      */
     public List<States> get(SDGNode v, int thread, int tnr) {
-        return map.get(new Key(v, thread, tnr));
+        Marks marks = map.get(probe(v, thread, tnr));
+        return marks == null || marks.epoch != epoch ? null : marks.states;
+    }
+
+    /**
+     * Forgets all state tuples in constant time.
+     * In contrast to {@link #clear()} the entries are kept and reused by later insertions,
+     * so a slicer that computes many slices does not build the map from scratch for each of them.
+     */
+    public void nextEpoch() {
+        epoch++;
+        if (epoch == 0) {
+            // the epochs wrapped around, entries of very old slices would count again
+            map.clear();
+        }
     }
 
     /**
@@ -105,4 +136,11 @@ public class VisitedMap {
     public void clear() {
         map.clear();
     }
+
+    private Key probe(SDGNode v, int thread, int tnr) {
+        probe.v = v;
+        probe.thread = thread;
+        probe.topNr = tnr;
+        return probe;
+    }
 }
@@ -0,0 +1,158 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.Pair;
+
+/**
+ * Like {@link StartNodeBitMatrix}, a parallelism matrix of thread regions that only stores the parallelism of the
+ * classes of regions with the same start node and dynamicity. The size of the matrix is thus quadratic in the
+ * number of distinct start nodes, not in the number of regions.
+ * <p>
+ * The class of a region is looked up in an array indexed by region id, and the regions of a class are stored as
+ * intervals of region ids. Since the regions of a thread have consecutive ids, this is compact e.g. for threads
+ * with a single region or for several instances of the same thread.
+ */
+public class CompactStartNodeBitMatrix implements IBitMatrix<ThreadRegion> {
+
+	private final SymmetricBitMatrix<Pair<SDGNode, Boolean>> startNodesMatrix;
+
+	/** region id -> number of the class of the region */
+	private final int[] classOfRegion;
+
+	/** class -> start node of its regions */
+	private final SDGNode[] startOfClass;
+
+	/** class -> ids of its regions as intervals {from_0, to_0, from_1, to_1, ...}, each to_i exclusive */
+	private final int[][] regionsOfClass;
+
+	/**
+	 * Creates an empty matrix for the given regions, i.e. no two regions are parallel.
+	 */
+	public CompactStartNodeBitMatrix(ThreadRegions threadRegions) {
+		final int size = threadRegions.size();
+		final Map<Pair<SDGNode, Boolean>, Integer> startNodesToNumber = new HashMap<>();
+		final List<SDGNode> starts = new ArrayList<>();
+		final List<int[]> intervals = new ArrayList<>();
+		final int[] numberOfIntervals = new int[size];
+
+		this.classOfRegion = new int[size];
+		for (int id = 0; id < size; id++) {
+			final ThreadRegion r = threadRegions.getThreadRegion(id);
+			assert r.getID() == id;
+			final Pair<SDGNode, Boolean> startNode = Pair.pair(r.getStart(), r.isDynamic());
+			Integer number = startNodesToNumber.get(startNode);
+			if (number == null) {
+				number = starts.size();
+				startNodesToNumber.put(startNode, number);
+				starts.add(r.getStart());
+				intervals.add(new int[2]);
+			}
+			final int c = number;
+			classOfRegion[id] = c;
+
+			int[] cIntervals = intervals.get(c);
+			final int n = numberOfIntervals[c];
+			if (n > 0 && cIntervals[2 * n - 1] == id) {
+				// extends the last interval
+				cIntervals[2 * n - 1] = id + 1;
+			} else {
+				if (2 * n == cIntervals.length) {
+					cIntervals = Arrays.copyOf(cIntervals, 4 * n);
+					intervals.set(c, cIntervals);
+				}
+				cIntervals[2 * n] = id;
+				cIntervals[2 * n + 1] = id + 1;
+				numberOfIntervals[c]++;
+			}
+		}
+
+		final int classes = starts.size();
+		this.startOfClass = starts.toArray(new SDGNode[classes]);
+		this.regionsOfClass = new int[classes][];
+		for (int c = 0; c < classes; c++) {
+			regionsOfClass[c] = Arrays.copyOf(intervals.get(c), 2 * numberOfIntervals[c]);
+		}
+		this.startNodesMatrix = new SymmetricBitMatrix<>(Math.max(classes, 1));
+	}
+
+	@Override
+	public boolean get(int i, int j) {
+		return startNodesMatrix.get(classOfRegion[i], classOfRegion[j]);
+	}
+
+	@Override
+	public int getDimension() {
+		return classOfRegion.length;
+	}
+
+	@Override
+	public IntIterator onCol(int j) {
+		final IntIterator classIterator = startNodesMatrix.onCol(classOfRegion[j]);
+
+		return new IntIterator() {
+			int[] current = null;
+			int interval = 0;
+			int next = 0;
+
+			private boolean findNext() {
+				while (current == null || (next == current[2 * interval + 1] && 2 * (interval + 1) == current.length)) {
+					if (!classIterator.hasNext()) return false;
+					current = regionsOfClass[classIterator.next()];
+					interval = 0;
+					next = current[0];
+				}
+				if (next == current[2 * interval + 1]) {
+					interval++;
+					next = current[2 * interval];
+				}
+				return true;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return findNext();
+			}
+
+			@Override
+			public int next() {
+				if (!findNext()) throw new NoSuchElementException();
+				return next++;
+			}
+		};
+	}
+
+	/**
+	 * Marks the regions of the given classes as parallel.
+	 */
+	void set(int classI, int classJ) {
+		startNodesMatrix.set(classI, classJ);
+	}
+
+	int getNumberOfClasses() {
+		return startOfClass.length;
+	}
+
+	int getClassOfRegion(int id) {
+		return classOfRegion[id];
+	}
+
+	SDGNode getStartOfClass(int c) {
+		return startOfClass[c];
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+
+/**
+ * Constants of the binary format of {@link PreciseMHPAnalysis} results written by {@link MHPBinarySerializer} and
+ * read by {@link MHPBinaryParser}:
+ * <pre>
+ *   header  : magic "JMHP" | int version | validation hash (32 bytes) | int #variant | variant (utf-8)
+ *   counts  : int #threads | int #regions | int #classes | int #region nodes
+ *   regions : #regions * (int start node id, int thread, int dynamic)
+ *   nodes   : #regions * int #nodes of region | #region nodes * int node id
+ *   classes : #regions * int class of region
+ *   matrix  : the parallelism of the classes, a symmetric bit matrix in the layout of {@link SymmetricBitMatrix}
+ *   trailer : magic "JMHP"
+ * </pre>
+ * All numbers are stored big endian. Regions whose parallelism does not differ are stored as one class, so
+ * the matrix is quadratic in the number of classes, not in the number of regions.
+ * <p>
+ * The validation hash covers the parts of the sdg the analysis depends on: the thread numbers and the control
+ * flow, call, fork and return edges of every node, and the thread instances. A stored result is only used for an
+ * sdg with the same hash.
+ */
+final class MHPBinaryFormat {
+
+	private MHPBinaryFormat() {}
+
+	static final int MAGIC = 0x4a4d4850; // "JMHP"
+	static final int VERSION = 1;
+
+	static final int NO_NODE = -1;
+
+	static final int HASH_SIZE = 32;
+
+	/**
+	 * @return the number of ints of a symmetric bit matrix of the given dimension
+	 */
+	static long matrixSize(final int dimension) {
+		final long n = dimension;
+		final long numBits = (n * (n + 1)) / 2;
+		return (numBits + 31) >> 5;
+	}
+
+	/**
+	 * @return the bit of the symmetric bit matrix that stores the entry (i, j)
+	 */
+	static long matrixOffset(final int i, final int j) {
+		final long m = (i <= j) ? i : j;
+		final long n = (i <= j) ? j : i;
+		return m + (n * (n + 1)) / 2;
+	}
+
+	/**
+	 * Computes the validation hash of the given sdg for the given variant of the analysis.
+	 */
+	static byte[] validationHash(final SDG sdg, final String variant) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+		final ByteBuffer buf = ByteBuffer.allocate(1 << 13);
+		final Hasher h = new Hasher(digest, buf);
+
+		h.putInt(VERSION);
+		final byte[] variantBytes = variant.getBytes(StandardCharsets.UTF_8);
+		h.putInt(variantBytes.length);
+		for (final byte b : variantBytes) {
+			h.putInt(b);
+		}
+
+		final Set<SDGNode> vertices = sdg.vertexSet();
+		final SDGNode[] nodes = vertices.toArray(new SDGNode[vertices.size()]);
+		Arrays.sort(nodes, (n1, n2) -> Integer.compare(n1.getId(), n2.getId()));
+		h.putInt(nodes.length);
+		long[] edges = new long[16];
+		for (final SDGNode n : nodes) {
+			h.putInt(n.getId());
+			final int[] threads = n.getThreadNumbers();
+			if (threads == null) {
+				h.putInt(NO_NODE);
+			} else {
+				h.putInt(threads.length);
+				for (final int t : threads) {
+					h.putInt(t);
+				}
+			}
+
+			int numEdges = 0;
+			for (final SDGEdge e : sdg.outgoingEdgesOf(n)) {
+				if (isControlFlow(e.getKind())) {
+					if (numEdges == edges.length) {
+						edges = Arrays.copyOf(edges, 2 * numEdges);
+					}
+					edges[numEdges++] = ((long) e.getKind().ordinal() << 32) | (e.getTarget().getId() & 0xffffffffL);
+				}
+			}
+			// the order of the outgoing edges is not specified
+			Arrays.sort(edges, 0, numEdges);
+			h.putInt(numEdges);
+			for (int i = 0; i < numEdges; i++) {
+				h.putInt((int) (edges[i] >>> 32));
+				h.putInt((int) edges[i]);
+			}
+		}
+
+		final ThreadsInformation info = sdg.getThreadsInfo();
+		if (info == null) {
+			h.putInt(NO_NODE);
+		} else {
+			h.putInt(info.getNumberOfThreads());
+			for (final ThreadInstance ti : info) {
+				h.putInt(ti.getId());
+				h.putInt(id(ti.getEntry()));
+				h.putInt(id(ti.getExit()));
+				h.putInt(id(ti.getFork()));
+				h.putInt(ti.isDynamic() ? 1 : 0);
+				h.putInt(ti.getJoins().size());
+				for (final SDGNode join : ti.getJoins()) {
+					h.putInt(id(join));
+				}
+				h.putInt(ti.getThreadContext().size());
+				for (final SDGNode call : ti.getThreadContext()) {
+					h.putInt(id(call));
+				}
+			}
+		}
+
+		return h.finish();
+	}
+
+	/* the edges extracted by ICFGBuilder.extractICFG */
+	private static boolean isControlFlow(final SDGEdge.Kind kind) {
+		return kind == SDGEdge.Kind.CALL
+			|| kind == SDGEdge.Kind.FORK
+			|| kind == SDGEdge.Kind.RETURN
+			|| kind == SDGEdge.Kind.JUMP_FLOW
+			|| kind == SDGEdge.Kind.CONTROL_FLOW
+			|| kind == SDGEdge.Kind.NO_FLOW;
+	}
+
+	private static int id(final SDGNode n) {
+		return (n == null ? NO_NODE : n.getId());
+	}
+
+	private static final class Hasher {
+		private final MessageDigest digest;
+		private final ByteBuffer buf;
+
+		private Hasher(final MessageDigest digest, final ByteBuffer buf) {
+			this.digest = digest;
+			this.buf = buf;
+		}
+
+		private void putInt(final int value) {
+			if (buf.remaining() < 4) {
+				flush();
+			}
+			buf.putInt(value);
+		}
+
+		private void flush() {
+			digest.update(buf.array(), 0, buf.position());
+			buf.clear();
+		}
+
+		private byte[] finish() {
+			flush();
+			return digest.digest();
+		}
+	}
+}
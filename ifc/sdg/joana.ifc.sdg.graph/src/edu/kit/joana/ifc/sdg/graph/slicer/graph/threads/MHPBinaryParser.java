@@ -0,0 +1,247 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import static edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinaryFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.ibm.wala.util.intset.IntIterator;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.collections.ArraySet;
+
+/**
+ * Reads {@link PreciseMHPAnalysis} results written by {@link MHPBinarySerializer}. The thread regions are recreated
+ * from the file, the region parallelism stays in the memory mapped file: a parallelism query reads one bit of it.
+ *
+ * @see MHPBinaryFormat
+ */
+public final class MHPBinaryParser {
+
+	/** suffix of a stored result next to the file of its sdg */
+	public static final String SUFFIX = ".mhp";
+
+	private static final Logger debug = Log.getLogger(Log.L_MHP_DEBUG);
+
+	private MHPBinaryParser() {}
+
+	/**
+	 * @return the file of the stored result for the sdg in the given file
+	 */
+	public static String fileFor(final String sdgFile) {
+		return sdgFile + SUFFIX;
+	}
+
+	/**
+	 * Reads the result stored in the given file.
+	 * @param sdg the sdg the result has been computed for
+	 * @param variant the variant of the analysis, see {@link MHPBinarySerializer#toBinaryFormat(PreciseMHPAnalysis, SDG, String, String)}
+	 * @return the stored result, or {@code null} if it has been computed for another sdg or another variant
+	 * @throws IOException if the file cannot be read or is not a stored result
+	 */
+	public static PreciseMHPAnalysis parse(final SDG sdg, final String variant, final String file) throws IOException {
+		final Path path = Paths.get(file);
+		final ByteBuffer buf;
+		try (final FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = ch.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("stored mhp result " + file + " exceeds the maximal mappable size.");
+			}
+			// the mapping stays valid after the channel is closed
+			buf = ch.map(MapMode.READ_ONLY, 0, size);
+		}
+
+		try {
+			return parse(sdg, variant, buf, file);
+		} catch (RuntimeException e) {
+			// e.g. BufferUnderflowException or an unknown node id
+			throw new IOException("stored mhp result " + file + " is truncated or corrupt: " + e, e);
+		}
+	}
+
+	private static PreciseMHPAnalysis parse(final SDG sdg, final String variant, final ByteBuffer buf,
+			final String file) throws IOException {
+		if (buf.remaining() < 8 || buf.getInt() != MAGIC) {
+			throw new IOException("not a stored mhp result: " + file);
+		}
+		final int version = buf.getInt();
+		if (version != VERSION) {
+			debug.outln("stored mhp result " + file + " has version " + version + " - expected " + VERSION);
+			return null;
+		}
+		final byte[] hash = new byte[HASH_SIZE];
+		buf.get(hash);
+		final byte[] variantBytes = new byte[buf.getInt()];
+		buf.get(variantBytes);
+		if (!variant.equals(new String(variantBytes, StandardCharsets.UTF_8))) {
+			debug.outln("stored mhp result " + file + " belongs to another analysis");
+			return null;
+		}
+		if (!Arrays.equals(hash, validationHash(sdg, variant))) {
+			debug.outln("stored mhp result " + file + " belongs to another sdg");
+			return null;
+		}
+
+		final int numThreads = buf.getInt();
+		final int numRegions = buf.getInt();
+		final int numClasses = buf.getInt();
+		final int numRegionNodes = buf.getInt();
+
+		final IntBuffer ints = buf.slice().asIntBuffer();
+		final IntBuffer regionColumn = section(ints, 0, 3L * numRegions);
+		final IntBuffer sizeColumn = section(ints, 3L * numRegions, numRegions);
+		final IntBuffer nodeColumn = section(ints, 4L * numRegions, numRegionNodes);
+		final IntBuffer classColumn = section(ints, 4L * numRegions + numRegionNodes, numRegions);
+		final IntBuffer matrixColumn = section(ints, 5L * numRegions + numRegionNodes, matrixSize(numClasses));
+		if (ints.get(5 * numRegions + numRegionNodes + (int) matrixSize(numClasses)) != MAGIC) {
+			throw new IOException("stored mhp result " + file + " is truncated or corrupt.");
+		}
+
+		final ThreadsInformation info = sdg.getThreadsInfo();
+		final List<ThreadRegion> regions = new ArrayList<>(numRegions);
+		for (int id = 0; id < numRegions; id++) {
+			final SDGNode start = node(sdg, regionColumn.get());
+			final int thread = regionColumn.get();
+			final boolean dynamic = regionColumn.get() != 0;
+			final SDGNode[] nodes = new SDGNode[sizeColumn.get()];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = node(sdg, nodeColumn.get());
+			}
+			Arrays.sort(nodes, ArraySet.COMPARATOR);
+			regions.add(new ThreadRegion(id, start, thread, dynamic, ArraySet.<SDGNode>own(nodes)));
+		}
+
+		final CFG icfg = ICFGBuilder.extractICFG(sdg);
+		final ThreadRegions tr = ThreadRegions.createThreadRegions(icfg, numThreads, regions);
+		final MappedBitMatrix matrix = new MappedBitMatrix(classColumn, matrixColumn, numClasses);
+
+		return new PreciseMHPAnalysis(info, matrix, tr);
+	}
+
+	private static IntBuffer section(final IntBuffer ints, final long offset, final long length) throws IOException {
+		if (offset + length >= ints.limit()) {
+			throw new IOException("stored mhp result is truncated.");
+		}
+		final IntBuffer dup = ints.duplicate();
+		dup.position((int) offset);
+		dup.limit((int) (offset + length));
+		return dup.slice();
+	}
+
+	private static SDGNode node(final SDG sdg, final int id) throws IOException {
+		final SDGNode n = sdg.getNode(id);
+		if (n == null) {
+			throw new IOException("stored mhp result refers to unknown node " + id);
+		}
+		return n;
+	}
+
+	/**
+	 * The region parallelism as stored in the file: the class of each region and the symmetric bit matrix of the
+	 * classes. Only the regions of each class are indexed on the heap, as intervals of an array of region ids, so
+	 * that a column yields the regions of the parallel classes without testing every region.
+	 */
+	private static final class MappedBitMatrix implements IBitMatrix<ThreadRegion> {
+		private final IntBuffer classOfRegion;
+		private final IntBuffer bits;
+		private final int numClasses;
+
+		/** class c -> its regions are regionsByClass[firstOfClass[c]] to regionsByClass[firstOfClass[c + 1] - 1] */
+		private final int[] firstOfClass;
+		private final int[] regionsByClass;
+
+		private MappedBitMatrix(final IntBuffer classOfRegion, final IntBuffer bits, final int numClasses) {
+			this.classOfRegion = classOfRegion;
+			this.bits = bits;
+			this.numClasses = numClasses;
+
+			final int numRegions = classOfRegion.limit();
+			this.firstOfClass = new int[numClasses + 1];
+			for (int id = 0; id < numRegions; id++) {
+				firstOfClass[classOfRegion.get(id) + 1]++;
+			}
+			for (int c = 0; c < numClasses; c++) {
+				firstOfClass[c + 1] += firstOfClass[c];
+			}
+			this.regionsByClass = new int[numRegions];
+			final int[] next = Arrays.copyOf(firstOfClass, numClasses);
+			for (int id = 0; id < numRegions; id++) {
+				regionsByClass[next[classOfRegion.get(id)]++] = id;
+			}
+		}
+
+		private boolean getClasses(final int c, final int d) {
+			final long offset = matrixOffset(c, d);
+			return ((bits.get((int) (offset >> 5)) >>> (offset & 0x1f)) & 1) != 0;
+		}
+
+		@Override
+		public boolean get(final int i, final int j) {
+			return getClasses(classOfRegion.get(i), classOfRegion.get(j));
+		}
+
+		@Override
+		public int getDimension() {
+			return classOfRegion.limit();
+		}
+
+		@Override
+		public IntIterator onCol(final int j) {
+			final int classOfJ = classOfRegion.get(j);
+			return new IntIterator() {
+				int nextClass = 0;
+				int next = 0;
+				int end = 0;
+
+				@Override
+				public boolean hasNext() {
+					while (next == end) {
+						if (nextClass == numClasses) {
+							return false;
+						}
+						if (getClasses(nextClass, classOfJ)) {
+							next = firstOfClass[nextClass];
+							end = firstOfClass[nextClass + 1];
+						}
+						nextClass++;
+					}
+					return true;
+				}
+
+				@Override
+				public int next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					return regionsByClass[next++];
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "parallelism of " + getDimension() + " thread regions in " + numClasses + " classes";
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads;
+
+import static edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinaryFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.util.Pair;
+
+/**
+ * Writes the thread regions and the region parallelism of a {@link PreciseMHPAnalysis} in the binary format described
+ * in {@link MHPBinaryFormat}, so that they can be read with {@link MHPBinaryParser} instead of being recomputed.
+ */
+public final class MHPBinarySerializer {
+
+	private MHPBinarySerializer() {}
+
+	/**
+	 * @param variant identifies the analysis that computed the result, e.g. the name of the mhp type. The result is
+	 * only read back for the same variant.
+	 */
+	public static void toBinaryFormat(final PreciseMHPAnalysis mhp, final SDG sdg, final String variant,
+			final String fileName) throws IOException {
+		try (final OutputStream out = new FileOutputStream(fileName)) {
+			toBinaryFormat(mhp, sdg, variant, out);
+		}
+	}
+
+	/**
+	 * Writes the result of the given analysis of the given sdg to the given stream. The stream is flushed but not
+	 * closed.
+	 */
+	public static void toBinaryFormat(final PreciseMHPAnalysis mhp, final SDG sdg, final String variant,
+			final OutputStream stream) throws IOException {
+		final ThreadRegions regions = mhp.getTR();
+		final IBitMatrix<ThreadRegion> matrix = mhp.getThreadRegionMap();
+		final int numRegions = regions.size();
+		final int numThreads = sdg.getThreadsInfo().getNumberOfThreads();
+
+		// the parallelism of regions with the same start node and dynamicity does not differ, except for the dense
+		// matrix used for at most 100 regions, which may distinguish all regions
+		final int[] classOfRegion = new int[numRegions];
+		final int[] representative;
+		int numClasses = 0;
+		if (numRegions <= 100) {
+			representative = new int[numRegions];
+			for (int id = 0; id < numRegions; id++) {
+				classOfRegion[id] = id;
+				representative[id] = id;
+			}
+			numClasses = numRegions;
+		} else {
+			final Map<Pair<SDGNode, Boolean>, Integer> startNodesToNumber = new HashMap<>();
+			final int[] firstOfClass = new int[numRegions];
+			for (int id = 0; id < numRegions; id++) {
+				final ThreadRegion r = regions.getThreadRegion(id);
+				final Pair<SDGNode, Boolean> startNode = Pair.pair(r.getStart(), r.isDynamic());
+				Integer number = startNodesToNumber.get(startNode);
+				if (number == null) {
+					number = numClasses++;
+					startNodesToNumber.put(startNode, number);
+					firstOfClass[number] = id;
+				}
+				classOfRegion[id] = number;
+			}
+			representative = firstOfClass;
+		}
+
+		long numRegionNodes = 0;
+		for (final ThreadRegion r : regions) {
+			numRegionNodes += r.getNodes().size();
+		}
+		if (numRegionNodes > Integer.MAX_VALUE) {
+			throw new IOException("too many nodes in thread regions: " + numRegionNodes);
+		}
+
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.write(validationHash(sdg, variant));
+		final byte[] variantBytes = variant.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(variantBytes.length);
+		out.write(variantBytes);
+
+		out.writeInt(numThreads);
+		out.writeInt(numRegions);
+		out.writeInt(numClasses);
+		out.writeInt((int) numRegionNodes);
+
+		for (final ThreadRegion r : regions) {
+			out.writeInt(r.getStart().getId());
+			out.writeInt(r.getThread());
+			out.writeInt(r.isDynamic() ? 1 : 0);
+		}
+		for (final ThreadRegion r : regions) {
+			out.writeInt(r.getNodes().size());
+		}
+		for (final ThreadRegion r : regions) {
+			for (final SDGNode n : r.getNodes()) {
+				out.writeInt(n.getId());
+			}
+		}
+		for (final int c : classOfRegion) {
+			out.writeInt(c);
+		}
+
+		// bit by bit in the order of the layout, so only one int has to be kept in memory
+		int word = 0;
+		int bit = 0;
+		for (int n = 0; n < numClasses; n++) {
+			for (int m = 0; m <= n; m++) {
+				if (matrix.get(representative[m], representative[n])) {
+					word |= 1 << bit;
+				}
+				if (++bit == 32) {
+					out.writeInt(word);
+					word = 0;
+					bit = 0;
+				}
+			}
+		}
+		if (bit > 0) {
+			out.writeInt(word);
+		}
+
+		out.writeInt(MAGIC);
+		out.flush();
+	}
+}
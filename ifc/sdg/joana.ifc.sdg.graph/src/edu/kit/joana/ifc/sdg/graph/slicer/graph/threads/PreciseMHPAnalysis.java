@@ -22,6 +22,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -63,7 +66,7 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
     private final ThreadRegions regions;
     private Map<Integer, Collection<ThreadRegion>> mayExist;
 
-    private PreciseMHPAnalysis(ThreadsInformation info, IBitMatrix<ThreadRegion> map, ThreadRegions regions) {
+    PreciseMHPAnalysis(ThreadsInformation info, IBitMatrix<ThreadRegion> map, ThreadRegions regions) {
         this.info = info;
         this.threadRegionMap = map;
         this.regions = regions;
@@ -73,6 +76,13 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
     	return regions;
     }
 
+    /**
+     * @return the parallelism of the thread regions, indexed by region id
+     */
+    IBitMatrix<ThreadRegion> getThreadRegionMap() {
+        return threadRegionMap;
+    }
+
 	public Collection<ThreadRegion> getThreadRegions() {
 		return regions.getThreadRegions();
 	}
@@ -273,6 +283,27 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
         return tr;
     }
 
+    /**
+     * Computes the same parallelism as {@link #analyze(SDG)}, but builds the thread regions and slices the
+     * forks concurrently, using one worker per available processor. The parallelism is stored per start node
+     * of the thread regions, see {@link CompactStartNodeBitMatrix}.
+     */
+    public static PreciseMHPAnalysis analyzeParallel(SDG sdg) {
+        return analyzeParallel(sdg, 0);
+    }
+
+    /**
+     * @param threads number of worker threads, a value &lt;= 0 means one per available processor
+     * @see #analyzeParallel(SDG)
+     */
+    public static PreciseMHPAnalysis analyzeParallel(SDG sdg, int threads) {
+        ThreadsInformation info = sdg.getThreadsInfo();
+        CFG icfg = ICFGBuilder.extractICFG(sdg);
+        PreciseMHPAnalysis tr = analyzeParallel(icfg, info, threads);
+
+        return tr;
+    }
+
     @SuppressWarnings("unused")
 	private static void addReturnEdges(CFG icfg) {
 		List<SDGEdge> retEdges = new LinkedList<SDGEdge>();
@@ -337,6 +368,17 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
     	return result;
     }
 
+	private static PreciseMHPAnalysis analyzeParallel(CFG icfg, ThreadsInformation info, int threads) {
+		final Logger log = Log.getLogger(Log.L_MHP_INFO);
+		final int workers = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        log.outln("Compute Thread Regions ...");
+        ThreadRegions tr = ThreadRegions.createPreciseThreadRegionsParallel(icfg, info, workers);
+        MHPComputation mhp = new MHPComputation(icfg, info, tr);
+    	PreciseMHPAnalysis result = mhp.getMHPMapParallel(workers);
+
+    	return result;
+    }
+
     private static Map<Integer, Collection<ThreadRegion>> computeMayExistSlow(PreciseMHPAnalysis mhp) {
     	HashMap<Integer, Collection<ThreadRegion>> result = new HashMap<>();
 
@@ -454,6 +496,190 @@ public class PreciseMHPAnalysis implements MHPAnalysis {
             return new PreciseMHPAnalysis(info, threadRegionMap, tr);
         }
         
+        private PreciseMHPAnalysis getMHPMapParallel(int threads) {
+        	debug.outln("collect forks");
+        	forks = collectForks();
+        	debug.outln("collect indirect forks");
+        	indirectForks = collectIndirectForks();
+        	debug.outln("compute parallelism");
+
+        	final CompactStartNodeBitMatrix threadRegionMap = new CompactStartNodeBitMatrix(tr);
+        	final ForkJoinPool pool = new ForkJoinPool(threads);
+        	try {
+        		computeThreadRegionParallelismParallel(threadRegionMap, pool);
+        	} finally {
+        		pool.shutdown();
+        	}
+        	computeThreadParallelism(threadRegionMap);
+
+        	assert tr.size() > 100 || IBitMatrix.equals(threadRegionMap, getMHPMap().threadRegionMap);
+
+        	this.threadRegionMap = threadRegionMap;
+            return new PreciseMHPAnalysis(info, threadRegionMap, tr);
+        }
+
+        /** the classes of start nodes made parallel by one fork node, see {@link #computeForkParallelism} */
+        private static final class ForkParallelism {
+        	private final IntSet spawnedSecondSlice;
+        	private final IntSet spawnedJoinSlice;
+        	private final IntSet inBothSlices;
+        	private final IntSet inSecondSliceOnly;
+
+        	private ForkParallelism(IntSet spawnedSecondSlice, IntSet spawnedJoinSlice, IntSet inBothSlices,
+        			IntSet inSecondSliceOnly) {
+        		this.spawnedSecondSlice = spawnedSecondSlice;
+        		this.spawnedJoinSlice = spawnedJoinSlice;
+        		this.inBothSlices = inBothSlices;
+        		this.inSecondSliceOnly = inSecondSliceOnly;
+        	}
+        }
+
+        /**
+         * Like {@link #computeThreadRegionParallelismForStartNodes()}, but the forks are sliced concurrently,
+         * each worker with its own slicer. Only the results are written to the matrix, one fork after another.
+         */
+        private void computeThreadRegionParallelismParallel(CompactStartNodeBitMatrix result, ForkJoinPool pool) {
+            final Map<SDGNode, ThreadInstance> representantOfForkNode = new HashMap<>();
+            final Map<SDGNode, Boolean>        representsSomeDynamic = new HashMap<>();
+            final Map<SDGNode, MutableIntSet>  representedThreads = new HashMap<>();
+
+            for (ThreadInstance ti : info) {
+            	if (ti.getFork() != null) {
+            		representantOfForkNode.put(ti.getFork(), ti);
+            		representsSomeDynamic.merge(ti.getFork(), ti.isDynamic(), Boolean::logicalOr);
+            		representedThreads.computeIfAbsent(ti.getFork(), k -> new BitVectorIntSet()).add(ti.getId());
+            	}
+            }
+
+            final List<Entry<SDGNode, ThreadInstance>> forkEntries = new ArrayList<>(representantOfForkNode.entrySet());
+            final ThreadLocal<CFGJoinSensitiveForward> slicers = ThreadLocal.withInitial(() -> new CFGJoinSensitiveForward(icfg));
+
+            final List<ForkParallelism> forkParallelism;
+            try {
+            	forkParallelism = pool.submit(() -> forkEntries.parallelStream()
+            			.map(forkEntry -> computeForkParallelism(result, slicers.get(), forkEntry.getKey(), forkEntry.getValue(),
+            					representsSomeDynamic.get(forkEntry.getKey()), representedThreads.get(forkEntry.getKey())))
+            			.collect(Collectors.toList())).get();
+            } catch (InterruptedException e) {
+            	Thread.currentThread().interrupt();
+            	throw new IllegalStateException("interrupted while computing the parallelism of thread regions", e);
+            } catch (ExecutionException e) {
+            	final Throwable cause = e.getCause();
+            	if (cause instanceof RuntimeException) {
+            		throw (RuntimeException) cause;
+            	} else if (cause instanceof Error) {
+            		throw (Error) cause;
+            	}
+            	throw new IllegalStateException(cause);
+            }
+
+            for (ForkParallelism fp : forkParallelism) {
+            	for (IntIterator it = fp.spawnedSecondSlice.intIterator(); it.hasNext();) {
+            		final int p = it.next();
+            		for (IntIterator qt = fp.inSecondSliceOnly.intIterator(); qt.hasNext();) {
+            			result.set(p, qt.next());
+            		}
+            		for (IntIterator qt = fp.inBothSlices.intIterator(); qt.hasNext();) {
+            			result.set(p, qt.next());
+            		}
+            	}
+            	for (IntIterator it = fp.spawnedJoinSlice.intIterator(); it.hasNext();) {
+            		final int p = it.next();
+            		for (IntIterator qt = fp.inBothSlices.intIterator(); qt.hasNext();) {
+            			result.set(p, qt.next());
+            		}
+            	}
+            }
+        }
+
+        private ForkParallelism computeForkParallelism(CompactStartNodeBitMatrix result, CFGJoinSensitiveForward slicer,
+        		SDGNode forkNode, ThreadInstance forkInstance, boolean someDynamic, IntSet represented) {
+        	LinkedList<SDGNode> succ = new LinkedList<SDGNode>();
+
+        	for (SDGEdge e : icfg.getOutgoingEdgesOfKindUnsafe(forkNode, SDGEdge.Kind.CONTROL_FLOW)) {
+        		succ.add(e.getTarget());
+        	}
+
+        	IntSet spawnedThreadsSecondSlice = EmptyIntSet.instance;
+        	IntSet spawnedThreadsJoinSlice = EmptyIntSet.instance;
+        	for (DynamicContext fork : forks) {
+        		if (fork == null) continue;
+        		if (fork.getNode().equals(forkNode)) {
+        			final IntSet indirectForked = indirectForks.get(fork);
+        			if (someDynamic || represented.size() > 1) {
+        				spawnedThreadsSecondSlice = spawnedThreadsSecondSlice.union(indirectForked);
+        			} else if (!represented.sameValue(indirectForked)) {
+        				spawnedThreadsJoinSlice = spawnedThreadsJoinSlice.union(represented);
+
+        				final MutableIntSet withoutForkInstance = new BitVectorIntSet(indirectForked);
+        				withoutForkInstance.remove(forkInstance.getId());
+        				spawnedThreadsSecondSlice = spawnedThreadsSecondSlice.union(withoutForkInstance);
+        			} else {
+        				spawnedThreadsJoinSlice = spawnedThreadsJoinSlice.union(indirectForked);
+        			}
+        		}
+        	}
+
+        	final MutableIntSet spawnedSecondSlice = classesOfThreads(result, spawnedThreadsSecondSlice);
+        	final MutableIntSet spawnedJoinSlice = classesOfThreads(result, spawnedThreadsJoinSlice);
+
+        	slicer.setJoins(forkInstance.getJoins());
+        	final Collection<SDGNode> joinSlice = slicer.slice(succ);
+        	final Collection<SDGNode> secondSlice;
+        	if (spawnedSecondSlice.isEmpty()) {
+        		secondSlice = Collections.emptySet();
+        	} else {
+        		secondSlice = slicer.secondSlice(succ);
+        	}
+
+        	final MutableIntSet inBothSlices = new BitVectorIntSet();
+        	final MutableIntSet inSecondSliceOnly = new BitVectorIntSet();
+        	for (int c = 0; c < result.getNumberOfClasses(); c++) {
+        		final SDGNode start = result.getStartOfClass(c);
+        		if (joinSlice.contains(start)) {
+        			inBothSlices.add(c);
+        		} else if (secondSlice.contains(start)) {
+        			inSecondSliceOnly.add(c);
+        		}
+        	}
+
+        	return new ForkParallelism(spawnedSecondSlice, spawnedJoinSlice, inBothSlices, inSecondSliceOnly);
+        }
+
+        private MutableIntSet classesOfThreads(CompactStartNodeBitMatrix result, IntSet threads) {
+        	final MutableIntSet classes = new BitVectorIntSet();
+        	for (IntIterator it = threads.intIterator(); it.hasNext();) {
+        		for (ThreadRegion p : tr.getThreadRegionSet(it.next())) {
+        			classes.add(result.getClassOfRegion(p.getID()));
+        		}
+        	}
+        	return classes;
+        }
+
+        /**
+         * Like {@link #computeThreadParallelismForStartNodes(StartNodeBitMatrix)}.
+         */
+        private void computeThreadParallelism(CompactStartNodeBitMatrix result) {
+        	// process parallelism induced by thread spawning inside loops
+        	debug.outln("\nparallelism through loops");
+        	for (Entry<DynamicContext, IntSet> entry : indirectForks.entrySet()) {
+        		if (info.isDynamic(entry.getKey().getThread())) {
+        			final IntSet classSet = classesOfThreads(result, entry.getValue());
+        			final int[] classes = new int[classSet.size()];
+        			int i = 0;
+        			for (IntIterator it = classSet.intIterator(); it.hasNext();) {
+        				classes[i++] = it.next();
+        			}
+        			for (int p = 0; p < classes.length; p++) {
+        				for (int q = p; q < classes.length; q++) {
+        					result.set(classes[p], classes[q]);
+        				}
+        			}
+        		}
+        	}
+        	debug.outln("done");
+        }
+
         private boolean isFunctionOfStartNodeAndDymanicityOnly(IBitMatrix<ThreadRegion> threadRegionMap) {
         	Map<Pair<SDGNode, Boolean>, Set<ThreadRegion>> start2Regions = new HashMap<>();
         	for (ThreadRegion r : tr) {
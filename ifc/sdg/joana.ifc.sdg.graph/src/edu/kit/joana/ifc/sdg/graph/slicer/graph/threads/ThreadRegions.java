@@ -19,6 +19,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
@@ -323,6 +328,16 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 		 return tr;
 	 }
 	 
+	 /**
+	  * Computes the same thread regions as {@link #createPreciseThreadRegions(CFG, ThreadsInformation)}, but
+	  * the regions of different threads concurrently.
+	  * @param threads number of worker threads, a value &lt;= 0 means one per available processor
+	  */
+	 public static ThreadRegions createPreciseThreadRegionsParallel(CFG icfg, ThreadsInformation info, int threads) {
+		 ParallelRegionBuilder builder = new ParallelRegionBuilder(icfg, info, threads);
+		 return builder.computeRegions();
+	 }
+
 	 public static ThreadRegions createPreciseThreadRegionsUNSAFE(CFG icfg, ThreadsInformation info) {
 		 //        System.out.println("    computing regions...");
 		 GlobalRegionBuilder builder = new GlobalRegionBuilder(icfg, info, false);
@@ -331,6 +346,34 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 		 return tr;
 	 }
 
+	 /**
+	  * Recreates thread regions that have been computed before, e.g. by {@link MHPBinaryParser}.
+	  * @param regions all regions, ordered by id, the regions of each thread having consecutive ids
+	  */
+	 static ThreadRegions createThreadRegions(CFG icfg, int numberOfThreads, List<ThreadRegion> regions) {
+		 final SimpleVector<List<ThreadRegion>> thread2regions = new SimpleVector<>();
+		 final TIntObjectHashMap<Map<SDGNode, ThreadRegion>> map = new TIntObjectHashMap<>();
+		 final List<Map<SDGNode, ThreadRegion>> mappies = new ArrayList<>(numberOfThreads);
+		 for (int thread = 0; thread < numberOfThreads; thread++) {
+			 thread2regions.set(thread, new LinkedList<>());
+			 mappies.add(new HashMap<>());
+		 }
+
+		 for (ThreadRegion r : regions) {
+			 thread2regions.get(r.getThread()).add(r);
+			 final Map<SDGNode, ThreadRegion> mappy = mappies.get(r.getThread());
+			 for (SDGNode n : r.getNodes()) {
+				 mappy.put(n, r);
+			 }
+		 }
+
+		 for (int thread = 0; thread < numberOfThreads; thread++) {
+			 map.put(thread, new ArrayMap<>(mappies.get(thread)));
+		 }
+
+		 return new ThreadRegions(thread2regions, icfg, new PreciseThreadNodeRegionMap(map));
+	 }
+
 	 public static ThreadRegions allThreadsParallel(CFG icfg, ThreadsInformation info) {
 		 /** map thread -> (thread Regions) */
 		 final SimpleVector<List<ThreadRegion>> regions = new SimpleVector<>();
@@ -819,6 +862,309 @@ public class ThreadRegions implements Iterable<ThreadRegion> {
 		 }
 	 }
 
+	 /**
+	  * Computes the same thread regions as {@link RegionBuilder}, with the same ids, but the regions of different
+	  * threads concurrently. Instead of {@link SDGNode#customData}, each worker marks the nodes in its own array
+	  * indexed by node id.
+	  */
+	 static class ParallelRegionBuilder {
+		 private final CFG icfg;
+		 private final ThreadsInformation info;
+		 private final int threads;
+		 private final ThreadLocal<Marks> marks;
+
+		 /** the marks of one worker. A mark is valid for the task that has drawn it from next(). */
+		 private static final class Marks {
+			 private final int[] mark;
+			 private int last = 0;
+
+			 private Marks(int maxId) {
+				 this.mark = new int[maxId + 1];
+			 }
+
+			 /* start of a task: old marks of other tasks are smaller than all marks drawn from now on */
+			 private void startTask() {
+				 if (last > Integer.MAX_VALUE / 2) {
+					 java.util.Arrays.fill(mark, 0);
+					 last = 0;
+				 }
+			 }
+
+			 private int next() {
+				 return ++last;
+			 }
+		 }
+
+		 private ParallelRegionBuilder(CFG icfg, ThreadsInformation info, int threads) {
+			 this.icfg = icfg;
+			 this.info = info;
+			 this.threads = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+			 final int maxId = icfg.lastId();
+			 this.marks = ThreadLocal.withInitial(() -> new Marks(maxId));
+		 }
+
+		 ThreadRegions computeRegions() {
+			 final int numberOfThreads = info.getNumberOfThreads();
+			 final ForkJoinPool pool = new ForkJoinPool(threads);
+			 try {
+				 // the ids of the regions of a thread follow those of the previous thread, so the start nodes of
+				 // all threads are computed before the regions themselves
+				 final List<HashSet<SDGNode>> startNodes = inParallel(pool, numberOfThreads, this::computeStartNodes);
+				 final int[] firstId = new int[numberOfThreads];
+				 for (int thread = 1; thread < numberOfThreads; thread++) {
+					 firstId[thread] = firstId[thread - 1] + startNodes.get(thread - 1).size();
+				 }
+				 final List<Pair<List<ThreadRegion>, Map<SDGNode, ThreadRegion>>> computed = inParallel(pool, numberOfThreads,
+						 thread -> computeRegions(startNodes.get(thread), thread, firstId[thread]));
+
+				 final SimpleVector<List<ThreadRegion>> regions = new SimpleVector<>();
+				 final TIntObjectHashMap<Map<SDGNode, ThreadRegion>> map = new TIntObjectHashMap<>();
+				 for (int thread = 0; thread < numberOfThreads; thread++) {
+					 regions.set(thread, computed.get(thread).getFirst());
+					 map.put(thread, computed.get(thread).getSecond());
+				 }
+
+				 return new ThreadRegions(regions, icfg, new PreciseThreadNodeRegionMap(map));
+			 } finally {
+				 pool.shutdown();
+			 }
+		 }
+
+		 private static <T> List<T> inParallel(ForkJoinPool pool, int numberOfThreads, IntFunction<T> task) {
+			 try {
+				 return pool.submit(() -> IntStream.range(0, numberOfThreads).parallel()
+						 .mapToObj(task)
+						 .collect(Collectors.toList())).get();
+			 } catch (InterruptedException e) {
+				 Thread.currentThread().interrupt();
+				 throw new IllegalStateException("interrupted while computing thread regions", e);
+			 } catch (ExecutionException e) {
+				 final Throwable cause = e.getCause();
+				 if (cause instanceof RuntimeException) {
+					 throw (RuntimeException) cause;
+				 } else if (cause instanceof Error) {
+					 throw (Error) cause;
+				 }
+				 throw new IllegalStateException(cause);
+			 }
+		 }
+
+		 private HashSet<SDGNode> initialStartNodes(int thread) {
+			 HashSet<SDGNode> result = new HashSet<SDGNode>();
+
+			 result.add(info.getThreadEntry(thread));
+
+			 for (SDGNode fork : info.getAllForks()) {
+				 for (SDGEdge e: icfg.getOutgoingEdgesOfKindUnsafe(fork, SDGEdge.Kind.CONTROL_FLOW)) {
+					 if (e.getTarget().isInThread(thread)) {
+						 result.add(e.getTarget());
+					 }
+				 }
+			 }
+
+			 for (SDGNode join : info.getAllJoins()) {
+				 if (join.isInThread(thread)) {
+					 result.add(join);
+				 }
+			 }
+
+			 return result;
+		 }
+
+		 /**
+		  * Like {@link RegionBuilder#computeStartNodes(int)}. The start nodes of a round are marked with
+		  * {@code init}, the nodes reached from the i-th of them with the i-th mark drawn in that round.
+		  */
+		 private HashSet<SDGNode> computeStartNodes(int thread) {
+			 final Marks m = marks.get();
+			 m.startTask();
+			 final int[] mark = m.mark;
+			 final int init = m.next();
+
+			 HashSet<SDGNode> result = initialStartNodes(thread);
+
+			 boolean newInit;
+			 do {
+				 newInit = false;
+
+				 SDGNode[] initNodes = result.toArray(new SDGNode[result.size()]);
+
+				 for (SDGNode n : initNodes) {
+					 mark[n.getId()] = init;
+				 }
+
+				 final int firstOfRound = m.last + 1;
+
+				 for (SDGNode node : initNodes) {
+					 LinkedList<SDGNode> w1 = new LinkedList<SDGNode>();
+					 LinkedList<SDGNode> w2 = new LinkedList<SDGNode>();
+					 final int marked = m.next();
+
+					 w1.add(node);
+
+					 while (!w1.isEmpty()) {
+						 SDGNode next = w1.poll();
+
+						 for (SDGEdge edge : icfg.outgoingEdgesOfUnsafe(next)) {
+							 if (edge == null) continue;
+							 if (edge.getKind() == SDGEdge.Kind.FORK
+									 || (edge.getKind() == SDGEdge.Kind.RETURN && !edge.getTarget().isInThread(thread))) {
+								 // don't leave the thread
+								 continue;
+							 }
+
+							 SDGNode reached = edge.getTarget();
+							 final int reachedMark = mark[reached.getId()];
+
+							 // don't cross thread region borders
+							 if (reachedMark == init) continue;
+
+							 // reached from two different nodes in the current start set
+							 if (reachedMark >= firstOfRound && reachedMark < marked) {
+								 newInit |= result.add(reached);
+								 continue;
+							 }
+
+							 if (reachedMark != marked) {
+								 mark[reached.getId()] = marked;
+								 // 2-phase slicing
+								 if (edge.getKind() != SDGEdge.Kind.CALL) {
+									 w1.addFirst(reached);
+								 } else {
+									 w2.addFirst(reached);
+								 }
+							 }
+						 }
+					 }
+
+					 while (!w2.isEmpty()) {
+						 SDGNode next = w2.poll();
+
+						 for (SDGEdge edge : icfg.outgoingEdgesOfUnsafe(next)) {
+							 if (edge == null) continue;
+							 if (edge.getKind() == SDGEdge.Kind.FORK
+									 || edge.getKind() == SDGEdge.Kind.RETURN) {
+								 // don't leave the thread, don't leave procedures
+								 continue;
+							 }
+
+							 SDGNode reached = edge.getTarget();
+							 final int reachedMark = mark[reached.getId()];
+
+							 if (reachedMark == init) continue;
+
+							 if (reachedMark >= firstOfRound && reachedMark < marked) {
+								 newInit |= result.add(reached);
+								 continue;
+							 }
+
+							 if (reachedMark != marked) {
+								 mark[reached.getId()] = marked;
+								 w2.addFirst(reached);
+							 }
+						 }
+					 }
+				 }
+			 } while (newInit);
+
+			 return result;
+		 }
+
+		 /**
+		  * Like {@link RegionBuilder#computeRegions(HashSet, int)}, the regions get the ids starting at
+		  * {@code firstId}.
+		  */
+		 private Pair<List<ThreadRegion>, Map<SDGNode, ThreadRegion>> computeRegions(HashSet<SDGNode> startNodes, int thread, int firstId) {
+			 final Marks m = marks.get();
+			 m.startTask();
+			 final int[] mark = m.mark;
+			 final int start = m.next();
+
+			 List<ThreadRegion> result = new ArrayList<>(startNodes.size());
+			 final Map<SDGNode, ThreadRegion> mappy = new HashMap<>();
+
+			 for (SDGNode startNode : startNodes) {
+				 mark[startNode.getId()] = start;
+			 }
+
+			 int id = firstId;
+			 for (SDGNode startNode : startNodes) {
+				 LinkedList<SDGNode> w1 = new LinkedList<SDGNode>();
+				 LinkedList<SDGNode> w2 = new LinkedList<SDGNode>();
+				 ArrayList<SDGNode> marked = new ArrayList<SDGNode>();
+				 final int inRegion = m.next();
+
+				 w1.add(startNode);
+				 marked.add(startNode);
+
+				 while (!w1.isEmpty()) {
+					 SDGNode next = w1.poll();
+
+					 for (SDGEdge edge : icfg.outgoingEdgesOfUnsafe(next)) {
+						 if (edge == null) continue;
+						 if (edge.getKind() == SDGEdge.Kind.FORK
+								 || (edge.getKind() == SDGEdge.Kind.RETURN && !edge.getTarget().isInThread(thread))) {
+							 // don't leave the thread
+							 continue;
+						 }
+
+						 SDGNode reached = edge.getTarget();
+						 final int reachedMark = mark[reached.getId()];
+
+						 // don't cross thread region borders
+						 if (reachedMark == start) continue;
+
+						 if (reachedMark != inRegion) {
+							 mark[reached.getId()] = inRegion;
+							 marked.add(reached);
+							 // 2-phase slicing
+							 if (edge.getKind() == SDGEdge.Kind.CALL) {
+								 w2.addFirst(reached);
+							 } else {
+								 w1.addFirst(reached);
+							 }
+						 }
+					 }
+				 }
+
+				 while (!w2.isEmpty()) {
+					 SDGNode next = w2.poll();
+
+					 for (SDGEdge edge : icfg.outgoingEdgesOfUnsafe(next)) {
+						 if (edge == null) continue;
+						 if (edge.getKind() != SDGEdge.Kind.FORK
+								 && edge.getKind() != SDGEdge.Kind.RETURN) {
+							 // don't leave the thread, don't leave procedures
+							 SDGNode reached = edge.getTarget();
+							 final int reachedMark = mark[reached.getId()];
+
+							 if (reachedMark == start) continue;
+
+							 if (reachedMark != inRegion) {
+								 mark[reached.getId()] = inRegion;
+								 marked.add(reached);
+								 w2.addFirst(reached);
+							 }
+						 }
+					 }
+				 }
+
+				 // marked contains the nodes of the thread region, in the order of ArraySet
+				 final SDGNode[] nodes = marked.toArray(new SDGNode[marked.size()]);
+				 java.util.Arrays.sort(nodes, ArraySet.COMPARATOR);
+				 ThreadRegion tr = new ThreadRegion(id, startNode, thread, info.isDynamic(thread), ArraySet.<SDGNode>own(nodes));
+				 result.add(tr);
+
+				 for (SDGNode n : nodes) {
+					 mappy.put(n, tr);
+				 }
+				 id++;
+			 }
+
+			 return Pair.pair(result, new ArrayMap<>(mappy));
+		 }
+	 }
+
 	 static class GlobalRegionBuilder {
 		 private final CFG icfg;
 		 private final ThreadsInformation info;
@@ -18,7 +18,6 @@ import edu.kit.joana.ifc.sdg.core.violations.UnaryViolation;
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
-import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGBackward;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
@@ -114,6 +113,15 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 	}
 	public TimingClassificationChecker(final SDG sdg, final IStaticLattice<L> secLattice, final Map<SDGNode, L> userAnn,
 			final MHPAnalysis mhp, final ICDomOracle cdomOracle, final PredecessorMethod predecessorMethod) {
+		this(sdg, secLattice, userAnn, mhp, cdomOracle, predecessorMethod, 0);
+	}
+	/**
+	 * @param threads number of worker threads used to compute the timing dependences of the end points, a value
+	 * &lt;= 0 means one thread per available processor
+	 */
+	public TimingClassificationChecker(final SDG sdg, final IStaticLattice<L> secLattice, final Map<SDGNode, L> userAnn,
+			final MHPAnalysis mhp, final ICDomOracle cdomOracle, final PredecessorMethod predecessorMethod,
+			final int threads) {
 		super(sdg, secLattice, userAnn);
 		this.mhp = mhp;
 		this.cdomOracle = cdomOracle;
@@ -158,7 +166,6 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 			}
 		}
 		
-		this.timingDependence = new HashMap<>();
 		Set<SDGNode> endPoints = new HashSet<>();
 		endPoints.addAll(this.userAnn.keySet());
 		
@@ -174,19 +181,8 @@ public class TimingClassificationChecker<L> extends AnnotationMapChecker<L> {
 			}
 		}
 		
-		CFGBackward cfgBackward = new CFGBackward(icfg);
-		for (SDGNode v : endPoints) {
-			Set<SDGNode> deps = new HashSet<>();
-			Collection<SDGNode> slice = cfgBackward.slice(v);
-			
-			//TODO: use filter?
-			for (SDGNode u : splitNodes.keySet()) {
-				if (slice.containsAll(splitNodes.get(u))) {
-					deps.add(u);
-				}
-			}
-			timingDependence.put(v, deps);
-		}
+		// v depends on u iff the backward slice of v in the icfg contains all successors of u
+		this.timingDependence = new TimingDependenceComputation(icfg, splitNodes).compute(endPoints, threads);
 	}
 
 	protected Map<SDGNode, L> initCL() {
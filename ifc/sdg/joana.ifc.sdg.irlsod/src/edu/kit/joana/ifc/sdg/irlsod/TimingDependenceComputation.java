@@ -0,0 +1,272 @@
+package edu.kit.joana.ifc.sdg.irlsod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
+
+/**
+ * Computes the timing dependences of {@link TimingClassificationChecker}: a split node u is a timing dependence of
+ * an end point v iff all successors of u are in the backward slice of v in the icfg, as computed by
+ * {@link CFGBackward}.
+ * <p>
+ * The icfg and the split nodes are converted to int arrays once and shared by all end points. The two phase slice
+ * of an end point is then a traversal marking two bit sets (reached, reached in phase 1), and the test of a split
+ * node is a bit test per successor. The end points are sliced concurrently.
+ */
+final class TimingDependenceComputation {
+
+	/* edge kinds followed by CFGBackward */
+	private static final byte OTHER = 0;
+	private static final byte CALL = 1;
+	private static final byte RETURN = 2;
+	private static final byte THREAD = 3;
+
+	/** node id -> index, -1 for ids of nodes not in the icfg */
+	private final int[] indexOf;
+
+	/** index -> incoming edges of the node, as ranges of inSource / inKind */
+	private final int[] inStart;
+	private final int[] inSource;
+	private final byte[] inKind;
+
+	private final SDGNode[] splitNode;
+	/** split node -> indices of its successors */
+	private final int[][] splitSuccessors;
+
+	private final int numberOfNodes;
+
+	private final ThreadLocal<Scratch> scratch;
+
+	/**
+	 * @param splitNodes maps each split node of the icfg to its successors
+	 */
+	TimingDependenceComputation(final CFG icfg, final Map<SDGNode, Set<SDGNode>> splitNodes) {
+		final Set<SDGNode> vertices = icfg.vertexSet();
+		int maxId = -1;
+		for (final SDGNode n : vertices) {
+			maxId = Math.max(maxId, n.getId());
+		}
+		this.numberOfNodes = vertices.size();
+		this.indexOf = new int[maxId + 1];
+		Arrays.fill(indexOf, -1);
+		int index = 0;
+		for (final SDGNode n : vertices) {
+			indexOf[n.getId()] = index++;
+		}
+
+		this.inStart = new int[numberOfNodes + 1];
+		int numberOfEdges = 0;
+		index = 0;
+		for (final SDGNode n : vertices) {
+			inStart[index++] = numberOfEdges;
+			for (final SDGEdge e : icfg.incomingEdgesOf(n)) {
+				if (isFollowed(e.getKind())) {
+					numberOfEdges++;
+				}
+			}
+		}
+		inStart[numberOfNodes] = numberOfEdges;
+		this.inSource = new int[numberOfEdges];
+		this.inKind = new byte[numberOfEdges];
+		int edge = 0;
+		for (final SDGNode n : vertices) {
+			for (final SDGEdge e : icfg.incomingEdgesOf(n)) {
+				if (isFollowed(e.getKind())) {
+					inSource[edge] = indexOf[e.getSource().getId()];
+					inKind[edge] = kind(e.getKind());
+					edge++;
+				}
+			}
+		}
+
+		this.splitNode = new SDGNode[splitNodes.size()];
+		this.splitSuccessors = new int[splitNodes.size()][];
+		int split = 0;
+		for (final Map.Entry<SDGNode, Set<SDGNode>> entry : splitNodes.entrySet()) {
+			splitNode[split] = entry.getKey();
+			splitSuccessors[split] = entry.getValue().stream().mapToInt(this::index).toArray();
+			split++;
+		}
+
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(numberOfNodes));
+	}
+
+	/* the edges CFGSlicer traverses */
+	private static boolean isFollowed(final SDGEdge.Kind kind) {
+		return kind == SDGEdge.Kind.CONTROL_FLOW
+			|| kind == SDGEdge.Kind.CALL
+			|| kind == SDGEdge.Kind.RETURN
+			|| kind == SDGEdge.Kind.FORK
+			|| kind == SDGEdge.Kind.JOIN;
+	}
+
+	private static byte kind(final SDGEdge.Kind kind) {
+		if (kind == SDGEdge.Kind.CALL) {
+			return CALL;
+		} else if (kind == SDGEdge.Kind.RETURN) {
+			return RETURN;
+		} else if (kind.isThreadEdge()) {
+			return THREAD;
+		} else {
+			return OTHER;
+		}
+	}
+
+	private int index(final SDGNode n) {
+		final int id = n.getId();
+		final int index = (id >= 0 && id < indexOf.length ? indexOf[id] : -1);
+		if (index < 0) {
+			throw new IllegalArgumentException("not a node of the icfg: " + n);
+		}
+		return index;
+	}
+
+	/**
+	 * Computes the timing dependences of the given end points.
+	 * @param threads number of worker threads, a value &lt;= 0 means one thread per available processor
+	 * @return maps each end point to the split nodes whose successors are all in its backward slice
+	 */
+	Map<SDGNode, Set<SDGNode>> compute(final Collection<SDGNode> endPoints, final int threads) {
+		final SDGNode[] ends = endPoints.toArray(new SDGNode[endPoints.size()]);
+		final int[] endIndex = new int[ends.length];
+		for (int i = 0; i < ends.length; i++) {
+			endIndex[i] = index(ends[i]);
+		}
+
+		// each end point has its own element, the workers only replace distinct elements
+		final List<Set<SDGNode>> deps = new ArrayList<>(Collections.nCopies(ends.length, (Set<SDGNode>) null));
+		final int workers = (threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+		if (workers == 1 || ends.length <= 1) {
+			for (int i = 0; i < ends.length; i++) {
+				deps.set(i, dependences(endIndex[i]));
+			}
+		} else {
+			final ForkJoinPool pool = new ForkJoinPool(workers);
+			try {
+				pool.submit(() -> IntStream.range(0, ends.length).parallel().forEach(i -> {
+					deps.set(i, dependences(endIndex[i]));
+				})).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while computing timing dependences", e);
+			} catch (ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		final Map<SDGNode, Set<SDGNode>> timingDependence = new HashMap<>();
+		for (int i = 0; i < ends.length; i++) {
+			timingDependence.put(ends[i], deps.get(i));
+		}
+		return timingDependence;
+	}
+
+	private Set<SDGNode> dependences(final int end) {
+		final Scratch s = scratch.get();
+		s.slice(end);
+
+		final Set<SDGNode> deps = new HashSet<>();
+		for (int split = 0; split < splitNode.length; split++) {
+			boolean all = true;
+			for (final int succ : splitSuccessors[split]) {
+				if (!s.isReached(succ)) {
+					all = false;
+					break;
+				}
+			}
+			if (all) {
+				deps.add(splitNode[split]);
+			}
+		}
+		return deps;
+	}
+
+	/**
+	 * The state of the slice of one end point. Reused for all end points sliced by the same worker.
+	 */
+	private final class Scratch {
+		private final long[] reached;
+		private final long[] phase1;
+		/* every node is pushed at most twice: when it is reached, and when it is reached in phase 1 */
+		private final int[] worklist;
+
+		private Scratch(final int numberOfNodes) {
+			this.reached = new long[(numberOfNodes + 63) >> 6];
+			this.phase1 = new long[(numberOfNodes + 63) >> 6];
+			this.worklist = new int[2 * numberOfNodes + 1];
+		}
+
+		private boolean isReached(final int n) {
+			return (reached[n >> 6] & (1L << n)) != 0;
+		}
+
+		private boolean isPhase1(final int n) {
+			return (phase1[n >> 6] & (1L << n)) != 0;
+		}
+
+		/**
+		 * The same two phase traversal as {@link CFGBackward}: phase 1 does not ascend into callers it has
+		 * returned from, i.e. after a return edge the slice continues in phase 2, which does not follow call edges.
+		 * Thread edges lead back to phase 1. A node reached in both phases is processed in phase 1, which subsumes
+		 * phase 2.
+		 */
+		private void slice(final int end) {
+			Arrays.fill(reached, 0L);
+			Arrays.fill(phase1, 0L);
+			int top = 0;
+			reached[end >> 6] |= 1L << end;
+			phase1[end >> 6] |= 1L << end;
+			worklist[top++] = end;
+
+			while (top > 0) {
+				final int next = worklist[--top];
+				final boolean inPhase1 = isPhase1(next);
+				for (int e = inStart[next]; e < inStart[next + 1]; e++) {
+					final byte kind = inKind[e];
+					final boolean toPhase1;
+					if (inPhase1) {
+						toPhase1 = (kind != RETURN);
+					} else if (kind == CALL) {
+						continue;
+					} else {
+						toPhase1 = (kind == THREAD);
+					}
+
+					final int adjacent = inSource[e];
+					if (toPhase1) {
+						if (!isPhase1(adjacent)) {
+							reached[adjacent >> 6] |= 1L << adjacent;
+							phase1[adjacent >> 6] |= 1L << adjacent;
+							worklist[top++] = adjacent;
+						}
+					} else if (!isReached(adjacent)) {
+						reached[adjacent >> 6] |= 1L << adjacent;
+						worklist[top++] = adjacent;
+					}
+				}
+			}
+		}
+	}
+}
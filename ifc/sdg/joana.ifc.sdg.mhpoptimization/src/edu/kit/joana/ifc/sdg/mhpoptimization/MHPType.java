@@ -7,18 +7,27 @@
  */
 package edu.kit.joana.ifc.sdg.mhpoptimization;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.function.Function;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinaryParser;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinarySerializer;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
 import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.SimpleMHPAnalysis;
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
+import edu.kit.joana.util.io.AtomicFiles;
 
 public enum MHPType {
 	NONE(sdg -> null),
 	SIMPLE(sdg -> SimpleMHPAnalysis.analyze(sdg)),
 	PRECISE_UNSAFE(sdg -> PreciseMHPAnalysis.analyzeUNSAFE(sdg)),
-	PRECISE(sdg -> PreciseMHPAnalysis.analyze(sdg));
+	PRECISE(sdg -> PreciseMHPAnalysis.analyze(sdg)),
+	PRECISE_PARALLEL(sdg -> PreciseMHPAnalysis.analyzeParallel(sdg));
 	
 	private final Function<SDG, MHPAnalysis> mhpAnalysisConstructor;
 	
@@ -29,4 +38,63 @@ public enum MHPType {
 	public Function<SDG, MHPAnalysis> getMhpAnalysisConstructor() {
 		return mhpAnalysisConstructor;
 	}
+
+	/**
+	 * @return whether the results of this analysis can be stored with {@link #store(MHPAnalysis, SDG, String)}
+	 */
+	public boolean isStorable() {
+		return this == PRECISE_UNSAFE || this == PRECISE || this == PRECISE_PARALLEL;
+	}
+
+	/**
+	 * Like {@link #getMhpAnalysisConstructor()}, but reads the result stored next to the given sdg file if there is
+	 * one for this sdg and this analysis. Otherwise, the result is computed and, if requested, stored next to the
+	 * sdg file for subsequent loads.
+	 * @param sdgFile the file the sdg has been read from
+	 * @param storeResult whether a computed result is stored, only callers owning the directory of the sdg file
+	 * should request this
+	 */
+	public MHPAnalysis analyzeStored(SDG sdg, String sdgFile, boolean storeResult) {
+		if (!isStorable()) {
+			return mhpAnalysisConstructor.apply(sdg);
+		}
+
+		final Logger debug = Log.getLogger(Log.L_MHP_DEBUG);
+		final String mhpFile = MHPBinaryParser.fileFor(sdgFile);
+		if (new File(mhpFile).isFile()) {
+			try {
+				final PreciseMHPAnalysis stored = MHPBinaryParser.parse(sdg, name(), mhpFile);
+				if (stored != null) {
+					return stored;
+				}
+			} catch (IOException e) {
+				// a broken result is treated like a missing one and overwritten below
+				debug.outln("could not read stored mhp result " + mhpFile + ": " + e);
+			}
+		}
+
+		final MHPAnalysis mhp = mhpAnalysisConstructor.apply(sdg);
+		if (storeResult) {
+			try {
+				store(mhp, sdg, sdgFile);
+			} catch (IOException e) {
+				debug.outln("could not store mhp result " + mhpFile + ": " + e);
+			}
+		}
+		return mhp;
+	}
+
+	/**
+	 * Stores the given result of this analysis next to the given sdg file, where
+	 * {@link #analyzeStored(SDG, String, boolean)} finds it. Does nothing if this analysis is not
+	 * {@link #isStorable() storable}. The file is replaced with {@link AtomicFiles#write}, since readers map it into
+	 * memory and must never see it change.
+	 */
+	public void store(MHPAnalysis mhp, SDG sdg, String sdgFile) throws IOException {
+		if (!isStorable()) {
+			return;
+		}
+		AtomicFiles.write(Paths.get(MHPBinaryParser.fileFor(sdgFile)),
+				out -> MHPBinarySerializer.toBinaryFormat((PreciseMHPAnalysis) mhp, sdg, name(), out));
+	}
 }
@@ -0,0 +1,69 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.kit.joana.api.lattice.BuiltinLattices;
+import edu.kit.joana.ifc.sdg.core.ChoppingBasedIFC;
+import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that the prefiltered and parallel checks of {@link ChoppingBasedIFC} report the same violations in the same
+ * order as the sequential check of all pairs.
+ */
+public class ChoppingBasedIFCTest {
+
+	private static List<String> toStrings(Iterable<ClassifiedViolation> violations) {
+		final List<String> vios = new ArrayList<String>();
+		for (ClassifiedViolation vio : violations) {
+			vios.add(vio.getSource().getId() + " -> " + vio.getSink().getId());
+		}
+		return vios;
+	}
+
+	@Test
+	public void testPrefilteredAndParallel() {
+		boolean found = false;
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 10, 30, false);
+			SlicingBasedIFCTest.annotate(sdg, seed, 1, 1);
+			final List<String> expected = toStrings(
+					new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(), new RepsRosayChopper(sdg)).checkIFlow());
+			found |= !expected.isEmpty();
+
+			final ChoppingBasedIFC prefiltered = new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(),
+					new RepsRosayChopper(sdg));
+			prefiltered.setPrefiltered(true);
+			assertEquals("seed " + seed, expected, toStrings(prefiltered.checkIFlow()));
+
+			final ChoppingBasedIFC parallel = new ChoppingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(),
+					RepsRosayChopper::new, 4);
+			try {
+				assertEquals("seed " + seed, expected, toStrings(parallel.checkIFlow()));
+				// a closed checker starts new workers
+				parallel.close();
+				assertEquals("seed " + seed, expected, toStrings(parallel.checkIFlow()));
+				parallel.setPrefiltered(false);
+				assertEquals("seed " + seed, expected, toStrings(parallel.checkIFlow()));
+			} finally {
+				parallel.close();
+			}
+		}
+		assertTrue("no violations to compare", found);
+	}
+}
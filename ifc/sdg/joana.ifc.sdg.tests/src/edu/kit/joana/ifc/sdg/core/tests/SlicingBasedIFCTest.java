@@ -0,0 +1,133 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import edu.kit.joana.api.lattice.BuiltinLattices;
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.core.SlicingBasedIFC;
+import edu.kit.joana.ifc.sdg.core.violations.ClassifiedViolation;
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that {@link SlicingBasedIFC} reports the same violations in the same order with and without batching, and
+ * on a snapshot of the sdg.
+ */
+public class SlicingBasedIFCTest {
+
+	/**
+	 * Annotates random nodes of the given sdg as high or low sources and as low sinks.
+	 * @param sources how many of 12 nodes become sources
+	 * @param sinks how many of 12 nodes become sinks
+	 */
+	public static void annotate(SDG sdg, long seed, int sources, int sinks) {
+		final Random rnd = new Random(seed);
+		for (SDGNode n : sdg.vertexSet()) {
+			final SecurityNode sn = (SecurityNode) n;
+			final int choice = rnd.nextInt(12);
+			if (choice < sources) {
+				sn.setProvided(rnd.nextInt(3) == 0 ? BuiltinLattices.STD_SECLEVEL_LOW : BuiltinLattices.STD_SECLEVEL_HIGH);
+			} else if (choice < sources + sinks) {
+				sn.setRequired(BuiltinLattices.STD_SECLEVEL_LOW);
+			}
+		}
+	}
+
+	private static List<String> check(SDG sdg, boolean batched) {
+		final SlicingBasedIFC ifc = new SlicingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(), new I2PForward(sdg),
+				new I2PBackward(sdg));
+		ifc.setBatched(batched);
+		return toStrings(ifc.checkIFlow());
+	}
+
+	private static List<String> toStrings(Collection<ClassifiedViolation> violations) {
+		final List<String> vios = new ArrayList<String>();
+		for (ClassifiedViolation vio : violations) {
+			vios.add(vio.getSource().getId() + " -> " + vio.getSink().getId());
+		}
+		return vios;
+	}
+
+	private static void testBatched(boolean threads, int sources, int sinks) {
+		boolean found = false;
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 10, 30, threads);
+			annotate(sdg, seed, sources, sinks);
+			final List<String> expected = check(sdg, false);
+			assertEquals("seed " + seed, expected, check(sdg, true));
+			found |= !expected.isEmpty();
+		}
+		assertTrue("no violations to compare", found);
+	}
+
+	@Test
+	public void testBatchedBackward() {
+		// fewer sinks than sources: one slice per sink
+		testBatched(false, 4, 2);
+		testBatched(true, 4, 2);
+	}
+
+	@Test
+	public void testBatchedForward() {
+		// fewer sources than sinks: one slice per source
+		testBatched(false, 2, 4);
+		testBatched(true, 2, 4);
+	}
+
+	private static List<String> check(SDG sdg, SummarySlicer forw, SummarySlicer backw, boolean batched,
+			boolean sliceOnSnapshot) {
+		final SlicingBasedIFC ifc = new SlicingBasedIFC(sdg, BuiltinLattices.getBinaryLattice(), forw, backw);
+		ifc.setBatched(batched);
+		ifc.setSliceOnSnapshot(sliceOnSnapshot);
+		return toStrings(ifc.checkIFlow());
+	}
+
+	/**
+	 * Summary slicers have to report the same violations on a snapshot of the sdg, and have to work on what they
+	 * worked on before afterwards.
+	 */
+	@Test
+	public void testSnapshot() {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 10, 30, false);
+			annotate(sdg, seed, 4, 2);
+			final SummarySlicer forw = new SummarySlicerForward(sdg);
+			final SummarySlicer backw = new SummarySlicerBackward(sdg);
+			final List<String> expected = check(sdg, forw, backw, false, false);
+			assertNull(backw.getFrozenGraph());
+
+			assertEquals(expected, check(sdg, forw, backw, false, true));
+			assertNull(backw.getFrozenGraph());
+			assertSame(sdg, backw.getGraph());
+
+			final FrozenSDG previous = sdg.freeze();
+			backw.setFrozenGraph(previous);
+			assertEquals(expected, check(sdg, forw, backw, true, false));
+			assertSame(previous, backw.getFrozenGraph());
+		}
+	}
+}
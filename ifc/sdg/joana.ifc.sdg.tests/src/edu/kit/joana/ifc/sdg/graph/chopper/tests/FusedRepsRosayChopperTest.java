@@ -0,0 +1,98 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.chopper.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.chopper.Chopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.FusedRepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.chopper.RepsRosayChopper;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that {@link FusedRepsRosayChopper} computes the same chops as {@link RepsRosayChopper}, sequentially, in
+ * the common pool, in a pool of the caller and from within a task of a pool, for single nodes and for sets of nodes.
+ * The chopper instances are reused for all criteria.
+ */
+public class FusedRepsRosayChopperTest {
+
+	private static void assertSameChops(SDG sdg, long seed, Chopper expected, Chopper... fused) {
+		final Random rnd = new Random(seed);
+		final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+		boolean found = false;
+		for (int i = 0; i < 30; i++) {
+			final SDGNode source = nodes.get(rnd.nextInt(nodes.size()));
+			final SDGNode target = nodes.get(rnd.nextInt(nodes.size()));
+			final HashSet<SDGNode> chop = new HashSet<SDGNode>(expected.chop(source, target));
+			found |= !chop.isEmpty();
+			for (Chopper c : fused) {
+				assertEquals("chop of (" + source + ", " + target + ")", chop,
+						new HashSet<SDGNode>(c.chop(source, target)));
+			}
+		}
+		for (int i = 0; i < 5; i++) {
+			final List<SDGNode> sources = new ArrayList<SDGNode>();
+			final List<SDGNode> targets = new ArrayList<SDGNode>();
+			for (int k = 0; k < 10; k++) {
+				sources.add(nodes.get(rnd.nextInt(nodes.size())));
+				targets.add(nodes.get(rnd.nextInt(nodes.size())));
+			}
+			final HashSet<SDGNode> chop = new HashSet<SDGNode>(expected.chop(sources, targets));
+			found |= !chop.isEmpty();
+			for (Chopper c : fused) {
+				assertEquals("chop of (" + sources + ", " + targets + ")", chop,
+						new HashSet<SDGNode>(c.chop(sources, targets)));
+			}
+		}
+		assertTrue("no chops to compare", found);
+	}
+
+	@Test
+	public void testSameChops() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 10; seed++) {
+				final SDG sdg = RandomSDG.create(seed, 10, 30, false);
+				assertSameChops(sdg, seed, new RepsRosayChopper(sdg), new FusedRepsRosayChopper(sdg, null),
+						new FusedRepsRosayChopper(sdg), new FusedRepsRosayChopper(sdg, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A chop computed by a task of the pool of the chopper runs sequentially instead of waiting for the pool.
+	 */
+	@Test
+	public void testWithinPool() throws InterruptedException, ExecutionException {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			for (long seed = 0; seed < 10; seed++) {
+				final SDG sdg = RandomSDG.create(seed, 10, 30, false);
+				final long s = seed;
+				pool.submit(() -> assertSameChops(sdg, s, new RepsRosayChopper(sdg),
+						new FusedRepsRosayChopper(sdg, pool))).get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
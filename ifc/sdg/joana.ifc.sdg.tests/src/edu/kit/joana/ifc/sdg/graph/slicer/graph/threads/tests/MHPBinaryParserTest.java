@@ -0,0 +1,253 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinaryParser;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.MHPBinarySerializer;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.PreciseMHPAnalysis;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadRegion;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+import edu.kit.joana.ifc.sdg.mhpoptimization.MHPType;
+import edu.kit.joana.util.SourceLocation;
+
+/**
+ * Checks that a {@link PreciseMHPAnalysis} result read by {@link MHPBinaryParser} answers all parallelism queries
+ * like the computed one, that a result is only used for the sdg it has been computed for, and that
+ * {@link MHPType#analyzeStored(SDG, String, boolean)} computes the result if the stored one is missing or broken.
+ */
+public class MHPBinaryParserTest {
+
+	private static final String VARIANT = MHPType.PRECISE.name();
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Creates a random sdg with a second thread.
+	 */
+	private static SDG create(long seed, int procs) {
+		for (;; seed += 1000) {
+			final SDG sdg = RandomSDG.create(seed, procs, 20, true);
+			if (sdg.getThreadsInfo() != null) {
+				return sdg;
+			}
+		}
+	}
+
+	/**
+	 * Creates an sdg whose main thread starts a thread at each of the given number of fork sites, so it has two
+	 * regions per fork site, one in the main thread and one in the started thread.
+	 */
+	private static SDG forks(int numForks) {
+		final SDG sdg = new SDG("forks");
+		final int[] nextId = { 1 };
+		final SDGNode entry = node(sdg, nextId, SDGNode.Operation.ENTRY, 0);
+		final SDGNode exit = node(sdg, nextId, SDGNode.Operation.EXIT, 0);
+		final SDGNode run = node(sdg, nextId, SDGNode.Operation.ENTRY, 1);
+		final SDGNode body = node(sdg, nextId, SDGNode.Operation.ASSIGN, 1);
+		final SDGNode runExit = node(sdg, nextId, SDGNode.Operation.EXIT, 1);
+		sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(run, body));
+		sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(body, runExit));
+
+		final List<ThreadInstance> tis = new ArrayList<ThreadInstance>();
+		tis.add(new ThreadInstance(0, entry, exit, null, new LinkedList<SDGNode>(), false));
+		final int[] forkedThreads = new int[numForks];
+		SDGNode last = entry;
+		for (int i = 0; i < numForks; i++) {
+			final SDGNode fork = node(sdg, nextId, SDGNode.Operation.CALL, 0);
+			final SDGNode next = node(sdg, nextId, SDGNode.Operation.ASSIGN, 0);
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(last, fork));
+			sdg.addEdge(SDGEdge.Kind.FORK.newEdge(fork, run));
+			sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(fork, next));
+			final LinkedList<SDGNode> context = new LinkedList<SDGNode>();
+			context.add(fork);
+			tis.add(new ThreadInstance(i + 1, run, runExit, fork, context, false));
+			forkedThreads[i] = i + 1;
+			last = next;
+		}
+		sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(last, exit));
+
+		for (SDGNode n : sdg.vertexSet()) {
+			n.setThreadNumbers(n.getProc() == 0 ? new int[] { 0 } : forkedThreads);
+		}
+		sdg.setThreadsInfo(new ThreadsInformation(tis));
+		sdg.setRoot(entry);
+		return sdg;
+	}
+
+	private static SDGNode node(SDG sdg, int[] nextId, SDGNode.Operation op, int proc) {
+		final SDGNode n = new SDGNode(nextId[0]++, op, op.toString(), proc, null, SourceLocation.UNKNOWN,
+				op == SDGNode.Operation.CALL ? "java.lang.Thread.start()V" : "m" + proc, 0, null, null, null, null,
+				null);
+		sdg.addVertex(n);
+		return n;
+	}
+
+	private String store(PreciseMHPAnalysis mhp, SDG sdg) throws IOException {
+		final String file = folder.newFile().getAbsolutePath();
+		MHPBinarySerializer.toBinaryFormat(mhp, sdg, VARIANT, file);
+		return file;
+	}
+
+	private static Set<Integer> parallelTo(PreciseMHPAnalysis mhp, ThreadRegion r) {
+		final Set<Integer> ids = new HashSet<Integer>();
+		for (ThreadRegion s : mhp.parallelTo(r)) {
+			ids.add(s.getID());
+		}
+		return ids;
+	}
+
+	private static void assertSameParallelism(PreciseMHPAnalysis expected, PreciseMHPAnalysis actual) {
+		final int numRegions = expected.getThreadRegions().size();
+		assertEquals(numRegions, actual.getThreadRegions().size());
+		for (int i = 0; i < numRegions; i++) {
+			final ThreadRegion r = expected.getThreadRegion(i);
+			final ThreadRegion rActual = actual.getThreadRegion(i);
+			assertEquals(r.getStart(), rActual.getStart());
+			assertEquals(r.getThread(), rActual.getThread());
+			assertEquals(new HashSet<SDGNode>(r.getNodes()), new HashSet<SDGNode>(rActual.getNodes()));
+			for (int j = 0; j < numRegions; j++) {
+				assertEquals("regions " + i + ", " + j, expected.isParallel(r, expected.getThreadRegion(j)),
+						actual.isParallel(rActual, actual.getThreadRegion(j)));
+			}
+			assertEquals("parallel to region " + i, parallelTo(expected, r), parallelTo(actual, rActual));
+		}
+		// the random sdgs assign threads to nodes the thread does not reach, so the nodes are taken from the regions
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		final List<Integer> threads = new ArrayList<Integer>();
+		for (ThreadRegion r : expected.getThreadRegions()) {
+			for (SDGNode n : r.getNodes()) {
+				nodes.add(n);
+				threads.add(r.getThread());
+				break;
+			}
+		}
+		for (int i = 0; i < nodes.size(); i++) {
+			for (int j = 0; j < nodes.size(); j++) {
+				assertEquals("nodes " + nodes.get(i) + ", " + nodes.get(j),
+						expected.isParallel(nodes.get(i), threads.get(i), nodes.get(j), threads.get(j)),
+						actual.isParallel(nodes.get(i), threads.get(i), nodes.get(j), threads.get(j)));
+			}
+		}
+	}
+
+	private void assertRoundTrip(SDG sdg) throws IOException {
+		final PreciseMHPAnalysis mhp = PreciseMHPAnalysis.analyze(sdg);
+		final PreciseMHPAnalysis parsed = MHPBinaryParser.parse(sdg, VARIANT, store(mhp, sdg));
+		assertNotNull(parsed);
+		assertSameParallelism(mhp, parsed);
+		boolean parallel = false;
+		for (ThreadRegion r : mhp.getThreadRegions()) {
+			parallel |= mhp.parallelTo(r).iterator().hasNext();
+		}
+		assertTrue("no parallel regions", parallel);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		for (long seed = 0; seed < 10; seed++) {
+			assertRoundTrip(create(seed, 10));
+		}
+	}
+
+	/**
+	 * More than 100 regions are stored as classes of regions with the same start node.
+	 */
+	@Test
+	public void testRoundTripClasses() throws IOException {
+		final SDG sdg = forks(60);
+		assertTrue(PreciseMHPAnalysis.analyze(sdg).getThreadRegions().size() > 100);
+		assertRoundTrip(sdg);
+	}
+
+	@Test
+	public void testOtherSDGOrVariant() throws IOException {
+		final SDG sdg = create(1, 6);
+		final String file = store(PreciseMHPAnalysis.analyze(sdg), sdg);
+		assertNull(MHPBinaryParser.parse(sdg, MHPType.PRECISE_PARALLEL.name(), file));
+
+		// another control flow edge changes the validation hash
+		final List<SDGNode> nodes = new ArrayList<SDGNode>(sdg.vertexSet());
+		final SDGNode source = nodes.get(0);
+		SDGNode target = null;
+		for (SDGNode n : nodes) {
+			if (n != source && sdg.getEdge(source, n) == null) {
+				target = n;
+				break;
+			}
+		}
+		sdg.addEdge(SDGEdge.Kind.CONTROL_FLOW.newEdge(source, target));
+		assertNull(MHPBinaryParser.parse(sdg, VARIANT, file));
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+		final SDG sdg = create(2, 6);
+		final String file = store(PreciseMHPAnalysis.analyze(sdg), sdg);
+		try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+			f.setLength(f.length() - 4);
+		}
+		try {
+			MHPBinaryParser.parse(sdg, VARIANT, file);
+			fail("a truncated result was read");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testFallback() throws IOException {
+		final SDG sdg = create(3, 6);
+		final PreciseMHPAnalysis expected = PreciseMHPAnalysis.analyze(sdg);
+		final String sdgFile = new File(folder.getRoot(), "random.pdg").getAbsolutePath();
+		final File mhpFile = new File(MHPBinaryParser.fileFor(sdgFile));
+
+		// missing: computed, and stored on request only
+		MHPAnalysis mhp = MHPType.PRECISE.analyzeStored(sdg, sdgFile, false);
+		assertSameParallelism(expected, (PreciseMHPAnalysis) mhp);
+		assertTrue(!mhpFile.exists());
+		mhp = MHPType.PRECISE.analyzeStored(sdg, sdgFile, true);
+		assertSameParallelism(expected, (PreciseMHPAnalysis) mhp);
+		assertTrue(mhpFile.isFile());
+		final long length = mhpFile.length();
+
+		// truncated: computed again and replaced
+		try (RandomAccessFile f = new RandomAccessFile(mhpFile, "rw")) {
+			f.setLength(length / 2);
+		}
+		mhp = MHPType.PRECISE.analyzeStored(sdg, sdgFile, true);
+		assertSameParallelism(expected, (PreciseMHPAnalysis) mhp);
+		assertEquals(length, mhpFile.length());
+		assertNotNull(MHPBinaryParser.parse(sdg, VARIANT, mhpFile.getAbsolutePath()));
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.C2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.ContextSlicerForward;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.Context;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.StaticContextManager.StaticContext;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that the context slicers compute the same slices as their context slices, which do not keep any state
+ * between slices: {@link ContextSlicer#slice(Collection)} and {@link ContextSlicer.Session#slice(Collection)} after
+ * the slices of all earlier criteria, and {@link C2PBackward#contextSlice(Collection)} for all contexts of the
+ * criterion.
+ */
+public class ContextSlicerTest {
+
+	/**
+	 * Creates a random sdg without the procedures that are not called from the root procedure, the context managers
+	 * expect a context for every calling procedure.
+	 */
+	private static SDG create(long seed) {
+		final SDG sdg = RandomSDG.create(seed, 8, 20, false);
+		final BitSet called = new BitSet();
+		final List<SDGNode> todo = new ArrayList<SDGNode>();
+		called.set(sdg.getRoot().getProc());
+		todo.add(sdg.getRoot());
+		while (!todo.isEmpty()) {
+			final SDGNode entry = todo.remove(todo.size() - 1);
+			for (SDGNode n : sdg.getNodesOfProcedure(entry)) {
+				for (SDGEdge call : sdg.getOutgoingEdgesOfKind(n, SDGEdge.Kind.CALL)) {
+					if (!called.get(call.getTarget().getProc())) {
+						called.set(call.getTarget().getProc());
+						todo.add(call.getTarget());
+					}
+				}
+			}
+		}
+		final List<SDGNode> uncalled = new ArrayList<SDGNode>();
+		for (SDGNode n : sdg.vertexSet()) {
+			if (!called.get(n.getProc())) {
+				uncalled.add(n);
+			}
+		}
+		sdg.removeAllVertices(uncalled);
+		return sdg;
+	}
+
+	private static <C extends Context<C>> void assertSameSlices(ContextSlicer<C> slicer, List<SDGNode> criteria) {
+		final Slicer session = slicer.newSession();
+		for (SDGNode crit : criteria) {
+			final Collection<SDGNode> criterion = Collections.singleton(crit);
+			final String msg = slicer.getClass().getSimpleName() + ": criterion " + crit;
+			final Set<SDGNode> expected = new HashSet<SDGNode>();
+			for (C con : slicer.contextSliceNodes(criterion)) {
+				expected.add(con.getNode());
+			}
+			assertEquals(msg, expected, new HashSet<SDGNode>(slicer.slice(criterion)));
+			assertEquals(msg, expected, new HashSet<SDGNode>(session.slice(criterion)));
+		}
+	}
+
+	@Test
+	public void testContextSlicers() {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = create(seed);
+			final List<SDGNode> criteria = RandomSDG.everyNthNode(sdg, 5);
+			assertSameSlices(ContextSlicerBackward.newDynamicContextSlicerBackward(sdg), criteria);
+			assertSameSlices(ContextSlicerForward.newDynamicContextSlicerForward(sdg), criteria);
+			assertSameSlices(ContextSlicerBackward.newStaticContextSlicerBackward(sdg), criteria);
+			assertSameSlices(ContextSlicerForward.newStaticContextSlicerForward(sdg), criteria);
+		}
+	}
+
+	@Test
+	public void testC2PBackward() {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = create(seed);
+			final ContextSlicerBackward<StaticContext> backward = ContextSlicerBackward.newStaticContextSlicerBackward(sdg);
+			final C2PBackward c2p = new C2PBackward(sdg);
+			final C2PBackward.Session session = c2p.newSession();
+			for (SDGNode crit : RandomSDG.everyNthNode(sdg, 5)) {
+				final String msg = "seed " + seed + ": criterion " + crit;
+				final Set<SDGNode> expected = new HashSet<SDGNode>();
+				for (StaticContext con : backward.contextSliceNodes(Collections.singleton(crit))) {
+					expected.add(con.getNode());
+				}
+				final List<StaticContext> contexts = new ArrayList<StaticContext>(c2p.getMan().getAllContextsOf(crit));
+				assertEquals(msg, expected, new HashSet<SDGNode>(c2p.contextSlice(contexts)));
+				assertEquals(msg, expected, new HashSet<SDGNode>(session.contextSlice(contexts)));
+			}
+		}
+	}
+}
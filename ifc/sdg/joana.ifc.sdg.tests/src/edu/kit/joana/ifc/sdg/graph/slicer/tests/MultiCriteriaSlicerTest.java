@@ -0,0 +1,71 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.MultiCriteriaSlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.Slicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.I2PForward;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that {@link MultiCriteriaSlicer#sliceEach(List)} computes the same slice for each criterion as
+ * {@link Slicer#slice(SDGNode)} for the criterion on its own.
+ */
+public class MultiCriteriaSlicerTest {
+
+	/**
+	 * Asserts that the slices of the given criteria computed by {@link MultiCriteriaSlicer#sliceEach(List)} equal
+	 * the slices of the criteria computed one at a time.
+	 */
+	public static void assertSliceEach(MultiCriteriaSlicer slicer, List<SDGNode> criteria) {
+		final Map<SDGNode, BitSet> slices = slicer.sliceEach(criteria);
+		for (int i = 0; i < criteria.size(); i++) {
+			final Set<SDGNode> expected = new HashSet<SDGNode>(slicer.slice(criteria.get(i)));
+			final Set<SDGNode> actual = new HashSet<SDGNode>();
+			for (Map.Entry<SDGNode, BitSet> e : slices.entrySet()) {
+				if (e.getValue().get(i)) {
+					actual.add(e.getKey());
+				}
+			}
+			assertEquals(slicer.getClass().getSimpleName() + ": criterion " + criteria.get(i), expected, actual);
+		}
+	}
+
+	private static void testI2P(boolean threads) {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 8, 20, threads);
+			// more than 64 criteria, so they are sliced in several blocks
+			final List<SDGNode> criteria = RandomSDG.everyNthNode(sdg, 2);
+			assertSliceEach(new I2PBackward(sdg), criteria);
+			assertSliceEach(new I2PForward(sdg), criteria);
+		}
+	}
+
+	@Test
+	public void testI2PSequential() {
+		testI2P(false);
+	}
+
+	@Test
+	public void testI2PConcurrent() {
+		testI2P(true);
+	}
+}
@@ -0,0 +1,173 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.slicer.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.BitVector;
+import edu.kit.joana.ifc.sdg.graph.FrozenSDG;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicer;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.SummarySlicerForward;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks the int-indexed traversal of {@link SummarySlicerBackward} and {@link SummarySlicerForward}.
+ */
+public class SummarySlicerTest {
+
+	private static Set<SDGNode> toNodes(SDG sdg, BitVector ids) {
+		final Set<SDGNode> nodes = new HashSet<SDGNode>();
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			nodes.add(sdg.getNode(id));
+		}
+		return nodes;
+	}
+
+	/**
+	 * Asserts that the given slicers compute the same slices: plain slices, slices restricted to a subgraph, and
+	 * slices as bit vectors.
+	 */
+	static void assertSameSlices(SDG sdg, List<SDGNode> criteria, SummarySlicer expectedSlicer, SummarySlicer slicer) {
+		final Set<SDGNode> sub = new HashSet<SDGNode>();
+		final BitVector subBits = new BitVector(sdg.lastId() + 1);
+		int ctr = 0;
+		for (SDGNode n : sdg.vertexSet()) {
+			if ((ctr++ % 3) != 0) {
+				sub.add(n);
+				subBits.set(n.getId());
+			}
+		}
+
+		for (SDGNode crit : criteria) {
+			final Collection<SDGNode> criterion = Collections.singleton(crit);
+			final String msg = slicer.getClass().getSimpleName() + ": criterion " + crit;
+			final Set<SDGNode> expected = new HashSet<SDGNode>(expectedSlicer.slice(criterion));
+			assertEquals(msg, expected, new HashSet<SDGNode>(slicer.slice(criterion)));
+			assertEquals(msg, expected, toNodes(sdg, slicer.sliceBits(criterion, null)));
+
+			final Set<SDGNode> expectedSub = new HashSet<SDGNode>(expectedSlicer.subgraphSlice(criterion, sub));
+			assertEquals(msg, expectedSub, new HashSet<SDGNode>(slicer.subgraphSlice(criterion, sub)));
+			assertEquals(msg, expectedSub, toNodes(sdg, slicer.sliceBits(criterion, subBits)));
+		}
+	}
+
+	/**
+	 * The edge kind masks of the slicers have to select the same edges as their edge predicates, which the slicers
+	 * evaluate if they have no masks.
+	 */
+	@Test
+	public void testEdgeKindMasks() {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 8, 20, seed % 2 == 0);
+			final List<SDGNode> criteria = RandomSDG.everyNthNode(sdg, 5);
+			assertSameSlices(sdg, criteria, new SummarySlicerBackward(sdg) {
+				@Override
+				protected EdgeKindMasks edgeKindMasks() {
+					return null;
+				}
+			}, new SummarySlicerBackward(sdg));
+			assertSameSlices(sdg, criteria, new SummarySlicerForward(sdg) {
+				@Override
+				protected EdgeKindMasks edgeKindMasks() {
+					return null;
+				}
+			}, new SummarySlicerForward(sdg));
+		}
+	}
+
+	/**
+	 * The slicers have to compute the same slices on a snapshot of the sdg (see {@link SDG#freeze()}) as on the sdg
+	 * itself.
+	 */
+	@Test
+	public void testFrozen() {
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 8, 20, seed % 2 == 0);
+			final List<SDGNode> criteria = RandomSDG.everyNthNode(sdg, 5);
+			final FrozenSDG frozen = sdg.freeze();
+			final SummarySlicer[][] slicers = {
+				{ new SummarySlicerBackward(sdg), new SummarySlicerBackward(sdg) },
+				{ new SummarySlicerForward(sdg), new SummarySlicerForward(sdg) }
+			};
+			for (SummarySlicer[] pair : slicers) {
+				final SummarySlicer normal = pair[0];
+				final SummarySlicer onSnapshot = pair[1];
+				onSnapshot.setFrozenGraph(frozen);
+				assertSameSlices(sdg, criteria, normal, onSnapshot);
+				assertEquals(normal.sliceEach(criteria), onSnapshot.sliceEach(criteria));
+			}
+		}
+	}
+
+	private static SDG fiveNodes() {
+		final SDG g = new SDG();
+		for (int id = 1; id <= 5; id++) {
+			g.addVertex(new SDGNode(SDGNode.Kind.NORMAL, id, id, "n" + id));
+		}
+		return g;
+	}
+
+	private static void addEdge(SDG g, int source, int target, SDGEdge.Kind kind) {
+		g.addEdge(kind.newEdge(g.getNode(source), g.getNode(target)));
+	}
+
+	private static void assertWholeGraph(SummarySlicer slicer, SDGNode crit) {
+		final SDG g = slicer.getGraph();
+		final Set<SDGNode> expected = new HashSet<SDGNode>(g.vertexSet());
+		assertEquals(slicer.getClass().getSimpleName(), expected, new HashSet<SDGNode>(slicer.slice(crit)));
+		MultiCriteriaSlicerTest.assertSliceEach(slicer, Collections.singletonList(crit));
+
+		slicer.setFrozenGraph(g.freeze());
+		assertEquals(slicer.getClass().getSimpleName(), expected, new HashSet<SDGNode>(slicer.slice(crit)));
+		MultiCriteriaSlicerTest.assertSliceEach(slicer, Collections.singletonList(crit));
+	}
+
+	/**
+	 * The slices must not depend on the order in which the edges are traversed. The criterion reaches node 2
+	 * through node 3 and through node 4: along one of them by data dependences only, which phase 1 follows, and
+	 * along the other one by a path that ends with a parameter edge, which phase 1 saves for phase 2. The nodes 3
+	 * and 4 are traversed in the order of their ids, so the parameter edge is traversed first in one of the two
+	 * graphs. Only phase 1 traverses the parameter edge between node 2 and the last node, which has to be in the
+	 * slice in both graphs.
+	 */
+	@Test
+	public void testEdgeOrder() {
+		for (boolean parameterFirst : new boolean[] { true, false }) {
+			final int parameter = (parameterFirst ? 3 : 4);
+			final int data = 7 - parameter;
+
+			final SDG backward = fiveNodes();
+			addEdge(backward, 3, 5, SDGEdge.Kind.DATA_DEP);
+			addEdge(backward, 4, 5, SDGEdge.Kind.DATA_DEP);
+			addEdge(backward, 2, data, SDGEdge.Kind.DATA_DEP);
+			addEdge(backward, 2, parameter, SDGEdge.Kind.PARAMETER_OUT);
+			addEdge(backward, 1, 2, SDGEdge.Kind.PARAMETER_IN);
+			assertWholeGraph(new SummarySlicerBackward(backward), backward.getNode(5));
+
+			final SDG forward = fiveNodes();
+			addEdge(forward, 1, 3, SDGEdge.Kind.DATA_DEP);
+			addEdge(forward, 1, 4, SDGEdge.Kind.DATA_DEP);
+			addEdge(forward, data, 2, SDGEdge.Kind.DATA_DEP);
+			addEdge(forward, parameter, 2, SDGEdge.Kind.PARAMETER_IN);
+			addEdge(forward, 2, 5, SDGEdge.Kind.PARAMETER_OUT);
+			assertWholeGraph(new SummarySlicerForward(forward), forward.getNode(1));
+		}
+	}
+}
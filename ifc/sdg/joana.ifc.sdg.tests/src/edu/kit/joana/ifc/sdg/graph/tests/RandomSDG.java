@@ -0,0 +1,232 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.graph.tests;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import edu.kit.joana.ifc.sdg.core.SecurityNode;
+import edu.kit.joana.ifc.sdg.graph.LabeledSDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.SDGNode.Operation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.threads.ThreadsInformation.ThreadInstance;
+import edu.kit.joana.util.SourceLocation;
+
+/**
+ * Creates random sdgs to compare different algorithms on. The procedures have an entry and an exit node, formal-in
+ * and formal-out nodes, and a body of predicates, expressions and calls. Each procedure only calls procedures with a
+ * greater number, with actual-in and actual-out nodes, parameter edges, summary edges and return edges. The nodes are
+ * {@link SecurityNode}s, so the sdgs can be checked by the ifc algorithms as well.
+ */
+public final class RandomSDG {
+
+	private RandomSDG() {}
+
+	private static final class Proc {
+		private SDGNode entry;
+		private SDGNode exit;
+		private final List<SDGNode> formalIns = new ArrayList<SDGNode>();
+		private final List<SDGNode> formalOuts = new ArrayList<SDGNode>();
+		private final List<SDGNode> body = new ArrayList<SDGNode>();
+	}
+
+	/**
+	 * Creates a random sdg.
+	 * @param seed the seed of the random choices, the same seed yields the same sdg
+	 * @param procs the number of procedures
+	 * @param bodySize the maximal number of nodes in the body of a procedure
+	 * @param threads whether the first procedure shall fork a second thread, with interference edges between random
+	 * nodes of both threads
+	 */
+	public static SDG create(long seed, int procs, int bodySize, boolean threads) {
+		final Random rnd = new Random(seed);
+		final SDG sdg = new SDG("random" + seed);
+		final int[] nextId = { 1 };
+		final List<Proc> ps = new ArrayList<Proc>();
+		for (int p = 0; p < procs; p++) {
+			final Proc proc = new Proc();
+			proc.entry = node(sdg, nextId, Operation.ENTRY, p, "proc" + p, rnd);
+			proc.exit = node(sdg, nextId, Operation.EXIT, p, "exit" + p, rnd);
+			for (int i = 1 + rnd.nextInt(3); i > 0; i--) {
+				proc.formalIns.add(node(sdg, nextId, Operation.FORMAL_IN, p, "fin" + i, rnd));
+			}
+			for (int i = 1 + rnd.nextInt(2); i > 0; i--) {
+				proc.formalOuts.add(node(sdg, nextId, Operation.FORMAL_OUT, p, "fout" + i, rnd));
+			}
+			ps.add(proc);
+		}
+
+		SDGNode forkCall = null;
+		for (int p = 0; p < procs; p++) {
+			final Proc proc = ps.get(p);
+			final List<SDGNode> cf = new ArrayList<SDGNode>();
+			cf.add(proc.entry);
+			for (SDGNode fin : proc.formalIns) {
+				edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, proc.entry, fin);
+				edge(sdg, SDGEdge.Kind.CONTROL_FLOW, last(cf), fin);
+				cf.add(fin);
+			}
+			final List<SDGNode> defs = new ArrayList<SDGNode>(proc.formalIns);
+			for (int i = 1 + rnd.nextInt(bodySize); i > 0; i--) {
+				final int kind = rnd.nextInt(10);
+				if (kind < 2 && p + 1 < procs) {
+					final Proc callee = ps.get(p + 1 + rnd.nextInt(procs - p - 1));
+					final boolean isFork = threads && forkCall == null && p == 0;
+					final SDGNode call = new SecurityNode(nextId[0]++, Operation.CALL, "call", p, null,
+							SourceLocation.UNKNOWN, isFork ? "java.lang.Thread.start()V" : "bc", i, null, null, null,
+							isFork ? new int[] { 1, 2 } : null, null);
+					sdg.addVertex(call);
+					if (isFork) {
+						forkCall = call;
+					}
+					edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, proc.entry, call);
+					edge(sdg, SDGEdge.Kind.CONTROL_FLOW, last(cf), call);
+					cf.add(call);
+					edge(sdg, isFork ? SDGEdge.Kind.FORK : SDGEdge.Kind.CALL, call, callee.entry);
+					final List<SDGNode> actualIns = new ArrayList<SDGNode>();
+					final List<SDGNode> actualOuts = new ArrayList<SDGNode>();
+					for (SDGNode fin : callee.formalIns) {
+						final SDGNode ain = node(sdg, nextId, Operation.ACTUAL_IN, p, "ain", rnd);
+						actualIns.add(ain);
+						edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, call, ain);
+						edge(sdg, isFork ? SDGEdge.Kind.FORK_IN : SDGEdge.Kind.PARAMETER_IN, ain, fin);
+						edge(sdg, SDGEdge.Kind.DATA_DEP, defs.get(rnd.nextInt(defs.size())), ain);
+					}
+					for (SDGNode fout : callee.formalOuts) {
+						final SDGNode aout = node(sdg, nextId, Operation.ACTUAL_OUT, p, "aout", rnd);
+						actualOuts.add(aout);
+						edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, call, aout);
+						if (!isFork) {
+							edge(sdg, SDGEdge.Kind.PARAMETER_OUT, fout, aout);
+						}
+						defs.add(aout);
+					}
+					proc.body.add(call);
+					if (!isFork) {
+						for (SDGNode ain : actualIns) {
+							for (SDGNode aout : actualOuts) {
+								if (rnd.nextInt(3) == 0) {
+									edge(sdg, SDGEdge.Kind.SUMMARY, ain, aout);
+								}
+							}
+						}
+					}
+				} else {
+					final Operation op = (kind < 4 ? Operation.IF : (kind < 6 ? Operation.ASSIGN : Operation.BINARY));
+					final SDGNode n = node(sdg, nextId, op, p, "n" + i, rnd);
+					SDGNode cd = proc.entry;
+					for (SDGNode b : proc.body) {
+						if (b.getKind() == SDGNode.Kind.PREDICATE && rnd.nextInt(3) == 0) {
+							cd = b;
+						}
+					}
+					edge(sdg, cd == proc.entry ? SDGEdge.Kind.CONTROL_DEP_EXPR : SDGEdge.Kind.CONTROL_DEP_COND, cd, n);
+					edge(sdg, SDGEdge.Kind.CONTROL_FLOW, last(cf), n);
+					cf.add(n);
+					for (int k = 0; k < 2; k++) {
+						edge(sdg, rnd.nextBoolean() ? SDGEdge.Kind.DATA_DEP : SDGEdge.Kind.DATA_HEAP,
+								defs.get(rnd.nextInt(defs.size())), n);
+					}
+					defs.add(n);
+					proc.body.add(n);
+				}
+			}
+			for (SDGNode fout : proc.formalOuts) {
+				edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, proc.entry, fout);
+				edge(sdg, SDGEdge.Kind.DATA_DEP, defs.get(rnd.nextInt(defs.size())), fout);
+				edge(sdg, SDGEdge.Kind.CONTROL_FLOW, last(cf), fout);
+				cf.add(fout);
+			}
+			edge(sdg, SDGEdge.Kind.CONTROL_FLOW, last(cf), proc.exit);
+			edge(sdg, SDGEdge.Kind.CONTROL_DEP_EXPR, proc.entry, proc.exit);
+		}
+
+		// the control flow returns from the exit of the callee to the successor of the call
+		for (SDGNode n : new ArrayList<SDGNode>(sdg.vertexSet())) {
+			if (n.getKind() != SDGNode.Kind.CALL) {
+				continue;
+			}
+			for (SDGEdge call : sdg.getOutgoingEdgesOfKind(n, SDGEdge.Kind.CALL)) {
+				final SDGNode exit = ps.get(call.getTarget().getProc()).exit;
+				for (SDGEdge cf : new ArrayList<SDGEdge>(sdg.getOutgoingEdgesOfKind(n, SDGEdge.Kind.CONTROL_FLOW))) {
+					edge(sdg, SDGEdge.Kind.RETURN, exit, cf.getTarget());
+				}
+			}
+		}
+
+		if (forkCall != null) {
+			int forkedProc = -1;
+			for (SDGEdge fork : sdg.getOutgoingEdgesOfKind(forkCall, SDGEdge.Kind.FORK)) {
+				forkedProc = fork.getTarget().getProc();
+			}
+			final List<SDGNode> all = new ArrayList<SDGNode>(sdg.vertexSet());
+			for (SDGNode n : all) {
+				n.setThreadNumbers(n.getProc() >= forkedProc ? new int[] { 0, 1 } : new int[] { 0 });
+			}
+			for (int i = all.size() / 10; i > 0; i--) {
+				final SDGNode n1 = all.get(rnd.nextInt(all.size()));
+				final SDGNode n2 = all.get(rnd.nextInt(all.size()));
+				if (n1 != n2) {
+					edge(sdg, SDGEdge.Kind.INTERFERENCE, n1, n2);
+				}
+			}
+			final List<ThreadInstance> tis = new ArrayList<ThreadInstance>();
+			tis.add(new ThreadInstance(0, ps.get(0).entry, ps.get(0).exit, null, new LinkedList<SDGNode>(), false));
+			final LinkedList<SDGNode> context = new LinkedList<SDGNode>();
+			context.add(forkCall);
+			tis.add(new ThreadInstance(1, ps.get(forkedProc).entry, ps.get(forkedProc).exit, forkCall, context, true));
+			sdg.setThreadsInfo(new ThreadsInformation(tis));
+		} else {
+			for (SDGNode n : sdg.vertexSet()) {
+				n.setThreadNumbers(new int[] { 0 });
+			}
+		}
+		sdg.setRoot(ps.get(0).entry);
+		return sdg;
+	}
+
+	/**
+	 * Returns every {@code step}-th node of the given sdg, in the order of the node set.
+	 */
+	public static List<SDGNode> everyNthNode(SDG sdg, int step) {
+		final List<SDGNode> nodes = new ArrayList<SDGNode>();
+		int ctr = 0;
+		for (SDGNode n : sdg.vertexSet()) {
+			if ((ctr++ % step) == 0) {
+				nodes.add(n);
+			}
+		}
+		return nodes;
+	}
+
+	private static SDGNode last(List<SDGNode> nodes) {
+		return nodes.get(nodes.size() - 1);
+	}
+
+	private static SDGNode node(SDG sdg, int[] nextId, Operation op, int proc, String label, Random rnd) {
+		final SourceLocation loc = (rnd.nextBoolean() ? SourceLocation.UNKNOWN
+				: SourceLocation.getLocation("A" + proc + ".java", rnd.nextInt(100), 0, rnd.nextInt(100), 2));
+		final String[] defs = (rnd.nextInt(4) == 0 ? new String[] { "v" + rnd.nextInt(5) } : null);
+		final String[] uses = (rnd.nextInt(4) == 0 ? new String[] { "u", "w" } : null);
+		final SDGNode n = new SecurityNode(nextId[0]++, op, label, proc, rnd.nextBoolean() ? "I" : null, loc,
+				"m" + proc, rnd.nextInt(50), defs, uses, rnd.nextInt(10) == 0 ? "unresolved" : null, null,
+				rnd.nextInt(7) == 0 ? "Primordial" : null);
+		sdg.addVertex(n);
+		return n;
+	}
+
+	private static void edge(SDG sdg, SDGEdge.Kind kind, SDGNode source, SDGNode target) {
+		sdg.addEdge(kind == SDGEdge.Kind.DATA_HEAP ? new LabeledSDGEdge(source, target, kind, "f")
+				: kind.newEdge(source, target));
+	}
+}
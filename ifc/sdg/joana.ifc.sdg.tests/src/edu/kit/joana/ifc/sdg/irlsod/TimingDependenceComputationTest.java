@@ -0,0 +1,90 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ifc.sdg.irlsod;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGEdge;
+import edu.kit.joana.ifc.sdg.graph.SDGNode;
+import edu.kit.joana.ifc.sdg.graph.slicer.conc.CFGBackward;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.CFG;
+import edu.kit.joana.ifc.sdg.graph.slicer.graph.building.ICFGBuilder;
+import edu.kit.joana.ifc.sdg.graph.tests.RandomSDG;
+
+/**
+ * Checks that {@link TimingDependenceComputation} computes the same timing dependences as slicing each end point
+ * with {@link CFGBackward} and testing whether the slice contains all successors of each split node, sequentially
+ * and in parallel. The package is that of the computation, which is not public.
+ */
+public class TimingDependenceComputationTest {
+
+	/* the split nodes as chosen by TimingClassificationChecker */
+	private static Map<SDGNode, Set<SDGNode>> splitNodes(CFG icfg) {
+		final Map<SDGNode, Set<SDGNode>> splitNodes = new HashMap<SDGNode, Set<SDGNode>>();
+		for (SDGNode n : icfg.vertexSet()) {
+			final List<SDGEdge> edges = icfg.outgoingEdgesOf(n).stream()
+					.filter(e -> !e.getKind().equals(SDGEdge.Kind.FORK)).collect(Collectors.toList());
+			if (edges.size() >= 2) {
+				final Set<SDGNode> succs = new HashSet<SDGNode>();
+				succs.add(edges.get(0).getTarget());
+				succs.add(edges.get(1).getTarget());
+				splitNodes.put(n, succs);
+			}
+		}
+		return splitNodes;
+	}
+
+	private static Map<SDGNode, Set<SDGNode>> sliced(CFG icfg, Map<SDGNode, Set<SDGNode>> splitNodes,
+			List<SDGNode> endPoints) {
+		final CFGBackward cfgBackward = new CFGBackward(icfg);
+		final Map<SDGNode, Set<SDGNode>> timingDependence = new HashMap<SDGNode, Set<SDGNode>>();
+		for (SDGNode v : endPoints) {
+			final Set<SDGNode> slice = new HashSet<SDGNode>(cfgBackward.slice(v));
+			final Set<SDGNode> deps = new HashSet<SDGNode>();
+			for (Map.Entry<SDGNode, Set<SDGNode>> split : splitNodes.entrySet()) {
+				if (slice.containsAll(split.getValue())) {
+					deps.add(split.getKey());
+				}
+			}
+			timingDependence.put(v, deps);
+		}
+		return timingDependence;
+	}
+
+	@Test
+	public void testSameAsSlices() {
+		boolean found = false;
+		for (long seed = 0; seed < 10; seed++) {
+			final SDG sdg = RandomSDG.create(seed, 10, 30, seed % 2 == 0);
+			final CFG icfg = ICFGBuilder.extractICFG(sdg);
+			final Map<SDGNode, Set<SDGNode>> splitNodes = splitNodes(icfg);
+			final List<SDGNode> endPoints = RandomSDG.everyNthNode(sdg, 3).stream()
+					.filter(icfg::containsVertex).collect(Collectors.toList());
+			final Map<SDGNode, Set<SDGNode>> expected = sliced(icfg, splitNodes, endPoints);
+			for (Set<SDGNode> deps : expected.values()) {
+				found |= !deps.isEmpty();
+			}
+
+			final TimingDependenceComputation computation = new TimingDependenceComputation(icfg, splitNodes);
+			assertEquals("seed " + seed, expected, computation.compute(endPoints, 1));
+			assertEquals("seed " + seed, expected, computation.compute(endPoints, 4));
+		}
+		assertTrue("no timing dependences to compare", found);
+	}
+}
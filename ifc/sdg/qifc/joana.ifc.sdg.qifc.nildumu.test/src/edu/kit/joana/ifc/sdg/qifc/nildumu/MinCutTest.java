@@ -0,0 +1,71 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Runner.TestCase;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed;
+
+/**
+ * Compares the leakage and the min cuts computed with {@link MinCut.Algo#DINIC} with the ones computed by the other
+ * algorithms: they have to be equal to the ones of the default {@link MinCut.Algo#GRAPHT_PP} and the leakage has to
+ * be at least the one of the approximating {@link MinCut.Algo#EK_APPROX} for every level.
+ */
+class MinCutTest {
+
+	public static Stream<Arguments> simpleTestsSupplier(){
+		return Runner.testCases(SimpleTestBed.class);
+	}
+
+	private static Map<Sec<?>, MinCut.ComputationResult> compute(Context context, MinCut.Algo algo) {
+		MinCut.Algo used = MinCut.usedAlgo;
+		try {
+			MinCut.usedAlgo = algo;
+			return MinCut.compute(context);
+		} finally {
+			MinCut.usedAlgo = used;
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("simpleTestsSupplier")
+	void testAlgorithmsAgree(TestCase testCase, String handlerProp) {
+		Context context = new Builder().methodInvocationHandler(handlerProp)
+				.entry(testCase.klass)
+				.entryMethod(testCase.mainMethod)
+				.buildProgramOrDie()
+				.analyze();
+		Map<Sec<?>, MinCut.ComputationResult> dinic = compute(context, MinCut.Algo.DINIC);
+		Map<Sec<?>, MinCut.ComputationResult> preflowPush = compute(context, MinCut.Algo.GRAPHT_PP);
+		Map<Sec<?>, MinCut.ComputationResult> approx = compute(context, MinCut.Algo.EK_APPROX);
+		for (Sec<?> sec : context.sl.elements()) {
+			assertEquals(preflowPush.get(sec).maxFlow, dinic.get(sec).maxFlow,
+					String.format("Leakage of level %s", sec));
+			if (dinic.get(sec).maxFlow != Context.INFTY) {
+				// every finite cut consists of bits with weight 1
+				assertEquals(preflowPush.get(sec).minCut.size(), dinic.get(sec).minCut.size(),
+						String.format("Size of the min cut of level %s", sec));
+				assertEquals(dinic.get(sec).maxFlow, dinic.get(sec).minCut.size(),
+						String.format("Size of the min cut of level %s", sec));
+			}
+			assertTrue(approx.get(sec).maxFlow <= dinic.get(sec).maxFlow,
+					String.format("Approximated leakage of level %s", sec));
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu.interproc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Builder;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.ContextMatcher;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Method;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Program;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.prog.SimpleTestBed;
+
+/**
+ * Tests the keys of the {@link SummaryStore} and the loading of stored summaries, using the call chain
+ * {@code _4_f → _4_h → _4_g} of {@link SimpleTestBed#nestedFunctionCalls(int)}.
+ */
+class SummaryStoreTest {
+
+	private Path directory;
+
+	@BeforeEach
+	void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("nildumu-summaries");
+	}
+
+	@AfterEach
+	void deleteDirectory() throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	private static Builder builder() {
+		try {
+			return new Builder().entry(SimpleTestBed.class)
+					.entryMethod(SimpleTestBed.class.getMethod("nestedFunctionCalls", int.class));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private SummaryHandler setup(Program program) {
+		SummaryHandler handler = new SummaryHandler(null, SummaryHandler.Reduction.MINCUT, 2, directory);
+		handler.setup(program);
+		return handler;
+	}
+
+	private static Method method(SummaryHandler handler, String name) {
+		return handler.callGraph.getElements().stream()
+				.filter(m -> m != null && m.toBCString().contains("." + name + "("))
+				.findFirst().get();
+	}
+
+	private static SummaryStore store(Path directory, SummaryHandler handler, Program program,
+			SummaryHandler.Reduction reduction, int callStringMaxRec) {
+		return new SummaryStore(directory, reduction, callStringMaxRec, program.intWidth, handler.callGraph);
+	}
+
+	@Test
+	void testKeyStability() {
+		Program first = builder().buildProgramOrDie();
+		Program second = builder().buildProgramOrDie();
+		SummaryHandler firstHandler = setup(first);
+		SummaryHandler secondHandler = setup(second);
+		for (String name : new String[]{"_4_f", "_4_h", "_4_g"}) {
+			String key = store(directory, firstHandler, first, SummaryHandler.Reduction.MINCUT, 2)
+					.key(method(firstHandler, name));
+			assertNotNull(key, name);
+			// the same method in another analysis of the same program
+			assertEquals(key, store(directory, secondHandler, second, SummaryHandler.Reduction.MINCUT, 2)
+					.key(method(secondHandler, name)), name);
+			// the handler configuration is part of the key
+			assertNotEquals(key, store(directory, firstHandler, first, SummaryHandler.Reduction.BASIC, 2)
+					.key(method(firstHandler, name)), name);
+			assertNotEquals(key, store(directory, firstHandler, first, SummaryHandler.Reduction.MINCUT, 3)
+					.key(method(firstHandler, name)), name);
+		}
+		assertNotEquals(store(directory, firstHandler, first, SummaryHandler.Reduction.MINCUT, 2)
+				.key(method(firstHandler, "_4_f")),
+				store(directory, firstHandler, first, SummaryHandler.Reduction.MINCUT, 2)
+				.key(method(firstHandler, "_4_g")));
+	}
+
+	@Test
+	void testHitAfterStore() {
+		Program first = builder().buildProgramOrDie();
+		SummaryHandler firstHandler = setup(first);
+
+		// a new analysis loads the summaries that the first one stored
+		Program second = builder().buildProgramOrDie();
+		SummaryHandler secondHandler = setup(second);
+		SummaryStore store = store(directory, secondHandler, second, SummaryHandler.Reduction.MINCUT, 2);
+		for (String name : new String[]{"_4_f", "_4_h", "_4_g"}) {
+			Method method = method(secondHandler, name);
+			BitGraph loaded = store.load(second.context, store.key(method),
+					secondHandler.generateParameters(second, method));
+			assertNotNull(loaded, name);
+			assertEquals(firstHandler.methodGraphs.get(method(firstHandler, name)).returnValue.size(),
+					loaded.returnValue.size(), name);
+		}
+
+		// and computes the same leakage with them
+		new ContextMatcher(builder().methodInvocationHandler("handler=summary;store=" + directory)
+				.buildProgramOrDie().analyze()).leaks(2).run();
+	}
+
+	@Test
+	void testMissOnChangedCallee() {
+		Program program = builder().buildProgramOrDie();
+		SummaryHandler handler = setup(program);
+		Method changed = method(handler, "_4_h");
+		SummaryStore store = store(directory, handler, program, SummaryHandler.Reduction.MINCUT, 2);
+		// the same store, but the bytecode of _4_h changed
+		SummaryStore changedStore = new SummaryStore(directory, SummaryHandler.Reduction.MINCUT, 2,
+				program.intWidth, handler.callGraph,
+				m -> m == changed ? "changed" : SummaryStore.bytecodeHash(m));
+
+		// _4_f calls _4_h
+		Method caller = method(handler, "_4_f");
+		assertNotEquals(store.key(caller), changedStore.key(caller));
+		assertNull(changedStore.load(program.context, changedStore.key(caller),
+				handler.generateParameters(program, caller)));
+		assertNull(changedStore.load(program.context, changedStore.key(changed),
+				handler.generateParameters(program, changed)));
+
+		// _4_g is called by _4_h, its summary is still valid
+		Method callee = method(handler, "_4_g");
+		assertEquals(store.key(callee), changedStore.key(callee));
+		assertNotNull(changedStore.load(program.context, changedStore.key(callee),
+				handler.generateParameters(program, callee)));
+	}
+}
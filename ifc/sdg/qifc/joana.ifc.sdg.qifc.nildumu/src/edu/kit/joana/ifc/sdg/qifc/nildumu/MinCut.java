@@ -17,15 +17,19 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -41,6 +45,7 @@ import org.jgrapht.graph.SimpleDirectedWeightedGraph;
 
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Bit;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Sec;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.SecurityLattice;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.DefaultMap;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Pair;
 import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Util.Box;
@@ -57,7 +62,8 @@ public class MinCut {
 
     public static enum Algo {
         EK_APPROX("approximate Edmonds-Karp"),
-        GRAPHT_PP("JGraphT Preflow-Push");
+        GRAPHT_PP("JGraphT Preflow-Push"),
+        DINIC("Dinic on primitive arrays");
 
         public final String description;
 
@@ -679,6 +685,393 @@ public class MinCut {
         }
     }
 
+    /**
+     * Dinic's max flow algorithm on the split bit graph, stored in primitive arrays.
+     * <p>
+     * Every bit is split into a start and an end node, connected by an edge whose capacity is the weight
+     * of the bit, an edge with infinite capacity leads from the end node of a bit to the start node of each
+     * of its dependencies. The edges are stored in CSR form: the outgoing edges of node {@code v} are
+     * {@code firstEdge[v]} until {@code firstEdge[v + 1]}, the reverse edge of edge {@code e} is {@code rev[e]}.
+     * <p>
+     * The network contains source and sink edges for all bits that are source (resp. sink) at some level,
+     * the capacities of these edges are set per computation. This allows to compute the cuts of all levels
+     * on the same network and to start the computation of a level with the flow of a lower level.
+     * The network is not modified by the computations, so they can run concurrently.
+     */
+    public static class BitFlowNetwork {
+
+        private static final long INF = Long.MAX_VALUE / 4;
+
+        private final Bit[] bits;
+        private final Map<Bit, Integer> bitIndex;
+        private final int source;
+        private final int sink;
+        private final int[] firstEdge;
+        private final int[] to;
+        private final int[] rev;
+        private final long[] capacity;
+        /** edge from the global source to the start node of each bit, or -1 */
+        private final int[] sourceEdge;
+        /** edge from the end node of each bit to the global sink, or -1 */
+        private final int[] sinkEdge;
+
+        public BitFlowNetwork(Set<Bit> sourceCandidates, Set<Bit> sinkCandidates, Function<Bit, Integer> weights) {
+            List<Bit> bitList = new ArrayList<>();
+            this.bitIndex = new HashMap<>();
+            Set<Bit> alreadyVisited = new HashSet<>();
+            for (Set<Bit> candidates : Arrays.asList(sourceCandidates, sinkCandidates)) {
+                for (Bit bit : candidates) {
+                    bl.walkBits(bit, b -> {
+                        bitIndex.put(b, bitList.size());
+                        bitList.add(b);
+                    }, b -> false, alreadyVisited);
+                }
+            }
+            this.bits = bitList.toArray(new Bit[0]);
+            int n = bits.length;
+            this.source = 2 * n;
+            this.sink = 2 * n + 1;
+
+            // count the edges per node, every edge is stored together with its reverse edge
+            int[] degree = new int[2 * n + 2];
+            for (int i = 0; i < n; i++) {
+                degree[2 * i]++;
+                degree[2 * i + 1]++;
+                for (Bit d : bits[i].deps()) {
+                    if (d != bits[i]) {
+                        degree[2 * i + 1]++;
+                        degree[2 * bitIndex.get(d)]++;
+                    }
+                }
+            }
+            for (Bit b : sourceCandidates) {
+                degree[source]++;
+                degree[2 * bitIndex.get(b)]++;
+            }
+            for (Bit b : sinkCandidates) {
+                degree[2 * bitIndex.get(b) + 1]++;
+                degree[sink]++;
+            }
+            this.firstEdge = new int[2 * n + 3];
+            for (int v = 0; v < 2 * n + 2; v++) {
+                firstEdge[v + 1] = firstEdge[v] + degree[v];
+            }
+            int m = firstEdge[2 * n + 2];
+            this.to = new int[m];
+            this.rev = new int[m];
+            this.capacity = new long[m];
+            this.sourceEdge = new int[n];
+            this.sinkEdge = new int[n];
+            Arrays.fill(sourceEdge, -1);
+            Arrays.fill(sinkEdge, -1);
+
+            int[] fill = Arrays.copyOf(firstEdge, 2 * n + 2);
+            for (int i = 0; i < n; i++) {
+                int weight = weights.apply(bits[i]);
+                addEdge(fill, 2 * i, 2 * i + 1, weight == INFTY ? INF : weight);
+                for (Bit d : bits[i].deps()) {
+                    if (d != bits[i]) {
+                        addEdge(fill, 2 * i + 1, 2 * bitIndex.get(d), INF);
+                    }
+                }
+            }
+            for (Bit b : sourceCandidates) {
+                int i = bitIndex.get(b);
+                sourceEdge[i] = addEdge(fill, source, 2 * i, 0);
+            }
+            for (Bit b : sinkCandidates) {
+                int i = bitIndex.get(b);
+                sinkEdge[i] = addEdge(fill, 2 * i + 1, sink, 0);
+            }
+        }
+
+        private int addEdge(int[] fill, int from, int target, long cap) {
+            int e = fill[from]++;
+            int r = fill[target]++;
+            to[e] = target;
+            rev[e] = r;
+            capacity[e] = cap;
+            to[r] = from;
+            rev[r] = e;
+            capacity[r] = 0;
+            return e;
+        }
+
+        /**
+         * Computes a maximum flow between the given sources and sinks, which have to be candidates of this network.
+         *
+         * @param start a flow of this network whose sources are a subset of the given sources, or {@code null}.
+         *              Its flow into sinks that are not part of the given sinks is cancelled first.
+         */
+        public Flow maxFlow(Set<Bit> sources, Set<Bit> sinks, Flow start) {
+            long[] cap = capacity.clone();
+            for (Bit b : sources) {
+                cap[sourceEdge[bitIndex.get(b)]] = INF;
+            }
+            for (Bit b : sinks) {
+                cap[sinkEdge[bitIndex.get(b)]] = INF;
+            }
+            long[] flow;
+            long value = 0;
+            if (start != null && !start.isInfinite()) {
+                flow = start.flow.clone();
+                value = start.value;
+                for (int i = 0; i < bits.length; i++) {
+                    if (sinkEdge[i] >= 0 && cap[sinkEdge[i]] == 0 && flow[sinkEdge[i]] > 0) {
+                        value -= cancelFlow(flow, sinkEdge[i]);
+                    }
+                }
+            } else {
+                flow = new long[capacity.length];
+            }
+
+            int[] level = new int[firstEdge.length - 1];
+            int[] current = new int[firstEdge.length - 1];
+            int[] queue = new int[firstEdge.length - 1];
+            int[] pathEdges = new int[firstEdge.length - 1];
+            while (value < INFTY && buildLevels(cap, flow, level, queue)) {
+                System.arraycopy(firstEdge, 0, current, 0, current.length);
+                long pushed;
+                while (value < INFTY && (pushed = augment(cap, flow, level, current, pathEdges)) > 0) {
+                    value += pushed;
+                }
+            }
+            return new Flow(this, sources, sinks, cap, flow, value);
+        }
+
+        /**
+         * Removes all flow on the given sink edge, by reducing the flow along paths from the source
+         * that carry flow into it.
+         */
+        private long cancelFlow(long[] flow, int sinkEdge) {
+            int end = to[rev[sinkEdge]];
+            long cancelled = 0;
+            int[] pred = new int[firstEdge.length - 1];
+            int[] stack = new int[firstEdge.length - 1];
+            while (flow[sinkEdge] > 0) {
+                // search backwards along edges with positive flow, the edge rev[e] from u to v carries flow
+                // iff flow[e] < 0 for the edge e from v to u
+                Arrays.fill(pred, -1);
+                int size = 0;
+                stack[size++] = end;
+                pred[end] = -2;
+                while (size > 0 && pred[source] == -1) {
+                    int v = stack[--size];
+                    for (int e = firstEdge[v]; e < firstEdge[v + 1]; e++) {
+                        int u = to[e];
+                        if (flow[e] < 0 && pred[u] == -1) {
+                            pred[u] = rev[e];
+                            stack[size++] = u;
+                        }
+                    }
+                }
+                if (pred[source] == -1) {
+                    throw new IllegalStateException("flow into " + bits[end / 2] + " does not come from the source");
+                }
+                long delta = flow[sinkEdge];
+                for (int v = source; v != end; v = to[pred[v]]) {
+                    delta = Math.min(delta, flow[pred[v]]);
+                }
+                for (int v = source; v != end; v = to[pred[v]]) {
+                    flow[pred[v]] -= delta;
+                    flow[rev[pred[v]]] += delta;
+                }
+                flow[sinkEdge] -= delta;
+                flow[rev[sinkEdge]] += delta;
+                cancelled += delta;
+            }
+            return cancelled;
+        }
+
+        private boolean buildLevels(long[] cap, long[] flow, int[] level, int[] queue) {
+            Arrays.fill(level, -1);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            level[source] = 0;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int e = firstEdge[v]; e < firstEdge[v + 1]; e++) {
+                    if (level[to[e]] < 0 && cap[e] - flow[e] > 0) {
+                        level[to[e]] = level[v] + 1;
+                        queue[tail++] = to[e];
+                    }
+                }
+            }
+            return level[sink] >= 0;
+        }
+
+        /**
+         * Finds one path in the level graph (iteratively, bit graphs can be deep) and pushes its bottleneck.
+         *
+         * @return the pushed flow, 0 if the level graph is blocked
+         */
+        private long augment(long[] cap, long[] flow, int[] level, int[] current, int[] pathEdges) {
+            int depth = 0;
+            int v = source;
+            while (true) {
+                if (v == sink) {
+                    long delta = INF;
+                    for (int i = 0; i < depth; i++) {
+                        delta = Math.min(delta, cap[pathEdges[i]] - flow[pathEdges[i]]);
+                    }
+                    for (int i = 0; i < depth; i++) {
+                        flow[pathEdges[i]] += delta;
+                        flow[rev[pathEdges[i]]] -= delta;
+                    }
+                    return delta;
+                }
+                boolean advanced = false;
+                for (; current[v] < firstEdge[v + 1]; current[v]++) {
+                    int e = current[v];
+                    if (level[to[e]] == level[v] + 1 && cap[e] - flow[e] > 0) {
+                        pathEdges[depth++] = e;
+                        v = to[e];
+                        advanced = true;
+                        break;
+                    }
+                }
+                if (!advanced) {
+                    if (depth == 0) {
+                        return 0;
+                    }
+                    // dead end, never visit it again in this phase
+                    level[v] = -1;
+                    v = to[rev[pathEdges[--depth]]];
+                    current[v]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * A maximum flow in a {@link BitFlowNetwork}
+     */
+    public static class Flow {
+
+        private final BitFlowNetwork network;
+        private final Set<Bit> sources;
+        private final Set<Bit> sinks;
+        private final long[] capacity;
+        private final long[] flow;
+        private final long value;
+
+        private Flow(BitFlowNetwork network, Set<Bit> sources, Set<Bit> sinks, long[] capacity, long[] flow, long value) {
+            this.network = network;
+            this.sources = sources;
+            this.sinks = sinks;
+            this.capacity = capacity;
+            this.flow = flow;
+            this.value = value;
+        }
+
+        public boolean isInfinite() {
+            return value >= INFTY;
+        }
+
+        /**
+         * The bits whose inner edge leaves the part of the residual graph that is reachable from the source.
+         * Like {@link GraphTPP}, the leakage is bounded by the number of sources and sinks, the smaller
+         * of both sets is the cut if the flow exceeds this bound.
+         */
+        public ComputationResult toResult() {
+            long bound = Math.min(sources.size(), sinks.size());
+            if (value > bound) {
+                return new ComputationResult(sources.size() <= sinks.size() ? sources : sinks, bound);
+            }
+            BitFlowNetwork net = network;
+            boolean[] reachable = new boolean[net.firstEdge.length - 1];
+            int[] queue = new int[reachable.length];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = net.source;
+            reachable[net.source] = true;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int e = net.firstEdge[v]; e < net.firstEdge[v + 1]; e++) {
+                    if (!reachable[net.to[e]] && capacity[e] - flow[e] > 0) {
+                        reachable[net.to[e]] = true;
+                        queue[tail++] = net.to[e];
+                    }
+                }
+            }
+            Set<Bit> minCut = new HashSet<>();
+            for (int i = 0; i < net.bits.length; i++) {
+                if (reachable[2 * i] && !reachable[2 * i + 1]) {
+                    minCut.add(net.bits[i]);
+                }
+            }
+            return new ComputationResult(minCut, value);
+        }
+    }
+
+    public static class Dinic extends Algorithm {
+
+        protected Dinic(Set<Bit> sourceNodes, Set<Bit> sinkNodes, Function<Bit, Integer> weights) {
+            super(sourceNodes, sinkNodes, weights);
+        }
+
+        @Override
+        public ComputationResult compute() {
+            return new BitFlowNetwork(sourceNodes, sinkNodes, weights).maxFlow(sourceNodes, sinkNodes, null).toResult();
+        }
+
+        /**
+         * Computes the cuts of all levels on a single network. Incomparable levels are computed in parallel,
+         * every other level starts with the flow of one of its direct predecessors in the lattice: its sources
+         * are a superset and its sinks a subset of the sources and sinks of the predecessor.
+         */
+        static Map<Sec<?>, ComputationResult> computeAll(Context context) {
+            return computeAll(context, context.sl);
+        }
+
+        /**
+         * Captures the element type of the lattice, so that its levels can be compared
+         */
+        private static <T extends Sec<?>> Map<Sec<?>, ComputationResult> computeAll(Context context,
+                SecurityLattice<T> lattice) {
+            List<T> levels = lattice.elements().stream()
+                    .filter(s -> s != lattice.top())
+                    .collect(Collectors.toList());
+            Map<Sec<?>, Set<Bit>> sources = new HashMap<>();
+            Map<Sec<?>, Set<Bit>> sinks = new HashMap<>();
+            Set<Bit> allSources = new HashSet<>();
+            Set<Bit> allSinks = new HashSet<>();
+            for (T sec : levels) {
+                sources.put(sec, context.sources(sec));
+                sinks.put(sec, context.sinks(sec));
+                allSources.addAll(sources.get(sec));
+                allSinks.addAll(sinks.get(sec));
+            }
+            BitFlowNetwork network = new BitFlowNetwork(allSources, allSinks, context::weight);
+
+            // a level comes after all levels below it: sort by the number of levels below or equal to it
+            Map<T, Long> rank = new HashMap<>();
+            for (T sec : levels) {
+                rank.put(sec, levels.stream().filter(t -> lattice.lowerEqualsThan(t, sec)).count());
+            }
+            levels.sort(Comparator.comparingLong(rank::get));
+            Map<Sec<?>, CompletableFuture<Flow>> flows = new HashMap<>();
+            for (T sec : levels) {
+                Optional<T> pred = levels.stream()
+                        .filter(t -> t != sec && lattice.lowerEqualsThan(t, sec))
+                        .filter(t -> levels.stream().noneMatch(u -> u != t && u != sec
+                                && lattice.lowerEqualsThan(t, u) && lattice.lowerEqualsThan(u, sec)))
+                        .findFirst();
+                CompletableFuture<Flow> start = pred.isPresent() ? flows.get(pred.get())
+                        : CompletableFuture.completedFuture(null);
+                flows.put(sec, start.thenApplyAsync(f -> network.maxFlow(sources.get(sec), sinks.get(sec), f)));
+            }
+
+            Map<Sec<?>, ComputationResult> results = new HashMap<>();
+            for (T sec : lattice.elements()) {
+                results.put(sec, sec == lattice.top() ? new ComputationResult(Collections.emptySet(), 0)
+                        : flows.get(sec).join().toResult());
+            }
+            return results;
+        }
+    }
+
     /**
      * Choose the algorithm by setting the static {@link MinCut#usedAlgo} variable
      */
@@ -690,6 +1083,9 @@ public class MinCut {
                 break;
             case EK_APPROX:
                 cur = new ApproxEdmondsKarp(sourceNodes, sinkNodes, weights);
+                break;
+            case DINIC:
+                cur = new Dinic(sourceNodes, sinkNodes, weights);
         }
         return cur.compute();
     }
@@ -705,6 +1101,9 @@ public class MinCut {
     private static Context con;
 
     public static Map<Sec<?>, ComputationResult> compute(Context context){
+        if (usedAlgo == Algo.DINIC){
+            return Dinic.computeAll(context);
+        }
         return context.sl.elements().stream()
                 .collect(Collectors.toMap(s -> (Sec<?>)s, s -> s == context.sl.top() ?
                         new ComputationResult(Collections.emptySet(), 0) :
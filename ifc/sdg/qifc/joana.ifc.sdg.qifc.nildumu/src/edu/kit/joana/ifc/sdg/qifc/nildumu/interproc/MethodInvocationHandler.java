@@ -108,10 +108,11 @@ public abstract class MethodInvocationHandler {
         examplePropLines.add("handler=inlining;maxrec=2;bot=all");
         examplePropLines.add("handler=inlining;maxrec=2;bot=summary");
         Consumer<HandlerConfigSchema> propSchemeCreator = s ->
-                s.add("reduction", "mincut").add("dot", "").add("csmaxrec", "2");
+                s.add("reduction", "mincut").add("dot", "").add("csmaxrec", "2").add("store", "");
         register("summary", propSchemeCreator, ps -> {
             Path dotFolder = ps.getProperty("dot").equals("") ? null : Paths.get(ps.getProperty("dot"));
-            return new SummaryHandler(dotFolder, SummaryHandler.Reduction.valueOf(ps.getProperty("reduction").toUpperCase()), Integer.parseInt(ps.getProperty("csmaxrec")));
+            Path storeFolder = ps.getProperty("store").equals("") ? null : Paths.get(ps.getProperty("store"));
+            return new SummaryHandler(dotFolder, SummaryHandler.Reduction.valueOf(ps.getProperty("reduction").toUpperCase()), Integer.parseInt(ps.getProperty("csmaxrec")), storeFolder);
         });
         examplePropLines.add("handler=summary;reduction=basic");
         examplePropLines.add("handler=summary;reduction=mincut");
@@ -12,6 +12,7 @@ import static edu.kit.joana.ifc.sdg.qifc.nildumu.BasicLogger.log;
 import static edu.kit.joana.ifc.sdg.qifc.nildumu.Context.INFTY;
 import static edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.ds;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -52,6 +53,9 @@ import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Util.Box;
  * depend upon.
  * And improved version (mincut reduction) includes the minimal cut bits of the bit graph from
  * the return to the parameter bits, assuming that the return bits have infinite weights.
+ * <p/>
+ * The reduced graphs can be stored in a folder ({@link SummaryStore}), later setups load the summaries
+ * of unchanged methods from it and skip their analysis.
  */
 public class SummaryHandler extends MethodInvocationHandler {
 
@@ -66,6 +70,11 @@ public class SummaryHandler extends MethodInvocationHandler {
 
     final int callStringMaxRec;
 
+    /**
+     * folder of the {@link SummaryStore}, {@code null} if summaries are not stored
+     */
+    final Path storeFolder;
+
     Map<Method, BitGraph> methodGraphs;
 
     Dominators<Method> callGraph;
@@ -73,9 +82,14 @@ public class SummaryHandler extends MethodInvocationHandler {
     Map<Method, CallSite> callSites;
 
     public SummaryHandler(Path dotFolder, SummaryHandler.Reduction reductionMode, int callStringMaxRec) {
+        this(dotFolder, reductionMode, callStringMaxRec, null);
+    }
+
+    public SummaryHandler(Path dotFolder, SummaryHandler.Reduction reductionMode, int callStringMaxRec, Path storeFolder) {
         this.reductionMode = reductionMode;
         this.callStringMaxRec = callStringMaxRec;
         this.dotFolder = dotFolder;
+        this.storeFolder = storeFolder;
     }
 
     @Override
@@ -86,11 +100,16 @@ public class SummaryHandler extends MethodInvocationHandler {
         });
         DotRegistry.get().storeFiles();
         Context c = program.context;
+        SummaryStore store = storeFolder == null ? null :
+                new SummaryStore(storeFolder, reductionMode, callStringMaxRec, program.intWidth, callGraph);
+        Map<Method, String> keys = new HashMap<>();
+        // summaries of the stored methods are already fix points
+        Map<Method, BitGraph> loaded = new HashMap<>();
         Map<Node<Method>, BitGraph> state = new HashMap<>();
         MethodInvocationHandler handler = createHandler(m -> state.get(callGraph.getNodeForElement(m)));
         Box<Integer> iteration = new Box<>(0);
         callGraph.<BitGraph>worklist((node, s) -> {
-            if (node.isEntryNode()){
+            if (node.isEntryNode() || loaded.containsKey(node.getElem())){
                 return s.get(node);
             }
             iteration.val += 1;
@@ -109,6 +128,16 @@ public class SummaryHandler extends MethodInvocationHandler {
                     () -> () -> reducedGraph.createDotGraph("", false));
             return reducedGraph;
         }, node ->  {
+            if (store != null && !node.isEntryNode()){
+                String key = keys.computeIfAbsent(node.getElem(), store::key);
+                BitGraph storedGraph = key == null ? null :
+                        store.load(c, key, generateParameters(program, node.getElem()));
+                if (storedGraph != null){
+                    log(() -> String.format("loaded summary of %s", node.getElem().toBCString()));
+                    loaded.put(node.getElem(), storedGraph);
+                    return storedGraph;
+                }
+            }
             BitGraph graph = bot(program, node.getElem());
             String name = String.format("%3d %s", iteration.val, node.getElem().toBCString());
             if (dotFolder != null){
@@ -121,6 +150,20 @@ public class SummaryHandler extends MethodInvocationHandler {
         , node -> node.getIns().stream().filter(n -> !n.isEntryNode()).collect(Collectors.toSet()),
         state);
         methodGraphs = state.entrySet().stream().collect(Collectors.toMap(e -> e.getKey().getElem(), Map.Entry::getValue));
+        if (store != null){
+            state.forEach((node, graph) -> {
+                String key = keys.get(node.getElem());
+                if (node.isEntryNode() || key == null || loaded.containsKey(node.getElem())){
+                    return;
+                }
+                try {
+                    store.store(key, graph);
+                } catch (IOException e) {
+                    // the summary is computed again by the next analysis
+                    log(() -> String.format("could not store summary of %s: %s", node.getElem().toBCString(), e));
+                }
+            });
+        }
     }
 
     BitGraph bot(Program program, Method method){
@@ -0,0 +1,292 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+
+package edu.kit.joana.ifc.sdg.qifc.nildumu.interproc;
+
+import static edu.kit.joana.ifc.sdg.qifc.nildumu.BasicLogger.log;
+import static edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.bl;
+import static edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.vl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import com.ibm.wala.classLoader.IBytecodeMethod;
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.shrikeCT.InvalidClassFileException;
+import com.ibm.wala.ssa.SSAInstruction;
+
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Context;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Dominators;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Method;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.B;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Bit;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.Lattices.Value;
+import edu.kit.joana.ifc.sdg.qifc.nildumu.util.Pair;
+import edu.kit.joana.util.io.AtomicFiles;
+
+/**
+ * Stores the reduced bit graphs of the {@link SummaryHandler} on disk, so that later analyses of programs
+ * that share methods do not have to run the fix point iteration for them again.
+ * <p/>
+ * The key of a summary is a hash over the handler configuration (reduction mode and {@code csmaxrec}),
+ * the integer width of the program, the signature of the method and the bytecode of the method and of all
+ * methods that it calls transitively. The summary of a method depends on the summaries of its callees, so
+ * a changed callee invalidates the summaries of all its callers.
+ * <p/>
+ * A summary is stored as a list of bits: parameter bits are stored as their position, all other bits as
+ * their value and the indices of their dependencies. Loading a summary creates new bits for new parameter
+ * values.
+ */
+class SummaryStore {
+
+    /**
+     * Part of every key. Increment whenever the summary computation or the file format changes.
+     */
+    private static final int VERSION = 1;
+
+    private static final String SUFFIX = ".summary";
+
+    private static final byte PARAM_BIT = 0;
+    private static final byte OTHER_BIT = 1;
+
+    private final Path directory;
+
+    private final String configuration;
+
+    private final Dominators<Method> callGraph;
+
+    /**
+     * hashes the bytecode of a method, returns {@code null} if the method has no bytecode
+     */
+    private final Function<Method, String> bytecodeHash;
+
+    /**
+     * method → hash of its bytecode, {@code null} if the method has no bytecode
+     */
+    private final Map<Method, String> bytecodeHashes = new HashMap<>();
+
+    SummaryStore(Path directory, SummaryHandler.Reduction reductionMode, int callStringMaxRec, int intWidth,
+                 Dominators<Method> callGraph) {
+        this(directory, reductionMode, callStringMaxRec, intWidth, callGraph, SummaryStore::bytecodeHash);
+    }
+
+    SummaryStore(Path directory, SummaryHandler.Reduction reductionMode, int callStringMaxRec, int intWidth,
+                 Dominators<Method> callGraph, Function<Method, String> bytecodeHash) {
+        this.directory = directory;
+        this.configuration = String.format("version=%d;reduction=%s;csmaxrec=%d;intwidth=%d",
+                VERSION, reductionMode, callStringMaxRec, intWidth);
+        this.callGraph = callGraph;
+        this.bytecodeHash = bytecodeHash;
+    }
+
+    /**
+     * Returns the key of the summary of the passed method or {@code null} if the bytecode of the method or of
+     * one of its callees is not available
+     */
+    String key(Method method) {
+        MessageDigest digest = newDigest();
+        update(digest, configuration);
+        update(digest, method.toBCString());
+        // the same transitive callees always result in the same sorted list
+        Set<String> callees = new TreeSet<>();
+        Set<Method> visited = new HashSet<>();
+        Deque<Method> todo = new ArrayDeque<>();
+        todo.push(method);
+        while (!todo.isEmpty()) {
+            Method cur = todo.pop();
+            if (!visited.add(cur)) {
+                continue;
+            }
+            String hash = cur == null ? null : bytecodeHashes.computeIfAbsent(cur, bytecodeHash);
+            if (hash == null) {
+                return null;
+            }
+            callees.add(cur.toBCString() + "=" + hash);
+            callGraph.getNextElems(cur).forEach(todo::push);
+        }
+        callees.forEach(c -> update(digest, c));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Loads the summary stored under the passed key
+     *
+     * @param parameters new parameter values of the method
+     * @return the summary or {@code null} if there is none or it cannot be read
+     */
+    BitGraph load(Context context, String key, List<Value> parameters) {
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != VERSION || in.readInt() != parameters.size()) {
+                return null;
+            }
+            for (Value parameter : parameters) {
+                if (in.readInt() != parameter.size()) {
+                    return null;
+                }
+            }
+            int bitCount = in.readInt();
+            Bit[] bits = new Bit[bitCount];
+            int[][] deps = new int[bitCount][];
+            for (int i = 0; i < bitCount; i++) {
+                byte kind = in.readByte();
+                switch (kind) {
+                    case PARAM_BIT:
+                        int param = in.readInt();
+                        bits[i] = parameters.get(param).get(in.readInt());
+                        break;
+                    case OTHER_BIT:
+                        bits[i] = bl.create(B.valueOf(in.readUTF()));
+                        deps[i] = new int[in.readInt()];
+                        for (int j = 0; j < deps[i].length; j++) {
+                            deps[i][j] = in.readInt();
+                        }
+                        break;
+                    default:
+                        return null;
+                }
+            }
+            // dependencies are added afterwards, the bits of a summary might depend on each other,
+            // constant bits ignore them
+            for (int i = 0; i < bitCount; i++) {
+                if (deps[i] != null) {
+                    for (int dep : deps[i]) {
+                        bits[i].addDependency(bits[dep]);
+                    }
+                }
+            }
+            List<Bit> returnBits = new ArrayList<>();
+            int returnSize = in.readInt();
+            for (int i = 0; i < returnSize; i++) {
+                returnBits.add(bits[in.readInt()]);
+            }
+            return new BitGraph(context, parameters, new Value(returnBits));
+        } catch (IOException | RuntimeException e) {
+            // a broken entry is treated like a missing one and overwritten by the next store
+            log(() -> String.format("could not read summary %s: %s", file, e));
+            return null;
+        }
+    }
+
+    /**
+     * Stores the summary under the passed key. The summary is written with {@link AtomicFiles#write}, so
+     * concurrent analyses never see a partially written summary.
+     */
+    void store(String key, BitGraph graph) throws IOException {
+        Map<Bit, Pair<Integer, Integer>> paramPositions = new HashMap<>();
+        for (int i = 0; i < graph.parameters.size(); i++) {
+            Value param = graph.parameters.get(i);
+            for (int j = 1; j <= param.size(); j++) {
+                paramPositions.putIfAbsent(param.get(j), new Pair<>(i, j));
+            }
+        }
+        Map<Bit, Integer> index = new HashMap<>();
+        List<Bit> bits = new ArrayList<>();
+        vl.walkBits(graph.returnValue, b -> {
+            index.put(b, bits.size());
+            bits.add(b);
+        });
+
+        Files.createDirectories(directory);
+        AtomicFiles.write(directory.resolve(key + SUFFIX), stream -> {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(VERSION);
+            out.writeInt(graph.parameters.size());
+            for (Value parameter : graph.parameters) {
+                out.writeInt(parameter.size());
+            }
+            out.writeInt(bits.size());
+            for (Bit bit : bits) {
+                if (paramPositions.containsKey(bit)) {
+                    out.writeByte(PARAM_BIT);
+                    out.writeInt(paramPositions.get(bit).first);
+                    out.writeInt(paramPositions.get(bit).second);
+                } else {
+                    out.writeByte(OTHER_BIT);
+                    out.writeUTF(bit.val().name());
+                    out.writeInt(bit.deps().size());
+                    for (Bit dep : bit.deps()) {
+                        out.writeInt(index.get(dep));
+                    }
+                }
+            }
+            out.writeInt(graph.returnValue.size());
+            for (int i = 1; i <= graph.returnValue.size(); i++) {
+                out.writeInt(index.get(graph.returnValue.get(i)));
+            }
+            out.flush();
+        });
+    }
+
+    /**
+     * Hashes the bytecode of the method, or its SSA instructions if it is not a bytecode method
+     */
+    static String bytecodeHash(Method method) {
+        if (method.ir == null) {
+            return null;
+        }
+        MessageDigest digest = newDigest();
+        IMethod m = method.ir.getMethod();
+        if (m instanceof IBytecodeMethod) {
+            try {
+                for (Object instruction : ((IBytecodeMethod<?>) m).getInstructions()) {
+                    update(digest, String.valueOf(instruction));
+                }
+                return toHex(digest.digest());
+            } catch (InvalidClassFileException e) {
+                return null;
+            }
+        }
+        for (SSAInstruction instruction : method.ir.getInstructions()) {
+            update(digest, String.valueOf(instruction));
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String str) {
+        digest.update((str + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.amihaiemil.eoyaml.YamlSequence;
+
+import edu.kit.joana.ui.ifc.wala.console.console.IFCConsole;
+import edu.kit.joana.ui.ifc.wala.console.io.PrintStreamConsoleWrapper;
+import edu.kit.joana.ui.ifc.wala.console.test.entrypoints.Entries;
+import edu.kit.joana.util.io.IOFactory;
+
+/**
+ * Checks that runEntryPointsYAMLParallel writes one YAML sequence with the same items as runEntryPointsYAML.
+ */
+public class EntryPointsYAMLTest {
+
+	private static final String PATTERN = Entries.class.getName().replace(".", "\\.") + "\\..*";
+
+	private static IFCConsole newConsole() throws URISyntaxException {
+		BufferedReader in = new BufferedReader(IOFactory.createUTF8ISReader(System.in));
+		IFCConsole console = new IFCConsole(in, new PrintStreamConsoleWrapper(System.out, System.out, in, System.out, System.out));
+		console.setClasspath(new File(Entries.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+		return console;
+	}
+
+	private static YamlSequence parse(ByteArrayOutputStream bytes) throws IOException {
+		return Yaml.createYamlInput(bytes.toString("UTF-8")).readYamlSequence();
+	}
+
+	private static List<String> items(YamlSequence seq) {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < seq.size(); i++) {
+			items.add(seq.yamlMapping(i).toString());
+		}
+		Collections.sort(items);
+		return items;
+	}
+
+	private static PrintStream print(ByteArrayOutputStream bytes) throws UnsupportedEncodingException {
+		return new PrintStream(bytes, true, "UTF-8");
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws IOException, URISyntaxException {
+		ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		Assert.assertTrue(newConsole().useEntryPointsYAML(print(sequential), PATTERN));
+		ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+		Assert.assertTrue(newConsole().useEntryPointsYAMLParallel(print(parallel), PATTERN, 3, 0));
+
+		YamlSequence expected = parse(sequential);
+		YamlSequence actual = parse(parallel);
+		Assert.assertEquals(3, expected.size());
+		Assert.assertEquals(expected.size(), actual.size());
+		// the parallel analysis writes the items in the order of completion
+		Assert.assertEquals(items(expected), items(actual));
+	}
+}
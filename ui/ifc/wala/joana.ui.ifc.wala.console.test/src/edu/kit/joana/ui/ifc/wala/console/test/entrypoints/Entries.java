@@ -0,0 +1,41 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.test.entrypoints;
+
+import edu.kit.joana.ui.annotations.EntryPoint;
+import edu.kit.joana.ui.annotations.Sink;
+import edu.kit.joana.ui.annotations.Source;
+
+/**
+ * Entry points for {@link edu.kit.joana.ui.ifc.wala.console.test.EntryPointsYAMLTest}.
+ */
+public class Entries {
+
+	@Source(tags = {"direct", "indirect", "secure"})
+	public static int secret;
+
+	@Sink(tags = {"direct", "indirect", "secure"})
+	public static int output;
+
+	@EntryPoint(tag = "direct")
+	public static void direct() {
+		output = secret;
+	}
+
+	@EntryPoint(tag = "indirect")
+	public static void indirect() {
+		if (secret > 0) {
+			output = 1;
+		}
+	}
+
+	@EntryPoint(tag = "secure")
+	public static void secure() {
+		output = 42;
+	}
+}
@@ -287,6 +287,14 @@ public class EntryLocator {
 			selectEntry(possibleEntries.indexOf(entry));
 	}
 
+	/**
+	 * Replaces the results of the last search by those of the given locator, without selecting an entry.
+	 */
+	public void adoptSearchResults(EntryLocator other) {
+		possibleEntries.clear();
+		possibleEntries.addAll(other.possibleEntries);
+	}
+
 	/**
 	 * Unselects the active entry.
 	 */
@@ -75,6 +75,12 @@ import javax.xml.stream.XMLStreamException;
 import java.io.*;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -115,6 +121,8 @@ public class IFCConsole {
 		USE_ENTRY_POINT("useEntryPoint", 1, "tag", "Select the entry point with the given tag, build the sdg, select sources and sinks with this tag"),
 		RUN_ENTRY_POINTS_YAML("runEntryPointsYAML", 0, 2, "<out file, '-' for std out, is the default> <pattern matching the entry points, optional, matches all if not present>",
 				"Stores the analysis results for the entry points in the passed file as YAML"),
+		RUN_ENTRY_POINTS_YAML_PARALLEL("runEntryPointsYAMLParallel", 0, 4, "<out file, '-' for std out, is the default> <pattern matching the entry points, optional, matches all if not present> <number of threads, optional, number of processors if not present> <memory per entry point in MB, optional>",
+				"Like runEntryPointsYAML, but analyzes the entry points concurrently and writes the result of each entry point as soon as it is available"),
 		SET_CLASSPATH(	"setClasspath", 		1, 		"<path>",
 							"Sets the class path for sdg generation. Can be for example a bin directory or a jar file."),
 		SET_EXCEPTIONS( "setExceptionAnalysis", 1, "<exception analysis type>", "Sets the type of exception analysis to perform during SDG construction. Possible values are: " + Arrays.toString(ExceptionAnalysis.values())),
@@ -352,11 +360,7 @@ public class IFCConsole {
 
 	// private SDG sdg;
 	private IFCAnalysis ifcAnalysis = null;
-	private String classPath = "bin";
-	private PointsToPrecision pointsTo = PointsToPrecision.INSTANCE_BASED;
-	private ExceptionAnalysis excAnalysis = ExceptionAnalysis.INTRAPROC;
-	private boolean computeInterference = false;
-	private MHPType mhpType = MHPType.NONE;
+	private Settings settings = new Settings();
 	// private IStaticLattice<String> securityLattice;
 	private final Collection<IViolation<SecurityNode>> lastAnalysisResult = new LinkedList<IViolation<SecurityNode>>();
 	private TObjectIntMap<IViolation<SDGProgramPart>> groupedIFlows = new TObjectIntHashMap<IViolation<SDGProgramPart>>();
@@ -365,28 +369,74 @@ public class IFCConsole {
 	private final List<IFCConsoleListener> consoleListeners = new LinkedList<IFCConsoleListener>();
 	private IProgressMonitor monitor = NullProgressMonitor.INSTANCE;
 	private final SDGMethodSelector methodSelector = new SDGMethodSelector(this);
-	private IStaticLattice<String> secLattice = IFCAnalysis.stdLattice;
 	private final CommandRepository repo = new CommandRepository();
 	private final String outputDirectory = "./";
-	private String latticeFile;
-	private Stubs stubsPath = Stubs.JRE_15;
 	private boolean recomputeSDG = true;
-	private ChopComputation chopComputation = ChopComputation.ALL;
-	private boolean onlyDirectFlow = false; 
 	
 	private final List<String> script = new LinkedList<String>();
-	protected IFCType type = IFCType.CLASSICAL_NI;
-	protected boolean isTimeSensitive = false;
-	private PruningPolicy pruningPolicy = PruningPolicy.APPLICATION;
-	private boolean useByteCodeOptimizations = false;
-	private String optLibPath = "";
 	private SetValueStore setValueStore = new SetValueStore();
 	private Map<SDGProgramPart, Pair<String, ValueToSet.Mode>> valuesToSet = new HashMap<>();
 	private String classPathAfterOpt = null;
+	/* scope, class hierarchy and irs of the class path, shared by the consoles of runEntryPointsYAMLParallel */
+	private ClassHierarchyCache.Entry sharedClassHierarchy = null;
+
+	/**
+	 * The analysis options of a console. {@link IFCConsole#fork(IFCConsoleOutput)} hands a copy to each forked console.
+	 */
+	private static final class Settings implements Cloneable {
+		/* the default matcher, for which the sdg is built with the default options and can be cached */
+		private static final UninitializedFieldHelperOptions.FieldTypeMatcher NO_UNINITIALIZED_FIELDS = typeReference -> false;
+
+		private String classPath = "bin";
+		private PointsToPrecision pointsTo = PointsToPrecision.INSTANCE_BASED;
+		private ExceptionAnalysis excAnalysis = ExceptionAnalysis.INTRAPROC;
+		private boolean computeInterference = false;
+		private MHPType mhpType = MHPType.NONE;
+		private IStaticLattice<String> secLattice = IFCAnalysis.stdLattice;
+		private String latticeFile;
+		private Stubs stubsPath = Stubs.JRE_15;
+		private ChopComputation chopComputation = ChopComputation.ALL;
+		private boolean onlyDirectFlow = false;
+		private IFCType type = IFCType.CLASSICAL_NI;
+		private boolean isTimeSensitive = false;
+		private PruningPolicy pruningPolicy = PruningPolicy.APPLICATION;
+		private boolean useByteCodeOptimizations = false;
+		private String optLibPath = "";
+		/**
+		 * @see UninitializedFieldHelperOptions
+		 */
+		private UninitializedFieldHelperOptions.FieldTypeMatcher uninitializedFieldTypeMatcher = NO_UNINITIALIZED_FIELDS;
+
+		private Settings copy() {
+			try {
+				return (Settings) clone();
+			} catch (CloneNotSupportedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
 	/**
-	 * @see UninitializedFieldHelperOptions
+	 * The progress monitor of a forked console: it is canceled with the monitor of the console it was forked from,
+	 * but does not report the progress of its worker to that monitor, which is not meant to be shared by threads.
 	 */
-	private UninitializedFieldHelperOptions.FieldTypeMatcher uninitializedFieldTypeMatcher = typeReference -> false;
+	private static final class ForkedProgressMonitor extends NullProgressMonitor {
+		private final IProgressMonitor parent;
+
+		private ForkedProgressMonitor(IProgressMonitor parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || parent.isCanceled();
+		}
+
+		@Override
+		public String getCancelMessage() {
+			return (parent.isCanceled() ? parent.getCancelMessage() : super.getCancelMessage());
+		}
+	}
 
 	public IFCConsole(BufferedReader in, IFCConsoleOutput out) {
 		this.in = in;
@@ -488,6 +538,35 @@ public class IFCConsole {
 		};
 	}
 	
+	private Command makeCommandRunEntryPointsYAMLParallel() {
+		return new Command(CMD.RUN_ENTRY_POINTS_YAML_PARALLEL) {
+
+			@Override
+			boolean execute(String[] args) {
+				int threads = Runtime.getRuntime().availableProcessors();
+				if (args.length > 3) {
+					Integer i = parseInteger(args[3]);
+					if (i == null || i < 1) {
+						out.error("Invalid number of threads: " + args[3]);
+						return false;
+					}
+					threads = i;
+				}
+				long memoryPerEntry = 0;
+				if (args.length > 4) {
+					Integer mb = parseInteger(args[4]);
+					if (mb == null || mb < 1) {
+						out.error("Invalid memory per entry point: " + args[4]);
+						return false;
+					}
+					memoryPerEntry = mb * 1024L * 1024L;
+				}
+				return useEntryPointsYAMLParallel(args.length == 1 ? "-" : args[1], args.length <= 2 ? ".*" : args[2],
+						threads, memoryPerEntry);
+			}
+		};
+	}
+
 	private Command makeCommandSelectEntry() {
 		return new Command(CMD.SELECT_ENTRY) {
 
@@ -523,7 +602,7 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				setClasspath(args[1]);
-				out.logln("classPath = " + classPath);
+				out.logln("classPath = " + settings.classPath);
 				return true;
 			}
 
@@ -578,8 +657,8 @@ public class IFCConsole {
 		return new Command(CMD.USE_BYTE_CODE_OPTIMIZATION) {
 			@Override boolean execute(String[] args) {
 				String arg = args.length == 2 ? args[1] : "";
-				useByteCodeOptimizations = !arg.equals("false");
-				optLibPath = arg;
+				settings.useByteCodeOptimizations = !arg.equals("false");
+				settings.optLibPath = arg;
 				return true;
 			}
 		};
@@ -602,7 +681,7 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				setPointsTo(args[1]);
-				out.logln("points-to = " + pointsTo.desc);
+				out.logln("points-to = " + settings.pointsTo.desc);
 				return true;
 			}
 
@@ -615,7 +694,7 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				setExceptionAnalysis(args[1]);
-				out.logln("exceptionAnalysis = " + excAnalysis.desc);
+				out.logln("exceptionAnalysis = " + settings.excAnalysis.desc);
 				return true;
 			}
 
@@ -628,7 +707,7 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				setMHPType(args[1]);
-				out.logln("mhpAnalysis = " + mhpType);
+				out.logln("mhpAnalysis = " + settings.mhpType);
 				return true;
 			}
 
@@ -690,7 +769,7 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				if (args.length == 1) {
-					return buildSDG(IFCConsole.this.computeInterference, IFCConsole.this.mhpType, IFCConsole.this.excAnalysis);
+					return buildSDG(settings.computeInterference, settings.mhpType, settings.excAnalysis);
 				} else if (args.length == 3) {
 					if ("true".equals(args[1])) {
 						return buildSDG(true, MHPType.valueOf(MHPType.class, args[2]), ExceptionAnalysis.INTERPROC);
@@ -846,7 +925,7 @@ public class IFCConsole {
 					out.error("'" + args[1] + "' is not a valid ifc type, use " + Arrays.toString(IFCType.values()));
 					return false;
 				}
-				type = newType;
+				settings.type = newType;
 				return true;
 			}
 		};
@@ -859,10 +938,10 @@ public class IFCConsole {
 			boolean execute(String[] args) {
 				switch (args[1]) {
 				case "true":
-					isTimeSensitive = true;
+					settings.isTimeSensitive = true;
 					break;
 				case "false":
-					isTimeSensitive = false;
+					settings.isTimeSensitive = false;
 					break;
 				default:
 					out.error("argument has to be either 'true' or 'false'");
@@ -880,12 +959,12 @@ public class IFCConsole {
 			boolean execute(String[] args) {
 				switch (args[1]) {
 				case "true":
-					recomputeSDG |= !onlyDirectFlow;
-					onlyDirectFlow = true;
+					recomputeSDG |= !settings.onlyDirectFlow;
+					settings.onlyDirectFlow = true;
 					break;
 				case "false":
-					recomputeSDG |= onlyDirectFlow;
-					onlyDirectFlow = false;
+					recomputeSDG |= settings.onlyDirectFlow;
+					settings.onlyDirectFlow = false;
 					break;
 				default:
 					out.error("argument has to be either 'true' or 'false'");
@@ -901,11 +980,11 @@ public class IFCConsole {
 			@Override
 			boolean execute(String[] args) {
 				if (args.length == 1) {
-					return doIFC(type, isTimeSensitive);
+					return doIFC(settings.type, settings.isTimeSensitive);
 				} else {
 					IFCType ifcType = parseIFCType(args[1]);
 					// standard value for time-sensitivity is false; only set to true if mentioned explicitly
-					boolean timeSens = (args.length > 2 && AVOID_TIME_TRAVEL.equals(args[2])) || (args.length <= 2 && isTimeSensitive);
+					boolean timeSens = (args.length > 2 && AVOID_TIME_TRAVEL.equals(args[2])) || (args.length <= 2 && settings.isTimeSensitive);
 
 					if (ifcType == null) {
 						out.error("unknown ifc type: " + args[1]);
@@ -1218,6 +1297,7 @@ public class IFCConsole {
 		repo.addCommand(makeCommandSelectSources());
 		repo.addCommand(makeCommandUseEntryPoint());
 		repo.addCommand(makeCommandRunEntryPointsYAML());
+		repo.addCommand(makeCommandRunEntryPointsYAMLParallel());
 		repo.addCommand(makeCommandSetTimeSensitivity());
 		repo.addCommand(makeCommandSetType());
 		repo.addCommand(makeCommandOnlyDirectFlow());
@@ -1426,7 +1506,7 @@ public class IFCConsole {
 
 	public boolean searchEntries() {
 		JavaMethodSignature oldSelected = loc.getActiveEntry();
-		boolean found = loc.doSearch(classPath, out);
+		boolean found = loc.doSearch(settings.classPath, out);
 		if (!found) {
 			out.error("No entry methods found.");
 			return false;
@@ -1446,7 +1526,7 @@ public class IFCConsole {
 		Pattern pat = pattern.isEmpty() ?
 				new Pattern() : 
 			new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE); 
-		Optional<List<Pair<IMethod, Annotation>>> result = loc.doSearchForEntryPointAnnotated(classPath, out, pat);
+		Optional<List<Pair<IMethod, Annotation>>> result = loc.doSearchForEntryPointAnnotated(settings.classPath, out, pat);
 		if (!result.isPresent()) {
 			out.error("No entry methods found.");
 			return false;
@@ -1460,9 +1540,9 @@ public class IFCConsole {
 	public boolean selectEntryPoint(String pattern, Consumer<List<String>> classSinkConsumer, boolean printError) {
 		JavaMethodSignature oldSelected = loc.getActiveEntry();
 		Optional<List<Pair<IMethod, Annotation>>> result =
-				loc.doSearchForEntryPointAnnotated(classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
+				loc.doSearchForEntryPointAnnotated(settings.classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
 		if (!result.isPresent() || result.get().size() != 1) {
-			result = loc.doSearchForEntryPointAnnotated(classPath, out, new Pattern(pattern, false, PatternType.ID, PatternType.SIGNATURE));
+			result = loc.doSearchForEntryPointAnnotated(settings.classPath, out, new Pattern(pattern, false, PatternType.ID, PatternType.SIGNATURE));
 		}
 		if (!result.isPresent()) {
 			if (printError){
@@ -1485,7 +1565,7 @@ public class IFCConsole {
 	}
 	
 	public boolean selectEntryPoint(String pattern, Consumer<List<String>> classSinkConsumer) {
-		this.secLattice = IFCAnalysis.stdLattice;
+		settings.secLattice = IFCAnalysis.stdLattice;
 		return selectEntryPoint(pattern, classSinkConsumer, true);
 	}
 	
@@ -1504,7 +1584,7 @@ public class IFCConsole {
 	public boolean useEntryPointsYAML(PrintStream stream, String pattern) {
 		YamlSequenceBuilder seq = Yaml.createYamlSequenceBuilder();
 		Optional<List<Pair<IMethod, Annotation>>> result = 
-				loc.doSearchForEntryPointAnnotated(classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
+				loc.doSearchForEntryPointAnnotated(settings.classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
 		if (result.isPresent()) {
 			for (Pair<IMethod, Annotation> p : result.get()) {
 				Optional<YamlMapping> map = useEntryPointYaml(p.getFirst(), p.getSecond());
@@ -1520,6 +1600,121 @@ public class IFCConsole {
 		return false;
 	}
 	
+	public boolean useEntryPointsYAMLParallel(String outputFile, String pattern, int threads, long memoryPerEntry) {
+		if (outputFile.equals("-")) {
+			return useEntryPointsYAMLParallel(out.getPrintStream(), pattern, threads, memoryPerEntry);
+		}
+		try (PrintStream stream = new PrintStream(new File(outputFile))){
+			return useEntryPointsYAMLParallel(stream, pattern, threads, memoryPerEntry);
+		} catch (IOException e) {
+			out.error(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Analyzes the entry points like {@link #useEntryPointsYAML(PrintStream, String)}, but concurrently: each entry
+	 * point is analyzed in its own console that starts with the current settings of this console, all consoles
+	 * share one analysis scope, class hierarchy and IR cache of the class path. The output is one YAML sequence with
+	 * the same items as that of the sequential analysis. The item of an entry point is written as soon as its analysis
+	 * is done, so the entry points appear in the order of completion, and the
+	 * output of its console is passed on afterwards. A failing entry point does not stop the others.
+	 *
+	 * @param threads maximum number of entry points that are analyzed at the same time
+	 * @param memoryPerEntry if positive, the number of bytes reserved for each entry point; at most as many entry
+	 * points as fit into the maximum heap size are analyzed at the same time, and an entry point that runs out
+	 * of memory fails without affecting the others
+	 * @return whether all entry points could be analyzed
+	 */
+	public boolean useEntryPointsYAMLParallel(PrintStream stream, String pattern, int threads, long memoryPerEntry) {
+		Optional<List<Pair<IMethod, Annotation>>> result =
+				loc.doSearchForEntryPointAnnotated(settings.classPath, out, new Pattern(pattern, true, PatternType.ID, PatternType.SIGNATURE));
+		if (!result.isPresent()) {
+			out.error("No entry points found");
+			return false;
+		}
+		List<Pair<IMethod, Annotation>> entryPoints = result.get();
+		try {
+			SDGConfig config = new SDGConfig(settings.classPath, entryPoints.get(0).getFirst().getSignature(), settings.stubsPath);
+			sharedClassHierarchy = ClassHierarchyCache.getDefault().get(out.getPrintStream(),
+					SDGProgram.makeBuildPreparationConfig(config));
+		} catch (ClassHierarchyException e) {
+			out.error(e.getMessage());
+			return false;
+		} catch (IOException e) {
+			out.error("I/O problem while setting up the analysis scope: " + e.getMessage());
+			return false;
+		}
+		int workers = Math.max(1, Math.min(threads, entryPoints.size()));
+		if (memoryPerEntry > 0) {
+			workers = (int) Math.max(1, Math.min(workers, Runtime.getRuntime().maxMemory() / memoryPerEntry));
+		}
+		out.logln("Analyzing " + entryPoints.size() + " entry points with " + workers + " threads");
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			CompletionService<Optional<YamlMapping>> completion = new ExecutorCompletionService<>(pool);
+			Map<Future<Optional<YamlMapping>>, Pair<JavaMethodSignature, BufferedConsoleOutput>> running = new HashMap<>();
+			for (Pair<IMethod, Annotation> p : entryPoints) {
+				BufferedConsoleOutput output = new BufferedConsoleOutput(out);
+				IFCConsole console = fork(output);
+				running.put(completion.submit(() -> console.useEntryPointYaml(p.getFirst(), p.getSecond())),
+						Pair.pair(JavaMethodSignature.fromString(p.getFirst().getSignature()), output));
+			}
+			boolean success = true;
+			for (int i = 0; i < entryPoints.size(); i++) {
+				Future<Optional<YamlMapping>> done = completion.take();
+				Pair<JavaMethodSignature, BufferedConsoleOutput> entry = running.remove(done);
+				entry.getSecond().replayTo(out);
+				try {
+					Optional<YamlMapping> map = done.get();
+					if (map.isPresent()) {
+						printSequenceItem(stream, map.get());
+						stream.flush();
+					} else {
+						out.error("Analysis of entry point " + entry.getFirst().toHRString() + " failed");
+						success = false;
+					}
+				} catch (ExecutionException e) {
+					// also catches OutOfMemoryErrors, the memory of the failed entry point is free again
+					out.error("Analysis of entry point " + entry.getFirst().toHRString() + " failed: " + e.getCause());
+					success = false;
+				}
+			}
+			return success;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			out.error("Interrupted while analyzing the entry points");
+			return false;
+		} finally {
+			pool.shutdownNow();
+			sharedClassHierarchy = null;
+		}
+	}
+
+	/**
+	 * Writes the mapping as the next item of a YAML block sequence, so the items written one after another form a
+	 * single sequence, laid out like the one that {@link #useEntryPointsYAML(PrintStream, String)} writes at once.
+	 */
+	private static void printSequenceItem(PrintStream stream, YamlMapping map) {
+		stream.println("- ");
+		for (String line : map.toString().split("\r?\n")) {
+			stream.println("  " + line);
+		}
+	}
+
+	/**
+	 * Creates a console with a copy of the settings and the last entry point search results of this console,
+	 * which writes to the given output and has its own progress monitor.
+	 */
+	private IFCConsole fork(IFCConsoleOutput output) {
+		IFCConsole console = new IFCConsole(new BufferedReader(new StringReader("")), output);
+		console.settings = settings.copy();
+		console.monitor = new ForkedProgressMonitor(monitor);
+		console.sharedClassHierarchy = sharedClassHierarchy;
+		console.loc.adoptSearchResults(loc);
+		return console;
+	}
+
 	public Optional<YamlMapping> useEntryPointYaml(IMethod method, Annotation annotation){
 		if (!selectEntryPoint(JavaMethodSignature.fromString(method.getSignature()), annotation, s -> ifcAnalysis.addSinkClasses(new String[0]))) {
 			return Optional.empty();
@@ -1562,9 +1757,9 @@ public class IFCConsole {
 			return Optional.empty();
 		}
 		YamlMappingBuilder mapBuilder = YamlUtil.mapping();
-		ifcAnalysis.setTimesensitivity(isTimeSensitive);
-		out.logln("Performing IFC - Analysis type: " + type);
-		Optional<Collection<? extends IViolation<SecurityNode>>> viosOpt = doIFCAndOptAndCatch(type, false);
+		ifcAnalysis.setTimesensitivity(settings.isTimeSensitive);
+		out.logln("Performing IFC - Analysis type: " + settings.type);
+		Optional<Collection<? extends IViolation<SecurityNode>>> viosOpt = doIFCAndOptAndCatch(settings.type, false);
 		if (!viosOpt.isPresent()){
 			ifcAnalysis.getAnnManager().unapplyAllAnnotations();
 			return Optional.empty();
@@ -1582,7 +1777,7 @@ public class IFCConsole {
 		}
 		mapBuilder = mapBuilder.add("tag", ifcAnalysis.getSourceSinkAnnotationTag());
 		mapBuilder = mapBuilder.add("found_flows",	lastAnalysisResult.isEmpty() ? "false" : "true");
-		mapBuilder = mapBuilder.add("only_direct_flow", onlyDirectFlow ? "true" : "false");
+		mapBuilder = mapBuilder.add("only_direct_flow", settings.onlyDirectFlow ? "true" : "false");
 		if (lastAnalysisResult.isEmpty()) {
 			out.logln("No violations found.");
 			ifcAnalysis.getAnnManager().unapplyAllAnnotations();
@@ -1783,9 +1978,9 @@ public class IFCConsole {
 			setPointsTo(((edu.kit.joana.ui.annotations.PointsToPrecision)((ConstantElementValue)map.get("pointsToPrecision")).val).name());
 		}
 		if (map.containsKey("chops")) {
-			chopComputation = (ChopComputation)((ConstantElementValue)map.get("chops")).val;
+			settings.chopComputation = (ChopComputation)((ConstantElementValue)map.get("chops")).val;
 		} else {
-			chopComputation = ChopComputation.ALL;
+			settings.chopComputation = ChopComputation.ALL;
 		}
 		if (map.containsKey("classSinks")) {
 			if (!parseClassSinks((ArrayElementValue)map.get("classSinks"), classSinkConsumer)) {
@@ -1794,11 +1989,11 @@ public class IFCConsole {
 		}
 		if (map.containsKey("onlyDirectFlow")) {
 			boolean only = ((ConstantElementValue)map.get("chops")).val.equals(true);
-			recomputeSDG |= onlyDirectFlow != only;
-			onlyDirectFlow = only;
+			recomputeSDG |= settings.onlyDirectFlow != only;
+			settings.onlyDirectFlow = only;
 		} else {
-			recomputeSDG |= onlyDirectFlow;
-			onlyDirectFlow = false;
+			recomputeSDG |= settings.onlyDirectFlow;
+			settings.onlyDirectFlow = false;
 		}
 		if (map.containsKey("pruningPolicy")){
 			if (!setPruningPolicy(((AnnotationsReader.EnumElementValue)map.get("pruningPolicy")).enumVal)){
@@ -1817,8 +2012,8 @@ public class IFCConsole {
 	}
 
 	public void setUninitializedFieldTypeMatcher(UninitializedFieldHelperOptions.FieldTypeMatcher fieldTypeMatcher){
-		recomputeSDG |= !uninitializedFieldTypeMatcher.equals(fieldTypeMatcher);
-	  this.uninitializedFieldTypeMatcher = fieldTypeMatcher;
+		recomputeSDG |= !settings.uninitializedFieldTypeMatcher.equals(fieldTypeMatcher);
+	  settings.uninitializedFieldTypeMatcher = fieldTypeMatcher;
 	}
 	
 	private boolean parseClassSinks(ArrayElementValue val, Consumer<List<String>> classSinkConsumer) {
@@ -1854,11 +2049,11 @@ public class IFCConsole {
 			setSDGProgram(p);
 			recomputeSDG = false;
 			final PrintStream outs = IOFactory.createUTF8PrintStream(new ByteArrayOutputStream());
-			SDGConfig config = new SDGConfig(classPath, loc.getActiveEntry().toBCString(), stubsPath);
-			config.setComputeInterferences(computeInterference);
-			config.setMhpType(mhpType);
-			config.setExceptionAnalysis(excAnalysis);
-			config.setPointsToPrecision(pointsTo);
+			SDGConfig config = new SDGConfig(settings.classPath, loc.getActiveEntry().toBCString(), settings.stubsPath);
+			config.setComputeInterferences(settings.computeInterference);
+			config.setMhpType(settings.mhpType);
+			config.setExceptionAnalysis(settings.excAnalysis);
+			config.setPointsToPrecision(settings.pointsTo);
 			config.setFieldPropagation(FieldPropagation.OBJ_GRAPH_SIMPLE_PROPAGATION);
 			com.ibm.wala.util.collections.Pair<Long, SDGBuilder.SDGBuilderConfig> pair;
 			try {
@@ -1901,15 +2096,15 @@ public class IFCConsole {
 		}
 		final Collection<String> antiSymmetryViolations = LatticeValidator.findAntisymmetryViolations(specifiedLattice);
 		if (antiSymmetryViolations.isEmpty()) {
-			this.secLattice = LatticeUtil.dedekindMcNeilleCompletion(specifiedLattice);
+			settings.secLattice = LatticeUtil.dedekindMcNeilleCompletion(specifiedLattice);
 			if (ifcAnalysis != null){
-				ifcAnalysis.setLattice(secLattice);
+				ifcAnalysis.setLattice(settings.secLattice);
 			}
 		} else {
 			out.error("Cycle in user-specified lattice. Elements contained in a cycle: " + antiSymmetryViolations);
-			this.secLattice = null;
+			settings.secLattice = null;
 			if (ifcAnalysis != null){
-				ifcAnalysis.setLattice(secLattice);
+				ifcAnalysis.setLattice(settings.secLattice);
 			}
 			return false;
 		}
@@ -2079,14 +2274,14 @@ public class IFCConsole {
 	}
 	
 	public void setClasspath(String newClasspath) {
-		this.classPath = newClasspath;
+		settings.classPath = newClasspath;
 	}
 
 	public void setPointsTo(final String newPts) {
 		for (final PointsToPrecision pts : PointsToPrecision.values()) {
 			if (pts.name().equals(newPts)) {
-				recomputeSDG |= pointsTo != pts;
-				this.pointsTo = pts;
+				recomputeSDG |= settings.pointsTo != pts;
+				settings.pointsTo = pts;
 				break;
 			}
 		}
@@ -2095,8 +2290,8 @@ public class IFCConsole {
 	public void setExceptionAnalysis(final String newExc) {
 		for (final ExceptionAnalysis exc : ExceptionAnalysis.values()) {
 			if (exc.name().equals(newExc)) {
-				recomputeSDG |= excAnalysis != exc;
-				this.excAnalysis = exc;
+				recomputeSDG |= settings.excAnalysis != exc;
+				settings.excAnalysis = exc;
 				break;
 			}
 		}
@@ -2105,25 +2300,25 @@ public class IFCConsole {
 	public void setMHPType(final String newMHPType) {
 		for (final MHPType mhp : MHPType.values()) {
 			if (mhp.name().equals(newMHPType)) {
-				recomputeSDG |= mhpType != mhp;
-				this.mhpType = mhp;
+				recomputeSDG |= settings.mhpType != mhp;
+				settings.mhpType = mhp;
 				break;
 			}
 		}
 	}
 
 	public void setComputeInterferences(boolean cmpInt) {
-		recomputeSDG |= computeInterference != cmpInt;
-		this.computeInterference = cmpInt;
+		recomputeSDG |= settings.computeInterference != cmpInt;
+		settings.computeInterference = cmpInt;
 	}
 
 	public Stubs getStubsPath() {
-		return stubsPath;
+		return settings.stubsPath;
 	}
 
 	public void setStubsPath(Stubs newStubsPath) {
-		recomputeSDG |= stubsPath != newStubsPath;
-		this.stubsPath = newStubsPath;
+		recomputeSDG |= settings.stubsPath != newStubsPath;
+		settings.stubsPath = newStubsPath;
 	}
 
 	public Collection<String> getSecurityLevels() {
@@ -2189,10 +2384,10 @@ public class IFCConsole {
 
 	private void setSDGProgram(SDGProgram newSDGProgram) {
 		if (ifcAnalysis == null) {
-			ifcAnalysis = new IFCAnalysis(newSDGProgram, this.secLattice);
+			ifcAnalysis = new IFCAnalysis(newSDGProgram, settings.secLattice);
 		} else {
 			ifcAnalysis.setProgram(newSDGProgram);
-			ifcAnalysis.setLattice(this.secLattice);
+			ifcAnalysis.setLattice(settings.secLattice);
 		}
 		recomputeSDG = true;
 	}
@@ -2202,11 +2397,11 @@ public class IFCConsole {
 	}
 
 	public void displayCurrentConfig() {
-		out.logln("classpath = " + classPath);
+		out.logln("classpath = " + settings.classPath);
 		out.logln("entry = " + (loc.getActiveEntry() == null ? "<none>" : loc.getActiveEntry()));
 		out.logln("output directory = " + outputDirectory);
-		out.logln("points-to = " + pointsTo.desc);
-		out.logln("lattice = " + latticeFile);
+		out.logln("points-to = " + settings.pointsTo.desc);
+		out.logln("lattice = " + settings.latticeFile);
 		// out.logln("sdg = " + sdgFile);
 
 	}
@@ -2243,7 +2438,7 @@ public class IFCConsole {
 		}
 
 		if (checkAndSetLattice(lattice)) {
-			latticeFile = latFile;
+			settings.latticeFile = latFile;
 			return true;
 		} else {
 			return false;
@@ -2268,7 +2463,7 @@ public class IFCConsole {
 				}
 			}
 		}
-		this.secLattice = l0;
+		settings.secLattice = l0;
 		if (this.ifcAnalysis != null) {
 			this.ifcAnalysis.setLattice(l0);
 		}
@@ -2289,7 +2484,7 @@ public class IFCConsole {
 	 */
 	public boolean setLattice(String latticeSpec) {
 		IStaticLattice<String> newLattice;
-		latticeFile = "[preset: " + latticeSpec + "]";
+		settings.latticeFile = "[preset: " + latticeSpec + "]";
 		if (LATTICE_BINARY.equals(latticeSpec)) {
 			newLattice = BuiltinLattices.getBinaryLattice();
 		} else if (LATTICE_TERNARY.equals(latticeSpec)) {
@@ -2304,10 +2499,10 @@ public class IFCConsole {
 				out.error("Error while parsing lattice: " + e.getMessage() + " Old lattice is left untouched!");
 				return false;
 			}
-			latticeFile = "[user-defined: " + latticeSpec + "]";
+			settings.latticeFile = "[user-defined: " + latticeSpec + "]";
 		}
 		if (checkAndSetLattice(newLattice)) {
-			out.logln("current lattice: " + latticeFile);
+			out.logln("current lattice: " + settings.latticeFile);
 		}
 		return checkAndSetLattice(newLattice);
 	}
@@ -2564,7 +2759,7 @@ public class IFCConsole {
 			out.error("No entry method selected. Select entry method first!");
 			return false;
 		}
-		Optional<SDGProgram> sdg = createSDG(classPath, computeInterference, mhpType, exA);
+		Optional<SDGProgram> sdg = createSDG(settings.classPath, computeInterference, mhpType, exA);
 		if (sdg.isPresent()){
 			setSDGProgram(sdg.get());
 			recomputeSDG = false;
@@ -2611,16 +2806,23 @@ public class IFCConsole {
 				classPath = new PreProcPasses(createSetValuePass()).process(null, "", classPath);
 				classPathAfterOpt = classPath;
 			}
-			SDGConfig config = new SDGConfig(classPath, loc.getActiveEntry().toBCString(), stubsPath);
-			config.setPruningPolicy(pruningPolicy);
+			SDGConfig config = new SDGConfig(classPath, loc.getActiveEntry().toBCString(), settings.stubsPath);
+			config.setPruningPolicy(settings.pruningPolicy);
 			config.setComputeInterferences(computeInterference);
 			config.setMhpType(mhpType);
 			config.setExceptionAnalysis(exA);
-			config.setPointsToPrecision(pointsTo);
+			config.setPointsToPrecision(settings.pointsTo);
 			config.setFieldPropagation(FieldPropagation.OBJ_GRAPH_SIMPLE_PROPAGATION);
-			config.setFieldHelperOptions(new UninitializedFieldHelperOptions(uninitializedFieldTypeMatcher));
+			config.setFieldHelperOptions(settings.uninitializedFieldTypeMatcher == Settings.NO_UNINITIALIZED_FIELDS
+					? SDGConfig.DEFAULT_FIELD_HELPER_OPTIONS
+					: new UninitializedFieldHelperOptions(settings.uninitializedFieldTypeMatcher));
+			if (sharedClassHierarchy != null && classPath.equals(settings.classPath)) {
+				// not the case if values have been set in the bytecode
+				config.setClassHierarchy(sharedClassHierarchy.getScope(), sharedClassHierarchy.getClassHierarchy(),
+						sharedClassHierarchy.getIRCache().newView());
+			}
 			SDGProgram program = SDGProgram.createSDGProgram(config, out.getPrintStream(), monitor);
-			if (onlyDirectFlow) {
+			if (settings.onlyDirectFlow) {
 				SDGProgram.throwAwayControlDeps(program.getSDG());
 			}
 			return Optional.of(program);
@@ -2785,18 +2987,18 @@ public class IFCConsole {
 	 */
 	public Collection<? extends IViolation<SecurityNode>> doIFCAndOpt(IFCType ifcType, boolean unapplyAllAnnotations) throws IOException {
 		Collection<IFCAnnotation> annotations = ifcAnalysis.getAnnotations();
-		if (useByteCodeOptimizations) {
+		if (settings.useByteCodeOptimizations) {
 			if (this.valuesToSet.size() > 0){
-				classPath = new PreProcPasses(createSetValuePass()).process(null, "", classPath);
-				classPathAfterOpt = classPath;
+				settings.classPath = new PreProcPasses(createSetValuePass()).process(null, "", settings.classPath);
+				classPathAfterOpt = settings.classPath;
 			}
 			PreProcPasses passes = createOptPasses();
-			passes.processAndUpdateSDG(ifcAnalysis, optLibPath,
-					classPathAfterOpt == null ? classPath : classPathAfterOpt,
-					cp -> createSDG(cp, computeInterference, mhpType, excAnalysis, false).get());
+			passes.processAndUpdateSDG(ifcAnalysis, settings.optLibPath,
+					classPathAfterOpt == null ? settings.classPath : classPathAfterOpt,
+					cp -> createSDG(cp, settings.computeInterference, settings.mhpType, settings.excAnalysis, false).get());
 		}
 		annotations.forEach(ifcAnalysis::addAnnotation);
-		ifcAnalysis.setTimesensitivity(isTimeSensitive);
+		ifcAnalysis.setTimesensitivity(settings.isTimeSensitive);
 		return ifcAnalysis.doIFC(ifcType, unapplyAllAnnotations);
 	}
 
@@ -2804,7 +3006,7 @@ public class IFCConsole {
 			PreProcPasses passes = createOptPasses();
 			try {
 				return Optional.of(passes.process(ifcAnalysis, libPath,
-						classPathAfterOpt == null ? classPath : classPathAfterOpt));
+						classPathAfterOpt == null ? settings.classPath : classPathAfterOpt));
 			} catch (IOException e) {
 				e.printStackTrace();
 				out.error(e.getMessage());
@@ -2910,29 +3112,29 @@ public class IFCConsole {
 	}
 
 	public boolean setClassPath(String classPath) {
-		recomputeSDG |= !this.classPath.equals(classPath);
-		this.classPath = classPath;
+		recomputeSDG |= !settings.classPath.equals(classPath);
+		settings.classPath = classPath;
 		return true;
 	}
 
 	public String getClassPath() {
-		return classPath;
+		return settings.classPath;
 	}
 
 	public PointsToPrecision getPointsTo() {
-		return pointsTo;
+		return settings.pointsTo;
 	}
 
 	public ExceptionAnalysis getExceptionAnalysis() {
-		return excAnalysis;
+		return settings.excAnalysis;
 	}
 
 	public boolean getComputeInterferences() {
-		return computeInterference;
+		return settings.computeInterference;
 	}
 
 	public MHPType getMHPType() {
-		return mhpType;
+		return settings.mhpType;
 	}
 
   public Collection<IFCAnnotation> getSources() {
@@ -2960,7 +3162,7 @@ public class IFCConsole {
 	}
 
 	public String getLatticeFile() {
-		return latticeFile;
+		return settings.latticeFile;
 	}
 
 	public SDG getSDG() {
@@ -3033,8 +3235,8 @@ public class IFCConsole {
 	public boolean setPruningPolicy(String policy){
 		try {
 			PruningPolicy newPolicy = PruningPolicy.valueOf(policy.toUpperCase());
-			recomputeSDG |= newPolicy != pruningPolicy;
-			pruningPolicy = newPolicy;
+			recomputeSDG |= newPolicy != settings.pruningPolicy;
+			settings.pruningPolicy = newPolicy;
 			return true;
 		} catch (IllegalArgumentException ex){
 			out.error("No such pruning policy " + policy);
@@ -3065,7 +3267,7 @@ public class IFCConsole {
 				@Override public boolean requiresKnowledgeOnAnnotations() {
 					return false;
 				}
-			}).process(null, "", classPath);
+			}).process(null, "", settings.classPath);
 		} catch (IOException e) {
 			out.error(e.getMessage());
 			return false;
@@ -3097,7 +3299,7 @@ public class IFCConsole {
 				@Override public boolean requiresKnowledgeOnAnnotations() {
 					return false;
 				}
-			}).process(null, "", classPath);
+			}).process(null, "", settings.classPath);
 		} catch (IOException e) {
 			out.error(e.getMessage());
 			return null;
@@ -3202,7 +3404,7 @@ public class IFCConsole {
 				@Override public boolean requiresKnowledgeOnAnnotations() {
 					return false;
 				}
-			}).process(null, "", classPath);
+			}).process(null, "", settings.classPath);
 		} catch (IOException e) {
 			out.error(e.getMessage());
 			return false;
@@ -3223,12 +3425,12 @@ public class IFCConsole {
 		List<SDGClass> sinkClasses = new ArrayList<>();
 
 		@Override public List<String> getPossibleEntryMethods(String regexp) {
-      return loc.justSearch(classPath, out,false, regexp);
+      return loc.justSearch(settings.classPath, out,false, regexp);
     }
 
     @Override public List<Pair<String, String>> getPossibleEntryPoints() {
       Pattern pat = new Pattern(".*", true, PatternType.ID);
-      Optional<List<Pair<IMethod, Annotation>>> result = loc.doSearchForEntryPointAnnotated(classPath, out, pat);
+      Optional<List<Pair<IMethod, Annotation>>> result = loc.doSearchForEntryPointAnnotated(settings.classPath, out, pat);
       if (!result.isPresent()) {
         return Collections.emptyList();
       }
@@ -3238,7 +3440,7 @@ public class IFCConsole {
     }
 
     @Override public boolean setEntryMethod(String method) {
-    	loc.doSearch(classPath, out, false, java.util.regex.Pattern.quote(method));
+    	loc.doSearch(settings.classPath, out, false, java.util.regex.Pattern.quote(method));
 			if (loc.foundPossibleEntries()) {
 				loc.selectEntry(0);
 				recomputeSDG = true;
@@ -3455,57 +3657,57 @@ public class IFCConsole {
 		}
 
 		@Override public void enableOptimizations(String libPath) {
-			optLibPath = libPath;
-			useByteCodeOptimizations = true;
+			settings.optLibPath = libPath;
+			settings.useByteCodeOptimizations = true;
 		}
 
 		@Override public void disableOptimizations() {
-			optLibPath = null;
-			useByteCodeOptimizations = false;
+			settings.optLibPath = null;
+			settings.useByteCodeOptimizations = false;
 		}
 
 		@Override public Optional<String> getLibPath() {
-			return Optional.ofNullable(optLibPath);
+			return Optional.ofNullable(settings.optLibPath);
 		}
 
 		@Override public void setComputeInterference(boolean enable) {
-			computeInterference = enable;
+			settings.computeInterference = enable;
 		}
 
 		@Override public void setMHPType(MHPType mhpType) {
-			IFCConsole.this.mhpType = mhpType;
+			settings.mhpType = mhpType;
 		}
 
 		@Override public void setExcAnalysis(ExceptionAnalysis excAnalysis) {
-			IFCConsole.this.excAnalysis = excAnalysis;
+			settings.excAnalysis = excAnalysis;
 		}
 
 		@Override public boolean isInterferenceComputed() {
-			return computeInterference;
+			return settings.computeInterference;
 		}
 
 		@Override public MHPType getMhpType() {
-			return mhpType;
+			return settings.mhpType;
 		}
 
 		@Override public ExceptionAnalysis getExcAnalysis() {
-			return excAnalysis;
+			return settings.excAnalysis;
 		}
 
 		@Override public void setPruningPolicy(PruningPolicy pruningPolicy) {
-			IFCConsole.this.pruningPolicy = pruningPolicy;
+			settings.pruningPolicy = pruningPolicy;
 		}
 
 		@Override public PruningPolicy getPruningPolicy() {
-			return pruningPolicy;
+			return settings.pruningPolicy;
 		}
 
 		@Override public void setOnlyDirectFlow(boolean only) {
-			onlyDirectFlow = only;
+			settings.onlyDirectFlow = only;
 		}
 
 		@Override public boolean usesOnlyDirectFlow() {
-			return onlyDirectFlow;
+			return settings.onlyDirectFlow;
 		}
 
 		@Override public void setUninitializedFieldTypeMatcher(UninitializedFieldHelperOptions.FieldTypeMatcher fieldTypeMatcher) {
@@ -3513,7 +3715,7 @@ public class IFCConsole {
 		}
 
 		@Override public UninitializedFieldHelperOptions.FieldTypeMatcher getUninitializedFieldTypeMatcher() {
-			return uninitializedFieldTypeMatcher;
+			return settings.uninitializedFieldTypeMatcher;
 		}
 
 		@Override public AnalysisObject getMixin(ImprovedCLI.RunCommand command) {
@@ -0,0 +1,133 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.ui.ifc.wala.console.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the output of a console that runs in the background, e.g. while analyzing one of several
+ * entry points concurrently, and passes it on to another output as a whole with {@link #replayTo(IFCConsoleOutput)}.
+ * This way the output of concurrent consoles does not interleave. Questions are passed on right away.
+ */
+public class BufferedConsoleOutput implements IFCConsoleOutput {
+
+	private enum Kind {
+		LOG, LOGLN, INFO, DEBUG, ERROR, STREAM;
+	}
+
+	private static final class Message {
+		private final Kind kind;
+		private final String text;
+
+		private Message(Kind kind, String text) {
+			this.kind = kind;
+			this.text = text;
+		}
+	}
+
+	private final IFCConsoleOutput questionTarget;
+	private final List<Message> messages = new ArrayList<Message>();
+	private final ByteArrayOutputStream streamBuffer = new ByteArrayOutputStream();
+	private final PrintStream stream = new PrintStream(streamBuffer, true);
+
+	/**
+	 * @param questionTarget the output that answers questions
+	 */
+	public BufferedConsoleOutput(IFCConsoleOutput questionTarget) {
+		this.questionTarget = questionTarget;
+	}
+
+	private synchronized void add(Kind kind, String text) {
+		flushStream();
+		messages.add(new Message(kind, text));
+	}
+
+	/* keeps the text printed to the stream in order with the messages */
+	private void flushStream() {
+		stream.flush();
+		if (streamBuffer.size() > 0) {
+			messages.add(new Message(Kind.STREAM, new String(streamBuffer.toByteArray(), StandardCharsets.UTF_8)));
+			streamBuffer.reset();
+		}
+	}
+
+	@Override
+	public void log(String logMessage) {
+		add(Kind.LOG, logMessage);
+	}
+
+	@Override
+	public void logln(String logMessage) {
+		add(Kind.LOGLN, logMessage);
+	}
+
+	@Override
+	public void info(String infoMessage) {
+		add(Kind.INFO, infoMessage);
+	}
+
+	@Override
+	public void debug(String debugMessage) {
+		add(Kind.DEBUG, debugMessage);
+	}
+
+	@Override
+	public void error(String errorMessage) {
+		add(Kind.ERROR, errorMessage);
+	}
+
+	@Override
+	public Answer question(String questionMessage) {
+		synchronized (questionTarget) {
+			return questionTarget.question(questionMessage);
+		}
+	}
+
+	@Override
+	public PrintStream getPrintStream() {
+		return stream;
+	}
+
+	/**
+	 * Passes all output collected so far on to the given output, in the order in which it was written,
+	 * and forgets it.
+	 */
+	public synchronized void replayTo(IFCConsoleOutput target) {
+		flushStream();
+		for (Message m : messages) {
+			switch (m.kind) {
+			case LOG:
+				target.log(m.text);
+				break;
+			case LOGLN:
+				target.logln(m.text);
+				break;
+			case INFO:
+				target.info(m.text);
+				break;
+			case DEBUG:
+				target.debug(m.text);
+				break;
+			case ERROR:
+				target.error(m.text);
+				break;
+			case STREAM:
+				target.getPrintStream().print(m.text);
+				break;
+			default:
+				throw new IllegalStateException("unknown kind of output: " + m.kind);
+			}
+		}
+		target.getPrintStream().flush();
+		messages.clear();
+	}
+}
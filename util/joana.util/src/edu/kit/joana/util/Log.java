@@ -49,6 +49,7 @@ public final class Log {
 	public static final String L_SIDEEFFECT_DEBUG				= "sideeffect.debug";
 	public static final String L_OBJGRAPH_STATS					= "objgraph.stats";
 	public static final String L_OBJGRAPH_DEBUG					= "objgraph.debug";
+	public static final String L_KILLDEF_STATS					= "killdef.stats";
 	public static final String L_PRUNE_DEBUG					= "prune.debug";
 	public static final String L_JSDG_INFO						= "jsdg.info";
 	public static final String L_UI_DEBUG						= "ui.debug";
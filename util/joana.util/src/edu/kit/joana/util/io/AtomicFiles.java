@@ -0,0 +1,56 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.util.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files that are read concurrently, e.g. by other analysis runs sharing a cache directory.
+ */
+public final class AtomicFiles {
+
+	private AtomicFiles() {}
+
+	/**
+	 * Writes the content of a file.
+	 */
+	@FunctionalInterface
+	public interface Content {
+		void writeTo(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * Writes the given content to a temporary file next to the given file and then moves it into place, replacing
+	 * the file if it exists. Readers thus never see a partially written file, and a file they have mapped into
+	 * memory never changes. The move is atomic if the file system supports it.
+	 * @param file the file to write, its directory has to exist
+	 * @param content writes the content to the given stream, which is closed afterwards
+	 */
+	public static void write(final Path file, final Content content) throws IOException {
+		final Path target = file.toAbsolutePath();
+		final Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+				content.writeTo(out);
+			}
+			try {
+				Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+}
@@ -29,6 +29,7 @@ import com.ibm.wala.ipa.callgraph.pruned.PruningPolicy;
 import com.ibm.wala.ipa.cfg.ExceptionPrunedCFG;
 import com.ibm.wala.ipa.cfg.PrunedCFG;
 import com.ibm.wala.ipa.cha.IClassHierarchy;
+import com.ibm.wala.ssa.IR;
 import com.ibm.wala.ssa.SSAInstruction;
 import com.ibm.wala.ssa.SSAInvokeInstruction;
 import com.ibm.wala.ssa.SSAThrowInstruction;
@@ -93,6 +94,9 @@ import org.jgrapht.DirectedGraph;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 
@@ -623,6 +627,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 	private com.ibm.wala.ipa.callgraph.CallGraph nonPrunedCG = null;
 	private Map<PDGNode, TIntSet> call2alloc = null;
 	private InterprocAnalysisResult<SSAInstruction, IExplodedBasicBlock> interprocExceptionResult = null;
+	/**
+	 * exception analyzed control flow graphs computed ahead of pdg construction in parallel mode. Each entry is
+	 * consumed by the pdg of the corresponding method, so the map only holds the current batch.
+	 */
+	private Map<CGNode, ControlFlowGraph<SSAInstruction, IExplodedBasicBlock>> precomputedECFGs = null;
 
 	private SDGBuilder(final SDGBuilderConfig cfg) {
 		this.cfg = cfg;
@@ -699,20 +708,42 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		progress.beginTask("computing intraprocedural flow", cg.vertexSet().size());
 		int currentNum = 1;
 
+		final List<CGNode> intraprocNodes = new ArrayList<CGNode>(cg.vertexSet().size());
 		for (CallGraph.Node node : cg.vertexSet()) {
-			if (node.node == cg.getRoot().node) {
-				continue;
+			if (node.node != cg.getRoot().node) {
+				intraprocNodes.add(node.node);
 			}
+		}
 
-			final CGNode cgm = node.node;
-			final PDG pdg = createAndAddPDG(cgm, progress);
+		// In parallel mode the expensive, method local part of pdg construction (ir and exception analyzed cfg) is
+		// computed batch-wise in a fork-join pool. The pdgs themselves are still assembled in call graph order, so
+		// node ids - and thus the resulting sdg - are exactly the same as in a sequential run.
+		final ForkJoinPool pool = (isParallel() ? createIntraprocPool() : null);
+		final int batchSize = (pool != null ? pool.getParallelism() * INTRAPROC_BATCH_PER_THREAD : intraprocNodes.size());
+		try {
+			for (int batchStart = 0; batchStart < intraprocNodes.size(); batchStart += batchSize) {
+				final List<CGNode> batch =
+						intraprocNodes.subList(batchStart, Math.min(batchStart + batchSize, intraprocNodes.size()));
+				if (pool != null) {
+					precomputeExceptionAnalyzedCFGs(pool, batch, progress);
+				}
 
-			progress.worked(currentNum++);
+				for (final CGNode cgm : batch) {
+					final PDG pdg = createAndAddPDG(cgm, progress);
 
-			MonitorUtil.throwExceptionIfCanceled(progress);
+					progress.worked(currentNum++);
 
-			if (cfg.debugManyGraphsDotOutput) {
-				debugOutput(pdg);
+					MonitorUtil.throwExceptionIfCanceled(progress);
+
+					if (cfg.debugManyGraphsDotOutput) {
+						debugOutput(pdg);
+					}
+				}
+			}
+		} finally {
+			precomputedECFGs = null;
+			if (pool != null) {
+				pool.shutdown();
 			}
 		}
 		progress.done();
@@ -869,8 +900,13 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 
 	public ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createIntraExceptionAnalyzedCFG(final CGNode n,
 			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
+		return createIntraExceptionAnalyzedCFG(n.getIR(), progress);
+	}
+
+	private ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createIntraExceptionAnalyzedCFG(final IR ir,
+			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
 		final ExceptionPruningAnalysis<SSAInstruction, IExplodedBasicBlock> npa = NullPointerAnalysis
-				.createIntraproceduralExplodedCFGAnalysis(DEFAULT_IGNORE_EXCEPTIONS, n.getIR(),
+				.createIntraproceduralExplodedCFGAnalysis(DEFAULT_IGNORE_EXCEPTIONS, ir,
 						null, cfg.defaultExceptionMethodState, cfg.pruneDDEdgesToDanglingExceptionNodes, false);
 
 		npa.compute(progress);
@@ -878,14 +914,102 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		return npa.getCFG();
 	}
 
+	private static final int INTRAPROC_BATCH_PER_THREAD = 16;
+
+	private ForkJoinPool createIntraprocPool() {
+		final int threads = (cfg.intraprocThreads > 0 ? cfg.intraprocThreads : Runtime.getRuntime().availableProcessors());
+		return new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Computes the exception analyzed control flow graphs of the given methods in parallel. They are picked up by
+	 * {@link #createExceptionAnalyzedCFG(CGNode, IProgressMonitor)} during the (sequential) pdg construction.
+	 * <p>
+	 * The irs are taken from the analysis cache in the calling thread, since the cache is not thread safe. The
+	 * workers only get the ir of their method. Each cfg refers to its ir, so the ir stays cached until the pdg of
+	 * the method has been built, which thus sees the same ir instance.
+	 */
+	private void precomputeExceptionAnalyzedCFGs(final ForkJoinPool pool, final List<CGNode> nodes,
+			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
+		final Map<CGNode, ControlFlowGraph<SSAInstruction, IExplodedBasicBlock>> ecfgs =
+				new ConcurrentHashMap<CGNode, ControlFlowGraph<SSAInstruction, IExplodedBasicBlock>>();
+		final Map<CGNode, Exception> failed = new ConcurrentHashMap<CGNode, Exception>();
+
+		MonitorUtil.throwExceptionIfCanceled(progress);
+		final Map<CGNode, IR> irs = new LinkedHashMap<CGNode, IR>();
+		for (final CGNode n : nodes) {
+			final IR ir = n.getIR();
+			if (ir == null || ir.isEmptyIR() || isImmutableStub(n.getMethod().getDeclaringClass().getReference())) {
+				// pdg construction creates a dummy pdg for these
+				continue;
+			}
+			irs.put(n, ir);
+		}
+
+		try {
+			pool.submit(() -> irs.entrySet().parallelStream().forEach(entry -> {
+				final CGNode n = entry.getKey();
+				try {
+					// progress monitors need not be thread safe, so the workers do not report to it. Cancellation is
+					// checked before each batch and after each pdg in the calling thread.
+					ecfgs.put(n, createExceptionAnalyzedCFG(n, entry.getValue(), NullProgressMonitor.INSTANCE));
+				} catch (UnsoundGraphException | CancelException | RuntimeException e) {
+					failed.put(n, e);
+				}
+			})).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancelException(e);
+		} catch (ExecutionException e) {
+			// checked and runtime exceptions are recorded in failed, so this is an Error of a worker
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+
+		// report the failure of the first method in construction order, just like the sequential construction would
+		for (final CGNode n : nodes) {
+			final Exception e = failed.get(n);
+			if (e instanceof UnsoundGraphException) {
+				throw (UnsoundGraphException) e;
+			} else if (e instanceof CancelException) {
+				throw (CancelException) e;
+			} else if (e != null) {
+				throw (RuntimeException) e;
+			}
+		}
+
+		precomputedECFGs = ecfgs;
+	}
+
 	public ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createExceptionAnalyzedCFG(final CGNode n,
 			final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
+		if (precomputedECFGs != null) {
+			final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> precomputed = precomputedECFGs.remove(n);
+			if (precomputed != null) {
+				return precomputed;
+			}
+		}
+
+		return createExceptionAnalyzedCFG(n, n.getIR(), progress);
+	}
+
+	/**
+	 * Computes the exception analyzed cfg of the given method from the given ir of the method. Does not access the
+	 * analysis cache, so it may run concurrently for different methods.
+	 */
+	private ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> createExceptionAnalyzedCFG(final CGNode n,
+			final IR ir, final IProgressMonitor progress) throws UnsoundGraphException, CancelException {
 		ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg = null;
 
 		switch (cfg.exceptions) {
 		case ALL_NO_ANALYSIS: {
 			// We only call PrunedCFG to obtain a cfg in which unreachable nodes re removed
-			ExplodedControlFlowGraph unpruned = ExplodedControlFlowGraph.make(n.getIR());
+			ExplodedControlFlowGraph unpruned = ExplodedControlFlowGraph.make(ir);
 			ecfg = PrunedCFG.make(
 				unpruned,
 				new com.ibm.wala.ipa.cfg.EdgeFilter<IExplodedBasicBlock>() {
@@ -897,7 +1021,7 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		}
 			break;
 		case INTRAPROC: {
-			ecfg = createIntraExceptionAnalyzedCFG(n, progress);
+			ecfg = createIntraExceptionAnalyzedCFG(ir, progress);
 		}
 			break;
 		case INTERPROC: {
@@ -911,13 +1035,13 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 				// No result for this method or called at the wrong time. We do not keep the interprocedural analysis
 				// result during the whole computation due to memory usage. -> fallback intraproc analysis
 
-				ecfg = createIntraExceptionAnalyzedCFG(n, progress);
+				ecfg = createIntraExceptionAnalyzedCFG(ir, progress);
 			}
 		}
 			break;
 		case IGNORE_ALL: {
-			ecfg = ExceptionPrunedCFG.make(ExplodedControlFlowGraph.make(n.getIR()), false);
-			final ExplodedControlFlowGraph unpruned = ExplodedControlFlowGraph.make(n.getIR());
+			ecfg = ExceptionPrunedCFG.make(ExplodedControlFlowGraph.make(ir), false);
+			final ExplodedControlFlowGraph unpruned = ExplodedControlFlowGraph.make(ir);
 			ecfg = PrunedCFG.make(
 				unpruned,
 				new com.ibm.wala.ipa.cfg.EdgeFilter<IExplodedBasicBlock>() {
@@ -2163,6 +2287,11 @@ public class SDGBuilder implements CallGraphFilter, SDGBuildArtifacts {
 		 * in multiple threads.
 		 */
 		public boolean doParallel = true;
+		/**
+		 * Number of threads used for the intraprocedural phase of the SDG construction, if {@link #doParallel}
+		 * is set. A value &lt;= 0 uses one thread per available processor.
+		 */
+		public int intraprocThreads = 0;
 		/**
 		 * Options for creating the static helper for working with uninitialized fields
 		 */
@@ -7,12 +7,16 @@
  */
 package edu.kit.joana.wala.core.interference;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 import com.ibm.wala.classLoader.IClass;
@@ -163,24 +167,32 @@ public class InterferenceComputation {
 	private final Set<InterferenceEdge> computeInterference(final IProgressMonitor progress) throws CancelException {
 		if (IS_DEBUG) debug.outln("Computing read-write/write-write interference for threads");
 		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
-		Map<PDG, Set<HeapRead>> readMap = new IdentityHashMap<>();
+		final Map<PDG, Set<HeapWrite>> writeMap = new IdentityHashMap<>();
+		final HeapAccessIndex<HeapWrite> writeIndex = new HeapAccessIndex<HeapWrite>();
+		final HeapAccessIndex<HeapRead> readIndex = new HeapAccessIndex<HeapRead>();
 
-		Collection<PDG> pdgs = getPDGs();
+		final Collection<PDG> pdgs = getPDGs();
 
-		for (PDG pdg : pdgs) {
-			if (pdg == null) {
+		for (final PDG pdg : pdgs) {
+			if (pdg == null || getThreadIds(pdg).isEmpty()) {
+				// pdgs that run in no thread do not run in parallel to anything
 				continue;
 			}
-			writeMap.put(pdg, getHeapWrites(pdg));
-			readMap.put(pdg, getHeapReads(pdg));
-		}
-		Stream<PDG> s1 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-		s1.forEach(pdg -> {
-			if (pdg == null) {
-				return;
+
+			final Set<HeapWrite> writes = getHeapWrites(pdg);
+			writeMap.put(pdg, writes);
+			for (final HeapWrite write : writes) {
+				writeIndex.add(pdg, write);
+			}
+
+			for (final HeapRead read : getHeapReads(pdg)) {
+				readIndex.add(pdg, read);
 			}
+		}
 
+		final Collection<PDG> writingPdgs = writeMap.keySet();
+		final Stream<PDG> s = builder.isParallel() ? writingPdgs.parallelStream() : writingPdgs.stream();
+		s.forEach(pdg -> {
 			final Set<HeapWrite> writes = writeMap.get(pdg);
 
 			if (writes.isEmpty()) {
@@ -191,36 +203,24 @@ public class InterferenceComputation {
 				// while handling the pdg with the interfering write.
 				return;
 			}
-			Stream<PDG> s2 = builder.isParallel()?pdgs.parallelStream():pdgs.stream();
-			s2.forEach(pdgCur -> {
-				if (pdgCur == null) {
-					return;
-				}
-
-				if (mayRunInParallelThreads(pdg, pdgCur)) {
-					final Set<HeapRead> readsCur = readMap.get(pdgCur);
-					final Set<HeapWrite> writesCur = writeMap.get(pdgCur);
 
-					if (readsCur.isEmpty() && writesCur.isEmpty()) {
-						// a pdg without heap access does not interfere with anything
-						return;
+			final Set<InterferenceEdge> interferenceEdges = new HashSet<InterferenceEdge>();
+			for (final HeapWrite write : writes) {
+				readIndex.forEachAliasing(write, (pdgCur, read) -> {
+					if (mayRunInParallelThreads(pdg, pdgCur)) {
+						interferenceEdges.add(addReadWriteInterference(write, read));
 					}
-					
-					Set<InterferenceEdge> interferenceEdges
-						= computeInterference(writes, readsCur, writesCur);
-					synchronized (ret) {
-						ret.addAll(interferenceEdges);
+				});
+				writeIndex.forEachAliasing(write, (pdgCur, write2) -> {
+					if (mayRunInParallelThreads(pdg, pdgCur)) {
+						interferenceEdges.add(addWriteWriteInterference(write, write2));
 					}
-				}
-
-				/*if (progress.isCanceled()) {
-					throw CancelException.make("Computing interference canceled.");
-				}*/
-			});
+				});
+			}
 
-			/*if (progress.isCanceled()) {
-				throw CancelException.make("Computing interference canceled.");
-			}*/
+			synchronized (ret) {
+				ret.addAll(interferenceEdges);
+			}
 
 			progress.worked(1);
 		});
@@ -236,26 +236,6 @@ public class InterferenceComputation {
 		return builder.getNonPrunedWalaCallGraph();
 	}
 
-	private final Set<InterferenceEdge> computeInterference(final Set<HeapWrite> writes1, final Set<HeapRead> reads2,
-			final Set<HeapWrite> writes2) {
-
-		final Set<InterferenceEdge> ret = new HashSet<InterferenceEdge>();
-		for (final HeapWrite write : writes1) {
-			for (final HeapRead read2 : reads2) {
-				if (write.isAliasing(read2)) {
-					ret.add(addReadWriteInterference(write, read2));
-				}
-			}
-			for (final HeapWrite write2 : writes2) {
-				if (write.isAliasing(write2)) {
-					ret.add(addWriteWriteInterference(write, write2));
-				}
-			}
-		}
-
-		return ret;
-	}
-
 	private final InterferenceEdge addReadWriteInterference(final HeapWrite write, final HeapRead read) {
 		final PDGNode ewrite = write.getNode();
 		final PDG pdgWrite = getPdgForId(ewrite.getPdgId());
@@ -612,14 +592,111 @@ public class InterferenceComputation {
 			return expr;
 		}
 
+		public OrdinalSet<InstanceKey> getBase() {
+			return base;
+		}
+
+		public ParameterField getField() {
+			return field;
+		}
+
+		/**
+		 * An access without a base does not alias an access with a base.
+		 */
 		public boolean isAliasing(final HeapAccess acc) {
 			final boolean emtpyBases = (base == null && acc.base == null) ||
 			(base != null && acc.base != null && base.isEmpty() && acc.base.isEmpty());
 
 			return (field == acc.field) &&
-			(emtpyBases || (base != null && base.containsAny(acc.base)));
+			(emtpyBases || (base != null && acc.base != null && base.containsAny(acc.base)));
+		}
+
+	}
+
+	/**
+	 * Index of heap accesses by the accessed field and the instance keys their base may point to. Two accesses
+	 * can only alias if they access the same field and either both have no base, both have an empty base (static
+	 * fields) or their bases share an instance key - see {@link HeapAccess#isAliasing(HeapAccess)}. So the aliasing
+	 * accesses can be looked up directly instead of checking all pairs of accesses.
+	 */
+	static final class HeapAccessIndex<T extends HeapAccess> {
+
+		private final Map<ParameterField, FieldAccesses<T>> field2accesses = new IdentityHashMap<>();
+		private final Map<T, PDG> access2pdg = new IdentityHashMap<>();
+
+		private static final class FieldAccesses<T> {
+			private final List<T> withoutBase = new ArrayList<T>();
+			private final List<T> withEmptyBase = new ArrayList<T>();
+			private final TIntObjectHashMap<List<T>> byInstanceKey = new TIntObjectHashMap<List<T>>();
 		}
 
+		public void add(final PDG pdg, final T acc) {
+			access2pdg.put(acc, pdg);
+
+			FieldAccesses<T> accesses = field2accesses.get(acc.getField());
+			if (accesses == null) {
+				accesses = new FieldAccesses<T>();
+				field2accesses.put(acc.getField(), accesses);
+			}
+
+			if (acc.getBase() == null) {
+				accesses.withoutBase.add(acc);
+			} else if (acc.getBase().isEmpty()) {
+				accesses.withEmptyBase.add(acc);
+			} else {
+				for (final IntIterator it = acc.getBase().getBackingSet().intIterator(); it.hasNext();) {
+					final int ik = it.next();
+					List<T> accs = accesses.byInstanceKey.get(ik);
+					if (accs == null) {
+						accs = new ArrayList<T>();
+						accesses.byInstanceKey.put(ik, accs);
+					}
+					accs.add(acc);
+				}
+			}
+		}
+
+		/**
+		 * Calls the action once for each indexed access that is aliasing the given access, together with the
+		 * pdg the aliasing access belongs to.
+		 */
+		public void forEachAliasing(final HeapAccess acc, final BiConsumer<PDG, T> action) {
+			final FieldAccesses<T> accesses = field2accesses.get(acc.getField());
+			if (accesses == null) {
+				return;
+			}
+
+			final List<T> candidates;
+			if (acc.getBase() == null) {
+				candidates = accesses.withoutBase;
+			} else if (acc.getBase().isEmpty()) {
+				candidates = accesses.withEmptyBase;
+			} else {
+				final IntSet keys = acc.getBase().getBackingSet();
+				if (keys.size() == 1) {
+					final List<T> accs = accesses.byInstanceKey.get(keys.intIterator().next());
+					candidates = (accs != null ? accs : Collections.<T>emptyList());
+				} else {
+					// an access may be indexed under multiple of the instance keys
+					final Set<T> found = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+					candidates = new ArrayList<T>();
+					for (final IntIterator it = keys.intIterator(); it.hasNext();) {
+						final List<T> accs = accesses.byInstanceKey.get(it.next());
+						if (accs != null) {
+							for (final T cur : accs) {
+								if (found.add(cur)) {
+									candidates.add(cur);
+								}
+							}
+						}
+					}
+				}
+			}
+
+			for (final T cur : candidates) {
+				action.accept(access2pdg.get(cur), cur);
+			}
+		}
 	}
 
 	static final class HeapRead extends HeapAccess {
@@ -8,6 +8,7 @@
 package edu.kit.joana.wala.core.killdef;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +68,8 @@ import com.ibm.wala.util.intset.MutableMapping;
 import com.ibm.wala.util.intset.OrdinalSet;
 import com.ibm.wala.util.intset.OrdinalSetMapping;
 
+import edu.kit.joana.util.Log;
+import edu.kit.joana.util.Logger;
 import edu.kit.joana.wala.core.PDG;
 import edu.kit.joana.wala.core.PDGEdge;
 import edu.kit.joana.wala.core.PDGField;
@@ -89,6 +92,7 @@ public final class LocalKillingDefs {
 
 	private static final boolean DEBUG_PRINT = false;
 	private static final boolean INFO_PRINT = false;
+	private static final Logger STATS = Log.getLogger(Log.L_KILLDEF_STATS);
 
 	private final SDGBuilder sdg;
 	private final PDG pdg;
@@ -126,20 +130,32 @@ public final class LocalKillingDefs {
 		return removed;
 	}
 
+	/**
+	 * Methods with more heap accesses are analyzed by {@link SparseKillingDefs} instead of the dense bit vector
+	 * analysis. The dense analysis is more precise, as it also merges equivalent values, but its time and memory
+	 * grow quadratically in the number of instructions and accesses.
+	 */
 	public static final int MAX_ACCESSES_THRESHOLD = 200;
 	
 	public static int run(final SDGBuilder sdg, final PDG pdg, final IProgressMonitor progress)
 			throws CancelException {
+		final long start = (STATS.isEnabled() ? System.nanoTime() : 0);
 		final int numberOfAccesses = pdg.getFieldReads().size() + pdg.getFieldWrites().size() + pdg.staticReads.length
 				+ pdg.staticWrites.length;
-		// currently the local killing definitions analysis does not scale well. We simply skip them for unusual large
-		// methods.
-		if (numberOfAccesses > MAX_ACCESSES_THRESHOLD) {
-			return 0;
-		}
-		
+		final boolean sparse = numberOfAccesses > MAX_ACCESSES_THRESHOLD;
+
 		final LocalKillingDefs lkd = new LocalKillingDefs(sdg, pdg);
-		lkd.run(progress);
+		if (sparse) {
+			lkd.runSparse(progress);
+		} else {
+			lkd.run(progress);
+		}
+
+		if (STATS.isEnabled()) {
+			STATS.outln(String.format("%s: %d accesses, %s, %d edges removed, %d ms", pdg.getMethod().getSignature(),
+					numberOfAccesses, (sparse ? "sparse" : "dense"), lkd.totalRemoved,
+					(System.nanoTime() - start) / 1000000));
+		}
 
 		return lkd.totalRemoved;
 	}
@@ -369,6 +385,75 @@ public final class LocalKillingDefs {
 		if (DEBUG_PRINT) System.out.println();
 	}
 
+	private void runSparse(final IProgressMonitor progress) throws CancelException {
+		final ControlFlowGraph<SSAInstruction, IExplodedBasicBlock> ecfg;
+		try {
+			ecfg = sdg.createExceptionAnalyzedCFG(pdg.cgNode, progress);
+		} catch (UnsoundGraphException e1) {
+			throw new CancelException(e1);
+		}
+		final AccessCreationVisitor acv = new AccessCreationVisitor(ecfg);
+		ir.visitAllInstructions(acv);
+
+		if (!acv.hasWrite) {
+			return;
+		}
+
+		for (final IExplodedBasicBlock bb : ecfg) {
+			final SSAInstruction instr = bb.getInstruction();
+			if (instr != null) {
+				final Access<IExplodedBasicBlock> a = accesses.getAccForInstr(instr);
+				accesses.mapNodeToAccess(bb, a);
+			}
+		}
+
+		// findFieldAccess searches all field nodes, which is too slow for large methods
+		final Map<PDGNode, PDGField> node2read = new HashMap<PDGNode, PDGField>();
+		for (final PDGField f : pdg.getFieldReads()) {
+			node2read.put(f.node, f);
+		}
+		final Map<PDGNode, PDGField> node2write = new HashMap<PDGNode, PDGField>();
+		for (final PDGField f : pdg.getFieldWrites()) {
+			node2write.put(f.node, f);
+		}
+
+		final SparseKillingDefs<IExplodedBasicBlock> skd =
+				new SparseKillingDefs<IExplodedBasicBlock>(ecfg, ecfg.entry());
+		skd.computeKilledWrites(accesses.getReads(), accesses.getWrites(),
+				new SparseKillingDefs.KilledWrites<IExplodedBasicBlock>() {
+
+			@Override
+			public void killed(final FieldAccess<IExplodedBasicBlock> read, final boolean initialValueKilled,
+					final List<FieldAccess<IExplodedBasicBlock>> writes) {
+				final PDGField fieldTo = node2read.get(pdg.getNode(read.getNode().getInstruction()));
+				if (fieldTo == null) {
+					return;
+				}
+
+				final Set<PDGNode> killedFrom = new HashSet<PDGNode>();
+				for (final FieldAccess<IExplodedBasicBlock> w : writes) {
+					final PDGField fieldFrom = node2write.get(pdg.getNode(w.getNode().getInstruction()));
+					if (fieldFrom != null) {
+						killedFrom.add(fieldFrom.accfield);
+					}
+				}
+
+				// same edges as removePotentialDataDep, but a single pass over the incoming edges of the read
+				final List<PDGEdge> toRemove = new LinkedList<PDGEdge>();
+				for (final PDGEdge e : pdg.incomingEdgesOf(fieldTo.accfield)) {
+					if ((e.kind == PDGEdge.Kind.DATA_HEAP || e.kind == PDGEdge.Kind.DATA_ALIAS || e.kind == PDGEdge.Kind.DATA_DEP)
+							&& ((initialValueKilled && e.from.getKind() == PDGNode.Kind.FORMAL_IN)
+									|| killedFrom.contains(e.from))) {
+						toRemove.add(e);
+					}
+				}
+
+				totalRemoved += toRemove.size();
+				pdg.removeAllEdges(toRemove);
+			}
+		}, progress);
+	}
+
 	private int removePotentialDataDep(final FieldAccess<IExplodedBasicBlock> from,
 			final FieldAccess<IExplodedBasicBlock> to) {
 		int removedEdges = 0;
@@ -0,0 +1,457 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.killdef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.dominators.Dominators;
+
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.killdef.Access.Kind;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Sparse computation of the writes that are killed before a read, for methods that are too large for the
+ * dense bit vector analysis of {@link LocalKillingDefs}.
+ * <p>
+ * Two accesses are the same iff they access the same field through the same ssa value numbers (base and, for
+ * arrays, index). Every such access location is treated like a local variable in ssa construction: the writes to
+ * the location are its definitions, an additional definition at the entry node stands for the initial value, and
+ * phi nodes are placed at the iterated dominance frontier of the definitions. The writes that reach a read are
+ * the definitions of its dominating version, closed over the phi nodes. So each location only costs time in
+ * the size of its definitions, reads and phi nodes, instead of the size of the control flow graph.
+ * <p>
+ * The value equivalence classes of the dense analysis are not computed, which may only result in fewer killed
+ * writes. Reads that may be reached from nodes that are unreachable from the entry node are never reported.
+ *
+ * @param <T> the type of the control flow graph nodes
+ */
+final class SparseKillingDefs<T> {
+
+	/**
+	 * Receives the writes that never reach a read.
+	 */
+	interface KilledWrites<T> {
+		/**
+		 * @param read the read
+		 * @param initialValueKilled whether the value the location had at the entry of the method never reaches
+		 * the read
+		 * @param writes the writes to the location of the read that never reach it
+		 */
+		void killed(FieldAccess<T> read, boolean initialValueKilled, List<FieldAccess<T>> writes);
+	}
+
+	private static final int PHI = 0;
+	private static final int IN = 1;
+	private static final int DEF = 2;
+	private static final int OUT = 3;
+
+	private final NumberedGraph<T> flow;
+	private final T entry;
+	private final BitSet reachable;
+	/** nodes that are reachable from a node which is unreachable from the entry */
+	private final BitSet tainted;
+	private final int[] idom;
+	private final int[] pre;
+	private final int[] post;
+	private final TIntArrayList[] frontier;
+
+	/** marks the phi nodes of the current location */
+	private final int[] phiStamp;
+	private int stamp = 0;
+
+	SparseKillingDefs(final NumberedGraph<T> flow, final T entry) {
+		this.flow = flow;
+		this.entry = entry;
+		final int size = flow.getMaxNumber() + 1;
+		this.reachable = forwardReachable(Collections.singletonList(flow.getNumber(entry)));
+		final List<Integer> unreachable = new ArrayList<Integer>();
+		for (final T n : flow) {
+			if (!reachable.get(flow.getNumber(n))) {
+				unreachable.add(flow.getNumber(n));
+			}
+		}
+		this.tainted = forwardReachable(unreachable);
+
+		this.idom = new int[size];
+		Arrays.fill(idom, -1);
+		final Dominators<T> dom = Dominators.make(flow, entry);
+		for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+			final T d = dom.getIdom(flow.getNode(i));
+			idom[i] = (d == null ? -1 : flow.getNumber(d));
+		}
+
+		this.pre = new int[size];
+		this.post = new int[size];
+		numberDominatorTree(size);
+
+		this.frontier = new TIntArrayList[size];
+		computeDominanceFrontiers();
+		this.phiStamp = new int[size];
+	}
+
+	private BitSet forwardReachable(final List<Integer> start) {
+		final BitSet visited = new BitSet();
+		final TIntArrayList todo = new TIntArrayList();
+		for (final int s : start) {
+			if (!visited.get(s)) {
+				visited.set(s);
+				todo.add(s);
+			}
+		}
+		while (!todo.isEmpty()) {
+			final int cur = todo.removeAt(todo.size() - 1);
+			for (final Iterator<T> it = flow.getSuccNodes(flow.getNode(cur)); it.hasNext();) {
+				final int succ = flow.getNumber(it.next());
+				if (!visited.get(succ)) {
+					visited.set(succ);
+					todo.add(succ);
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Numbers the reachable nodes in pre- and postorder of the dominator tree, so dominance is a check of two
+	 * intervals.
+	 */
+	private void numberDominatorTree(final int size) {
+		final TIntArrayList[] children = new TIntArrayList[size];
+		for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+			if (idom[i] >= 0) {
+				if (children[idom[i]] == null) {
+					children[idom[i]] = new TIntArrayList();
+				}
+				children[idom[i]].add(i);
+			}
+		}
+
+		int preCount = 0;
+		int postCount = 0;
+		final TIntArrayList stack = new TIntArrayList();
+		final TIntArrayList childPos = new TIntArrayList();
+		final int root = flow.getNumber(entry);
+		stack.add(root);
+		childPos.add(0);
+		pre[root] = preCount++;
+		while (!stack.isEmpty()) {
+			final int top = stack.size() - 1;
+			final int cur = stack.get(top);
+			final int pos = childPos.get(top);
+			if (children[cur] != null && pos < children[cur].size()) {
+				childPos.set(top, pos + 1);
+				final int child = children[cur].get(pos);
+				pre[child] = preCount++;
+				stack.add(child);
+				childPos.add(0);
+			} else {
+				post[cur] = postCount++;
+				stack.removeAt(top);
+				childPos.removeAt(top);
+			}
+		}
+	}
+
+	private boolean dominates(final int dominator, final int node) {
+		return pre[dominator] <= pre[node] && post[node] <= post[dominator];
+	}
+
+	private void computeDominanceFrontiers() {
+		for (int b = reachable.nextSetBit(0); b >= 0; b = reachable.nextSetBit(b + 1)) {
+			final TIntArrayList preds = reachablePreds(b);
+			if (preds.size() < 2) {
+				continue;
+			}
+			for (int i = 0; i < preds.size(); i++) {
+				int runner = preds.get(i);
+				while (runner >= 0 && runner != idom[b]) {
+					if (frontier[runner] == null) {
+						frontier[runner] = new TIntArrayList();
+					}
+					final TIntArrayList df = frontier[runner];
+					if (!df.isEmpty() && df.get(df.size() - 1) == b) {
+						// already added while walking up from another predecessor of b
+						break;
+					}
+					df.add(b);
+					runner = idom[runner];
+				}
+			}
+		}
+	}
+
+	private TIntArrayList reachablePreds(final int node) {
+		final TIntArrayList preds = new TIntArrayList();
+		for (final Iterator<T> it = flow.getPredNodes(flow.getNode(node)); it.hasNext();) {
+			final int pred = flow.getNumber(it.next());
+			if (reachable.get(pred)) {
+				preds.add(pred);
+			}
+		}
+		return preds;
+	}
+
+	/**
+	 * Computes the killed writes of every read and passes them to the given receiver. Reads that are not killed
+	 * by any write are not reported.
+	 */
+	void computeKilledWrites(final Iterable<FieldAccess<T>> reads, final Iterable<FieldAccess<T>> writes,
+			final KilledWrites<T> receiver, final IProgressMonitor progress) throws CancelException {
+		final Map<Location, List<FieldAccess<T>>> loc2writes = new HashMap<Location, List<FieldAccess<T>>>();
+		for (final FieldAccess<T> w : writes) {
+			final Location loc = new Location(w);
+			List<FieldAccess<T>> l = loc2writes.get(loc);
+			if (l == null) {
+				l = new ArrayList<FieldAccess<T>>();
+				loc2writes.put(loc, l);
+			}
+			l.add(w);
+		}
+
+		// reads of locations without any write cannot be killed
+		final Map<Location, List<FieldAccess<T>>> loc2reads = new LinkedHashMap<Location, List<FieldAccess<T>>>();
+		for (final FieldAccess<T> r : reads) {
+			final int node = flow.getNumber(r.getNode());
+			if (!reachable.get(node) || tainted.get(node) || r.getNode() == entry) {
+				continue;
+			}
+			final Location loc = new Location(r);
+			if (!loc2writes.containsKey(loc)) {
+				continue;
+			}
+			List<FieldAccess<T>> l = loc2reads.get(loc);
+			if (l == null) {
+				l = new ArrayList<FieldAccess<T>>();
+				loc2reads.put(loc, l);
+			}
+			l.add(r);
+		}
+
+		for (final Map.Entry<Location, List<FieldAccess<T>>> e : loc2reads.entrySet()) {
+			MonitorUtil.throwExceptionIfCanceled(progress);
+			computeKilledWrites(e.getValue(), loc2writes.get(e.getKey()), receiver);
+		}
+	}
+
+	/**
+	 * Reaching writes of a single location. Write number 0 is the initial value, write i > 0 is
+	 * <code>writes.get(i - 1)</code>.
+	 */
+	private void computeKilledWrites(final List<FieldAccess<T>> reads, final List<FieldAccess<T>> writes,
+			final KilledWrites<T> receiver) {
+		stamp++;
+		final int numWrites = writes.size() + 1;
+
+		// one version per definition node: the entry node and every reachable node with a write
+		final List<Version> versions = new ArrayList<Version>();
+		final Map<Integer, Version> defAt = new HashMap<Integer, Version>();
+		final Version initial = new Version(flow.getNumber(entry), DEF);
+		initial.writes.set(0);
+		versions.add(initial);
+		defAt.put(initial.node, initial);
+		for (int i = 0; i < writes.size(); i++) {
+			final int node = flow.getNumber(writes.get(i).getNode());
+			if (!reachable.get(node)) {
+				continue;
+			}
+			Version v = defAt.get(node);
+			if (v == null) {
+				v = new Version(node, DEF);
+				versions.add(v);
+				defAt.put(node, v);
+			}
+			v.writes.set(i + 1);
+		}
+
+		// phi nodes at the iterated dominance frontier
+		final List<Version> phis = new ArrayList<Version>();
+		final TIntArrayList todo = new TIntArrayList();
+		for (final Version v : versions) {
+			todo.add(v.node);
+		}
+		while (!todo.isEmpty()) {
+			final int cur = todo.removeAt(todo.size() - 1);
+			if (frontier[cur] == null) {
+				continue;
+			}
+			for (int i = 0; i < frontier[cur].size(); i++) {
+				final int df = frontier[cur].get(i);
+				if (phiStamp[df] != stamp) {
+					phiStamp[df] = stamp;
+					phis.add(new Version(df, PHI));
+					todo.add(df);
+				}
+			}
+		}
+		versions.addAll(phis);
+
+		// find the dominating version of every read and of the end of every phi operand
+		final List<Item> items = new ArrayList<Item>();
+		for (final Version v : versions) {
+			items.add(new Item(v.node, v.kind, v));
+		}
+		final Item[] readItems = new Item[reads.size()];
+		for (int i = 0; i < reads.size(); i++) {
+			readItems[i] = new Item(flow.getNumber(reads.get(i).getNode()), IN, null);
+			items.add(readItems[i]);
+		}
+		final List<List<Item>> operandItems = new ArrayList<List<Item>>(phis.size());
+		for (final Version phi : phis) {
+			final TIntArrayList preds = reachablePreds(phi.node);
+			final List<Item> operands = new ArrayList<Item>(preds.size());
+			for (int i = 0; i < preds.size(); i++) {
+				final Item op = new Item(preds.get(i), OUT, null);
+				operands.add(op);
+				items.add(op);
+			}
+			operandItems.add(operands);
+		}
+		resolveDominatingVersions(items);
+
+		// close the reaching writes over the phi nodes
+		final Map<Version, List<Version>> users = new HashMap<Version, List<Version>>();
+		for (int i = 0; i < phis.size(); i++) {
+			final Version phi = phis.get(i);
+			for (final Item op : operandItems.get(i)) {
+				phi.operands.add(op.version);
+				if (op.version.kind == PHI) {
+					List<Version> u = users.get(op.version);
+					if (u == null) {
+						u = new ArrayList<Version>();
+						users.put(op.version, u);
+					}
+					u.add(phi);
+				}
+			}
+		}
+		final List<Version> worklist = new ArrayList<Version>(phis);
+		while (!worklist.isEmpty()) {
+			final Version phi = worklist.remove(worklist.size() - 1);
+			final int before = phi.writes.cardinality();
+			for (final Version op : phi.operands) {
+				phi.writes.or(op.writes);
+			}
+			if (phi.writes.cardinality() != before && users.containsKey(phi)) {
+				worklist.addAll(users.get(phi));
+			}
+		}
+
+		for (int i = 0; i < reads.size(); i++) {
+			final BitSet reaching = readItems[i].version.writes;
+			if (reaching.cardinality() == numWrites) {
+				continue;
+			}
+			final List<FieldAccess<T>> killed = new ArrayList<FieldAccess<T>>();
+			for (int w = reaching.nextClearBit(1); w < numWrites; w = reaching.nextClearBit(w + 1)) {
+				killed.add(writes.get(w - 1));
+			}
+			receiver.killed(reads.get(i), !reaching.get(0), killed);
+		}
+	}
+
+	/**
+	 * Sets the version of every query item (reads and phi operands) to the closest version that dominates it. The
+	 * items are visited in preorder of the dominator tree, while a stack keeps the versions on the path from the
+	 * root to the current node.
+	 */
+	private void resolveDominatingVersions(final List<Item> items) {
+		Collections.sort(items, new Comparator<Item>() {
+			@Override
+			public int compare(final Item a, final Item b) {
+				final int cmp = Integer.compare(pre[a.node], pre[b.node]);
+				return (cmp != 0 ? cmp : Integer.compare(a.kind, b.kind));
+			}
+		});
+
+		final List<Version> stack = new ArrayList<Version>();
+		for (final Item it : items) {
+			while (!stack.isEmpty() && !dominates(stack.get(stack.size() - 1).node, it.node)) {
+				stack.remove(stack.size() - 1);
+			}
+			if (it.kind == PHI || it.kind == DEF) {
+				stack.add(it.version);
+			} else {
+				// the definition at the entry node dominates every reachable node
+				it.version = stack.get(stack.size() - 1);
+			}
+		}
+	}
+
+	private static final class Version {
+		private final int node;
+		private final int kind;
+		private final BitSet writes = new BitSet();
+		private final List<Version> operands = new ArrayList<Version>(2);
+
+		private Version(final int node, final int kind) {
+			this.node = node;
+			this.kind = kind;
+		}
+	}
+
+	private static final class Item {
+		private final int node;
+		/** one of PHI, IN, DEF, OUT, i.e. the order of the items of a single node */
+		private final int kind;
+		private Version version;
+
+		private Item(final int node, final int kind, final Version version) {
+			this.node = node;
+			this.kind = kind;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * The memory location of an access: a field, accessed through the same ssa values.
+	 */
+	private static final class Location {
+		private final Kind kind;
+		private final ParameterField field;
+		private final int base;
+		private final int index;
+
+		private Location(final FieldAccess<?> acc) {
+			this.kind = acc.getKind();
+			this.field = acc.getField();
+			this.base = (kind == Kind.STATIC ? -1 : acc.getBase().v);
+			this.index = (kind == Kind.ARRAY ? acc.getIndex().v : -1);
+		}
+
+		@Override
+		public int hashCode() {
+			return ((field.hashCode() * 31 + base) * 31 + index) * 31 + kind.ordinal();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Location)) {
+				return false;
+			}
+			final Location other = (Location) obj;
+			return kind == other.kind && base == other.base && index == other.index && field.equals(other.field);
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.eval.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.ibm.wala.ipa.cha.ClassHierarchyException;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.MonitorUtil.IProgressMonitor;
+import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
+
+import edu.kit.joana.api.sdg.SDGBuildPreparation;
+import edu.kit.joana.api.sdg.SDGConfig;
+import edu.kit.joana.api.sdg.SDGProgram;
+import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGSerializer;
+import edu.kit.joana.ifc.sdg.util.JavaMethodSignature;
+import edu.kit.joana.util.Stubs;
+import edu.kit.joana.util.io.IOFactory;
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.PDG;
+import edu.kit.joana.wala.core.PDGNode;
+import edu.kit.joana.wala.core.SDGBuilder;
+import edu.kit.joana.wala.summary.SummaryComputation2;
+import edu.kit.joana.wala.summary.SummaryComputationType;
+import edu.kit.joana.wala.summary.WorkPackage;
+import edu.kit.joana.wala.summary.WorkPackage.EntryPoint;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * Compares the running times of the different summary edge computations. Every invocation works on a fresh copy of
+ * an sdg without summary edges.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss128m")
+public class SummaryComputationBenchmark {
+
+	public static final String JOANA_API_TEST_DATA_CLASSPATH = JavaBenchmark.JOANA_API_TEST_DATA_CLASSPATH;
+
+	private static final Stubs STUBS = Stubs.JRE_15;
+
+	@State(Scope.Benchmark)
+	public static class WithoutSummaryEdges {
+		@Param({"JLex.Main", "de.uni.trier.infsec.core.Setup"})
+		String className;
+
+		String sdgWithoutSummaryEdges;
+		int entryId;
+		TIntSet formIns;
+		TIntSet formOuts;
+
+		SDG sdg;
+
+		@Setup(Level.Trial)
+		public void doSetup() throws ClassHierarchyException, UnsoundGraphException, CancelException, IOException {
+			final SDGConfig config = new SDGConfig(JOANA_API_TEST_DATA_CLASSPATH, null, STUBS);
+			config.setParallel(false);
+			config.setComputeSummaryEdges(false);
+			config.setEntryMethod(JavaMethodSignature.mainMethodOfClass(className).toBCString());
+
+			final PrintStream out = IOFactory.createUTF8PrintStream(new ByteArrayOutputStream());
+			final IProgressMonitor monitor = NullProgressMonitor.INSTANCE;
+			final com.ibm.wala.util.collections.Pair<SDG, SDGBuilder> p =
+					SDGBuildPreparation.computeAndKeepBuilder(out, SDGProgram.makeBuildPreparationConfig(config), monitor);
+
+			final PDG main = p.snd.getMainPDG();
+			this.entryId = main.entry.getId();
+			this.formIns = new TIntHashSet();
+			for (final PDGNode param : main.params) {
+				formIns.add(param.getId());
+			}
+			this.formOuts = new TIntHashSet();
+			formOuts.add(main.exception.getId());
+			formOuts.add(main.exit.getId());
+
+			final StringWriter sw = new StringWriter();
+			final PrintWriter pw = new PrintWriter(sw);
+			SDGSerializer.toPDGFormat(p.fst, pw);
+			pw.flush();
+			this.sdgWithoutSummaryEdges = sw.toString();
+		}
+
+		@Setup(Level.Invocation)
+		public void freshCopy() throws IOException {
+			this.sdg = SDG.readFrom(new StringReader(sdgWithoutSummaryEdges));
+		}
+
+		WorkPackage<SDG> createWorkPackage() {
+			final Set<EntryPoint> entries = new TreeSet<EntryPoint>();
+			entries.add(new EntryPoint(entryId, formIns, formOuts));
+			return WorkPackage.create(sdg, entries, sdg.getName());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Pool {
+		@Param({"1", "2", "4", "8"})
+		int threads;
+
+		ForkJoinPool pool;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			this.pool = new ForkJoinPool(threads);
+		}
+
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			pool.shutdown();
+		}
+	}
+
+	private static int compute(SummaryComputationType type, boolean parallel, WithoutSummaryEdges state) throws CancelException {
+		return type.getSummaryComputer().compute(state.createWorkPackage(), parallel, NullProgressMonitor.INSTANCE);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, batchSize = 1)
+	@Measurement(iterations = 5, batchSize = 1)
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int testClassic(WithoutSummaryEdges state) throws CancelException {
+		return compute(SummaryComputationType.JOANA_CLASSIC, false, state);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, batchSize = 1)
+	@Measurement(iterations = 5, batchSize = 1)
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int testClassicSCC(WithoutSummaryEdges state) throws CancelException {
+		return compute(SummaryComputationType.JOANA_CLASSIC_SCC, false, state);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, batchSize = 1)
+	@Measurement(iterations = 5, batchSize = 1)
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int testSimonSCC(WithoutSummaryEdges state) throws CancelException {
+		return compute(SummaryComputationType.SIMON_SCC, false, state);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2, batchSize = 1)
+	@Measurement(iterations = 5, batchSize = 1)
+	@BenchmarkMode(Mode.SingleShotTime)
+	public int testSimonSCCPool(WithoutSummaryEdges state, Pool pool) throws CancelException {
+		return SummaryComputation2.compute(state.createWorkPackage(), pool.pool, NullProgressMonitor.INSTANCE);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+			.include(SummaryComputationBenchmark.class.getSimpleName())
+			.forks(1)
+			.build();
+		new Runner(opt).run();
+	}
+}
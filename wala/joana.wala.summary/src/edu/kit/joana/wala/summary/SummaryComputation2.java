@@ -20,11 +20,15 @@ import gnu.trove.set.TIntSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.alg.KosarajuStrongConnectivityInspector;
@@ -160,18 +164,32 @@ public class SummaryComputation2 {
 		return false;
 	}
 	
+	/**
+	 * Runs the summary computation of the sccs of the reversed call graph on a fork/join pool. The computation of
+	 * an scc is scheduled as soon as the computation of all its predecessors (the callees) is done. A worker that
+	 * finishes an scc continues with one of the sccs that became ready and forks tasks for the others, so idle
+	 * workers are able to steal them. The number of concurrent workers is bounded by the parallelism of the pool.
+	 */
 	private static class SCCScheduler {
-		CountDownLatch countdown;
-		DirectedGraph<Set<SDGNode>, DefaultEdge> sccGraph;
-		IProgressMonitor progress;
-		Collection<SDGEdge> summary;
-		SummaryComputation2 comp;
-		Set<SDGEdge> formInOutSummaryEdge;
-		int i = 1;
-		
-		public SCCScheduler(DirectedGraph<Set<SDGNode>, DefaultEdge> sccGraph, IProgressMonitor progress,
-				Collection<SDGEdge> summary, SummaryComputation2 comp, Set<SDGEdge> formInOutSummaryEdge) {
+		private final ForkJoinPool pool;
+		private final DirectedGraph<Set<SDGNode>, DefaultEdge> sccGraph;
+		private final Map<Set<SDGNode>, AtomicInteger> pendingPredecessors;
+		private final CountDownLatch countdown;
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+		private final IProgressMonitor progress;
+		private final Collection<SDGEdge> summary;
+		private final SummaryComputation2 comp;
+		private final Set<SDGEdge> formInOutSummaryEdge;
+
+		public SCCScheduler(ForkJoinPool pool, DirectedGraph<Set<SDGNode>, DefaultEdge> sccGraph,
+				IProgressMonitor progress, Collection<SDGEdge> summary, SummaryComputation2 comp,
+				Set<SDGEdge> formInOutSummaryEdge) {
+			this.pool = pool;
 			this.sccGraph = sccGraph;
+			this.pendingPredecessors = new IdentityHashMap<>();
+			for (Set<SDGNode> scc : sccGraph.vertexSet()) {
+				pendingPredecessors.put(scc, new AtomicInteger(sccGraph.inDegreeOf(scc)));
+			}
 			this.countdown = new CountDownLatch(sccGraph.vertexSet().size());
 			this.progress = progress;
 			this.summary = summary;
@@ -179,89 +197,92 @@ public class SummaryComputation2 {
 			this.formInOutSummaryEdge = formInOutSummaryEdge;
 		}
 
-		void start() {
-			synchronized (this) {
-				for (Set<SDGNode> scc : sccGraph.vertexSet()) {
-					if (sccGraph.inDegreeOf(scc) == 0) {
-						System.out.println("SCC "+i);
-						i++;
-						new SumCompThread(scc, formInOutSummaryEdge).start();
-					}
+		void run() throws CancelException {
+			for (Set<SDGNode> scc : sccGraph.vertexSet()) {
+				if (sccGraph.inDegreeOf(scc) == 0) {
+					pool.execute(new SCCTask(scc));
 				}
 			}
 			try {
 				countdown.await();
 			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+				Thread.currentThread().interrupt();
+				throw CancelException.make("Summary computation interrupted.");
+			}
+
+			final Throwable t = failure.get();
+			if (t instanceof CancelException) {
+				throw (CancelException) t;
+			} else if (t instanceof RuntimeException) {
+				throw (RuntimeException) t;
+			} else if (t instanceof Error) {
+				throw (Error) t;
 			}
 		}
-		
-		void callback(Set<SDGNode> scc, SumCompThread t) {
-			Set<SDGNode> inheritedSCC = null;
-			synchronized (this) {
-				List<Set<SDGNode>> succs = new LinkedList<>();
-				for (DefaultEdge e : sccGraph.outgoingEdgesOf(scc)) {
-					succs.add(sccGraph.getEdgeTarget(e));
-				}
-				sccGraph.removeVertex(scc);
-				for (Set<SDGNode> succ : succs) {
-					if (sccGraph.inDegreeOf(succ) == 0) {
-						if (inheritedSCC == null) {
-							inheritedSCC = succ;
-							continue;
-						}
-						System.out.print("SCC "+i);
-						i++;
-						new SumCompThread(succ, formInOutSummaryEdge).start();
-					}
-				}
-				countdown.countDown();
+
+		private void computeSCC(Set<SDGNode> scc) throws CancelException {
+			if (progress.isCanceled()) {
+				throw CancelException.make("Summary computation canceled.");
 			}
-			if (inheritedSCC != null) {
-				System.out.print("SCC "+i);
-				i++;
-				t.setSCC(inheritedSCC);
-				// calling run() instead of start() here is intentional
-				// we reuse the thread that finished the calculation for the next one
-				t.run();
+			if (scc.size() > 1) {
+				comp.computeSCCSummaryEdges(summary, scc, formInOutSummaryEdge, progress);
+			} else {
+				comp.computeMethodSummaryEdges(summary, scc.iterator().next(), formInOutSummaryEdge, progress);
 			}
 		}
-		
-		class SumCompThread extends Thread {
-			Set<SDGNode> scc;
-			final Set<SDGEdge> formInOutSummaryEdge;
-			SumCompThread(Set<SDGNode> scc, Set<SDGEdge> formInOutSummaryEdge) {
-				this.scc = scc;
-				this.formInOutSummaryEdge = formInOutSummaryEdge;
-			}
-			
-			void setSCC(Set<SDGNode> scc) {
-				this.scc = scc;
+
+		private class SCCTask extends RecursiveAction {
+			private static final long serialVersionUID = 1L;
+			private final Set<SDGNode> first;
+
+			SCCTask(Set<SDGNode> first) {
+				this.first = first;
 			}
-			
+
 			@Override
-			public void run() {
-				if (scc.size() > 1) {
-					System.out.println(" with size "+scc.size() + ", se: "+se+", sp: "+sp);
-					try {
-						comp.computeSCCSummaryEdges(summary, scc, formInOutSummaryEdge, progress);
-					} catch (CancelException e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
+			protected void compute() {
+				Set<SDGNode> scc = first;
+				while (scc != null) {
+					// after a failure the remaining sccs are only counted down, so the waiting thread is released
+					if (failure.get() == null) {
+						try {
+							computeSCC(scc);
+						} catch (CancelException | RuntimeException | Error e) {
+							failure.compareAndSet(null, e);
+						}
 					}
-				} else {
-					System.out.println(" , se: "+se+", sp: "+sp);
-					comp.computeMethodSummaryEdges(summary, scc.iterator().next(), formInOutSummaryEdge, progress);
+
+					Set<SDGNode> inheritedSCC = null;
+					for (DefaultEdge e : sccGraph.outgoingEdgesOf(scc)) {
+						final Set<SDGNode> succ = sccGraph.getEdgeTarget(e);
+						if (pendingPredecessors.get(succ).decrementAndGet() == 0) {
+							if (inheritedSCC == null) {
+								inheritedSCC = succ;
+							} else {
+								new SCCTask(succ).fork();
+							}
+						}
+					}
+					countdown.countDown();
+					scc = inheritedSCC;
 				}
-				callback(scc, this);
 			}
 		}
 	}
 	
 	static int se=0,sp=0;
 	public static int compute(WorkPackage<SDG> pack, boolean parallel, IProgressMonitor progress) throws CancelException {
-		
+		return compute(pack, SDGEdge.Kind.SUMMARY, defaultRelevantEdges(), parallel, progress);
+	}
+
+	/**
+	 * Computes the default summary edges, processing independent sccs of the call graph concurrently on the given pool.
+	 */
+	public static int compute(WorkPackage<SDG> pack, ForkJoinPool pool, IProgressMonitor progress) throws CancelException {
+		return compute(pack, SDGEdge.Kind.SUMMARY, defaultRelevantEdges(), pool, null, progress);
+	}
+
+	private static Set<SDGEdge.Kind> defaultRelevantEdges() {
 		Set<SDGEdge.Kind> relevantEdges = new HashSet<SDGEdge.Kind>();
 		relevantEdges.add(SDGEdge.Kind.DATA_DEP);
 		relevantEdges.add(SDGEdge.Kind.DATA_HEAP);
@@ -278,8 +299,8 @@ public class SummaryComputation2 {
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_DATA);
 		relevantEdges.add(SDGEdge.Kind.SUMMARY_NO_ALIAS);
 		relevantEdges.add(SDGEdge.Kind.SYNCHRONIZATION);
-		
-		return compute(pack, SDGEdge.Kind.SUMMARY, relevantEdges, parallel, progress);
+
+		return relevantEdges;
 	}
 		
 	public static int compute(
@@ -289,6 +310,30 @@ public class SummaryComputation2 {
 			boolean parallel,
 			String annotate,
 			IProgressMonitor progress) throws CancelException {
+		if (!parallel) {
+			return compute(pack, sumEdgeKind, relevantEdges, (ForkJoinPool) null, annotate, progress);
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try {
+			return compute(pack, sumEdgeKind, relevantEdges, pool, annotate, progress);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Computes the summary edges of the given work package. If a pool is given, independent sccs of the call graph
+	 * are processed concurrently on this pool, otherwise they are processed one after another in topological order.
+	 * Both variants compute the same summary edges. The pool is not shut down by this method.
+	 */
+	public static int compute(
+			WorkPackage<SDG> pack,
+			SDGEdge.Kind sumEdgeKind,
+			Set<SDGEdge.Kind> relevantEdges,
+			ForkJoinPool pool,
+			String annotate,
+			IProgressMonitor progress) throws CancelException {
 		for (SDGNode v : pack.getGraph().vertexSet()) {
 			pack.getGraph().incomingEdgesOf(v);
 			pack.getGraph().outgoingEdgesOf(v);
@@ -313,9 +358,9 @@ public class SummaryComputation2 {
 				", E: "+pack.getGraph().edgeSet().size());
 		
 		final HashSet<SDGEdge> formInOutSummaryEdge = new HashSet<>();
-		if (parallel) {
-			SCCScheduler scheduler = new SCCScheduler(sccGraph, progress, summary, comp, formInOutSummaryEdge);
-			scheduler.start();
+		if (pool != null) {
+			SCCScheduler scheduler = new SCCScheduler(pool, sccGraph, progress, summary, comp, formInOutSummaryEdge);
+			scheduler.run();
 		} else {
 			while (topIter.hasNext()) {
 				Set<SDGNode> entries = topIter.next();
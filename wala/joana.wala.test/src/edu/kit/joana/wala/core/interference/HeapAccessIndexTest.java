@@ -0,0 +1,165 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.interference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ibm.wala.ipa.callgraph.propagation.InstanceKey;
+import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.intset.IntSetUtil;
+import com.ibm.wala.util.intset.MutableIntSet;
+import com.ibm.wala.util.intset.OrdinalSet;
+
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapAccess;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapAccessIndex;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapRead;
+import edu.kit.joana.wala.core.interference.InterferenceComputation.HeapWrite;
+
+/**
+ * Checks that the {@link HeapAccessIndex} of the interference computation finds exactly the accesses that the
+ * former computation found by checking {@link HeapAccess#isAliasing(HeapAccess)} for all pairs of accesses, and
+ * that an access without a base does not alias an access with a base.
+ */
+public class HeapAccessIndexTest {
+
+	private static ParameterField newField(final String name) {
+		return new ParameterField() {
+			@Override public boolean isField() { return true; }
+			@Override public boolean isArray() { return false; }
+			@Override public boolean isStatic() { return false; }
+			@Override public boolean isPrimitiveType() { return true; }
+			@Override public String getName() { return name; }
+			@Override public String getBytecodeName() { return name; }
+			@Override public int getBytecodeIndex() { return -1; }
+			@Override public TypeReference getType() { return TypeReference.Int; }
+			@Override public int hashCode() { return name.hashCode(); }
+			@Override public boolean equals(Object obj) { return this == obj; }
+		};
+	}
+
+	private static OrdinalSet<InstanceKey> base(final int... instanceKeys) {
+		return new OrdinalSet<InstanceKey>(IntSetUtil.make(instanceKeys), null);
+	}
+
+	/* no base, an empty base or a base of up to 3 of 6 instance keys */
+	private static OrdinalSet<InstanceKey> randomBase(final Random rnd) {
+		switch (rnd.nextInt(4)) {
+		case 0:
+			return null;
+		case 1:
+			return (rnd.nextBoolean() ? OrdinalSet.<InstanceKey>empty() : base());
+		default:
+			final MutableIntSet keys = IntSetUtil.make();
+			for (int i = 1 + rnd.nextInt(3); i > 0; i--) {
+				keys.add(rnd.nextInt(6));
+			}
+			return new OrdinalSet<InstanceKey>(keys, null);
+		}
+	}
+
+	private static <T extends HeapAccess> Set<T> aliasingInIndex(final HeapAccessIndex<T> index,
+			final HeapAccess acc) {
+		final Set<T> found = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+		index.forEachAliasing(acc, (pdg, cur) -> assertTrue("found twice: " + cur, found.add(cur)));
+		return found;
+	}
+
+	private static <T extends HeapAccess> Set<T> aliasingPairwise(final List<T> accesses, final HeapAccess acc) {
+		final Set<T> found = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+		for (final T cur : accesses) {
+			if (acc.isAliasing(cur)) {
+				found.add(cur);
+			}
+		}
+		return found;
+	}
+
+	@Test
+	public void testIndexFindsTheAliasingPairs() {
+		final Random rnd = new Random(42);
+		for (int round = 0; round < 50; round++) {
+			final List<ParameterField> fields = new ArrayList<ParameterField>();
+			for (int i = 0; i < 3; i++) {
+				fields.add(newField("f" + i));
+			}
+
+			final HeapAccessIndex<HeapRead> readIndex = new HeapAccessIndex<HeapRead>();
+			final HeapAccessIndex<HeapWrite> writeIndex = new HeapAccessIndex<HeapWrite>();
+			final List<HeapRead> reads = new ArrayList<HeapRead>();
+			final List<HeapWrite> writes = new ArrayList<HeapWrite>();
+			for (int i = 0; i < 40; i++) {
+				final ParameterField field = fields.get(rnd.nextInt(fields.size()));
+				if (rnd.nextBoolean()) {
+					final HeapRead read = HeapAccess.createRead(null, randomBase(rnd), field);
+					reads.add(read);
+					readIndex.add(null, read);
+				} else {
+					final HeapWrite write = HeapAccess.createWrite(null, randomBase(rnd), field);
+					writes.add(write);
+					writeIndex.add(null, write);
+				}
+			}
+
+			for (final HeapWrite write : writes) {
+				assertEquals(aliasingPairwise(reads, write), aliasingInIndex(readIndex, write));
+				assertEquals(aliasingPairwise(writes, write), aliasingInIndex(writeIndex, write));
+			}
+		}
+	}
+
+	@Test
+	public void testNoBaseDoesNotAliasBase() {
+		final ParameterField f = newField("f");
+		final HeapWrite withBase = HeapAccess.createWrite(null, base(1, 2), f);
+		final HeapRead withoutBase = HeapAccess.createRead(null, null, f);
+		final HeapWrite withoutBaseWrite = HeapAccess.createWrite(null, null, f);
+
+		assertFalse(withBase.isAliasing(withoutBase));
+		assertFalse(withoutBase.isAliasing(withBase));
+		assertTrue(withoutBaseWrite.isAliasing(withoutBase));
+
+		final HeapAccessIndex<HeapRead> reads = new HeapAccessIndex<HeapRead>();
+		reads.add(null, withoutBase);
+		assertTrue(aliasingInIndex(reads, withBase).isEmpty());
+		assertEquals(1, aliasingInIndex(reads, withoutBaseWrite).size());
+
+		final HeapAccessIndex<HeapWrite> writes = new HeapAccessIndex<HeapWrite>();
+		writes.add(null, withBase);
+		assertTrue(aliasingInIndex(writes, withoutBase).isEmpty());
+	}
+
+	@Test
+	public void testSharedInstanceKeyAliases() {
+		final ParameterField f = newField("f");
+		final ParameterField g = newField("g");
+		final HeapWrite write = HeapAccess.createWrite(null, base(1, 2, 3), f);
+
+		final HeapAccessIndex<HeapRead> reads = new HeapAccessIndex<HeapRead>();
+		final HeapRead shared = HeapAccess.createRead(null, base(3, 4), f);
+		reads.add(null, shared);
+		reads.add(null, HeapAccess.createRead(null, base(4, 5), f));
+		reads.add(null, HeapAccess.createRead(null, base(1), g));
+		reads.add(null, HeapAccess.createRead(null, base(), f));
+
+		final Set<HeapRead> found = aliasingInIndex(reads, write);
+		assertEquals(1, found.size());
+		assertTrue(found.contains(shared));
+	}
+}
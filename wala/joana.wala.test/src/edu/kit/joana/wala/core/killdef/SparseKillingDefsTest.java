@@ -0,0 +1,273 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.core.killdef;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.ibm.wala.types.TypeReference;
+import com.ibm.wala.util.CancelException;
+import com.ibm.wala.util.graph.NumberedGraph;
+import com.ibm.wala.util.graph.impl.SlowSparseNumberedGraph;
+
+import edu.kit.joana.wala.core.NullProgressMonitor;
+import edu.kit.joana.wala.core.ParameterField;
+import edu.kit.joana.wala.core.killdef.Access.RW;
+
+/**
+ * Compares the writes that {@link SparseKillingDefs}, which {@link LocalKillingDefs} uses for methods with more than
+ * {@link LocalKillingDefs#MAX_ACCESSES_THRESHOLD} accesses, finds to be killed before a read with those of a dense
+ * reaching definitions analysis on random control flow graphs.
+ */
+public class SparseKillingDefsTest {
+
+	private static ParameterField newField(final String name) {
+		return new ParameterField() {
+			@Override public boolean isField() { return true; }
+			@Override public boolean isArray() { return false; }
+			@Override public boolean isStatic() { return false; }
+			@Override public boolean isPrimitiveType() { return true; }
+			@Override public String getName() { return name; }
+			@Override public String getBytecodeName() { return name; }
+			@Override public int getBytecodeIndex() { return -1; }
+			@Override public TypeReference getType() { return TypeReference.Int; }
+			@Override public int hashCode() { return name.hashCode(); }
+			@Override public boolean equals(Object obj) { return this == obj; }
+		};
+	}
+
+	/**
+	 * A random control flow graph: a chain from the entry node 0 with short random forward and backward edges, and a
+	 * few nodes that are unreachable from the entry but reach the last node of the chain.
+	 */
+	private static NumberedGraph<Integer> randomFlow(final Random rnd, final int size, final int unreachable) {
+		final NumberedGraph<Integer> flow = SlowSparseNumberedGraph.make();
+		for (int i = 0; i < size + unreachable; i++) {
+			flow.addNode(i);
+		}
+		for (int i = 0; i + 1 < size; i++) {
+			flow.addEdge(i, i + 1);
+			if (rnd.nextInt(6) == 0) {
+				flow.addEdge(i, Math.min(size - 1, i + 2 + rnd.nextInt(8)));
+			}
+			if (rnd.nextInt(10) == 0) {
+				flow.addEdge(i, Math.max(1, i - rnd.nextInt(30)));
+			}
+		}
+		for (int i = size; i < size + unreachable; i++) {
+			flow.addEdge(i, size - 1);
+		}
+		return flow;
+	}
+
+	/** location of an access, as in {@link SparseKillingDefs}: the kind, the field and the base value */
+	private static Object location(final FieldAccess<Integer> acc) {
+		return Arrays.asList(acc.getKind(), acc.getField(), (acc.getKind() == Access.Kind.STATIC ? -1 : acc.getBase().v));
+	}
+
+	private static final class Killed {
+		private final boolean initialValueKilled;
+		private final Set<FieldAccess<Integer>> writes;
+
+		private Killed(final boolean initialValueKilled, final Set<FieldAccess<Integer>> writes) {
+			this.initialValueKilled = initialValueKilled;
+			this.writes = writes;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof Killed && ((Killed) obj).initialValueKilled == initialValueKilled
+					&& ((Killed) obj).writes.equals(writes);
+		}
+
+		@Override
+		public int hashCode() {
+			return writes.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return (initialValueKilled ? "initial value and " : "") + writes;
+		}
+	}
+
+	private static BitSet reachableFrom(final NumberedGraph<Integer> flow, final List<Integer> start) {
+		final BitSet visited = new BitSet();
+		final List<Integer> todo = new ArrayList<Integer>(start);
+		for (final int s : start) {
+			visited.set(s);
+		}
+		while (!todo.isEmpty()) {
+			final int cur = todo.remove(todo.size() - 1);
+			for (final Iterator<Integer> it = flow.getSuccNodes(cur); it.hasNext();) {
+				final int succ = it.next();
+				if (!visited.get(succ)) {
+					visited.set(succ);
+					todo.add(succ);
+				}
+			}
+		}
+		return visited;
+	}
+
+	/**
+	 * Dense reaching definitions: definition {@code i < writes.size()} is the i-th write, definition
+	 * {@code writes.size() + k} is the initial value of the k-th location, defined at the entry node. Reads of nodes
+	 * that are reachable from an unreachable node are skipped, like {@link SparseKillingDefs} does.
+	 */
+	private static Map<FieldAccess<Integer>, Killed> dense(final NumberedGraph<Integer> flow, final int size,
+			final List<FieldAccess<Integer>> reads, final List<FieldAccess<Integer>> writes) {
+		final Map<Object, Integer> locations = new HashMap<Object, Integer>();
+		for (final FieldAccess<Integer> w : writes) {
+			if (!locations.containsKey(location(w))) {
+				locations.put(location(w), locations.size());
+			}
+		}
+		final int numDefs = writes.size() + locations.size();
+		final BitSet[] defsOfLocation = new BitSet[locations.size()];
+		for (int k = 0; k < locations.size(); k++) {
+			defsOfLocation[k] = new BitSet(numDefs);
+			defsOfLocation[k].set(writes.size() + k);
+		}
+		for (int i = 0; i < writes.size(); i++) {
+			defsOfLocation[locations.get(location(writes.get(i)))].set(i);
+		}
+
+		final int nodes = flow.getMaxNumber() + 1;
+		final BitSet[] gen = new BitSet[nodes];
+		final BitSet[] kill = new BitSet[nodes];
+		for (int n = 0; n < nodes; n++) {
+			gen[n] = new BitSet(numDefs);
+			kill[n] = new BitSet(numDefs);
+		}
+		for (int k = 0; k < locations.size(); k++) {
+			gen[0].set(writes.size() + k);
+		}
+		for (int i = 0; i < writes.size(); i++) {
+			final int n = writes.get(i).getNode();
+			kill[n].or(defsOfLocation[locations.get(location(writes.get(i)))]);
+		}
+		for (int i = 0; i < writes.size(); i++) {
+			gen[writes.get(i).getNode()].set(i);
+		}
+
+		final BitSet[] in = new BitSet[nodes];
+		final BitSet[] out = new BitSet[nodes];
+		for (int n = 0; n < nodes; n++) {
+			in[n] = new BitSet(numDefs);
+			out[n] = new BitSet(numDefs);
+		}
+		final BitSet reachable = reachableFrom(flow, Collections.singletonList(0));
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int n = reachable.nextSetBit(0); n >= 0; n = reachable.nextSetBit(n + 1)) {
+				final BitSet newIn = new BitSet(numDefs);
+				for (final Iterator<Integer> it = flow.getPredNodes(n); it.hasNext();) {
+					newIn.or(out[it.next()]);
+				}
+				final BitSet newOut = (BitSet) newIn.clone();
+				newOut.andNot(kill[n]);
+				newOut.or(gen[n]);
+				if (!newOut.equals(out[n]) || !newIn.equals(in[n])) {
+					in[n] = newIn;
+					out[n] = newOut;
+					changed = true;
+				}
+			}
+		}
+
+		final List<Integer> unreachable = new ArrayList<Integer>();
+		for (int n = size; n < nodes; n++) {
+			unreachable.add(n);
+		}
+		final BitSet tainted = reachableFrom(flow, unreachable);
+
+		final Map<FieldAccess<Integer>, Killed> result = new HashMap<FieldAccess<Integer>, Killed>();
+		for (final FieldAccess<Integer> r : reads) {
+			final int n = r.getNode();
+			final Integer k = locations.get(location(r));
+			if (k == null || n == 0 || tainted.get(n)) {
+				continue;
+			}
+			final boolean initialValueKilled = !in[n].get(writes.size() + k);
+			final Set<FieldAccess<Integer>> killed = new HashSet<FieldAccess<Integer>>();
+			for (int i = defsOfLocation[k].nextSetBit(0); i < writes.size(); i = defsOfLocation[k].nextSetBit(i + 1)) {
+				if (!in[n].get(i)) {
+					killed.add(writes.get(i));
+				}
+			}
+			if (initialValueKilled || !killed.isEmpty()) {
+				result.put(r, new Killed(initialValueKilled, killed));
+			}
+		}
+		return result;
+	}
+
+	private static Map<FieldAccess<Integer>, Killed> sparse(final NumberedGraph<Integer> flow,
+			final List<FieldAccess<Integer>> reads, final List<FieldAccess<Integer>> writes) throws CancelException {
+		final Map<FieldAccess<Integer>, Killed> result = new HashMap<FieldAccess<Integer>, Killed>();
+		new SparseKillingDefs<Integer>(flow, 0).computeKilledWrites(reads, writes,
+				new SparseKillingDefs.KilledWrites<Integer>() {
+			@Override
+			public void killed(final FieldAccess<Integer> read, final boolean initialValueKilled,
+					final List<FieldAccess<Integer>> killed) {
+				assertTrue("reported twice: " + read, result.put(read,
+						new Killed(initialValueKilled, new HashSet<FieldAccess<Integer>>(killed))) == null);
+			}
+		}, NullProgressMonitor.INSTANCE);
+		return result;
+	}
+
+	@Test
+	public void testSparseEqualsDense() throws CancelException {
+		for (long seed = 0; seed < 20; seed++) {
+			final Random rnd = new Random(seed);
+			final int size = 400 + rnd.nextInt(200);
+			final NumberedGraph<Integer> flow = randomFlow(rnd, size, 5);
+			final ParameterField[] fields = { newField("f"), newField("g"), newField("h") };
+			final AccessManager<Integer> accesses = new AccessManager<Integer>(null);
+
+			// at most one access per node, so the order of accesses within a node does not matter
+			final List<FieldAccess<Integer>> reads = new ArrayList<FieldAccess<Integer>>();
+			final List<FieldAccess<Integer>> writes = new ArrayList<FieldAccess<Integer>>();
+			for (int n = 1; n < flow.getMaxNumber() + 1; n++) {
+				if (rnd.nextInt(3) == 0) {
+					continue;
+				}
+				final ParameterField field = fields[rnd.nextInt(fields.length)];
+				final RW rw = (rnd.nextBoolean() ? RW.READ : RW.WRITE);
+				final FieldAccess<Integer> acc = (rnd.nextInt(4) == 0
+						? new StaticFieldAccess<Integer>(n, n, field, rw, accesses.getValue(100 + n))
+						: new ObjectFieldAccess<Integer>(n, n, field, rw, accesses.getValue(100 + n),
+								accesses.getValue(1 + rnd.nextInt(3))));
+				acc.setNode(n);
+				(acc.isRead() ? reads : writes).add(acc);
+			}
+			assertTrue(reads.size() + writes.size() > LocalKillingDefs.MAX_ACCESSES_THRESHOLD);
+
+			final Map<FieldAccess<Integer>, Killed> expected = dense(flow, size, reads, writes);
+			assertTrue("nothing killed", !expected.isEmpty());
+			assertEquals("seed " + seed, expected, sparse(flow, reads, writes));
+		}
+	}
+}
@@ -22,6 +22,7 @@ import com.ibm.wala.util.CancelException;
 import com.ibm.wala.util.graph.GraphIntegrity.UnsoundGraphException;
 
 import edu.kit.joana.ifc.sdg.graph.SDG;
+import edu.kit.joana.ifc.sdg.graph.SDGBinarySerializer;
 import edu.kit.joana.ifc.sdg.graph.SDGEdge;
 import edu.kit.joana.ifc.sdg.graph.SDGNode;
 
@@ -278,6 +279,38 @@ public class SDGBuildWriteAndReadAgain {
 		}
 	}
 
+	@Test
+	public void buildWriteReadBinary_Test_foo1() {
+		final String src = "../MoJo-TestCode/src";
+		final String bin = "../MoJo-TestCode/bin";
+		final String method = "Test.foo1(LTest$A;LTest$A;)LTest$A2;";
+
+		try {
+			final MoJoTest mt = MoJoTest.create(src, bin, out);
+			final SDG sdg = mt.analyzeMethod(method);
+			final String fileName = mt.getSDGFileName(sdg.getFileName()) + ".bin";
+			SDGBinarySerializer.toBinaryFormat(sdg, fileName);
+			final SDG sdg2 = SDG.readFromBinary(fileName);
+
+			checkEqual(sdg, sdg2);
+		} catch (ClassHierarchyException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} catch (IOException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} catch (CancelException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		} catch (UnsoundGraphException e) {
+			e.printStackTrace();
+			fail(e.getMessage());
+		}
+	}
+
 	@Test
 	public void buildWriteRead_Library_call() {
 		final String src = "../MoJo-TestCode/src";
@@ -0,0 +1,269 @@
+/**
+ * This file is part of the Joana IFC project. It is developed at the
+ * Programming Paradigms Group of the Karlsruhe Institute of Technology.
+ *
+ * For further details on licensing please read the information at
+ * http://joana.ipd.kit.edu or contact the authors.
+ */
+package edu.kit.joana.wala.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.wala.classLoader.IMethod;
+import com.ibm.wala.ipa.callgraph.AnalysisCacheImpl;
+import com.ibm.wala.ipa.callgraph.AnalysisOptions;
+import com.ibm.wala.ipa.callgraph.Context;
+import com.ibm.wala.ipa.callgraph.IAnalysisCacheView;
+import com.ibm.wala.ipa.callgraph.impl.Everywhere;
+import com.ibm.wala.ssa.DefUse;
+import com.ibm.wala.ssa.DefaultIRFactory;
+import com.ibm.wala.ssa.IR;
+import com.ibm.wala.ssa.IRFactory;
+import com.ibm.wala.ssa.SSAOptions;
+
+/**
+ * IRs and def-use information of the bytecode methods of one class hierarchy, shared by several analyses of
+ * that class hierarchy - possibly running concurrently. Each analysis uses its own {@link #newView() view}.
+ * <p>
+ * Only IRs that do not depend on the analysis are shared: those of non-synthetic methods for which the context
+ * is irrelevant. Everything else, e.g. the IR of the fake root method of a call graph, stays in the view.
+ * <p>
+ * The cache keeps at most a fixed number of IRs and evicts the least recently used first. The IRs are only
+ * softly reachable from the cache, so the garbage collector may evict them earlier if memory runs low. A view
+ * keeps every IR it has handed out until it is cleared, so within one analysis the IR of a method - and the
+ * value numbers and instructions the analysis refers to - never changes. Eviction only affects other views.
+ * <p>
+ * Thread-safe.
+ */
+public final class SharedIRCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 50000;
+
+	private static final class Entry {
+		private final IR ir;
+		private volatile DefUse du;
+
+		private Entry(IR ir) {
+			this.ir = ir;
+		}
+
+		private DefUse getDefUse() {
+			DefUse result = du;
+			if (result == null) {
+				// two threads may both compute it, both results are equivalent
+				result = new DefUse(ir);
+				du = result;
+			}
+			return result;
+		}
+	}
+
+	/* remembers its key, so that it can be removed from the map once the entry has been collected */
+	private static final class EntryRef extends SoftReference<Entry> {
+		private final IMethod method;
+
+		private EntryRef(IMethod method, Entry entry, ReferenceQueue<Entry> queue) {
+			super(entry, queue);
+			this.method = method;
+		}
+	}
+
+	private final IRFactory<IMethod> irFactory;
+	private final SSAOptions options;
+	private final int maxEntries;
+	private final ReferenceQueue<Entry> collected = new ReferenceQueue<Entry>();
+	private final LinkedHashMap<IMethod, EntryRef> entries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public SharedIRCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Creates a cache that builds IRs like {@link AnalysisCacheImpl#AnalysisCacheImpl()}.
+	 * @param maxEntries the maximal number of IRs kept
+	 */
+	public SharedIRCache(int maxEntries) {
+		this(new DefaultIRFactory(), new AnalysisOptions().getSSAOptions(), maxEntries);
+	}
+
+	public SharedIRCache(IRFactory<IMethod> irFactory, SSAOptions options, final int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries has to be positive: " + maxEntries);
+		}
+		this.irFactory = irFactory;
+		this.options = options;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<IMethod, EntryRef>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<IMethod, EntryRef> eldest) {
+				return size() > SharedIRCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return a new view for a single analysis, to be used e.g. as {@code SDGBuilderConfig.cache}
+	 */
+	public IAnalysisCacheView newView() {
+		return new View();
+	}
+
+	private boolean isShared(IMethod method) {
+		return !method.isSynthetic() && !method.isAbstract() && !method.isNative()
+				&& irFactory.contextIsIrrelevant(method);
+	}
+
+	private synchronized Entry find(IMethod method) {
+		purge();
+		final EntryRef ref = entries.get(method);
+		if (ref == null) {
+			return null;
+		}
+		final Entry entry = ref.get();
+		if (entry == null) {
+			entries.remove(method);
+		}
+		return entry;
+	}
+
+	/* returns the entry of whichever thread was first, so all views see the same ir */
+	private synchronized Entry putIfAbsent(IMethod method, Entry entry) {
+		final Entry present = find(method);
+		if (present != null) {
+			return present;
+		}
+		entries.put(method, new EntryRef(method, entry, collected));
+		return entry;
+	}
+
+	private void purge() {
+		EntryRef ref;
+		while ((ref = (EntryRef) collected.poll()) != null) {
+			if (entries.get(ref.method) == ref) {
+				entries.remove(ref.method);
+			}
+		}
+	}
+
+	private Entry findOrCreate(IMethod method) {
+		final Entry entry = find(method);
+		if (entry != null) {
+			hits.incrementAndGet();
+			return entry;
+		}
+		misses.incrementAndGet();
+		// build the ir outside of the lock, other threads may go on in the meantime
+		final IR ir = irFactory.makeIR(method, Everywhere.EVERYWHERE, options);
+		return putIfAbsent(method, new Entry(ir));
+	}
+
+	private synchronized void invalidate(IMethod method) {
+		entries.remove(method);
+	}
+
+	/**
+	 * Forgets all IRs.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		purge();
+	}
+
+	public synchronized int size() {
+		purge();
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "SharedIRCache(" + size() + " irs, " + getHits() + " hits, " + getMisses() + " misses)";
+	}
+
+	private final class View implements IAnalysisCacheView {
+
+		private final AnalysisCacheImpl local = new AnalysisCacheImpl(irFactory, options);
+		/* the shared entries handed out by this view, strongly reachable as long as the view is */
+		private final Map<IMethod, Entry> pinned = new ConcurrentHashMap<IMethod, Entry>();
+
+		private Entry pin(IMethod method) {
+			Entry entry = pinned.get(method);
+			if (entry == null) {
+				entry = findOrCreate(method);
+				final Entry present = pinned.putIfAbsent(method, entry);
+				if (present != null) {
+					entry = present;
+				}
+			}
+			return entry;
+		}
+
+		@Override
+		public IRFactory<IMethod> getIRFactory() {
+			return irFactory;
+		}
+
+		@Override
+		public IR getIR(IMethod method) {
+			return getIR(method, Everywhere.EVERYWHERE);
+		}
+
+		@Override
+		public IR getIR(IMethod method, Context context) {
+			if (method == null) {
+				throw new IllegalArgumentException("method is null");
+			}
+			return isShared(method) ? pin(method).ir : local.getIR(method, context);
+		}
+
+		@Override
+		public DefUse getDefUse(IR ir) {
+			if (ir == null) {
+				throw new IllegalArgumentException("ir is null");
+			}
+			final IMethod method = ir.getMethod();
+			if (isShared(method)) {
+				final Entry entry = pinned.get(method);
+				if (entry != null && entry.ir == ir) {
+					return entry.getDefUse();
+				}
+			}
+			return local.getDefUse(ir);
+		}
+
+		@Override
+		public void invalidate(IMethod method, Context context) {
+			if (isShared(method)) {
+				pinned.remove(method);
+				SharedIRCache.this.invalidate(method);
+			}
+			local.invalidate(method, context);
+		}
+
+		/**
+		 * Forgets the IRs of this view only and releases the shared IRs it has handed out, they stay available to
+		 * other views.
+		 */
+		@Override
+		public void clear() {
+			local.clear();
+			pinned.clear();
+		}
+	}
+}